@@ -0,0 +1,80 @@
+package edts.week8_practice1.benchmark;
+
+import edts.week8_practice1.entity.Customer;
+import edts.week8_practice1.entity.Order;
+import edts.week8_practice1.entity.OrderItem;
+import edts.week8_practice1.entity.Product;
+import edts.week8_practice1.enums.CustomerMembership;
+import edts.week8_practice1.enums.OrderStatus;
+import edts.week8_practice1.enums.ProductCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared in-memory entities for JMH benchmarks.
+ * Entities are built detached (no persistence context), so they can be
+ * reused across invocations without touching a database.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Customer customer(long id, CustomerMembership membership) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName("Benchmark Customer " + id);
+        customer.setEmail("customer" + id + "@benchmark.local");
+        customer.setMembershipLevel(membership);
+        customer.setTotalSpent(BigDecimal.ZERO);
+        customer.setActive(true);
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setUpdatedAt(LocalDateTime.now());
+        return customer;
+    }
+
+    public static Product product(long id, BigDecimal price, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Benchmark Product " + id);
+        product.setCategory(ProductCategory.ELECTRONICS);
+        product.setPrice(price);
+        product.setStock(stock);
+        product.setActive(true);
+        product.setCreatedAt(LocalDateTime.now());
+        product.setUpdatedAt(LocalDateTime.now());
+        return product;
+    }
+
+    /**
+     * Builds a CREATED order with {@code itemCount} lines, each line with quantity 2.
+     */
+    public static Order order(long id, Customer customer, int itemCount) {
+        Order order = new Order(customer);
+        order.setId(id);
+        order.setStatus(OrderStatus.CREATED);
+        order.setCreatedAt(LocalDateTime.now());
+
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itemCount; i++) {
+            Product product = product(i + 1, new BigDecimal("150000"), 1_000);
+            OrderItem item = new OrderItem();
+            item.setId(id * 100 + i);
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setQuantity(2);
+            item.setPriceAtPurchase(product.getPrice());
+            items.add(item);
+            total = total.add(product.getPrice().multiply(BigDecimal.valueOf(2)));
+        }
+        order.setOrderItems(items);
+        order.setTotalAmount(total);
+        order.setDiscountAmount(total.multiply(new BigDecimal("0.10")));
+        order.setFinalAmount(total.subtract(order.getDiscountAmount()));
+        return order;
+    }
+}
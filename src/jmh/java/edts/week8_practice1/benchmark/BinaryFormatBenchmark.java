@@ -0,0 +1,76 @@
+package edts.week8_practice1.benchmark;
+
+import edts.week8_practice1.dto.order.OrderResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a page of {@link OrderResponse} in the formats the API negotiates:
+ * the server pays for {@code write}, an internal consumer for {@code read}. The payload
+ * size of each format is printed at the end of the trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    private static final TypeReference<List<OrderResponse>> ORDER_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private List<OrderResponse> orders;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+
+        orders = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            orders.add(JsonSerializationBenchmark.orderResponse(id, 3));
+        }
+        payload = mapper.writeValueAsBytes(orders);
+        List<OrderResponse> decoded = mapper.readValue(payload, ORDER_LIST);
+        if (!decoded.get(pageSize - 1).getFinalAmount().equals(orders.get(pageSize - 1).getFinalAmount())) {
+            throw new IllegalStateException(format + " does not round-trip OrderResponse");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println();
+        System.out.println(format + " payload for " + pageSize + " orders: " + payload.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return mapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public List<OrderResponse> read() {
+        return mapper.readValue(payload, ORDER_LIST);
+    }
+}
@@ -0,0 +1,89 @@
+package edts.week8_practice1.benchmark;
+
+import edts.week8_practice1.dto.common.PageResponse;
+import edts.week8_practice1.dto.customer.CustomerResponse;
+import edts.week8_practice1.dto.order.OrderItemResponse;
+import edts.week8_practice1.dto.order.OrderResponse;
+import edts.week8_practice1.dto.product.ProductResponse;
+import edts.week8_practice1.enums.CustomerMembership;
+import edts.week8_practice1.enums.OrderStatus;
+import edts.week8_practice1.enums.ProductCategory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization cost of the response DTOs returned by the order endpoints.
+ * {@code pageImpl} is what the controllers return today, {@code pageResponse}
+ * is the generic {@link PageResponse} wrapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private JsonMapper jsonMapper;
+    private OrderResponse singleOrder;
+    private Page<OrderResponse> pageImpl;
+    private PageResponse<OrderResponse> pageResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+
+        List<OrderResponse> orders = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            orders.add(orderResponse(id, 3));
+        }
+        singleOrder = orders.get(0);
+        pageImpl = new PageImpl<>(orders, PageRequest.of(0, pageSize), pageSize * 10L);
+        pageResponse = new PageResponse<>(orders, pageImpl);
+    }
+
+    @Benchmark
+    public byte[] orderResponse() {
+        return jsonMapper.writeValueAsBytes(singleOrder);
+    }
+
+    @Benchmark
+    public byte[] pageImpl() {
+        return jsonMapper.writeValueAsBytes(pageImpl);
+    }
+
+    @Benchmark
+    public byte[] pageResponse() {
+        return jsonMapper.writeValueAsBytes(pageResponse);
+    }
+
+    static OrderResponse orderResponse(long id, int itemCount) {
+        LocalDateTime now = LocalDateTime.now();
+        CustomerResponse customer = new CustomerResponse(id, "Customer " + id, "customer" + id + "@example.com",
+                CustomerMembership.GOLD, new BigDecimal("12500000.00"), true);
+
+        List<OrderItemResponse> items = new ArrayList<>(itemCount);
+        for (long i = 1; i <= itemCount; i++) {
+            ProductResponse product = new ProductResponse(i, "Product " + i, ProductCategory.ELECTRONICS,
+                    new BigDecimal("1599000.00"), 42, true, now, now);
+            items.add(new OrderItemResponse(id * 100 + i, product, 2,
+                    new BigDecimal("1599000.00"), new BigDecimal("3198000.00")));
+        }
+
+        return new OrderResponse(id, customer, items,
+                new BigDecimal("9594000.00"), new BigDecimal("1438000.00"), new BigDecimal("8156000.00"),
+                new BigDecimal("15.00"), OrderStatus.CREATED, now);
+    }
+}
@@ -0,0 +1,63 @@
+package edts.week8_practice1.service;
+
+import edts.week8_practice1.Week8Practice1Application;
+import edts.week8_practice1.dto.customer.CustomerRequest;
+import edts.week8_practice1.dto.customer.CustomerResponse;
+import edts.week8_practice1.dto.product.ProductRequest;
+import edts.week8_practice1.dto.product.ProductResponse;
+import edts.week8_practice1.enums.ProductCategory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Create throughput of products and customers against the H2 database of the {@code test}
+ * profile, where name and email uniqueness is left to the unique keys (migration V8). Every
+ * call uses a new name or email, so no call fails.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogCreateH2Benchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Week8Practice1Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--logging.level.root=WARN",
+                        "--logging.level.edts.week8_practice1=WARN");
+        productService = context.getBean(ProductService.class);
+        customerService = context.getBean(CustomerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponse createProduct() {
+        return productService.createProduct(new ProductRequest("Benchmark Product " + sequence.incrementAndGet(),
+                ProductCategory.ELECTRONICS, new BigDecimal("250000"), 100));
+    }
+
+    @Benchmark
+    public CustomerResponse createCustomer() {
+        return customerService.createCustomer(new CustomerRequest("Benchmark Customer",
+                "benchmark" + sequence.incrementAndGet() + "@example.com"));
+    }
+}
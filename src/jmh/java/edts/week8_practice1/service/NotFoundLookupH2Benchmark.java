@@ -0,0 +1,72 @@
+package edts.week8_practice1.service;
+
+import edts.week8_practice1.Week8Practice1Application;
+import edts.week8_practice1.exception.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads of a product and a customer id that do not exist, as the controllers run them
+ * (version, then entity), against the H2 database of the {@code test} profile. With
+ * {@code notFoundCache=true} only the first read reaches the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotFoundLookupH2Benchmark {
+
+    private static final Long MISSING_ID = 999_999L;
+
+    @Param({"false", "true"})
+    public boolean notFoundCache;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Week8Practice1Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--not-found-cache.enabled=" + notFoundCache,
+                        // A longer run than the default TTL measures hits, not the periodic miss
+                        "--not-found-cache.ttl-ms=600000",
+                        "--logging.level.root=WARN",
+                        "--logging.level.edts.week8_practice1=WARN");
+        productService = context.getBean(ProductService.class);
+        customerService = context.getBean(CustomerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object missingProduct() {
+        try {
+            productService.findVersionById(MISSING_ID);
+            return productService.findById(MISSING_ID);
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object missingCustomer() {
+        try {
+            customerService.findVersionById(MISSING_ID);
+            return customerService.findById(MISSING_ID);
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+}
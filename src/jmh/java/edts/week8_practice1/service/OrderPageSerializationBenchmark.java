@@ -0,0 +1,186 @@
+package edts.week8_practice1.service;
+
+import edts.week8_practice1.benchmark.BenchmarkFixtures;
+import edts.week8_practice1.config.StreamingPageHttpMessageConverter;
+import edts.week8_practice1.dto.common.StreamingPage;
+import edts.week8_practice1.entity.Customer;
+import edts.week8_practice1.entity.Order;
+import edts.week8_practice1.entity.OrderItem;
+import edts.week8_practice1.entity.Product;
+import edts.week8_practice1.enums.CustomerMembership;
+import edts.week8_practice1.logging.HotPathLoggingProperties;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.metrics.OrderMetrics;
+import edts.week8_practice1.repository.ArchivedOrderRepository;
+import edts.week8_practice1.repository.CustomerRepository;
+import edts.week8_practice1.repository.OrderRepository;
+import edts.week8_practice1.repository.OrderStatusEventRepository;
+import edts.week8_practice1.repository.ProductRepository;
+import edts.week8_practice1.stats.ProductCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Writing one page of orders to the response: mapping the whole page to
+ * {@code Page<OrderResponse>} and serializing it, versus {@link StreamingPage}, which maps
+ * and writes one order at a time. Run with {@code -prof gc} to compare allocation per
+ * request ({@code gc.alloc.rate.norm}).
+ *
+ * Orders share customers and products like a real page does; the DTO tree copies them
+ * once per reference, the entities do not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@State(Scope.Benchmark)
+public class OrderPageSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private JsonMapper jsonMapper;
+    private StreamingPageHttpMessageConverter converter;
+    private OrderService orderService;
+    private Page<Order> orders;
+    private DiscardingOutputMessage outputMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        converter = new StreamingPageHttpMessageConverter(jsonMapper);
+        orderService = new OrderService(
+                mock(OrderRepository.class, withSettings().stubOnly()),
+                mock(ArchivedOrderRepository.class, withSettings().stubOnly()),
+                mock(OrderStatusEventRepository.class, withSettings().stubOnly()),
+                mock(CustomerRepository.class, withSettings().stubOnly()),
+                mock(ProductRepository.class, withSettings().stubOnly()),
+                null, new OrderMetrics(new SimpleMeterRegistry()), new ProductCounters(), null,
+                new SampledLoggerFactory(new HotPathLoggingProperties().getMaxPerSecond()));
+
+        List<Customer> customers = new ArrayList<>();
+        for (long id = 1; id <= pageSize / 5 + 1; id++) {
+            customers.add(BenchmarkFixtures.customer(id, CustomerMembership.GOLD));
+        }
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= pageSize / 2 + 3; id++) {
+            products.add(BenchmarkFixtures.product(id, new BigDecimal("150000"), 1_000));
+        }
+
+        List<Order> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Order order = BenchmarkFixtures.order(i + 1, customers.get(i % customers.size()), 3);
+            for (int line = 0; line < order.getOrderItems().size(); line++) {
+                OrderItem item = order.getOrderItems().get(line);
+                item.setProduct(products.get((i + line) % products.size()));
+            }
+            content.add(order);
+        }
+        orders = new PageImpl<>(content, PageRequest.of(0, pageSize), pageSize * 10L);
+        outputMessage = new DiscardingOutputMessage();
+    }
+
+    /**
+     * Allocation per operation is about the same for both: the same DTOs are created. The
+     * difference is how much is live at once, so the DTO tree retained by the materialized
+     * page is reported next to the response size.
+     */
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println();
+        System.out.println("Response bytes per page: " + outputMessage.body.bytesPerWrite());
+        System.out.println("Retained by materialized Page<OrderResponse>: "
+                + retainedBytes(() -> orders.map(orderService::mapToResponse)) + " bytes");
+    }
+
+    private static long retainedBytes(Supplier<Object> allocation) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Object retained = allocation.get();
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    @Benchmark
+    public long materialized() throws IOException {
+        outputMessage.body.reset();
+        jsonMapper.writeValue(outputMessage.getBody(), orders.map(orderService::mapToResponse));
+        return outputMessage.body.count;
+    }
+
+    @Benchmark
+    public long streaming() throws IOException {
+        outputMessage.body.reset();
+        converter.write(StreamingPage.of(orders, orderService::mapToResponse), MediaType.APPLICATION_JSON,
+                outputMessage);
+        return outputMessage.body.count;
+    }
+
+    /** Stands in for the servlet response: counts the bytes and drops them. */
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final CountingOutputStream body = new CountingOutputStream();
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            headers.clear();
+            return headers;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+        private long lastCount;
+
+        void reset() {
+            if (count > 0) {
+                lastCount = count;
+            }
+            count = 0;
+        }
+
+        long bytesPerWrite() {
+            return count > 0 ? count : lastCount;
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package edts.week8_practice1.service;
+
+import edts.week8_practice1.benchmark.BenchmarkFixtures;
+import edts.week8_practice1.dto.customer.CustomerResponse;
+import edts.week8_practice1.dto.order.OrderItemRequest;
+import edts.week8_practice1.dto.order.OrderRequest;
+import edts.week8_practice1.dto.order.OrderResponse;
+import edts.week8_practice1.dto.product.ProductResponse;
+import edts.week8_practice1.entity.Customer;
+import edts.week8_practice1.entity.Order;
+import edts.week8_practice1.entity.Product;
+import edts.week8_practice1.enums.CustomerMembership;
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.inventory.LowStockProperties;
+import edts.week8_practice1.logging.HotPathLoggingProperties;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.metrics.OrderMetrics;
+import edts.week8_practice1.notfound.NotFoundCache;
+import edts.week8_practice1.notfound.NotFoundCacheProperties;
+import edts.week8_practice1.repository.ArchivedOrderRepository;
+import edts.week8_practice1.repository.CustomerRepository;
+import edts.week8_practice1.repository.OrderRepository;
+import edts.week8_practice1.repository.OrderStatusEventRepository;
+import edts.week8_practice1.repository.ProductRepository;
+import edts.week8_practice1.stats.ProductCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Service-layer hot paths with repositories mocked out, so the numbers
+ * reflect pure business logic and DTO mapping cost.
+ *
+ * Mocks are created with {@code stubOnly()} so Mockito does not record
+ * invocations (which would grow the heap for the whole measurement).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int itemCount;
+
+    @Param({"REGULAR", "PLATINUM"})
+    public CustomerMembership membership;
+
+    private OrderService orderService;
+    private ProductService productService;
+    private CustomerService customerService;
+    private List<Product> products;
+    private Customer customer;
+    private Order order;
+    private OrderRequest orderRequest;
+    private BigDecimal largeTotal;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        OrderRepository orderRepository = mock(OrderRepository.class, withSettings().stubOnly());
+        CustomerRepository customerRepository = mock(CustomerRepository.class, withSettings().stubOnly());
+        ProductRepository productRepository = mock(ProductRepository.class, withSettings().stubOnly());
+
+        NotFoundCache notFoundCache = new NotFoundCache(new NotFoundCacheProperties(), new SimpleMeterRegistry());
+        SampledLoggerFactory sampledLoggerFactory =
+                new SampledLoggerFactory(new HotPathLoggingProperties().getMaxPerSecond());
+        customerService = new CustomerService(customerRepository, notFoundCache, sampledLoggerFactory);
+        LowStockMonitor lowStockMonitor = new LowStockMonitor(new LowStockProperties(), event -> {
+        }, new SimpleMeterRegistry());
+        productService = new ProductService(productRepository, orderRepository, lowStockMonitor, notFoundCache,
+                sampledLoggerFactory);
+        orderService = new OrderService(orderRepository, mock(ArchivedOrderRepository.class, withSettings().stubOnly()),
+                mock(OrderStatusEventRepository.class, withSettings().stubOnly()), customerRepository,
+                productRepository, customerService, new OrderMetrics(new SimpleMeterRegistry()),
+                new ProductCounters(), lowStockMonitor, sampledLoggerFactory);
+
+        customer = BenchmarkFixtures.customer(1L, membership);
+        when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
+
+        products = new ArrayList<>(itemCount);
+        List<OrderItemRequest> items = new ArrayList<>(itemCount);
+        for (long id = 1; id <= itemCount; id++) {
+            Product product = BenchmarkFixtures.product(id, new BigDecimal("250000"), Integer.MAX_VALUE);
+            products.add(product);
+            items.add(new OrderItemRequest(id, 2));
+        }
+        when(productRepository.lockActiveByIdIn(anyCollection())).thenReturn(products);
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderRequest = new OrderRequest(1L, items);
+        order = BenchmarkFixtures.order(1L, customer, itemCount);
+        largeTotal = new BigDecimal("7500000");
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        // createOrder decrements stock on every call
+        products.forEach(product -> product.setStock(Integer.MAX_VALUE));
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(orderRequest);
+    }
+
+    @Benchmark
+    public BigDecimal calculateDiscount() {
+        return orderService.calculateDiscount(customer, largeTotal);
+    }
+
+    @Benchmark
+    public OrderResponse mapOrderToResponse() {
+        return orderService.mapToResponse(order);
+    }
+
+    @Benchmark
+    public ProductResponse mapProductToResponse() {
+        return productService.mapToResponse(products.get(0));
+    }
+
+    @Benchmark
+    public CustomerResponse mapCustomerToResponse() {
+        return customerService.mapToResponse(customer);
+    }
+}
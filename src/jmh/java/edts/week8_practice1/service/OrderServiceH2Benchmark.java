@@ -0,0 +1,113 @@
+package edts.week8_practice1.service;
+
+import edts.week8_practice1.Week8Practice1Application;
+import edts.week8_practice1.dto.order.OrderItemRequest;
+import edts.week8_practice1.dto.order.OrderRequest;
+import edts.week8_practice1.dto.order.OrderResponse;
+import edts.week8_practice1.entity.Customer;
+import edts.week8_practice1.entity.Product;
+import edts.week8_practice1.enums.CustomerMembership;
+import edts.week8_practice1.enums.ProductCategory;
+import edts.week8_practice1.repository.CustomerRepository;
+import edts.week8_practice1.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service benchmark against the in-memory H2 database of the
+ * {@code test} profile: real transactions, Hibernate flushes and SQL.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceH2Benchmark {
+
+    @Param({"1", "5"})
+    public int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRequest orderRequest;
+    private Long lastOrderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Week8Practice1Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--logging.level.root=WARN",
+                        "--logging.level.edts.week8_practice1=WARN");
+
+        orderService = context.getBean(OrderService.class);
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+
+        Customer customer = new Customer();
+        customer.setName("Benchmark Customer");
+        customer.setEmail("benchmark@example.com");
+        customer.setMembershipLevel(CustomerMembership.GOLD);
+        customer.setTotalSpent(BigDecimal.ZERO);
+        customer.setActive(true);
+        customer = customerRepository.save(customer);
+
+        List<OrderItemRequest> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Product product = new Product();
+            product.setName("Benchmark Product " + i);
+            product.setCategory(ProductCategory.ELECTRONICS);
+            product.setPrice(new BigDecimal("250000"));
+            product.setStock(Integer.MAX_VALUE);
+            product.setActive(true);
+            product = productRepository.save(product);
+            items.add(new OrderItemRequest(product.getId(), 1));
+        }
+        orderRequest = new OrderRequest(customer.getId(), items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        OrderResponse response = orderService.createOrder(orderRequest);
+        lastOrderId = response.getId();
+        return response;
+    }
+
+    @Benchmark
+    public OrderResponse createAndCancelOrder() {
+        // Keeps stock flat over long runs and exercises the restore path
+        OrderResponse response = orderService.createOrder(orderRequest);
+        return orderService.cancelOrder(response.getId());
+    }
+
+    @Benchmark
+    public OrderResponse createAndPayOrder() {
+        OrderResponse response = orderService.createOrder(orderRequest);
+        return orderService.payOrder(response.getId());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public OrderResponse findById() {
+        Long id = lastOrderId;
+        if (id == null) {
+            id = orderService.createOrder(orderRequest).getId();
+            lastOrderId = id;
+        }
+        return orderService.findById(id);
+    }
+}
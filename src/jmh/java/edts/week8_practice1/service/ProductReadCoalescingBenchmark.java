@@ -0,0 +1,82 @@
+package edts.week8_practice1.service;
+
+import edts.week8_practice1.Week8Practice1Application;
+import edts.week8_practice1.dto.product.ProductResponse;
+import edts.week8_practice1.entity.Product;
+import edts.week8_practice1.enums.ProductCategory;
+import edts.week8_practice1.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * High fan-in read of one hot product: 64 threads call {@link ProductService#findById(Long)}
+ * with the same id against the H2 database of the {@code test} profile (pool of 5), with and
+ * without request coalescing. Prints how many queries the coalesced reads ran.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class ProductReadCoalescingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean coalescing;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Week8Practice1Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--request-coalescing.enabled=" + coalescing,
+                        "--logging.level.root=WARN",
+                        "--logging.level.edts.week8_practice1=WARN");
+
+        productService = context.getBean(ProductService.class);
+        Product product = new Product();
+        product.setName("Launch Product");
+        product.setCategory(ProductCategory.ELECTRONICS);
+        product.setPrice(new BigDecimal("250000"));
+        product.setStock(1000);
+        product.setActive(true);
+        productId = context.getBean(ProductRepository.class).save(product).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (coalescing) {
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            double leaders = count(registry, "leader");
+            double followers = count(registry, "follower");
+            System.out.printf("%ncoalescing: %.0f reads ran %.0f queries (%.1f reads per query)%n",
+                    leaders + followers, leaders, (leaders + followers) / Math.max(leaders, 1));
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponse findHotProduct() {
+        return productService.findById(productId);
+    }
+
+    private static double count(MeterRegistry registry, String role) {
+        Counter counter = registry.find("coalescing.calls")
+                .tag("operation", "ProductService.findById")
+                .tag("role", role)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
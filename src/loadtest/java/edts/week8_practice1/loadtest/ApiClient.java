@@ -0,0 +1,119 @@
+package edts.week8_practice1.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Thin blocking HTTP client that records every call into the current {@link LatencyStats}.
+ * Endpoint names are route templates (e.g. {@code GET /api/products/{id}}) so that
+ * results aggregate per endpoint rather than per URL.
+ */
+public class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private volatile LatencyStats stats = new LatencyStats();
+
+    public ApiClient(String baseUrl) {
+        this(baseUrl, REQUEST_TIMEOUT);
+    }
+
+    /**
+     * @param requestTimeout time after which a call is given up and recorded with status 0
+     */
+    public ApiClient(String baseUrl, Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /** Starts a new measurement window; calls in flight finish in the previous one. */
+    public LatencyStats resetStats() {
+        LatencyStats previous = stats;
+        stats = new LatencyStats();
+        return previous;
+    }
+
+    public LatencyStats getStats() {
+        return stats;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public Response get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+    }
+
+    public Response post(String endpoint, String path, Object body) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body));
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(publisher));
+    }
+
+    private Response send(String endpoint, HttpRequest.Builder builder) {
+        HttpRequest request = builder
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .build();
+        long start = System.nanoTime();
+        int status;
+        String body = null;
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 0;
+        }
+        stats.record(endpoint, System.nanoTime() - start, status);
+        return new Response(status, body);
+    }
+
+    public final class Response {
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public JsonNode json() {
+            return jsonMapper.readTree(body);
+        }
+    }
+}
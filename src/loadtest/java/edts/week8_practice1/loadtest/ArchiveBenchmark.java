@@ -0,0 +1,309 @@
+package edts.week8_practice1.loadtest;
+
+import edts.week8_practice1.maintenance.OrderArchiveProperties;
+import edts.week8_practice1.maintenance.OrderArchiver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-table size and order read latency before and after archiving (OrderArchiver, migration V4).
+ *
+ * Runs against a database filled by the datagen profile. "Now" is the newest order, so
+ * {@code archive.retentionDays} is relative to the generated history. Measures the reads of
+ * OrderService with the archive fallback: recent and old orders by id, and the first page of
+ * a customer's orders (archive count, hot page and count, archive page if needed). Then archives,
+ * optionally rebuilds the hot tables ({@code OPTIMIZE TABLE}, deletes alone do not shrink them)
+ * and measures again. The database is modified; use a copy.
+ *
+ * Run: {@code mvn -Ploadtest test-compile exec:exec@archive -Darchive.url=jdbc:mysql://host/shop_copy}
+ */
+public class ArchiveBenchmark {
+
+    private static final String ORDER_COLUMNS = "o.id, o.customer_id, o.total_amount, o.discount_amount, " +
+            "o.final_amount, o.status, o.created_at, o.updated_at, o.created_by, o.updated_by";
+    private static final String ARCHIVE_COLUMNS = "a.order_id, a.customer_id, a.total_amount, a.discount_amount, " +
+            "a.final_amount, a.status, a.items, a.created_at, a.updated_at, a.created_by, a.updated_by, a.archived_at";
+    private static final String ORDER_BY_ID = "SELECT " + ORDER_COLUMNS + " FROM orders o WHERE o.id = ?";
+    private static final String ITEMS_BY_ORDER = "SELECT oi.id, oi.order_id, oi.product_id, oi.quantity, " +
+            "oi.price_at_purchase, oi.created_at, oi.updated_at FROM order_items oi WHERE oi.order_id = ?";
+    private static final String ARCHIVED_BY_ID = "SELECT " + ARCHIVE_COLUMNS + " FROM archived_orders a WHERE a.order_id = ?";
+    private static final String ARCHIVE_COUNT = "SELECT COUNT(1) FROM archived_orders a WHERE a.customer_id = ?";
+    private static final String CUSTOMER_PAGE = "SELECT " + ORDER_COLUMNS + " FROM orders o WHERE o.customer_id = ? " +
+            "ORDER BY o.created_at DESC LIMIT 10";
+    private static final String CUSTOMER_COUNT = "SELECT COUNT(1) FROM orders o WHERE o.customer_id = ?";
+    private static final String ARCHIVE_PAGE = "SELECT " + ARCHIVE_COLUMNS + " FROM archived_orders a " +
+            "WHERE a.customer_id = ? ORDER BY a.created_at DESC, a.order_id DESC LIMIT 10";
+    private static final List<String> TABLES = List.of("orders", "order_items", "archived_orders");
+    private static final int SAMPLES = 1000;
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("archive.url");
+        String username = System.getProperty("archive.username", "root");
+        String password = System.getProperty("archive.password", "");
+        int retentionDays = Integer.getInteger("archive.retentionDays", 90);
+        int batchSize = Integer.getInteger("archive.batchSize", 500);
+        int warmup = Integer.getInteger("archive.warmup", 50);
+        int iterations = Integer.getInteger("archive.iterations", 500);
+        boolean optimize = Boolean.parseBoolean(System.getProperty("archive.optimize", "true"));
+        long seed = Long.getLong("loadtest.seed", 42L);
+        Path outputDir = Path.of(System.getProperty("loadtest.outputDir", "target/loadtest"));
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, username, password, true);
+        dataSource.setAutoCommit(true);
+        try (Connection connection = dataSource.getConnection()) {
+            LocalDateTime now = newestOrder(connection);
+            LocalDateTime cutoff = now.minusDays(retentionDays);
+            Samples samples = samples(connection, cutoff, seed);
+            System.out.printf("Archive benchmark: orders up to %s, archiving PAID/CANCELLED before %s%n", now, cutoff);
+
+            Map<String, Object> before = measure(connection, samples, warmup, iterations);
+
+            OrderArchiveProperties properties = new OrderArchiveProperties();
+            properties.setRetentionDays(retentionDays);
+            properties.setBatchSize(batchSize);
+            OrderArchiver archiver = new OrderArchiver(new JdbcTemplate(dataSource),
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties,
+                    new SimpleMeterRegistry(), Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(),
+                    ZoneId.systemDefault()));
+            long start = System.nanoTime();
+            int archived = archiver.archive();
+            long archiveMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.printf("Archived %d orders in %d ms (%.0f orders/s)%n", archived, archiveMillis,
+                    archived * 1000.0 / Math.max(1, archiveMillis));
+
+            long optimizeMillis = 0;
+            if (optimize) {
+                start = System.nanoTime();
+                execute(connection, "OPTIMIZE TABLE orders, order_items");
+                optimizeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                System.out.printf("Rebuilt orders and order_items in %d ms%n", optimizeMillis);
+            }
+
+            Map<String, Object> after = measure(connection, samples, warmup, iterations);
+            print(before, after);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("timestamp", LocalDateTime.now().toString());
+            report.put("cutoff", cutoff.toString());
+            report.put("archivedOrders", archived);
+            report.put("archiveMillis", archiveMillis);
+            report.put("optimizeMillis", optimizeMillis);
+            report.put("before", before);
+            report.put("after", after);
+            Files.createDirectories(outputDir);
+            Path file = outputDir.resolve("archive-" +
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+            JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file.toFile(), report);
+            System.out.println();
+            System.out.println("Report written to " + file.toAbsolutePath());
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static Map<String, Object> measure(Connection connection, Samples samples, int warmup, int iterations)
+            throws SQLException {
+        execute(connection, "ANALYZE TABLE orders, order_items, archived_orders");
+        Map<String, Object> sizes = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            sizes.put(table, tableSize(connection, table));
+        }
+
+        LatencyStats stats = new LatencyStats();
+        SplittableRandom random = new SplittableRandom(17);
+        for (int i = 0; i < warmup + iterations; i++) {
+            boolean record = i >= warmup;
+            time(stats, record, "recent order by id",
+                    () -> findOrder(connection, samples.recentOrders().get(random.nextInt(SAMPLES))));
+            time(stats, record, "old order by id",
+                    () -> findOrder(connection, samples.oldOrders().get(random.nextInt(SAMPLES))));
+            time(stats, record, "customer orders page",
+                    () -> customerPage(connection, samples.customers().get(random.nextInt(SAMPLES))));
+        }
+
+        Map<String, Object> latencies = new LinkedHashMap<>(stats.snapshot(1));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tables", sizes);
+        result.put("latencies", latencies);
+        return result;
+    }
+
+    /** Order with its items from the hot tables, otherwise from the archive, as OrderService.findById. */
+    private static void findOrder(Connection connection, long id) throws SQLException {
+        if (query(connection, ORDER_BY_ID, id) > 0) {
+            query(connection, ITEMS_BY_ORDER, id);
+        } else {
+            query(connection, ARCHIVED_BY_ID, id);
+        }
+    }
+
+    /** First page of size 10 as OrderService.findByCustomerId. */
+    private static void customerPage(Connection connection, long customerId) throws SQLException {
+        long archived = count(connection, ARCHIVE_COUNT, customerId);
+        query(connection, CUSTOMER_PAGE, customerId);
+        query(connection, CUSTOMER_COUNT, customerId);
+        if (archived > 0) {
+            query(connection, ARCHIVE_PAGE, customerId);
+        }
+    }
+
+    private static void print(Map<String, Object> before, Map<String, Object> after) {
+        System.out.printf("%n%-18s %14s %14s %14s %14s%n", "table", "rows before", "MB before", "rows after", "MB after");
+        for (String table : TABLES) {
+            TableSize sizeBefore = tableSize(before, table);
+            TableSize sizeAfter = tableSize(after, table);
+            System.out.printf("%-18s %14d %14.1f %14d %14.1f%n", table, sizeBefore.rows(), sizeBefore.megabytes(),
+                    sizeAfter.rows(), sizeAfter.megabytes());
+        }
+        System.out.printf("%n%-22s %12s %12s %12s %12s%n", "read", "p50 before", "p95 before", "p50 after", "p95 after");
+        for (String name : latencies(before).keySet()) {
+            LatencyStats.EndpointSnapshot latencyBefore = latencies(before).get(name);
+            LatencyStats.EndpointSnapshot latencyAfter = latencies(after).get(name);
+            System.out.printf("%-22s %10.2fms %10.2fms %10.2fms %10.2fms%n", name, latencyBefore.getP50(),
+                    latencyBefore.getP95(), latencyAfter.getP50(), latencyAfter.getP95());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TableSize tableSize(Map<String, Object> measurement, String table) {
+        return ((Map<String, TableSize>) measurement.get("tables")).get(table);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, LatencyStats.EndpointSnapshot> latencies(Map<String, Object> measurement) {
+        return (Map<String, LatencyStats.EndpointSnapshot>) measurement.get("latencies");
+    }
+
+    private static void time(LatencyStats stats, boolean record, String name, SqlAction action) throws SQLException {
+        long start = System.nanoTime();
+        action.run();
+        if (record) {
+            stats.record(name, System.nanoTime() - start, 200);
+        }
+    }
+
+    /**
+     * Order ids created after and before the cutoff, and customers weighted by their number of
+     * orders; the same samples are used before and after archiving.
+     */
+    private static Samples samples(Connection connection, LocalDateTime cutoff, long seed) throws SQLException {
+        long maxId = count(connection, "SELECT MAX(o.id) FROM orders o");
+        long firstRecent = count(connection, "SELECT MIN(o.id) FROM orders o WHERE o.created_at >= ?", cutoff);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Long> recentOrders = new ArrayList<>(SAMPLES);
+        List<Long> oldOrders = new ArrayList<>(SAMPLES);
+        List<Long> customers = new ArrayList<>(SAMPLES);
+        try (PreparedStatement old = connection.prepareStatement(
+                "SELECT o.id FROM orders o WHERE o.id >= ? AND o.status IN ('PAID', 'CANCELLED') " +
+                "ORDER BY o.id LIMIT 1");
+             PreparedStatement customer = connection.prepareStatement(
+                "SELECT o.customer_id FROM orders o WHERE o.id >= ? ORDER BY o.id LIMIT 1")) {
+            while (oldOrders.size() < SAMPLES) {
+                old.setLong(1, 1 + random.nextLong(firstRecent - 1));
+                try (ResultSet resultSet = old.executeQuery()) {
+                    if (resultSet.next() && resultSet.getLong(1) < firstRecent) {
+                        oldOrders.add(resultSet.getLong(1));
+                    }
+                }
+            }
+            while (customers.size() < SAMPLES) {
+                recentOrders.add(firstRecent + random.nextLong(maxId - firstRecent + 1));
+                customer.setLong(1, 1 + random.nextLong(maxId));
+                try (ResultSet resultSet = customer.executeQuery()) {
+                    if (resultSet.next()) {
+                        customers.add(resultSet.getLong(1));
+                    }
+                }
+            }
+        }
+        return new Samples(recentOrders, oldOrders, customers);
+    }
+
+    private static TableSize tableSize(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT TABLE_ROWS, DATA_LENGTH + INDEX_LENGTH FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next()
+                        ? new TableSize(resultSet.getLong(1), resultSet.getLong(2) / (1024.0 * 1024.0))
+                        : new TableSize(0, 0);
+            }
+        }
+    }
+
+    private static LocalDateTime newestOrder(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT MAX(o.created_at) FROM orders o");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getObject(1, LocalDateTime.class);
+        }
+    }
+
+    private static int query(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            int rows = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getObject(1);
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static long count(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.execute();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    private record Samples(List<Long> recentOrders, List<Long> oldOrders, List<Long> customers) {
+    }
+
+    record TableSize(long rows, double megabytes) {
+    }
+}
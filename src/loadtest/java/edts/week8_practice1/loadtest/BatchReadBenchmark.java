@@ -0,0 +1,137 @@
+package edts.week8_practice1.loadtest;
+
+import edts.week8_practice1.datagen.DataGenerator;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Latency of reading N entities with N single calls ({@code GET /api/products/{id}}, one after
+ * the other, like a page render that resolves its ids one by one) and with one multi-get
+ * ({@code GET /api/products/batch?ids=...}), for products, customers and orders.
+ *
+ * The application is booted in-process with the {@code test} profile and seeded like
+ * {@link LoadTestRunner}. For every batch size in {@code batch.sizes}, {@code batch.rounds} rounds
+ * each pick N random ids and fetch them both ways; the latency of a round is the time until all N
+ * entities are in. Rounds of the first size are run twice and the first pass is discarded, to warm up
+ * the JIT.
+ *
+ * Run: {@code mvn -Ploadtest test-compile exec:exec@batch -Dbatch.sizes=10,50,100}
+ */
+public class BatchReadBenchmark {
+
+    private static final List<String> RESOURCES = List.of("products", "customers", "orders");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        List<Integer> sizes = Arrays.stream(System.getProperty("batch.sizes", "10,50,100").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList();
+        int rounds = Integer.getInteger("batch.rounds", 200);
+        System.out.printf("Batch read benchmark: %s, sizes=%s, rounds=%d%n", options, sizes, rounds);
+
+        ConfigurableApplicationContext context = LoadTestRunner.startEmbeddedApplication(args);
+        List<Map<String, Object>> results = new ArrayList<>();
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+            SeedData seedData = new DataSeeder(options).seedWithGenerator(context.getBean(DataGenerator.class),
+                    jdbcTemplate);
+            Map<String, long[]> ids = Map.of(
+                    "products", seedData.getProductIds(),
+                    "customers", seedData.getCustomerIds(),
+                    "orders", jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY id", Long.class)
+                            .stream().mapToLong(Long::longValue).toArray());
+            ApiClient client = new ApiClient(baseUrl);
+            SplittableRandom random = new SplittableRandom(options.getSeed());
+
+            // Warm-up pass, discarded
+            for (String resource : RESOURCES) {
+                measure(client, resource, ids.get(resource), sizes.get(0), rounds, random);
+            }
+            for (int size : sizes) {
+                for (String resource : RESOURCES) {
+                    System.out.printf("%s: %d rounds of %d ids%n", resource, rounds, size);
+                    results.add(measure(client, resource, ids.get(resource), size, rounds, random));
+                }
+            }
+        } finally {
+            context.close();
+        }
+
+        print(results);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("options", options.toString());
+        report.put("rounds", rounds);
+        report.put("results", results);
+        Files.createDirectories(options.getOutputDir());
+        Path file = options.getOutputDir().resolve("batch-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file.toFile(), report);
+        System.out.println();
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private static Map<String, Object> measure(ApiClient client, String resource, long[] ids, int size,
+                                               int rounds, SplittableRandom random) {
+        LatencyStats stats = new LatencyStats();
+        String single = size + " x GET /api/" + resource + "/{id}";
+        String batch = "GET /api/" + resource + "/batch";
+        for (int round = 0; round < rounds; round++) {
+            long[] picked = random.longs(size, 0, ids.length).map(i -> ids[(int) i]).toArray();
+
+            long start = System.nanoTime();
+            int status = 200;
+            for (long id : picked) {
+                ApiClient.Response response = client.get("GET /api/" + resource + "/{id}", "/api/" + resource + "/" + id);
+                if (!response.isSuccess()) {
+                    status = response.getStatus();
+                }
+            }
+            stats.record(single, System.nanoTime() - start, status);
+
+            String query = Arrays.stream(picked).mapToObj(Long::toString).collect(Collectors.joining(","));
+            start = System.nanoTime();
+            ApiClient.Response response = client.get(batch, "/api/" + resource + "/batch?ids=" + query);
+            stats.record(batch, System.nanoTime() - start, response.getStatus());
+        }
+
+        Map<String, LatencyStats.EndpointSnapshot> snapshot = stats.snapshot(1);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("resource", resource);
+        result.put("size", size);
+        result.put("single", snapshot.get(single));
+        result.put("batch", snapshot.get(batch));
+        return result;
+    }
+
+    private static void print(List<Map<String, Object>> results) {
+        System.out.println();
+        System.out.printf("%-10s %5s %14s %14s %14s %14s %9s%n", "resource", "ids", "single p50", "single p95",
+                "batch p50", "batch p95", "speedup");
+        for (Map<String, Object> result : results) {
+            LatencyStats.EndpointSnapshot single = (LatencyStats.EndpointSnapshot) result.get("single");
+            LatencyStats.EndpointSnapshot batch = (LatencyStats.EndpointSnapshot) result.get("batch");
+            System.out.printf("%-10s %5d %12.2fms %12.2fms %12.2fms %12.2fms %8.1fx%n", result.get("resource"),
+                    result.get("size"), single.getP50(), single.getP95(), batch.getP50(), batch.getP95(),
+                    single.getP50() / batch.getP50());
+        }
+        System.out.println("single: the ids fetched one request after the other; batch: one multi-get");
+    }
+}
@@ -0,0 +1,185 @@
+package edts.week8_practice1.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent checkouts of carts holding the same few products in different orders, the pattern
+ * that deadlocks when every checkout locks its products in cart order.
+ *
+ * The application is booted in-process with the {@code test} profile and {@code lock-retry.enabled=true}
+ * (pass {@code --lock-retry.enabled=false} to see the conflicts reach the client). It gets
+ * {@code checkout.products} products with plenty of stock and one customer. {@code checkout.threads}
+ * clients then place {@code checkout.orders} orders in total: every cart holds
+ * {@code checkout.linesPerCart} of the products in a random order, and one cart in four repeats one of
+ * them on an extra line.
+ *
+ * Reports the responses by status, the lock conflicts and retries counted by the application
+ * ({@code lock.*} meters), and lost updates: the stock each product should have left after the
+ * successful orders, against the stock it has.
+ *
+ * Run: {@code mvn -Ploadtest test-compile exec:exec@checkout -Dcheckout.orders=2000}
+ */
+public class CheckoutDeadlockStress {
+
+    private static final String ENDPOINT = "POST /api/orders";
+    private static final int INITIAL_STOCK = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        int productCount = Integer.getInteger("checkout.products", 4);
+        int threads = Integer.getInteger("checkout.threads", 16);
+        int orders = Integer.getInteger("checkout.orders", 2000);
+        int linesPerCart = Math.min(Integer.getInteger("checkout.linesPerCart", 3), productCount);
+        System.out.printf("Checkout deadlock stress: %s, products=%d, threads=%d, orders=%d, lines per cart=%d%n",
+                options, productCount, threads, orders, linesPerCart);
+
+        List<String> bootArgs = new ArrayList<>(Arrays.asList(args));
+        if (bootArgs.stream().noneMatch(arg -> arg.startsWith("--lock-retry.enabled="))) {
+            bootArgs.add("--lock-retry.enabled=true");
+        }
+        ConfigurableApplicationContext context = LoadTestRunner.startEmbeddedApplication(bootArgs.toArray(String[]::new));
+        Map<String, Object> result = new LinkedHashMap<>();
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            ApiClient client = new ApiClient(baseUrl);
+            long customerId = client.post("POST /api/customers", "/api/customers",
+                    Map.of("name", "Checkout Stress", "email", "checkout.stress@example.com")).json().get("id").asLong();
+            long[] productIds = new long[productCount];
+            for (int i = 0; i < productCount; i++) {
+                productIds[i] = client.post("POST /api/products", "/api/products", Map.of(
+                        "name", "Contended Product " + i,
+                        "category", "ELECTRONICS",
+                        "price", new BigDecimal("10000"),
+                        "stock", INITIAL_STOCK)).json().get("id").asLong();
+            }
+
+            AtomicLongArray sold = new AtomicLongArray(productCount);
+            Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+            AtomicInteger remaining = new AtomicInteger(orders);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = new SplittableRandom(options.getSeed() + t);
+                executor.execute(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        List<Integer> cart = cart(random, productCount, linesPerCart);
+                        List<Map<String, Object>> items = new ArrayList<>(cart.size());
+                        for (int index : cart) {
+                            items.add(Map.of("productId", productIds[index], "quantity", 1));
+                        }
+                        int status = client.post(ENDPOINT, "/api/orders",
+                                Map.of("customerId", customerId, "orderItems", items)).getStatus();
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                        if (status == 201) {
+                            cart.forEach(index -> sold.incrementAndGet(index));
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.HOURS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+            long lostUpdates = 0;
+            for (int i = 0; i < productCount; i++) {
+                Integer stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?",
+                        Integer.class, productIds[i]);
+                lostUpdates += stock - (INITIAL_STOCK - sold.get(i));
+            }
+
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            Map<Integer, Long> byStatus = new TreeMap<>();
+            statuses.forEach((status, count) -> byStatus.put(status, count.sum()));
+            result.put("lockRetryEnabled", context.getEnvironment().getProperty("lock-retry.enabled"));
+            result.put("seconds", seconds);
+            result.put("ordersPerSecond", orders / seconds);
+            result.put("responses", byStatus);
+            result.put("lostUpdates", lostUpdates);
+            result.put("deadlocks", count(meterRegistry, "lock.conflicts", "deadlock"));
+            result.put("lockTimeouts", count(meterRegistry, "lock.conflicts", "lock_timeout"));
+            result.put("retries", count(meterRegistry, "lock.retries", null));
+            result.put("retriesExhausted", count(meterRegistry, "lock.retries.exhausted", null));
+        } finally {
+            context.close();
+        }
+
+        print(result);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("options", options.toString());
+        report.put("products", productCount);
+        report.put("threads", threads);
+        report.put("orders", orders);
+        report.put("linesPerCart", linesPerCart);
+        report.put("result", result);
+        Files.createDirectories(options.getOutputDir());
+        Path file = options.getOutputDir().resolve("checkout-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file.toFile(), report);
+        System.out.println();
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    /**
+     * Product indexes of one cart: distinct products in random order, sometimes one of them twice
+     */
+    private static List<Integer> cart(SplittableRandom random, int productCount, int lines) {
+        List<Integer> all = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            all.add(i);
+        }
+        for (int i = productCount - 1; i > 0; i--) {
+            Collections.swap(all, i, random.nextInt(i + 1));
+        }
+        List<Integer> cart = new ArrayList<>(all.subList(0, lines));
+        if (random.nextInt(4) == 0) {
+            cart.add(cart.get(random.nextInt(lines)));
+        }
+        return cart;
+    }
+
+    private static long count(MeterRegistry meterRegistry, String name, String type) {
+        return (long) meterRegistry.find(name).tags(type == null ? new String[0] : new String[]{"type", type})
+                .counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static void print(Map<String, Object> result) {
+        System.out.println();
+        System.out.printf("lock retry: %s, %.1f orders/s%n", result.get("lockRetryEnabled"), result.get("ordersPerSecond"));
+        System.out.printf("responses by status: %s%n", result.get("responses"));
+        System.out.printf("%-12s %10s %10s %10s %10s%n", "lost updates", "deadlocks", "timeouts", "retries",
+                "exhausted");
+        System.out.printf("%-12d %10d %10d %10d %10d%n", result.get("lostUpdates"), result.get("deadlocks"),
+                result.get("lockTimeouts"), result.get("retries"), result.get("retriesExhausted"));
+    }
+}
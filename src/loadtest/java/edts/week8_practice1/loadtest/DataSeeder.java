@@ -0,0 +1,80 @@
+package edts.week8_practice1.loadtest;
+
+import edts.week8_practice1.datagen.DataGenerator;
+import edts.week8_practice1.datagen.DataGeneratorProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds customers, products and historical orders for a load test run.
+ * The embedded target is bulk-loaded with {@link DataGenerator}; an external target is
+ * seeded through the public API (customers and products only).
+ */
+public class DataSeeder {
+
+    private static final String[] CATEGORIES = {"ELECTRONICS", "FOOD", "FASHION"};
+    private static final int HISTORY_DAYS = 7;
+    private static final int SEED_STOCK = 1_000_000;
+
+    private final LoadTestOptions options;
+    private final SplittableRandom random;
+
+    public DataSeeder(LoadTestOptions options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.getSeed());
+    }
+
+    /**
+     * Bulk-loads the embedded database with {@link DataGenerator}. Stock is topped up
+     * afterwards so that order creation never fails on the hot SKUs during a run.
+     */
+    public SeedData seedWithGenerator(DataGenerator generator, JdbcTemplate jdbcTemplate) {
+        DataGeneratorProperties plan = new DataGeneratorProperties();
+        plan.setCustomers(options.customers());
+        plan.setProducts(options.products());
+        plan.setOrders(options.orders());
+        plan.setHistoryDays(HISTORY_DAYS);
+        plan.setSeed(options.getSeed());
+        plan.setExitOnCompletion(false);
+        generator.generate(plan);
+
+        jdbcTemplate.update("UPDATE products SET stock = ?", SEED_STOCK);
+        List<Long> customerIds = jdbcTemplate.queryForList("SELECT id FROM customers ORDER BY id", Long.class);
+        List<Long> productIds = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id", Long.class);
+        List<Long> openOrderIds = jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE status = 'CREATED' ORDER BY id", Long.class);
+        return new SeedData(customerIds, productIds, openOrderIds);
+    }
+
+    public SeedData seedWithApi(ApiClient client) {
+        List<Long> customerIds = new ArrayList<>();
+        long runId = System.currentTimeMillis();
+        for (int i = 0; i < options.customers(); i++) {
+            ApiClient.Response response = client.post("seed customer", "/api/customers",
+                    Map.of("name", "Load Customer " + i, "email", "load" + runId + "." + i + "@example.com"));
+            if (response.isSuccess()) {
+                customerIds.add(response.json().get("id").asLong());
+            }
+        }
+
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < options.products(); i++) {
+            String category = CATEGORIES[i % CATEGORIES.length];
+            ApiClient.Response response = client.post("seed product", "/api/products",
+                    Map.of("name", "Load Product " + runId + "-" + i, "category", category,
+                            "price", 10_000L + random.nextInt(990_000), "stock", SEED_STOCK));
+            if (response.isSuccess()) {
+                productIds.add(response.json().get("id").asLong());
+            }
+        }
+
+        if (customerIds.isEmpty() || productIds.isEmpty()) {
+            throw new IllegalStateException("Seeding through " + client.getBaseUrl() + " failed");
+        }
+        return new SeedData(customerIds, productIds, List.of());
+    }
+}
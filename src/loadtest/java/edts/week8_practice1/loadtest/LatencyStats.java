@@ -0,0 +1,150 @@
+package edts.week8_practice1.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and response counters.
+ * Recording is lock-free, so worker threads never contend on the stats.
+ */
+public class LatencyStats {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStats()).record(latencyNanos, status);
+    }
+
+    public Map<String, EndpointSnapshot> snapshot(double elapsedSeconds) {
+        Map<String, EndpointSnapshot> result = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> result.put(endpoint, stats.snapshot(elapsedSeconds)));
+        return result;
+    }
+
+    private static final class EndpointStats {
+        private final Recorder recorder = new Recorder(MAX_TRACKABLE_NANOS, 3);
+        private final LongAdder success = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            recorder.recordValue(Math.min(Math.max(latencyNanos, 1), MAX_TRACKABLE_NANOS));
+            if (status >= 200 && status < 400) {
+                success.increment();
+            } else if (status == 503) {
+                rejected.increment();
+            } else if (status >= 400 && status < 500) {
+                clientErrors.increment();
+            } else {
+                serverErrors.increment();
+            }
+        }
+
+        EndpointSnapshot snapshot(double elapsedSeconds) {
+            Histogram histogram = recorder.getIntervalHistogram();
+            return new EndpointSnapshot(histogram, success.sum(), clientErrors.sum(), rejected.sum(),
+                    serverErrors.sum(), elapsedSeconds);
+        }
+    }
+
+    /**
+     * Immutable view of one endpoint's results. Latencies are in milliseconds.
+     */
+    public static final class EndpointSnapshot {
+        private final long requests;
+        private final long success;
+        private final long clientErrors;
+        private final long rejected;
+        private final long serverErrors;
+        private final double throughput;
+        private final double goodput;
+        private final double p50;
+        private final double p90;
+        private final double p95;
+        private final double p99;
+        private final double p999;
+        private final double max;
+
+        EndpointSnapshot(Histogram histogram, long success, long clientErrors, long rejected, long serverErrors,
+                         double elapsedSeconds) {
+            this.requests = histogram.getTotalCount();
+            this.success = success;
+            this.clientErrors = clientErrors;
+            this.rejected = rejected;
+            this.serverErrors = serverErrors;
+            this.throughput = requests / elapsedSeconds;
+            this.goodput = success / elapsedSeconds;
+            this.p50 = millis(histogram.getValueAtPercentile(50));
+            this.p90 = millis(histogram.getValueAtPercentile(90));
+            this.p95 = millis(histogram.getValueAtPercentile(95));
+            this.p99 = millis(histogram.getValueAtPercentile(99));
+            this.p999 = millis(histogram.getValueAtPercentile(99.9));
+            this.max = millis(histogram.getMaxValue());
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getSuccess() {
+            return success;
+        }
+
+        public long getClientErrors() {
+            return clientErrors;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getServerErrors() {
+            return serverErrors;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        public double getGoodput() {
+            return goodput;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP90() {
+            return p90;
+        }
+
+        public double getP95() {
+            return p95;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getP999() {
+            return p999;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+}
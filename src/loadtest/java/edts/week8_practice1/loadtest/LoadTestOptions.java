@@ -0,0 +1,107 @@
+package edts.week8_practice1.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test options, read from {@code -Dloadtest.*} system properties.
+ */
+public final class LoadTestOptions {
+
+    private final String workload;
+    private final String baseUrl;
+    private final int scale;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long seed;
+    private final Path outputDir;
+
+    private LoadTestOptions(String workload, String baseUrl, int scale, int threads, Duration warmup,
+                            Duration duration, long seed, Path outputDir) {
+        this.workload = workload;
+        this.baseUrl = baseUrl;
+        this.scale = scale;
+        this.threads = threads;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.seed = seed;
+        this.outputDir = outputDir;
+    }
+
+    public static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+                System.getProperty("loadtest.workload", "mixed"),
+                emptyToNull(System.getProperty("loadtest.baseUrl")),
+                Integer.getInteger("loadtest.scale", 1),
+                Integer.getInteger("loadtest.threads", 16),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10L)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60L)),
+                Long.getLong("loadtest.seed", 42L),
+                Path.of(System.getProperty("loadtest.outputDir", "target/loadtest"))
+        );
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /** Number of customers seeded per scale unit. */
+    public int customers() {
+        return 1_000 * scale;
+    }
+
+    /** Number of products seeded per scale unit. */
+    public int products() {
+        return 500 * scale;
+    }
+
+    /** Number of historical orders seeded per scale unit. */
+    public int orders() {
+        return 2_000 * scale;
+    }
+
+    public String getWorkload() {
+        return workload;
+    }
+
+    /** External application URL; {@code null} boots the application in-process. */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Path getOutputDir() {
+        return outputDir;
+    }
+
+    @Override
+    public String toString() {
+        return "workload=" + workload +
+                ", target=" + (baseUrl != null ? baseUrl : "embedded(test profile)") +
+                ", scale=" + scale +
+                ", threads=" + threads +
+                ", warmup=" + warmup.getSeconds() + "s" +
+                ", duration=" + duration.getSeconds() + "s" +
+                ", seed=" + seed;
+    }
+}
@@ -0,0 +1,163 @@
+package edts.week8_practice1.loadtest;
+
+import edts.week8_practice1.Week8Practice1Application;
+import edts.week8_practice1.datagen.DataGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entry point of the HTTP load test harness.
+ *
+ * Without {@code -Dloadtest.baseUrl} the application is booted in-process with the
+ * {@code test} profile (H2 in memory, random port) and bulk-loaded with the data generator, so a run
+ * is fully offline and reproducible on a single machine.
+ *
+ * Arguments ({@code -Dloadtest.appArgs}) are passed on to the embedded application.
+ *
+ * Run: {@code mvn -Ploadtest test-compile exec:exec@loadtest -Dloadtest.scale=2 -Dloadtest.threads=32}
+ */
+public class LoadTestRunner {
+
+    private static final String APP_LOG_LEVEL_ARG = "--logging.level.edts.week8_practice1";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        Workload workload = workload(options.getWorkload());
+        System.out.println("Load test: " + options);
+
+        ConfigurableApplicationContext context = null;
+        try {
+            String baseUrl = options.getBaseUrl();
+            SeedData seedData;
+            DataSeeder seeder = new DataSeeder(options);
+            long seedStart = System.nanoTime();
+            if (baseUrl == null) {
+                context = startEmbeddedApplication(args);
+                baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                seedData = seeder.seedWithGenerator(context.getBean(DataGenerator.class),
+                        new JdbcTemplate(context.getBean(DataSource.class)));
+            } else {
+                seedData = seeder.seedWithApi(new ApiClient(baseUrl));
+            }
+            System.out.printf("Seeded %d customers, %d products in %.1fs%n", seedData.getCustomerIds().length,
+                    seedData.getProductIds().length, (System.nanoTime() - seedStart) / 1e9);
+
+            ApiClient client = new ApiClient(baseUrl);
+            LatencyStats stats = run(options, workload, client, seedData);
+            report(options, workload, stats);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    static Workload workload(String name) {
+        if ("mixed".equals(name)) {
+            return new MixedWorkload();
+        }
+        throw new IllegalArgumentException("Unknown workload: " + name);
+    }
+
+    /**
+     * Application logs are turned down to WARN unless the arguments set the level
+     * ({@code -Dloadtest.appArgs=--logging.level.edts.week8_practice1=INFO}).
+     */
+    static ConfigurableApplicationContext startEmbeddedApplication(String[] args) {
+        List<String> bootArgs = new ArrayList<>(List.of("--spring.profiles.active=test", "--server.port=0"));
+        if (Arrays.stream(args).noneMatch(arg -> arg.startsWith(APP_LOG_LEVEL_ARG + "="))) {
+            bootArgs.add(APP_LOG_LEVEL_ARG + "=WARN");
+        }
+        bootArgs.addAll(Arrays.asList(args));
+        return new SpringApplicationBuilder(Week8Practice1Application.class).run(bootArgs.toArray(String[]::new));
+    }
+
+    static LatencyStats run(LoadTestOptions options, Workload workload, ApiClient client,
+                            SeedData seedData) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch finished = new CountDownLatch(options.getThreads());
+        ExecutorService workers = Executors.newFixedThreadPool(options.getThreads());
+        for (int i = 0; i < options.getThreads(); i++) {
+            SplittableRandom random = new SplittableRandom(options.getSeed() + i);
+            workers.execute(() -> {
+                try {
+                    while (running.get()) {
+                        workload.runOnce(client, seedData, random);
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+
+        System.out.printf("Warming up for %ds...%n", options.getWarmup().getSeconds());
+        Thread.sleep(options.getWarmup().toMillis());
+        client.resetStats();
+
+        System.out.printf("Measuring for %ds...%n", options.getDuration().getSeconds());
+        Thread.sleep(options.getDuration().toMillis());
+        LatencyStats measured = client.resetStats();
+
+        running.set(false);
+        finished.await(2, TimeUnit.MINUTES);
+        workers.shutdownNow();
+        return measured;
+    }
+
+    private static void report(LoadTestOptions options, Workload workload, LatencyStats stats) throws IOException {
+        double seconds = options.getDuration().toMillis() / 1000.0;
+        Map<String, LatencyStats.EndpointSnapshot> endpoints = stats.snapshot(seconds);
+
+        System.out.println();
+        System.out.printf("%-30s %9s %9s %9s %8s %8s %8s %8s %8s %8s %6s %6s%n", "endpoint", "requests",
+                "req/s", "ok/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "4xx", "5xx");
+        long totalRequests = 0;
+        long totalSuccess = 0;
+        for (Map.Entry<String, LatencyStats.EndpointSnapshot> entry : endpoints.entrySet()) {
+            LatencyStats.EndpointSnapshot s = entry.getValue();
+            totalRequests += s.getRequests();
+            totalSuccess += s.getSuccess();
+            System.out.printf("%-30s %9d %9.1f %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f %6d %6d%n", entry.getKey(),
+                    s.getRequests(), s.getThroughput(), s.getGoodput(), s.getP50(), s.getP90(), s.getP95(),
+                    s.getP99(), s.getP999(), s.getMax(), s.getClientErrors(), s.getServerErrors() + s.getRejected());
+        }
+        System.out.printf("%-30s %9d %9.1f %9.1f%n", "TOTAL", totalRequests, totalRequests / seconds,
+                totalSuccess / seconds);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("workload", workload.name());
+        result.put("timestamp", LocalDateTime.now().toString());
+        result.put("options", options.toString());
+        result.put("totalThroughput", totalRequests / seconds);
+        result.put("totalGoodput", totalSuccess / seconds);
+        result.put("endpoints", endpoints);
+
+        Files.createDirectories(options.getOutputDir());
+        Path file = options.getOutputDir().resolve("loadtest-" + workload.name() + "-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file.toFile(), result);
+        System.out.println();
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+}
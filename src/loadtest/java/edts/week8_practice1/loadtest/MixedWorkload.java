@@ -0,0 +1,100 @@
+package edts.week8_practice1.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Storefront traffic mix: mostly catalog browsing with a steady stream of checkouts.
+ *
+ * <pre>
+ * browse /api/products      35%
+ * GET /api/products/{id}    20%
+ * search                    15%
+ * create order              18%
+ * pay order                  8%
+ * cancel order               4%
+ * </pre>
+ */
+public class MixedWorkload implements Workload {
+
+    private static final int[] WEIGHTS = {35, 20, 15, 18, 8, 4};
+    private static final int TOTAL_WEIGHT = 100;
+    private static final String[] SORT_FIELDS = {"name", "price", "id"};
+
+    @Override
+    public String name() {
+        return "mixed";
+    }
+
+    @Override
+    public void runOnce(ApiClient client, SeedData seedData, SplittableRandom random) {
+        int pick = random.nextInt(TOTAL_WEIGHT);
+        int operation = 0;
+        while (pick >= WEIGHTS[operation]) {
+            pick -= WEIGHTS[operation];
+            operation++;
+        }
+
+        switch (operation) {
+            case 0 -> browse(client, random);
+            case 1 -> findProduct(client, seedData, random);
+            case 2 -> search(client, random);
+            case 3 -> createOrder(client, seedData, random);
+            case 4 -> payOrder(client, seedData, random);
+            default -> cancelOrder(client, seedData, random);
+        }
+    }
+
+    private void browse(ApiClient client, SplittableRandom random) {
+        int page = random.nextInt(20);
+        String sortBy = SORT_FIELDS[random.nextInt(SORT_FIELDS.length)];
+        client.get("GET /api/products", "/api/products?page=" + page + "&size=20&sortBy=" + sortBy);
+    }
+
+    private void findProduct(ApiClient client, SeedData seedData, SplittableRandom random) {
+        long id = pick(seedData.getProductIds(), random);
+        client.get("GET /api/products/{id}", "/api/products/" + id);
+    }
+
+    private void search(ApiClient client, SplittableRandom random) {
+        client.get("GET /api/products/search", "/api/products/search?keyword=Product%20" + random.nextInt(100));
+    }
+
+    void createOrder(ApiClient client, SeedData seedData, SplittableRandom random) {
+        int lines = 1 + random.nextInt(3);
+        List<Map<String, Object>> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(Map.of("productId", pick(seedData.getProductIds(), random), "quantity", 1 + random.nextInt(2)));
+        }
+        Map<String, Object> body = Map.of("customerId", pick(seedData.getCustomerIds(), random), "orderItems", items);
+
+        ApiClient.Response response = client.post("POST /api/orders", "/api/orders", body);
+        if (response.isSuccess()) {
+            seedData.getOpenOrders().add(response.json().get("id").asLong());
+        }
+    }
+
+    private void payOrder(ApiClient client, SeedData seedData, SplittableRandom random) {
+        Long orderId = seedData.getOpenOrders().poll();
+        if (orderId == null) {
+            createOrder(client, seedData, random);
+            return;
+        }
+        client.post("POST /api/orders/{id}/pay", "/api/orders/" + orderId + "/pay", null);
+    }
+
+    private void cancelOrder(ApiClient client, SeedData seedData, SplittableRandom random) {
+        Long orderId = seedData.getOpenOrders().poll();
+        if (orderId == null) {
+            createOrder(client, seedData, random);
+            return;
+        }
+        client.post("POST /api/orders/{id}/cancel", "/api/orders/" + orderId + "/cancel", null);
+    }
+
+    static long pick(long[] ids, SplittableRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+}
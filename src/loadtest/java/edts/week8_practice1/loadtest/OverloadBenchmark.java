@@ -0,0 +1,238 @@
+package edts.week8_practice1.loadtest;
+
+import edts.week8_practice1.datagen.DataGenerator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Goodput under overload, without and with the adaptive concurrency limits ({@code concurrency-limit.*}).
+ *
+ * The application is booted twice in-process with the {@code test} profile, each with its own H2
+ * database seeded like {@link LoadTestRunner}: once without and once with the limiter. Every SQL
+ * statement is delayed by {@code overload.statementDelayMs} ({@link StatementDelayConfig}), so that
+ * capacity is bounded by the connection pool rather than by the CPU shared with the load generator.
+ *
+ * The capacity of both is measured first, with {@code loadtest.threads} closed-loop clients running
+ * the mixed workload, so that both overload runs find a warm JIT. Then requests arrive open-loop at
+ * {@code overload.factor} times the higher capacity (or at {@code overload.rate}), the way users keep
+ * arriving whether the server keeps up or not. Goodput counts 2xx/3xx responses received within
+ * {@code overload.deadlineMs}; the client gives up on slower requests (status 0), like a user or an
+ * upstream timeout would, while the server still works on them. At most
+ * {@code overload.maxOutstanding} requests are open at once; arrivals beyond that are counted as
+ * not sent.
+ *
+ * Run: {@code mvn -Ploadtest test-compile exec:exec@overload -Doverload.factor=3}
+ */
+public class OverloadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        double factor = Double.parseDouble(System.getProperty("overload.factor", "3"));
+        Duration deadline = Duration.ofMillis(Long.getLong("overload.deadlineMs", 1000L));
+        int maxOutstanding = Integer.getInteger("overload.maxOutstanding", 1000);
+        double rate = Double.parseDouble(System.getProperty("overload.rate", "0"));
+        long statementDelayMs = Long.getLong("overload.statementDelayMs", 10L);
+        System.out.printf("Overload benchmark: %s, factor=%.1f, deadline=%dms, statement delay=%dms%n", options,
+                factor, deadline.toMillis(), statementDelayMs);
+
+        List<Target> targets = new ArrayList<>();
+        List<Map<String, Object>> runs = new ArrayList<>();
+        try {
+            for (boolean limited : List.of(false, true)) {
+                targets.add(Target.start(limited ? "limited" : "unlimited", args, limited, statementDelayMs,
+                        options, deadline));
+            }
+
+            // Capacity of both first, so that both overload runs find a warm JIT
+            Map<String, Totals> capacities = new LinkedHashMap<>();
+            for (Target target : targets) {
+                System.out.printf("%n[%s] capacity with %d clients%n", target.mode(), options.getThreads());
+                capacities.put(target.mode(), Totals.of(LoadTestRunner.run(options, target.workload(),
+                        target.client(), target.seedData()).snapshot(seconds(options)), options));
+            }
+            if (rate <= 0) {
+                rate = factor * capacities.values().stream().mapToDouble(Totals::goodput).max().orElseThrow();
+            }
+
+            for (Target target : targets) {
+                System.out.printf("%n[%s] open loop at %.0f req/s%n", target.mode(), rate);
+                LongAdder notSent = new LongAdder();
+                LatencyStats overloaded = runOpenLoop(options, target.workload(), target.client(),
+                        target.seedData(), rate, maxOutstanding, notSent);
+                Map<String, LatencyStats.EndpointSnapshot> endpoints = overloaded.snapshot(seconds(options));
+                Totals overload = Totals.of(endpoints, options);
+
+                Map<String, Object> run = new LinkedHashMap<>();
+                run.put("mode", target.mode());
+                run.put("capacityGoodput", capacities.get(target.mode()).goodput());
+                run.put("offeredRate", rate);
+                run.put("goodput", overload.goodput());
+                run.put("rejectedPerSecond", overload.rejected());
+                run.put("failedPerSecond", overload.failed());
+                run.put("notSentPerSecond", notSent.sum() / seconds(options));
+                run.put("limits", limits(target.context().getBean(MeterRegistry.class)));
+                run.put("endpoints", endpoints);
+                runs.add(run);
+                // The server still works through the requests the client gave up on; stop it so that
+                // they do not slow down the next run
+                target.context().close();
+            }
+        } finally {
+            targets.forEach(target -> target.context().close());
+        }
+
+        print(runs);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("options", options.toString());
+        report.put("factor", factor);
+        report.put("deadlineMs", deadline.toMillis());
+        report.put("runs", runs);
+        Files.createDirectories(options.getOutputDir());
+        Path file = options.getOutputDir().resolve("overload-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file.toFile(), report);
+        System.out.println();
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    /**
+     * Starts one request every {@code 1 / rate} seconds on its own thread, regardless of how many
+     * are still open (up to {@code maxOutstanding}).
+     */
+    private static LatencyStats runOpenLoop(LoadTestOptions options, Workload workload, ApiClient client,
+                                            SeedData seedData, double rate, int maxOutstanding,
+                                            LongAdder notSent) throws InterruptedException {
+        ExecutorService senders = Executors.newCachedThreadPool();
+        Semaphore outstanding = new Semaphore(maxOutstanding);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureStart = start + options.getWarmup().toNanos();
+        long end = measureStart + options.getDuration().toNanos();
+        boolean measuring = false;
+        long next = start;
+        long sequence = 0;
+
+        System.out.printf("Warming up for %ds...%n", options.getWarmup().getSeconds());
+        while (true) {
+            long now = System.nanoTime();
+            if (!measuring && now - measureStart >= 0) {
+                client.resetStats();
+                notSent.reset();
+                measuring = true;
+                System.out.printf("Measuring for %ds...%n", options.getDuration().getSeconds());
+            }
+            if (now - end >= 0) {
+                break;
+            }
+            if (now - next < 0) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            next += interval;
+            if (!outstanding.tryAcquire()) {
+                notSent.increment();
+                continue;
+            }
+            SplittableRandom random = new SplittableRandom(options.getSeed() + sequence++);
+            senders.execute(() -> {
+                try {
+                    workload.runOnce(client, seedData, random);
+                } finally {
+                    outstanding.release();
+                }
+            });
+        }
+        LatencyStats measured = client.resetStats();
+
+        senders.shutdown();
+        senders.awaitTermination(2, TimeUnit.MINUTES);
+        return measured;
+    }
+
+    /** Concurrency limits at the end of the run, empty without the limiter. */
+    private static Map<String, Double> limits(MeterRegistry meterRegistry) {
+        Map<String, Double> limits = new TreeMap<>();
+        for (Gauge gauge : meterRegistry.find("http.server.concurrency.limit").gauges()) {
+            limits.put(gauge.getId().getTag("method") + " " + gauge.getId().getTag("uri"), gauge.value());
+        }
+        return limits;
+    }
+
+    private static double seconds(LoadTestOptions options) {
+        return options.getDuration().toMillis() / 1000.0;
+    }
+
+    private static void print(List<Map<String, Object>> runs) {
+        System.out.println();
+        System.out.printf("%-10s %14s %14s %10s %10s %12s %12s%n", "mode", "capacity ok/s", "offered req/s",
+                "ok/s", "503/s", "failed/s", "not sent/s");
+        for (Map<String, Object> run : runs) {
+            System.out.printf("%-10s %14.1f %14.1f %10.1f %10.1f %12.1f %12.1f%n", run.get("mode"),
+                    run.get("capacityGoodput"), run.get("offeredRate"), run.get("goodput"),
+                    run.get("rejectedPerSecond"), run.get("failedPerSecond"), run.get("notSentPerSecond"));
+        }
+        System.out.println("failed: 5xx and requests given up at the deadline");
+    }
+
+    /** One embedded application, with its own in-memory database. */
+    private record Target(String mode, ConfigurableApplicationContext context, ApiClient client,
+                          SeedData seedData, Workload workload) {
+
+        static Target start(String mode, String[] args, boolean limited, long statementDelayMs,
+                            LoadTestOptions options, Duration deadline) {
+            List<String> appArgs = new ArrayList<>(List.of("--concurrency-limit.enabled=" + limited,
+                    "--spring.datasource.url=jdbc:h2:mem:overload-" + mode,
+                    "--spring.main.sources=" + StatementDelayConfig.class.getName(),
+                    "--overload.statement-delay-ms=" + statementDelayMs));
+            appArgs.addAll(Arrays.asList(args));
+            ConfigurableApplicationContext context = LoadTestRunner.startEmbeddedApplication(
+                    appArgs.toArray(String[]::new));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            SeedData seedData = new DataSeeder(options).seedWithGenerator(context.getBean(DataGenerator.class),
+                    new JdbcTemplate(context.getBean(DataSource.class)));
+            return new Target(mode, context, new ApiClient(baseUrl, deadline), seedData, new MixedWorkload());
+        }
+    }
+
+    /** Per-second totals over all endpoints. */
+    private record Totals(double goodput, double rejected, double failed) {
+
+        static Totals of(Map<String, LatencyStats.EndpointSnapshot> endpoints, LoadTestOptions options) {
+            double seconds = seconds(options);
+            long success = 0;
+            long rejected = 0;
+            long failed = 0;
+            for (LatencyStats.EndpointSnapshot snapshot : endpoints.values()) {
+                success += snapshot.getSuccess();
+                rejected += snapshot.getRejected();
+                failed += snapshot.getServerErrors();
+            }
+            return new Totals(success / seconds, rejected / seconds, failed / seconds);
+        }
+    }
+}
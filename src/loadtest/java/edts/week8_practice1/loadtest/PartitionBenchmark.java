@@ -0,0 +1,249 @@
+package edts.week8_practice1.loadtest;
+
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Order date-range queries on an unpartitioned and a month-partitioned copy of the same data.
+ *
+ * Both databases must hold identical data, e.g. generated with the same {@code datagen.seed}:
+ * one created with migration V1 only ({@code flat}), one with V1 and V3 ({@code partitioned}).
+ * The queries are those of {@code OrderRepository.findByDateRange} and
+ * {@code findByCustomerIdAndDateRange} (first page and count query), plus the lookup by id of
+ * pay and cancel, which cannot be pruned. For every query and window length both layouts run
+ * the same random parameters; EXPLAIN shows how many partitions are read.
+ *
+ * Run: {@code mvn -Ploadtest test-compile exec:exec@partitions -Dpartitions.flatUrl=jdbc:mysql://host/shop_flat
+ * -Dpartitions.partitionedUrl=jdbc:mysql://host/shop_partitioned}
+ */
+public class PartitionBenchmark {
+
+    private static final String COLUMNS = "o.id, o.customer_id, o.total_amount, o.discount_amount, o.final_amount, " +
+            "o.status, o.created_at, o.updated_at, o.created_by, o.updated_by";
+
+    private static final List<BenchmarkQuery> QUERIES = List.of(
+            new BenchmarkQuery("find by id", Parameters.ID,
+                    "SELECT " + COLUMNS + " FROM orders o WHERE o.id = ?"),
+            new BenchmarkQuery("date range page", Parameters.DATE_RANGE,
+                    "SELECT " + COLUMNS + " FROM orders o WHERE o.created_at BETWEEN ? AND ? " +
+                    "ORDER BY o.created_at DESC LIMIT 20"),
+            new BenchmarkQuery("date range count", Parameters.DATE_RANGE,
+                    "SELECT COUNT(1) FROM orders o WHERE o.created_at BETWEEN ? AND ?"),
+            new BenchmarkQuery("customer date range page", Parameters.CUSTOMER_DATE_RANGE,
+                    "SELECT " + COLUMNS + " FROM orders o WHERE o.customer_id = ? " +
+                    "AND o.created_at BETWEEN ? AND ? ORDER BY o.created_at DESC LIMIT 20"),
+            new BenchmarkQuery("customer date range count", Parameters.CUSTOMER_DATE_RANGE,
+                    "SELECT COUNT(1) FROM orders o WHERE o.customer_id = ? AND o.created_at BETWEEN ? AND ?"));
+
+    private static final List<Duration> WINDOWS = List.of(Duration.ofDays(1), Duration.ofDays(7), Duration.ofDays(30));
+    private static final int SAMPLED_CUSTOMERS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        String flatUrl = System.getProperty("partitions.flatUrl");
+        String partitionedUrl = System.getProperty("partitions.partitionedUrl");
+        String username = System.getProperty("partitions.username", "root");
+        String password = System.getProperty("partitions.password", "");
+        int warmup = Integer.getInteger("partitions.warmup", 20);
+        int iterations = Integer.getInteger("partitions.iterations", 200);
+        long seed = Long.getLong("loadtest.seed", 42L);
+        Path outputDir = Path.of(System.getProperty("loadtest.outputDir", "target/loadtest"));
+
+        try (Connection flat = DriverManager.getConnection(flatUrl, username, password);
+             Connection partitioned = DriverManager.getConnection(partitionedUrl, username, password)) {
+            LocalDateTime[] range = createdAtRange(flat);
+            long maxOrderId = maxOrderId(flat);
+            List<Long> customers = sampleCustomers(flat, maxOrderId, seed);
+            long orders = count(flat);
+            System.out.printf("Partition benchmark: %d orders from %s to %s, %d iterations per query%n",
+                    orders, range[0], range[1], iterations);
+
+            LatencyStats flatStats = new LatencyStats();
+            LatencyStats partitionedStats = new LatencyStats();
+            Map<String, Integer> partitionsRead = new LinkedHashMap<>();
+            for (BenchmarkQuery query : QUERIES) {
+                for (Duration window : query.parameters() == Parameters.ID ? List.of(Duration.ZERO) : WINDOWS) {
+                    String name = query.parameters() == Parameters.ID
+                            ? query.name() : query.name() + " / " + window.toDays() + "d";
+                    List<Object[]> parameters = parameters(query, window, range, maxOrderId, customers,
+                            warmup + iterations, new SplittableRandom(seed));
+                    run(flat, query, parameters, warmup, flatStats, name);
+                    run(partitioned, query, parameters, warmup, partitionedStats, name);
+                    partitionsRead.put(name, partitionsRead(partitioned, query, parameters.get(0)));
+                }
+            }
+
+            Map<String, LatencyStats.EndpointSnapshot> flatResults = flatStats.snapshot(1);
+            Map<String, LatencyStats.EndpointSnapshot> partitionedResults = partitionedStats.snapshot(1);
+            System.out.printf("%n%-34s %12s %12s %12s %12s %11s%n", "query / window", "flat p50",
+                    "flat p95", "part. p50", "part. p95", "partitions");
+            Map<String, Object> results = new LinkedHashMap<>();
+            for (String name : partitionsRead.keySet()) {
+                LatencyStats.EndpointSnapshot before = flatResults.get(name);
+                LatencyStats.EndpointSnapshot after = partitionedResults.get(name);
+                System.out.printf("%-34s %10.2fms %10.2fms %10.2fms %10.2fms %11d%n", name, before.getP50(),
+                        before.getP95(), after.getP50(), after.getP95(), partitionsRead.get(name));
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("flat", before);
+                result.put("partitioned", after);
+                result.put("partitionsRead", partitionsRead.get(name));
+                results.put(name, result);
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("timestamp", LocalDateTime.now().toString());
+            report.put("orders", orders);
+            report.put("iterations", iterations);
+            report.put("queries", results);
+            Files.createDirectories(outputDir);
+            Path file = outputDir.resolve("partitions-" +
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+            JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file.toFile(), report);
+            System.out.println();
+            System.out.println("Report written to " + file.toAbsolutePath());
+        }
+    }
+
+    private static void run(Connection connection, BenchmarkQuery query, List<Object[]> parameters, int warmup,
+                            LatencyStats stats, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query.sql())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                long start = System.nanoTime();
+                execute(statement, parameters.get(i));
+                if (i >= warmup) {
+                    stats.record(name, System.nanoTime() - start, 200);
+                }
+            }
+        }
+    }
+
+    private static void execute(PreparedStatement statement, Object[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getObject(1);
+            }
+        }
+    }
+
+    private static List<Object[]> parameters(BenchmarkQuery query, Duration window, LocalDateTime[] range,
+                                             long maxOrderId, List<Long> customers, int count,
+                                             SplittableRandom random) {
+        long spanSeconds = Math.max(1, Duration.between(range[0], range[1]).minus(window).toSeconds());
+        List<Object[]> parameters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = range[0].plusSeconds(random.nextLong(spanSeconds));
+            LocalDateTime end = start.plus(window);
+            parameters.add(switch (query.parameters()) {
+                case ID -> new Object[]{1 + random.nextLong(maxOrderId)};
+                case DATE_RANGE -> new Object[]{start, end};
+                case CUSTOMER_DATE_RANGE -> new Object[]{customers.get(random.nextInt(customers.size())), start, end};
+            });
+        }
+        return parameters;
+    }
+
+    /**
+     * Number of partitions in the plan; MySQL lists them in EXPLAIN, MariaDB needs EXPLAIN PARTITIONS.
+     */
+    private static int partitionsRead(Connection connection, BenchmarkQuery query, Object[] parameters)
+            throws SQLException {
+        for (String explain : List.of("EXPLAIN ", "EXPLAIN PARTITIONS ")) {
+            try (PreparedStatement statement = connection.prepareStatement(explain + query.sql())) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    int column = column(resultSet.getMetaData(), "partitions");
+                    if (column > 0 && resultSet.next()) {
+                        String partitions = resultSet.getString(column);
+                        return partitions == null ? 0 : partitions.split(",").length;
+                    }
+                }
+            } catch (SQLException e) {
+                // EXPLAIN PARTITIONS is not MySQL 8 syntax
+            }
+        }
+        return -1;
+    }
+
+    private static int column(ResultSetMetaData metaData, String label) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (label.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static LocalDateTime[] createdAtRange(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MIN(created_at), MAX(created_at) FROM orders")) {
+            resultSet.next();
+            return new LocalDateTime[]{resultSet.getObject(1, LocalDateTime.class),
+                    resultSet.getObject(2, LocalDateTime.class)};
+        }
+    }
+
+    /** Customers of random orders, so that busy customers are picked as often as they order. */
+    private static List<Long> sampleCustomers(Connection connection, long maxOrderId, long seed)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Long> customers = new ArrayList<>(SAMPLED_CUSTOMERS);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT o.customer_id FROM orders o WHERE o.id >= ? ORDER BY o.id LIMIT 1")) {
+            for (int i = 0; i < SAMPLED_CUSTOMERS; i++) {
+                statement.setLong(1, 1 + random.nextLong(maxOrderId));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        customers.add(resultSet.getLong(1));
+                    }
+                }
+            }
+        }
+        return customers;
+    }
+
+    private static long maxOrderId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(id) FROM orders")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static long count(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(1) FROM orders")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private enum Parameters {
+        ID, DATE_RANGE, CUSTOMER_DATE_RANGE
+    }
+
+    private record BenchmarkQuery(String name, Parameters parameters, String sql) {
+    }
+}
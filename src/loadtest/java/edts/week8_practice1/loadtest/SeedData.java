@@ -0,0 +1,34 @@
+package edts.week8_practice1.loadtest;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * IDs available to the workload after seeding. Orders created during the run are
+ * pushed to {@link #getOpenOrders()} so that pay/cancel operations have targets.
+ */
+public class SeedData {
+
+    private final long[] customerIds;
+    private final long[] productIds;
+    private final Queue<Long> openOrders = new ConcurrentLinkedQueue<>();
+
+    public SeedData(List<Long> customerIds, List<Long> productIds, List<Long> openOrderIds) {
+        this.customerIds = customerIds.stream().mapToLong(Long::longValue).toArray();
+        this.productIds = productIds.stream().mapToLong(Long::longValue).toArray();
+        this.openOrders.addAll(openOrderIds);
+    }
+
+    public long[] getCustomerIds() {
+        return customerIds;
+    }
+
+    public long[] getProductIds() {
+        return productIds;
+    }
+
+    public Queue<Long> getOpenOrders() {
+        return openOrders;
+    }
+}
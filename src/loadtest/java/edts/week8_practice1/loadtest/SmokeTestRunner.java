@@ -0,0 +1,155 @@
+package edts.week8_practice1.loadtest;
+
+import tools.jackson.databind.JsonNode;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Smoke test of a packaged build, normally the GraalVM native executable.
+ *
+ * Starts the build against the in-memory H2 database ({@code test} profile) and runs the order
+ * flow through the public API: an order is created and paid, a second one is created and
+ * cancelled, and the stock of the product is checked after each step. Also reads an order
+ * page and the OpenAPI document, which go through Jackson and springdoc reflection.
+ * Exits with status 1 on the first failed check.
+ *
+ * Run: {@code mvn -Pnative,loadtest -DskipTests native:compile exec:exec@smoke}
+ * Against the jar: {@code -Dsmoke.command="java -jar target/Week8_Practice1-0.0.1-SNAPSHOT.jar"}
+ */
+public class SmokeTestRunner {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final int INITIAL_STOCK = 10;
+
+    private final ApiClient client;
+
+    SmokeTestRunner(ApiClient client) {
+        this.client = client;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> command = new ArrayList<>(Arrays.asList(System.getProperty("smoke.command").trim().split("\\s+")));
+        String profiles = System.getProperty("smoke.profiles", "test");
+        Path outputDir = Path.of(System.getProperty("loadtest.outputDir", "target/loadtest"));
+        int port = StartupBenchmark.freePort();
+        command.addAll(List.of("--spring.profiles.active=" + profiles, "--server.port=" + port));
+
+        Files.createDirectories(outputDir);
+        Path log = outputDir.resolve("smoke.log");
+        System.out.println("Smoke test: " + String.join(" ", command));
+
+        ApiClient client = new ApiClient("http://localhost:" + port);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        boolean passed = false;
+        try {
+            awaitStartup(process, client, start + STARTUP_TIMEOUT.toNanos(), log);
+            System.out.printf("Started in %d ms, RSS %d MB%n",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    StartupBenchmark.rssKb(process.pid()) / 1024);
+
+            new SmokeTestRunner(client).run();
+            passed = true;
+        } catch (IllegalStateException e) {
+            System.out.println("FAILED: " + e.getMessage());
+            System.out.println("Application output: " + log.toAbsolutePath());
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+
+        System.out.println(passed ? "Smoke test passed" : "Smoke test failed");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static void awaitStartup(Process process, ApiClient client, long deadline, Path log)
+            throws InterruptedException {
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            if (client.get("startup", "/api/products").getStatus() == 200) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Application did not answer within " + STARTUP_TIMEOUT);
+    }
+
+    void run() {
+        long runId = System.currentTimeMillis();
+        long customerId = success(client.post("create customer", "/api/customers",
+                Map.of("name", "Smoke Customer", "email", "smoke" + runId + "@example.com"))).get("id").asLong();
+        long productId = success(client.post("create product", "/api/products",
+                Map.of("name", "Smoke Product " + runId, "category", "ELECTRONICS",
+                        "price", 150_000L, "stock", INITIAL_STOCK))).get("id").asLong();
+        pass("create customer and product");
+
+        JsonNode paid = createOrder(customerId, productId, 2);
+        expectStatus(paid, "CREATED");
+        expectStock(productId, INITIAL_STOCK - 2);
+        expectStatus(success(client.post("pay order", "/api/orders/" + paid.get("id").asLong() + "/pay", null)), "PAID");
+        pass("create and pay order " + paid.get("id").asLong());
+
+        JsonNode cancelled = createOrder(customerId, productId, 3);
+        expectStock(productId, INITIAL_STOCK - 5);
+        expectStatus(success(client.post("cancel order",
+                "/api/orders/" + cancelled.get("id").asLong() + "/cancel", null)), "CANCELLED");
+        expectStock(productId, INITIAL_STOCK - 2);
+        pass("create and cancel order " + cancelled.get("id").asLong() + ", stock restored");
+
+        JsonNode page = success(client.get("list orders", "/api/orders/customer/" + customerId + "?size=10"));
+        check(page.get("content").size() == 2 && page.get("totalElements").asLong() == 2,
+                "order page of customer " + customerId + ": " + page);
+        pass("list orders of customer");
+
+        JsonNode apiDocs = success(client.get("api docs", "/api-docs"));
+        check(apiDocs.get("paths").has("/api/orders/{id}/pay"), "OpenAPI document lacks /api/orders/{id}/pay");
+        pass("OpenAPI document");
+    }
+
+    private JsonNode createOrder(long customerId, long productId, int quantity) {
+        return success(client.post("create order", "/api/orders", Map.of("customerId", customerId,
+                "orderItems", List.of(Map.of("productId", productId, "quantity", quantity)))));
+    }
+
+    private void expectStock(long productId, int expected) {
+        JsonNode product = success(client.get("get product", "/api/products/" + productId));
+        check(product.get("stock").asInt() == expected,
+                "stock of product " + productId + " is " + product.get("stock") + ", expected " + expected);
+    }
+
+    private static void expectStatus(JsonNode order, String expected) {
+        check(expected.equals(order.get("status").asString()),
+                "order " + order.get("id") + " is " + order.get("status") + ", expected " + expected);
+    }
+
+    private static JsonNode success(ApiClient.Response response) {
+        check(response.isSuccess(), "HTTP " + response.getStatus() + ": " + response.getBody());
+        return response.json();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static void pass(String step) {
+        System.out.println("OK  " + step);
+    }
+}
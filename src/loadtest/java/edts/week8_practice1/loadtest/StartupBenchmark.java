@@ -0,0 +1,198 @@
+package edts.week8_practice1.loadtest;
+
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start benchmark of the packaged application.
+ *
+ * For each variant it launches a fresh JVM and measures the time from process start to the first
+ * successful {@code GET /api/products}, and the resident set size (RSS) at that moment:
+ * <ul>
+ *   <li>{@code default}: {@code java -jar} on the executable jar</li>
+ *   <li>{@code aot}: the same jar with {@code -Dspring.aot.enabled=true}</li>
+ *   <li>{@code aot+cds}: the extracted jar with AOT and the AppCDS archive from the training run</li>
+ *   <li>{@code native}: the GraalVM executable, only if {@code -Dstartup.nativeImage} points to one</li>
+ * </ul>
+ * Needs the artifacts of the {@code aot} Maven profile.
+ *
+ * Run: {@code mvn -Paot,loadtest -DskipTests -Daot.profiles=test package exec:exec@startup}
+ */
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        String profiles = System.getProperty("startup.profiles", "test");
+        List<String> jvmArgs = Arrays.asList(System.getProperty("startup.jvmArgs", "-Xmx512m").trim().split("\\s+"));
+        Path jar = Path.of(System.getProperty("startup.jar"));
+        Path cdsDirectory = Path.of(System.getProperty("startup.cdsDir"));
+        Path nativeImage = Path.of(System.getProperty("startup.nativeImage", ""));
+        Path outputDir = Path.of(System.getProperty("loadtest.outputDir", "target/loadtest"));
+
+        List<Variant> variants = new ArrayList<>(List.of(
+                new Variant("default", javaCommand(jvmArgs, List.of(), jar)),
+                new Variant("aot", javaCommand(jvmArgs, List.of("-Dspring.aot.enabled=true"), jar)),
+                new Variant("aot+cds", javaCommand(jvmArgs, List.of("-Dspring.aot.enabled=true",
+                        "-XX:SharedArchiveFile=" + cdsDirectory.resolve("application.jsa")),
+                        cdsDirectory.resolve(jar.getFileName())))));
+        if (Files.isExecutable(nativeImage) && !Files.isDirectory(nativeImage)) {
+            // A native executable accepts the same heap options (-Xmx) as the JVM
+            List<String> command = new ArrayList<>(List.of(nativeImage.toString()));
+            command.addAll(jvmArgs);
+            variants.add(new Variant("native", command));
+        }
+
+        System.out.printf("Startup benchmark: runs=%d, profiles=%s, jvmArgs=%s%n", runs, profiles, jvmArgs);
+        Files.createDirectories(outputDir);
+        StartupBenchmark benchmark = new StartupBenchmark();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        System.out.printf("%n%-10s %14s %14s %14s %12s%n", "variant", "median ms", "min ms", "max ms", "RSS MB");
+        for (Variant variant : variants) {
+            List<Long> millis = new ArrayList<>();
+            List<Long> rssKb = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                long[] sample = benchmark.measure(variant, profiles,
+                        outputDir.resolve("startup-" + variant.name().replace('+', '-') + ".log"));
+                millis.add(sample[0]);
+                rssKb.add(sample[1]);
+            }
+            millis.sort(null);
+            rssKb.sort(null);
+            long medianRssMb = median(rssKb) / 1024;
+            System.out.printf("%-10s %14d %14d %14d %12d%n", variant.name(), median(millis), millis.get(0),
+                    millis.get(millis.size() - 1), medianRssMb);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("timeToFirstRequestMillis", millis);
+            result.put("medianMillis", median(millis));
+            result.put("medianRssMb", medianRssMb);
+            results.put(variant.name(), result);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("runs", runs);
+        report.put("profiles", profiles);
+        report.put("jvmArgs", jvmArgs);
+        report.put("variants", results);
+        Path file = outputDir.resolve("startup-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file.toFile(), report);
+        System.out.println();
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    /**
+     * @return time to the first successful request in milliseconds, and RSS in KB at that moment
+     */
+    private long[] measure(Variant variant, String profiles, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(variant.command());
+        command.addAll(List.of("--spring.profiles.active=" + profiles, "--server.port=" + port));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " exited with " + process.exitValue()
+                            + ", see " + log);
+                }
+                if (isOk(request)) {
+                    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    return new long[]{elapsedMillis, rssKb(process.pid())};
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            throw new IllegalStateException(variant.name() + " did not answer within " + STARTUP_TIMEOUT
+                    + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private boolean isOk(HttpRequest request) throws InterruptedException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // Not listening yet
+            return false;
+        }
+    }
+
+    static List<String> javaCommand(List<String> jvmArgs, List<String> variantArgs, Path jar) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(variantArgs);
+        command.addAll(List.of("-jar", jar.toString()));
+        return command;
+    }
+
+    /** Reads VmRSS from /proc on Linux, falls back to {@code ps} elsewhere. */
+    static long rssKb(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (Files.isReadable(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", String.valueOf(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return output.isEmpty() ? -1 : Long.parseLong(output);
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> sorted) {
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private record Variant(String name, List<String> command) {
+    }
+}
@@ -0,0 +1,45 @@
+package edts.week8_practice1.loadtest;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delays every JDBC statement of the embedded application by {@code overload.statement-delay-ms},
+ * standing in for the round trip to a database server. With H2 in memory every statement is pure
+ * CPU; with the delay, capacity is bounded by the connection pool, as with MySQL in production.
+ *
+ * Not a {@code @Configuration}, so that component scanning does not pick it up; added with
+ * {@code --spring.main.sources} by {@link OverloadBenchmark}.
+ */
+public class StatementDelayConfig {
+
+    @Bean
+    public static BeanPostProcessor statementDelayPostProcessor(Environment environment) {
+        long delayMillis = environment.getProperty("overload.statement-delay-ms", Long.class, 0L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (delayMillis > 0 && bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .beforeQuery((execInfo, queryInfoList) -> sleep(delayMillis))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package edts.week8_practice1.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * A load test scenario. Each worker thread calls {@link #runOnce} in a loop
+ * until the measurement window closes.
+ */
+public interface Workload {
+
+    String name();
+
+    void runOnce(ApiClient client, SeedData seedData, SplittableRandom random);
+}
@@ -0,0 +1,78 @@
+package edts.week8_practice1.bulkhead;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Takes a connection permit of the current {@link TrafficClass} before a connection is handed
+ * out and gives it back when the connection is closed. Connections outside of requests are
+ * not limited. The bulkheads are looked up on the first request, since the DataSource is
+ * created before them.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Supplier<Bulkheads> bulkheads;
+
+    public BulkheadDataSource(DataSource targetDataSource, Supplier<Bulkheads> bulkheads) {
+        super(targetDataSource);
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        TrafficClass trafficClass = TrafficClassContext.current();
+        if (trafficClass == null) {
+            return super.getConnection();
+        }
+        bulkheads.get().acquireConnection(trafficClass);
+        try {
+            return releasingOnClose(super.getConnection(), trafficClass);
+        } catch (SQLException | RuntimeException e) {
+            bulkheads.get().releaseConnection(trafficClass);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        TrafficClass trafficClass = TrafficClassContext.current();
+        if (trafficClass == null) {
+            return super.getConnection(username, password);
+        }
+        bulkheads.get().acquireConnection(trafficClass);
+        try {
+            return releasingOnClose(super.getConnection(username, password), trafficClass);
+        } catch (SQLException | RuntimeException e) {
+            bulkheads.get().releaseConnection(trafficClass);
+            throw e;
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection, TrafficClass trafficClass) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0
+                            && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            bulkheads.get().releaseConnection(trafficClass);
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package edts.week8_practice1.bulkhead;
+
+import edts.week8_practice1.exception.BulkheadFullException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Classifies controller requests by endpoint, admits them through the request slots of their
+ * {@link TrafficClass} and exposes the class to {@link BulkheadDataSource} for the rest of the
+ * request. A request that finds no slot within the class's wait fails with
+ * {@link BulkheadFullException} (503 with Retry-After).
+ */
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String CLASS_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".class";
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private final Bulkheads bulkheads;
+    private final BulkheadProperties properties;
+
+    public BulkheadInterceptor(Bulkheads bulkheads, BulkheadProperties properties) {
+        this.bulkheads = bulkheads;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod) || pattern == null) {
+            return true;
+        }
+        TrafficClass trafficClass = properties.classify(request.getMethod(), pattern.toString());
+        if (!bulkheads.tryAcquireRequest(trafficClass)) {
+            throw new BulkheadFullException(trafficClass.tag(), RETRY_AFTER_SECONDS);
+        }
+        request.setAttribute(CLASS_ATTRIBUTE, trafficClass);
+        TrafficClassContext.set(trafficClass);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(CLASS_ATTRIBUTE) instanceof TrafficClass trafficClass) {
+            request.removeAttribute(CLASS_ATTRIBUTE);
+            TrafficClassContext.clear();
+            bulkheads.releaseRequest(trafficClass);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package edts.week8_practice1.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bulkheads per traffic class ({@code bulkheads.*}). Disabled by default.
+ *
+ * Endpoints are assigned to a class by HTTP method and URI template, e.g.
+ * {@code "[POST /api/orders]": checkout}. Endpoints without an entry are {@code browse}
+ * for GET and {@code admin} otherwise.
+ */
+@Component
+@ConfigurationProperties(prefix = "bulkheads")
+public class BulkheadProperties {
+
+    private boolean enabled = false;
+
+    private Map<TrafficClass, Limits> classes = new EnumMap<>(Map.of(
+            TrafficClass.CHECKOUT, new Limits(200, 1000, 20, 5000),
+            TrafficClass.BROWSE, new Limits(120, 100, 12, 1000),
+            TrafficClass.ADMIN, new Limits(10, 0, 4, 1000)));
+
+    private Map<String, TrafficClass> endpoints = new LinkedHashMap<>();
+
+    public TrafficClass classify(String method, String uri) {
+        TrafficClass trafficClass = endpoints.get(method + " " + uri);
+        if (trafficClass != null) {
+            return trafficClass;
+        }
+        return "GET".equals(method) ? TrafficClass.BROWSE : TrafficClass.ADMIN;
+    }
+
+    public Limits limits(TrafficClass trafficClass) {
+        return classes.get(trafficClass);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<TrafficClass, Limits> getClasses() {
+        return classes;
+    }
+
+    public void setClasses(Map<TrafficClass, Limits> classes) {
+        this.classes = classes;
+    }
+
+    public Map<String, TrafficClass> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, TrafficClass> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /** Share of one traffic class. */
+    public static class Limits {
+
+        /** Requests of the class processed at once. */
+        private int maxConcurrentRequests;
+
+        /** Milliseconds a request waits for a slot before it is rejected with 503; 0: no wait. */
+        private long maxRequestWaitMs;
+
+        /** Database connections the class holds at once. */
+        private int maxConnections;
+
+        /** Milliseconds a request waits for one of the class's connections before it fails. */
+        private long maxConnectionWaitMs;
+
+        public Limits() {
+        }
+
+        public Limits(int maxConcurrentRequests, long maxRequestWaitMs, int maxConnections,
+                      long maxConnectionWaitMs) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            this.maxRequestWaitMs = maxRequestWaitMs;
+            this.maxConnections = maxConnections;
+            this.maxConnectionWaitMs = maxConnectionWaitMs;
+        }
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public long getMaxRequestWaitMs() {
+            return maxRequestWaitMs;
+        }
+
+        public void setMaxRequestWaitMs(long maxRequestWaitMs) {
+            this.maxRequestWaitMs = maxRequestWaitMs;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public long getMaxConnectionWaitMs() {
+            return maxConnectionWaitMs;
+        }
+
+        public void setMaxConnectionWaitMs(long maxConnectionWaitMs) {
+            this.maxConnectionWaitMs = maxConnectionWaitMs;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package edts.week8_practice1.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request and connection permits per {@link TrafficClass}.
+ *
+ * All classes share Tomcat's threads and the connection pool; the permits cap how much of
+ * each a class can hold. Checkout is allowed the whole pool, the other classes together less
+ * than that, so a burst of listings or catalog reads always leaves connections for checkout.
+ */
+public class Bulkheads {
+
+    private final Map<TrafficClass, Compartment> compartments = new EnumMap<>(TrafficClass.class);
+
+    public Bulkheads(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            compartments.put(trafficClass, new Compartment(trafficClass, properties.limits(trafficClass),
+                    meterRegistry));
+        }
+    }
+
+    /**
+     * Takes a request slot of the class, waiting up to its {@code max-request-wait-ms}.
+     *
+     * @return {@code false} if none became free in time
+     */
+    public boolean tryAcquireRequest(TrafficClass trafficClass) throws InterruptedException {
+        return compartments.get(trafficClass).acquireRequest();
+    }
+
+    public void releaseRequest(TrafficClass trafficClass) {
+        compartments.get(trafficClass).requests.release();
+    }
+
+    /**
+     * Takes a connection permit of the class, waiting up to its {@code max-connection-wait-ms}.
+     *
+     * @throws SQLTransientConnectionException if none became free in time, like a pool timeout
+     */
+    public void acquireConnection(TrafficClass trafficClass) throws SQLTransientConnectionException {
+        compartments.get(trafficClass).acquireConnection();
+    }
+
+    public void releaseConnection(TrafficClass trafficClass) {
+        compartments.get(trafficClass).connections.release();
+    }
+
+    private static final class Compartment {
+        private final TrafficClass trafficClass;
+        private final BulkheadProperties.Limits limits;
+        private final Semaphore requests;
+        private final Semaphore connections;
+        private final Counter rejected;
+        private final Counter connectionTimeouts;
+        private final Timer connectionAcquire;
+
+        Compartment(TrafficClass trafficClass, BulkheadProperties.Limits limits, MeterRegistry meterRegistry) {
+            this.trafficClass = trafficClass;
+            this.limits = limits;
+            this.requests = new Semaphore(limits.getMaxConcurrentRequests());
+            this.connections = new Semaphore(limits.getMaxConnections());
+            String tag = trafficClass.tag();
+            Gauge.builder("bulkhead.requests.active", requests,
+                            semaphore -> limits.getMaxConcurrentRequests() - semaphore.availablePermits())
+                    .description("Requests of the traffic class being processed")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.connections.active", connections,
+                            semaphore -> limits.getMaxConnections() - semaphore.availablePermits())
+                    .description("Database connections held by the traffic class")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("bulkhead.requests.rejected")
+                    .description("Requests rejected with 503 because the traffic class was full")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            this.connectionTimeouts = Counter.builder("bulkhead.connections.timeout")
+                    .description("Connection requests that found no permit of the traffic class in time")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            this.connectionAcquire = Timer.builder("bulkhead.connections.acquire")
+                    .description("Time waiting for a connection permit of the traffic class")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+        }
+
+        boolean acquireRequest() throws InterruptedException {
+            if (requests.tryAcquire(limits.getMaxRequestWaitMs(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+
+        void acquireConnection() throws SQLTransientConnectionException {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = connections.tryAcquire(limits.getMaxConnectionWaitMs(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a connection of "
+                        + trafficClass.tag());
+            }
+            connectionAcquire.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                connectionTimeouts.increment();
+                throw new SQLTransientConnectionException(String.format(
+                        "No %s connection available within %d ms (%d in use)", trafficClass.tag(),
+                        limits.getMaxConnectionWaitMs(), limits.getMaxConnections()));
+            }
+        }
+    }
+}
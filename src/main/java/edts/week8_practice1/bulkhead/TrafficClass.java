@@ -0,0 +1,18 @@
+package edts.week8_practice1.bulkhead;
+
+/**
+ * Traffic classes that get their own share of request threads and database connections.
+ */
+public enum TrafficClass {
+    /** Creating, paying and cancelling orders. */
+    CHECKOUT,
+    /** Catalog, single order and customer reads. */
+    BROWSE,
+    /** Order and customer listings, catalog and customer maintenance. */
+    ADMIN;
+
+    /** Value of the {@code class} metric tag. */
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,25 @@
+package edts.week8_practice1.bulkhead;
+
+/**
+ * Traffic class of the request on the current thread; {@code null} outside of requests
+ * (scheduled jobs, startup), which are not limited.
+ */
+public final class TrafficClassContext {
+
+    private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+
+    private TrafficClassContext() {
+    }
+
+    public static void set(TrafficClass trafficClass) {
+        CURRENT.set(trafficClass);
+    }
+
+    public static TrafficClass current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
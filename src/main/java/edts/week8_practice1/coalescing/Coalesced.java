@@ -0,0 +1,18 @@
+package edts.week8_practice1.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read whose concurrent calls with equal arguments may share one execution, see
+ * {@link CoalescingAspect}. Only for methods without side effects whose result is not modified
+ * by the caller, since all waiting callers get the same instance.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
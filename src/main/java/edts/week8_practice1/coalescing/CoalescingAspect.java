@@ -0,0 +1,100 @@
+package edts.week8_practice1.coalescing;
+
+import edts.week8_practice1.datasource.ReadYourWritesContext;
+import edts.week8_practice1.exception.CoalescedReadTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets concurrent calls of a {@link Coalesced} method with equal arguments share one execution.
+ *
+ * Runs outside of {@code @Transactional}: only the leader opens a transaction and takes a
+ * connection, the callers waiting for it hold neither. Calls made inside a transaction, or in
+ * a request pinned to the primary (read-your-writes), run on their own, since they must see
+ * their own writes.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CoalescingAspect {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final RequestCoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Operation> operations = new ConcurrentHashMap<>();
+
+    public CoalescingAspect(RequestCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("coalescing.inflight", singleFlight, SingleFlight::size)
+                .description("Coalesced reads currently running")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(edts.week8_practice1.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive() || ReadYourWritesContext.isPinned()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Operation operation = operations.computeIfAbsent(method, this::operation);
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs().clone()));
+        try {
+            return singleFlight.execute(key, joinPoint::proceed, properties.getWaitTimeoutMs(), operation);
+        } catch (TimeoutException e) {
+            operation.timeouts().increment();
+            throw new CoalescedReadTimeoutException(operation.name(), properties.getWaitTimeoutMs(),
+                    properties.getRetryAfterSeconds());
+        }
+    }
+
+    private Operation operation(Method method) {
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return new Operation(name,
+                calls(name, "leader", "Calls that ran the read"),
+                calls(name, "follower", "Calls that shared the read of a concurrent caller"),
+                Counter.builder("coalescing.timeouts")
+                        .description("Calls that gave up waiting for the shared read")
+                        .tag("operation", name)
+                        .register(meterRegistry));
+    }
+
+    private Counter calls(String name, String role, String description) {
+        return Counter.builder("coalescing.calls")
+                .description(description)
+                .tag("operation", name)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private record Key(Method method, List<Object> args) {
+    }
+
+    private record Operation(String name, Counter leaders, Counter followers, Counter timeouts)
+            implements SingleFlight.Listener {
+
+        @Override
+        public void led() {
+            leaders.increment();
+        }
+
+        @Override
+        public void joined() {
+            followers.increment();
+        }
+    }
+}
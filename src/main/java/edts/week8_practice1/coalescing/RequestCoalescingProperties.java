@@ -0,0 +1,47 @@
+package edts.week8_practice1.coalescing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sharing of concurrent identical reads ({@code request-coalescing.*}), see
+ * {@link CoalescingAspect}. Disabled by default.
+ */
+@Component
+@ConfigurationProperties(prefix = "request-coalescing")
+public class RequestCoalescingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Milliseconds a caller waits for the read already running for the same arguments. After
+     * that it gets 503 instead of starting another query.
+     */
+    private long waitTimeoutMs = 1000;
+
+    private int retryAfterSeconds = 1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getWaitTimeoutMs() {
+        return waitTimeoutMs;
+    }
+
+    public void setWaitTimeoutMs(long waitTimeoutMs) {
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,83 @@
+package edts.week8_practice1.coalescing;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs at most one call per key at a time. The first caller of a key (the leader) runs the
+ * call on its own thread; callers that arrive while it is running wait for it and get the same
+ * result, or the same exception. A key is forgotten as soon as its call returns, so results
+ * are never reused by later callers.
+ */
+public class SingleFlight {
+
+    private final Map<Object, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * A call that may throw anything its caller may throw, such as
+     * {@code ProceedingJoinPoint::proceed}.
+     */
+    @FunctionalInterface
+    public interface Call {
+        Object run() throws Throwable;
+    }
+
+    /**
+     * What the caller did: ran the call or waited for another caller's.
+     */
+    public interface Listener {
+        void led();
+
+        void joined();
+    }
+
+    /**
+     * Runs the call, or waits up to {@code timeoutMillis} for the one already running for the key.
+     *
+     * @throws TimeoutException if the running call did not return in time
+     */
+    public Object execute(Object key, Call call, long timeoutMillis, Listener listener) throws Throwable {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            listener.joined();
+            return await(running, timeoutMillis);
+        }
+
+        listener.led();
+        Object result;
+        try {
+            result = call.run();
+        } catch (Throwable e) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        // Removed first: callers from now on start a new call and see the latest data
+        flights.remove(key, flight);
+        flight.complete(result);
+        return result;
+    }
+
+    /**
+     * Calls currently running.
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    private static Object await(CompletableFuture<Object> running, long timeoutMillis) throws Throwable {
+        try {
+            return running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package edts.week8_practice1.concurrency;
+
+import edts.week8_practice1.exception.ConcurrencyLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Admits controller requests through the {@link ConcurrencyLimiter} of their endpoint. A request
+ * over the limit fails right away with {@link ConcurrencyLimitExceededException} (503 with
+ * Retry-After) instead of waiting for a thread or connection. Admitted requests report their
+ * latency and whether they failed when they complete. Only an unhandled exception or a 500
+ * counts as a failure: the 503s shed on purpose further in (bulkheads, coalescing timeouts,
+ * lock conflicts) say nothing about this endpoint's capacity and would shrink its limit.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limit";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod) || pattern == null) {
+            return true;
+        }
+        String uri = pattern.toString();
+        VegasLimit limit = limiter.tryAcquire(request.getMethod(), uri);
+        if (limit == null) {
+            throw new ConcurrencyLimitExceededException(request.getMethod() + " " + uri,
+                    limiter.getRetryAfterSeconds());
+        }
+        request.setAttribute(LIMIT_ATTRIBUTE, limit);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(LIMIT_ATTRIBUTE) instanceof VegasLimit limit) {
+            request.removeAttribute(LIMIT_ATTRIBUTE);
+            long start = (Long) request.getAttribute(START_ATTRIBUTE);
+            limit.release(System.nanoTime() - start,
+                    ex != null || response.getStatus() == HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package edts.week8_practice1.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits of the {@code /api/**} endpoints ({@code concurrency-limit.*}).
+ * Disabled by default.
+ *
+ * Every endpoint (HTTP method and URI template) has its own limit, which starts at
+ * {@code initial-limit} and moves between {@code min-limit} and {@code max-limit}.
+ * Endpoints can override the bounds, e.g. {@code "[POST /api/orders]": {max-limit: 20}}.
+ */
+@Component
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = false;
+
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+
+    /** Completed requests per limit update. */
+    private int windowSize = 20;
+
+    /** Windows after which the no-queueing latency is measured again. */
+    private int probeInterval = 100;
+
+    /** Factor applied to the limit when a window contains a failed request (500). */
+    private double backoffRatio = 0.9;
+
+    /** Value of the Retry-After header of rejected requests. */
+    private int retryAfterSeconds = 1;
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public Endpoint endpoint(String method, String uri) {
+        Endpoint override = endpoints.get(method + " " + uri);
+        Endpoint limits = new Endpoint();
+        limits.setInitialLimit(override != null && override.getInitialLimit() != null
+                ? override.getInitialLimit() : initialLimit);
+        limits.setMinLimit(override != null && override.getMinLimit() != null ? override.getMinLimit() : minLimit);
+        limits.setMaxLimit(override != null && override.getMaxLimit() != null ? override.getMaxLimit() : maxLimit);
+        return limits;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getProbeInterval() {
+        return probeInterval;
+    }
+
+    public void setProbeInterval(int probeInterval) {
+        this.probeInterval = probeInterval;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /** Limit bounds of one endpoint; unset values fall back to the defaults above. */
+    public static class Endpoint {
+        private Integer initialLimit;
+        private Integer minLimit;
+        private Integer maxLimit;
+
+        public Integer getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(Integer initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public Integer getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(Integer minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public Integer getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(Integer maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+}
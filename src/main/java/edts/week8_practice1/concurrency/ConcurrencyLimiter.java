@@ -0,0 +1,69 @@
+package edts.week8_practice1.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link VegasLimit} per endpoint (HTTP method and URI template), created on first use
+ * with the bounds from {@link ConcurrencyLimitProperties}. Publishes the limit, the requests in
+ * flight and the rejections of every endpoint.
+ */
+public class ConcurrencyLimiter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointLimit> endpoints = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Admits a request to the endpoint.
+     *
+     * @return the limit to release the request to, or {@code null} if it was rejected
+     */
+    public VegasLimit tryAcquire(String method, String uri) {
+        EndpointLimit endpoint = endpoints.computeIfAbsent(method + " " + uri, key -> create(method, uri));
+        if (endpoint.limit().tryAcquire()) {
+            return endpoint.limit();
+        }
+        endpoint.rejected().increment();
+        return null;
+    }
+
+    public int getRetryAfterSeconds() {
+        return properties.getRetryAfterSeconds();
+    }
+
+    private EndpointLimit create(String method, String uri) {
+        ConcurrencyLimitProperties.Endpoint bounds = properties.endpoint(method, uri);
+        VegasLimit limit = new VegasLimit(bounds.getInitialLimit(), bounds.getMinLimit(),
+                bounds.getMaxLimit(), properties.getWindowSize(), properties.getProbeInterval(),
+                properties.getBackoffRatio());
+        Gauge.builder("http.server.concurrency.limit", limit, VegasLimit::getLimit)
+                .description("Current concurrency limit of the endpoint")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.inflight", limit, VegasLimit::getInFlight)
+                .description("Requests of the endpoint being processed")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("http.server.concurrency.rejected")
+                .description("Requests rejected with 503 because the endpoint was at its limit")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+        return new EndpointLimit(limit, rejected);
+    }
+
+    private record EndpointLimit(VegasLimit limit, Counter rejected) {
+    }
+}
@@ -0,0 +1,124 @@
+package edts.week8_practice1.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit of one endpoint that adapts to its latency, in the style of TCP Vegas.
+ *
+ * Requests beyond the limit are not admitted. Completed requests are collected in windows of
+ * {@code windowSize}. The lowest window latency seen is taken as the latency without queueing, so
+ * {@code limit * (1 - minRtt / rtt)} estimates how many requests are waiting rather than being
+ * worked on. While that queue is short the limit grows, and when it exceeds a few requests
+ * (6 log10(limit)) the limit shrinks by log10(limit) per window. A window with a failed request
+ * multiplies the limit by {@code backoffRatio}. Windows in which less than half the limit was in
+ * use do not raise it, since they say nothing about the capacity.
+ *
+ * Every {@code probeInterval} windows the latency baseline is taken again from the current
+ * window, so that it follows lasting changes such as a growing table.
+ */
+public class VegasLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final int probeInterval;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double minRtt;
+    private int windows;
+    private int samples;
+    private long rttSum;
+    private int maxInFlight;
+    private boolean dropped;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int windowSize, int probeInterval,
+                      double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = windowSize;
+        this.probeInterval = probeInterval;
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Admits a request if fewer than {@link #getLimit()} are in flight. An admitted request must
+     * be {@link #release released}.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases an admitted request.
+     *
+     * @param rttNanos time the request took
+     * @param failed   whether it failed (unhandled exception or 500), not shed on purpose
+     */
+    public void release(long rttNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        sample(rttNanos, current, failed);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int currentInFlight, boolean failed) {
+        samples++;
+        rttSum += rttNanos;
+        maxInFlight = Math.max(maxInFlight, currentInFlight);
+        dropped |= failed;
+        if (samples < windowSize) {
+            return;
+        }
+        update(Math.max(1.0, (double) rttSum / samples), maxInFlight, dropped);
+        samples = 0;
+        rttSum = 0;
+        maxInFlight = 0;
+        dropped = false;
+    }
+
+    private void update(double rtt, int windowInFlight, boolean windowDropped) {
+        if (++windows % probeInterval == 0 || minRtt == 0 || rtt < minRtt) {
+            minRtt = rtt;
+        }
+
+        double log = Math.max(1.0, Math.log10(estimatedLimit));
+        double queue = estimatedLimit * (1 - minRtt / rtt);
+        double newLimit;
+        if (windowDropped) {
+            newLimit = estimatedLimit * backoffRatio;
+        } else if (queue > 6 * log) {
+            newLimit = estimatedLimit - log;
+        } else if (windowInFlight < estimatedLimit / 2) {
+            return;
+        } else if (queue <= log) {
+            newLimit = estimatedLimit + 6 * log;
+        } else if (queue < 3 * log) {
+            newLimit = estimatedLimit + log;
+        } else {
+            return;
+        }
+        estimatedLimit = clamp(newLimit, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
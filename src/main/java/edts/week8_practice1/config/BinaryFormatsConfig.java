@@ -0,0 +1,84 @@
+package edts.week8_practice1.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jackson.autoconfigure.JacksonProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Binary Formats Configuration
+ *
+ * Serves CBOR and Smile next to JSON, for internal consumers that poll the list endpoints and
+ * spend their CPU on parsing JSON. Both encode the same DTOs through the same Jackson
+ * annotations, so the schema in the OpenAPI document holds for them as well. Clients select
+ * a format with {@code Accept}; JSON stays the default. The CBOR mapper is Spring Boot's,
+ * configured by {@code spring.jackson.*} like the JSON one. Boot has no Smile mapper, so this
+ * one gets Boot's defaults, the {@code spring.jackson.*} features, inclusion, time zone and
+ * locale, and the registered modules applied by hand.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final CBORMapper cborMapper;
+    private final JacksonProperties jacksonProperties;
+    private final ObjectProvider<JacksonModule> modules;
+
+    public BinaryFormatsConfig(CBORMapper cborMapper, JacksonProperties jacksonProperties,
+                               ObjectProvider<JacksonModule> modules) {
+        this.cborMapper = cborMapper;
+        this.jacksonProperties = jacksonProperties;
+        this.modules = modules;
+    }
+
+    /**
+     * Mirrors the parts of Boot's standard JSON/CBOR customizer that this application relies on
+     */
+    @Bean
+    public SmileMapper smileMapper() {
+        SmileMapper.Builder builder = SmileMapper.builder();
+        if (jacksonProperties.isUseJackson2Defaults()) {
+            builder.configureForJackson2()
+                    .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS, DateTimeFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+        }
+        if (jacksonProperties.isFindAndAddModules()) {
+            builder.findAndAddModules(getClass().getClassLoader());
+        }
+        JsonInclude.Include include = jacksonProperties.getDefaultPropertyInclusion();
+        if (include != null) {
+            builder.changeDefaultPropertyInclusion(
+                    inclusion -> inclusion.withValueInclusion(include).withContentInclusion(include));
+        }
+        if (jacksonProperties.getTimeZone() != null) {
+            builder.defaultTimeZone(jacksonProperties.getTimeZone());
+        }
+        if (jacksonProperties.getLocale() != null) {
+            builder.defaultLocale(jacksonProperties.getLocale());
+        }
+        jacksonProperties.getDeserialization().forEach(builder::configure);
+        jacksonProperties.getSerialization().forEach(builder::configure);
+        jacksonProperties.getMapper().forEach(builder::configure);
+        jacksonProperties.getDatatype().getDatetime().forEach(builder::configure);
+        jacksonProperties.getDatatype().getEnum().forEach(builder::configure);
+        jacksonProperties.getDatatype().getJsonNode().forEach(builder::configure);
+        builder.addModules(modules.orderedStream().toList());
+        return builder.build();
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper()));
+    }
+}
@@ -0,0 +1,65 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.bulkhead.BulkheadDataSource;
+import edts.week8_practice1.bulkhead.BulkheadInterceptor;
+import edts.week8_practice1.bulkhead.BulkheadProperties;
+import edts.week8_practice1.bulkhead.Bulkheads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Bulkheads
+ *
+ * Gives checkout, browse and admin traffic (see TrafficClass) their own share of request
+ * threads and database connections, so that a burst in one class cannot starve checkout.
+ * Requests are classified per endpoint; the DataSource is wrapped so that connections are
+ * counted against the class of the request that takes them.
+ * Enabled with bulkheads.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bulkheads", name = "enabled", havingValue = "true")
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public BulkheadConfig(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public Bulkheads bulkheads() {
+        return new Bulkheads(properties, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<Bulkheads> bulkheads) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, bulkheads::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // After the concurrency limits, so that requests they reject take no slot
+        registry.addInterceptor(new BulkheadInterceptor(bulkheads(), properties))
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE + 1);
+    }
+}
@@ -0,0 +1,46 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.concurrency.ConcurrencyLimitInterceptor;
+import edts.week8_practice1.concurrency.ConcurrencyLimitProperties;
+import edts.week8_practice1.concurrency.ConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Adaptive Concurrency Limits
+ *
+ * Limits the requests processed at once per /api/** endpoint. The limits follow the
+ * latency of each endpoint; requests over the limit get 503 with Retry-After right away
+ * instead of queueing for a Tomcat thread or a database connection.
+ * Enabled with concurrency-limit.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimitConfig(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter() {
+        return new ConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so that rejected requests do no other work
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiter()))
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -67,7 +67,9 @@ public class CorsConfig {
             "Accept",
             "Origin",
             "Access-Control-Request-Method",
-            "Access-Control-Request-Headers"
+            "Access-Control-Request-Headers",
+            "If-None-Match",
+            "If-Modified-Since"
         ));
 
         // Exposed headers (what the browser can read from response)
@@ -75,7 +77,11 @@ public class CorsConfig {
             "Access-Control-Allow-Origin",
             "Access-Control-Allow-Credentials",
             "X-Total-Count",
-            "X-Page-Count"
+            "X-Page-Count",
+            "X-Query-Count",
+            "X-Query-Time-Ms",
+            "ETag",
+            "Last-Modified"
         ));
 
         // How long preflight request cache is valid (1 hour)
@@ -0,0 +1,114 @@
+package edts.week8_practice1.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import edts.week8_practice1.datasource.DataSourceRoutingProperties;
+import edts.week8_practice1.datasource.ReadYourWritesInterceptor;
+import edts.week8_practice1.datasource.ReadYourWritesTracker;
+import edts.week8_practice1.datasource.ReplicaHealthChecker;
+import edts.week8_practice1.datasource.ReplicaPool;
+import edts.week8_practice1.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/Write DataSource Routing
+ *
+ * Replaces the auto-configured DataSource when datasource-routing.enabled=true.
+ * Connections are fetched lazily, after the transaction has been marked read-only, so
+ * {@code @Transactional(readOnly = true)} methods are served by a replica and everything
+ * else by the primary (spring.datasource.*). Replicas that fail or lag are skipped until
+ * the health check puts them back.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+
+    private final DataSourceRoutingProperties routingProperties;
+
+    public DataSourceRoutingConfig(DataSourceRoutingProperties routingProperties) {
+        this.routingProperties = routingProperties;
+    }
+
+    /**
+     * Primary and replica pools. Not exposed as DataSource beans, so that only the
+     * routing DataSource is instrumented and injected.
+     */
+    @Bean(destroyMethod = "close")
+    public RoutingPools routingPools(DataSourceProperties dataSourceProperties, Environment environment,
+                                     MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricRegistry(meterRegistry);
+
+        List<ReplicaPool> replicas = new ArrayList<>();
+        for (DataSourceRoutingProperties.Replica replica : routingProperties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(replica.getName());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            if (replica.getDriverClassName() != null) {
+                pool.setDriverClassName(replica.getDriverClassName());
+            }
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setConnectionTimeout(replica.getConnectionTimeoutMs());
+            pool.setReadOnly(true);
+            // Start even if a replica is down; the health check keeps it out of rotation
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(meterRegistry);
+            replicas.add(new ReplicaPool(replica.getName(), pool));
+        }
+        return new RoutingPools(primary, replicas);
+    }
+
+    @Bean
+    public DataSource dataSource(RoutingPools routingPools, MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingPools.primary());
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(routingPools.primary(),
+                routingPools.replicas(), meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(routingProperties.getReadYourWritesSeconds());
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(RoutingPools routingPools,
+                                                     ReadYourWritesTracker readYourWritesTracker) {
+        return new ReplicaHealthChecker(routingPools.replicas(), routingProperties, readYourWritesTracker);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesTracker()))
+                .addPathPatterns("/api/**");
+    }
+
+    public record RoutingPools(HikariDataSource primary, List<ReplicaPool> replicas) {
+
+        public void close() {
+            replicas.forEach(replica -> replica.getDataSource().close());
+            primary.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.dto.common.StreamingPage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON Streaming Configuration
+ *
+ * Registers the converter that writes {@link StreamingPage} list responses incrementally,
+ * in JSON or in one of the binary formats of {@link BinaryFormatsConfig}.
+ * Response compression is configured in application.yaml ({@code server.compression.*}).
+ */
+@Configuration
+public class JsonStreamingConfig {
+
+    @Bean
+    public StreamingPageHttpMessageConverter streamingPageHttpMessageConverter(JsonMapper jsonMapper,
+            CBORMapper cborMapper, SmileMapper smileMapper) {
+        Map<MediaType, ObjectMapper> binaryMappers = new LinkedHashMap<>();
+        binaryMappers.put(MediaType.APPLICATION_CBOR, cborMapper);
+        binaryMappers.put(BinaryFormatsConfig.APPLICATION_SMILE, smileMapper);
+        return new StreamingPageHttpMessageConverter(jsonMapper, binaryMappers);
+    }
+}
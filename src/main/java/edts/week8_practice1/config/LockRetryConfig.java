@@ -0,0 +1,25 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.locking.LockRetryAspect;
+import edts.week8_practice1.locking.LockRetryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lock Conflict Retry
+ *
+ * Checkout, pay and cancel (@RetryOnLockConflict) are run again in a new transaction when the
+ * database picks them as deadlock victim or they time out waiting for a row lock, a bounded
+ * number of times with a jittered backoff. Enabled with lock-retry.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lock-retry", name = "enabled", havingValue = "true")
+public class LockRetryConfig {
+
+    @Bean
+    public LockRetryAspect lockRetryAspect(LockRetryProperties properties, MeterRegistry meterRegistry) {
+        return new LockRetryAspect(properties, meterRegistry);
+    }
+}
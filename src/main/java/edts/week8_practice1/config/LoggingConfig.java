@@ -0,0 +1,27 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.logging.HotPathLoggingProperties;
+import edts.week8_practice1.logging.LoggingMetrics;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Logging Configuration
+ *
+ * Creates the hot-path loggers with the budget of the active profile and exports the logging
+ * metrics. Appenders (async, JSON file output) are defined in logback-spring.xml.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public SampledLoggerFactory sampledLoggerFactory(HotPathLoggingProperties properties) {
+        return new SampledLoggerFactory(properties.getMaxPerSecond());
+    }
+
+    @Bean
+    public LoggingMetrics loggingMetrics(SampledLoggerFactory sampledLoggerFactory) {
+        return new LoggingMetrics(sampledLoggerFactory);
+    }
+}
@@ -0,0 +1,26 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.inventory.LowStockProperties;
+import edts.week8_practice1.inventory.LowStockReconciler;
+import edts.week8_practice1.repository.ProductRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Low-Stock Detection
+ *
+ * Loads the in-memory low-stock set (GET /api/products/low-stock) at startup and rebuilds it
+ * every low-stock.reconcile-interval-ms. Stock changes update it in between.
+ */
+@Configuration
+@EnableScheduling
+public class LowStockConfig {
+
+    @Bean(initMethod = "load")
+    public LowStockReconciler lowStockReconciler(LowStockMonitor monitor, ProductRepository productRepository,
+                                                 LowStockProperties properties) {
+        return new LowStockReconciler(monitor, productRepository, properties);
+    }
+}
@@ -0,0 +1,50 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.metrics.SqlStatementListener;
+import edts.week8_practice1.metrics.SqlStatementMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Metrics Configuration
+ *
+ * Wraps the DataSource with datasource-proxy so that every JDBC statement is counted
+ * per HTTP request. Latency histograms, Hikari pool metrics and the Prometheus
+ * endpoint are configured in application.yaml ({@code management.*}).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
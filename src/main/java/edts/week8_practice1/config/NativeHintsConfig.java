@@ -0,0 +1,56 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.entity.ArchivedOrderItem;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Native Image Configuration
+ *
+ * Reachability metadata that Spring AOT cannot derive from the bean definitions. Entities,
+ * DTOs, repository and projection proxies and the logback appenders are registered by
+ * {@code process-aot} itself; see docs/PERFORMANCE.md.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ApplicationRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final List<Class<?>> PROXIED_JDBC_TYPES = List.of(DataSource.class, Connection.class,
+                Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class);
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // datasource-proxy (MetricsConfig) wraps every JDBC object in a JDK proxy
+            for (Class<?> jdbcType : PROXIED_JDBC_TYPES) {
+                hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+            }
+
+            // BulkheadDataSource gives back the connection permit on close
+            hints.proxies().registerJdkProxy(Connection.class);
+
+            // Controllers declare Page<T>; Jackson serializes the implementation
+            bindingHints.registerReflectionHints(hints.reflection(), PageImpl.class, PageRequest.class);
+
+            // ArchivedOrderItemsConverter reads and writes archived items as JSON
+            bindingHints.registerReflectionHints(hints.reflection(), ArchivedOrderItem.class);
+        }
+    }
+}
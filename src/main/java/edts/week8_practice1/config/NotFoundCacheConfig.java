@@ -0,0 +1,24 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.notfound.NotFoundCache;
+import edts.week8_practice1.notfound.NotFoundCacheAspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Not-Found Cache
+ *
+ * GET /api/products/{id} and /api/customers/{id} for an id that was not found within the last
+ * not-found-cache.ttl-ms answer 404 from memory, without a connection or a query. Creates
+ * remove their id. Enabled with not-found-cache.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "not-found-cache", name = "enabled", havingValue = "true")
+public class NotFoundCacheConfig {
+
+    @Bean
+    public NotFoundCacheAspect notFoundCacheAspect(NotFoundCache cache) {
+        return new NotFoundCacheAspect(cache);
+    }
+}
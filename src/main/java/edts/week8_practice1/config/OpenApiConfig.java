@@ -2,12 +2,17 @@ package edts.week8_practice1.config;
 
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.Content;
+import org.springdoc.core.customizers.OpenApiCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 
 @Configuration
 public class OpenApiConfig {
 
+    private static final String ANY = MediaType.ALL_VALUE;
+
     @Bean
     public OpenAPI customOpenAPI() {
         return new OpenAPI()
@@ -15,4 +20,23 @@ public class OpenApiConfig {
                         .title("Week 8 Practice 1 API - Deployment CI/CD - Testing")
                         .version("1.0"));
     }
+
+    /**
+     * Documents the responses as JSON, CBOR and Smile (see BinaryFormatsConfig) with the same
+     * schema, instead of a single entry for any media type.
+     */
+    @Bean
+    public OpenApiCustomizer responseFormatsCustomizer() {
+        return openApi -> openApi.getPaths().values().forEach(path -> path.readOperations().forEach(operation ->
+                operation.getResponses().values().forEach(response -> {
+                    Content content = response.getContent();
+                    if (content == null || !content.containsKey(ANY)) {
+                        return;
+                    }
+                    content.addMediaType(MediaType.APPLICATION_JSON_VALUE, content.remove(ANY));
+                    content.addMediaType(MediaType.APPLICATION_CBOR_VALUE, content.get(MediaType.APPLICATION_JSON_VALUE));
+                    content.addMediaType(BinaryFormatsConfig.APPLICATION_SMILE.toString(),
+                            content.get(MediaType.APPLICATION_JSON_VALUE));
+                })));
+    }
 }
@@ -0,0 +1,34 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.maintenance.OrderArchiveProperties;
+import edts.week8_practice1.maintenance.OrderArchiver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+
+/**
+ * Order Archive
+ *
+ * Moves old PAID and CANCELLED orders to archived_orders (migration V4) on a schedule.
+ * Enabled with order-archive.enabled=true. Reads fall back to the archive either way.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "order-archive", name = "enabled", havingValue = "true")
+public class OrderArchiveConfig {
+
+    @Bean
+    public OrderArchiver orderArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                       OrderArchiveProperties properties, MeterRegistry meterRegistry) {
+        // Timestamps are stored in the JVM zone (LocalDateTime.now() in the entities)
+        return new OrderArchiver(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                meterRegistry, Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,31 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.maintenance.OrderPartitionMaintainer;
+import edts.week8_practice1.maintenance.OrderPartitionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+/**
+ * Order Partition Maintenance
+ *
+ * Keeps monthly partitions of the orders table (MySQL, migration V3) created ahead of time.
+ * Enabled with order-partitions.enabled=true; checked at startup and daily.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "order-partitions", name = "enabled", havingValue = "true")
+public class OrderPartitionConfig {
+
+    @Bean
+    public OrderPartitionMaintainer orderPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                                             OrderPartitionProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        return new OrderPartitionMaintainer(jdbcTemplate, properties, meterRegistry, Clock.systemUTC());
+    }
+}
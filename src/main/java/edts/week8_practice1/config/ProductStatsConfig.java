@@ -0,0 +1,40 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.stats.ProductCounters;
+import edts.week8_practice1.stats.ProductStatsFlusher;
+import edts.week8_practice1.stats.ProductStatsJournal;
+import edts.week8_practice1.stats.ProductStatsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+/**
+ * Product Stats
+ *
+ * Flushes the in-memory product view and sales counters to product_stats (MySQL, migration V5)
+ * every few seconds. Enabled with product-stats.enabled=true; without it the counters are only
+ * kept in memory. The journal is read at startup and the counters are flushed on shutdown.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "product-stats", name = "enabled", havingValue = "true")
+public class ProductStatsConfig {
+
+    @Bean(initMethod = "restore", destroyMethod = "flush")
+    public ProductStatsFlusher productStatsFlusher(ProductCounters counters, JdbcTemplate jdbcTemplate,
+                                                   PlatformTransactionManager transactionManager,
+                                                   ProductStatsProperties properties, MeterRegistry meterRegistry) {
+        // Timestamps are stored in the JVM zone (LocalDateTime.now() in the entities)
+        return new ProductStatsFlusher(counters, new ProductStatsJournal(Path.of(properties.getJournal())),
+                jdbcTemplate, new TransactionTemplate(transactionManager), properties, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+}
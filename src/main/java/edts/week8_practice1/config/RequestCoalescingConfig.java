@@ -0,0 +1,25 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.coalescing.CoalescingAspect;
+import edts.week8_practice1.coalescing.RequestCoalescingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request Coalescing
+ *
+ * Concurrent calls of the @Coalesced service reads (product and customer by id) with the same
+ * id share one query and its result, so a burst for one hot product runs one query instead of
+ * one per request. Enabled with request-coalescing.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "request-coalescing", name = "enabled", havingValue = "true")
+public class RequestCoalescingConfig {
+
+    @Bean
+    public CoalescingAspect coalescingAspect(RequestCoalescingProperties properties, MeterRegistry meterRegistry) {
+        return new CoalescingAspect(properties, meterRegistry);
+    }
+}
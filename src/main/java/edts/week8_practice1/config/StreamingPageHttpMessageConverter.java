@@ -0,0 +1,111 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.dto.common.StreamingPage;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+import tools.jackson.core.JsonEncoding;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a {@link StreamingPage} with a streaming {@link JsonGenerator}: each element is
+ * mapped and serialized straight into the response buffer, so neither the DTO list nor
+ * the complete JSON document is held in memory. The output has the same shape as a
+ * serialized {@code Page}: {@code content} first, then the page metadata.
+ *
+ * JSON is the default; further formats (CBOR, Smile) are written by their own mapper when
+ * the client asks for them in {@code Accept}.
+ */
+public class StreamingPageHttpMessageConverter extends AbstractHttpMessageConverter<StreamingPage<?>> {
+
+    private static final String CONTENT_FIELD = "content";
+
+    private final Map<MediaType, Format> formats = new LinkedHashMap<>();
+
+    public StreamingPageHttpMessageConverter(JsonMapper jsonMapper) {
+        this(jsonMapper, Map.of());
+    }
+
+    /**
+     * @param binaryMappers mappers of the additional formats by media type, offered after JSON
+     */
+    public StreamingPageHttpMessageConverter(JsonMapper jsonMapper, Map<MediaType, ? extends ObjectMapper> binaryMappers) {
+        Format json = new Format(jsonMapper);
+        formats.put(MediaType.APPLICATION_JSON, json);
+        formats.put(new MediaType("application", "*+json"), json);
+        binaryMappers.forEach((mediaType, mapper) -> formats.put(mediaType, new Format(mapper)));
+        setSupportedMediaTypes(new ArrayList<>(formats.keySet()));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StreamingPage.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected StreamingPage<?> readInternal(Class<? extends StreamingPage<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("StreamingPage is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(StreamingPage<?> page, HttpOutputMessage outputMessage) throws IOException {
+        Format format = formatFor(outputMessage.getHeaders().getContentType());
+        ObjectNode metadata = format.mapper.valueToTree(page.metadata());
+        metadata.remove(CONTENT_FIELD);
+
+        try (JsonGenerator generator = format.mapper.createGenerator(
+                StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeName(CONTENT_FIELD);
+            generator.writeStartArray();
+            page.forEach(element -> format.elementWriter.writeValue(generator, element));
+            generator.writeEndArray();
+            for (Map.Entry<String, JsonNode> field : metadata.properties()) {
+                generator.writeName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private Format formatFor(MediaType contentType) {
+        if (contentType != null) {
+            for (Map.Entry<MediaType, Format> format : formats.entrySet()) {
+                if (format.getKey().includes(contentType)) {
+                    return format.getValue();
+                }
+            }
+        }
+        return formats.get(MediaType.APPLICATION_JSON);
+    }
+
+    private static final class Format {
+        private final ObjectMapper mapper;
+        private final ObjectWriter elementWriter;
+
+        Format(ObjectMapper mapper) {
+            this.mapper = mapper;
+            // The servlet container flushes when its buffer is full; a flush per element would send tiny chunks
+            this.elementWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edts.week8_practice1.controller;
+
+import edts.week8_practice1.exception.BusinessException;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks the ids of the multi-get endpoints. Duplicates are dropped, keeping the first
+ * occurrence, so the response follows the order of the request. Unlike the page size, the
+ * number of ids is not clamped: dropping ids would look like missing entities.
+ */
+final class Batches {
+
+    /** Same as hibernate.default_batch_fetch_size, so order lines and products load in one query each */
+    static final int MAX_IDS = 100;
+
+    private Batches() {
+    }
+
+    static Set<Long> ids(List<Long> ids) {
+        Set<Long> distinct = ids == null ? new LinkedHashSet<>() : new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            throw new BusinessException("VALIDATION_ERROR", "No ids given",
+                    Arrays.asList("ids must contain at least one id, e.g. ?ids=1,2,3"));
+        }
+        if (distinct.size() > MAX_IDS) {
+            throw new BusinessException("VALIDATION_ERROR", "Too many ids",
+                    Arrays.asList("At most " + MAX_IDS + " ids per request, got " + distinct.size()));
+        }
+        return distinct;
+    }
+}
@@ -1,30 +1,38 @@
 package edts.week8_practice1.controller;
 
+import edts.week8_practice1.dto.common.BatchResponse;
 import edts.week8_practice1.dto.customer.CustomerRequest;
 import edts.week8_practice1.dto.customer.CustomerResponse;
 import edts.week8_practice1.enums.CustomerMembership;
+import edts.week8_practice1.logging.SampledLogger;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.repository.EntityVersion;
 import edts.week8_practice1.service.CustomerService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/customers")
 public class CustomerController {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerController.class);
+    private final SampledLogger hotPathLogger;
     private final CustomerService customerService;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, SampledLoggerFactory sampledLoggerFactory) {
         this.customerService = customerService;
+        this.hotPathLogger = sampledLoggerFactory.getLogger(logger);
     }
 
     @GetMapping
@@ -32,22 +40,51 @@ public class CustomerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest
     ) {
-        logger.info("GET /api/customers - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        hotPathLogger.info("GET /api/customers - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = Pages.of(page, size, sort);
+
+        // Only a revalidation looks up the versions first; it is answered without the full page on a match
+        if (ETags.isConditional(webRequest)
+                && webRequest.checkNotModified(ETags.ofPage("customers", customerService.findAllActiveVersions(pageable)))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
 
         Page<CustomerResponse> customers = customerService.findAllActive(pageable);
-        return ResponseEntity.ok(customers);
+        Page<EntityVersion> versions = customers.map(customer -> ETags.version(customer.getId(), customer.getUpdatedAt()));
+        return ETags.ok(ETags.ofPage("customers", versions), -1).body(customers);
+    }
+
+    /**
+     * Multi-get: {@code ?ids=3,1,2}, up to 100 ids, in one query instead of
+     * one request each. Items follow the order of the ids; ids not found are listed under
+     * {@code missing}. Inactive customers are missing.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponse<CustomerResponse>> findByIds(@RequestParam(required = false) List<Long> ids) {
+        hotPathLogger.info("GET /api/customers/batch - ids: {}", ids);
+        return ResponseEntity.ok(customerService.findAllActiveByIds(Batches.ids(ids)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerResponse> findById(@PathVariable Long id) {
-        logger.info("GET /api/customers/{}", id);
+    public ResponseEntity<CustomerResponse> findById(@PathVariable Long id, WebRequest webRequest) {
+        hotPathLogger.info("GET /api/customers/{}", id);
+
+        // Revalidation only needs id + updated_at; the full row is loaded on a miss
+        if (ETags.isConditional(webRequest)) {
+            EntityVersion version = customerService.findVersionById(id);
+            if (webRequest.checkNotModified(ETags.of("customer", version), ETags.lastModified(version))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+        }
+
         CustomerResponse customer = customerService.findById(id);
-        return ResponseEntity.ok(customer);
+        EntityVersion version = ETags.version(customer.getId(), customer.getUpdatedAt());
+        return ETags.ok(ETags.of("customer", version), ETags.lastModified(version)).body(customer);
     }
 
     @GetMapping("/membership/{level}")
@@ -56,8 +93,8 @@ public class CustomerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        logger.info("GET /api/customers/membership/{}", level);
-        Pageable pageable = PageRequest.of(page, size);
+        hotPathLogger.info("GET /api/customers/membership/{}", level);
+        Pageable pageable = Pages.of(page, size);
         Page<CustomerResponse> customers = customerService.findByMembershipLevel(level, pageable);
         return ResponseEntity.ok(customers);
     }
@@ -68,8 +105,8 @@ public class CustomerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        logger.info("GET /api/customers/search?keyword={}", keyword);
-        Pageable pageable = PageRequest.of(page, size);
+        hotPathLogger.info("GET /api/customers/search?keyword={}", keyword);
+        Pageable pageable = Pages.of(page, size);
         Page<CustomerResponse> customers = customerService.searchCustomers(keyword, pageable);
         return ResponseEntity.ok(customers);
     }
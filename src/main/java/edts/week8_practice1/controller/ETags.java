@@ -0,0 +1,86 @@
+package edts.week8_practice1.controller;
+
+import edts.week8_practice1.repository.EntityVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Weak ETags derived from row versions (id + updated_at) instead of response bytes,
+ * so a conditional GET can be answered before the full entity is loaded. Requests without
+ * a validator skip that lookup: they load the entity and get the ETag computed from it.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Whether the request carries If-None-Match or If-Modified-Since, i.e. whether looking up
+     * the version first can save the full load
+     */
+    static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    static EntityVersion version(Long id, LocalDateTime updatedAt) {
+        return new Version(id, updatedAt);
+    }
+
+    /**
+     * 200 with the validators of a loaded entity, revalidated on every use.
+     */
+    static ResponseEntity.BodyBuilder ok(String eTag, long lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag);
+        return lastModified >= 0 ? builder.lastModified(lastModified) : builder;
+    }
+
+    static String of(String resource, EntityVersion version) {
+        return "W/\"" + resource + "-" + version.getId() + "-" + epochMillis(version.getUpdatedAt()) + "\"";
+    }
+
+    /**
+     * Hash over the total count and the version of every row on the page: changes when a
+     * row on the page is modified, or when rows are added or removed anywhere before or on it.
+     */
+    static String ofPage(String resource, Page<EntityVersion> page) {
+        StringBuilder versions = new StringBuilder(resource)
+                .append('|').append(page.getTotalElements());
+        for (EntityVersion version : page.getContent()) {
+            versions.append('|').append(version.getId()).append(':').append(epochMillis(version.getUpdatedAt()));
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * @return the Last-Modified timestamp, or -1 when unknown
+     */
+    static long lastModified(EntityVersion version) {
+        return version.getUpdatedAt() != null ? epochMillis(version.getUpdatedAt()) : -1;
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+
+    private record Version(Long id, LocalDateTime updatedAt) implements EntityVersion {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
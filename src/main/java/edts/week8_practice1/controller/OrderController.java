@@ -1,86 +1,127 @@
 package edts.week8_practice1.controller;
 
+import edts.week8_practice1.dto.common.BatchResponse;
+import edts.week8_practice1.dto.common.StreamingPage;
+import edts.week8_practice1.dto.order.OrderFields;
 import edts.week8_practice1.dto.order.OrderRequest;
 import edts.week8_practice1.dto.order.OrderResponse;
+import edts.week8_practice1.dto.order.OrderStatusEventResponse;
 import edts.week8_practice1.enums.OrderStatus;
+import edts.week8_practice1.logging.SampledLogger;
+import edts.week8_practice1.logging.SampledLoggerFactory;
 import edts.week8_practice1.service.OrderService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+    private final SampledLogger hotPathLogger;
     private final OrderService orderService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, SampledLoggerFactory sampledLoggerFactory) {
         this.orderService = orderService;
+        this.hotPathLogger = sampledLoggerFactory.getLogger(logger);
     }
 
+    /**
+     * The read endpoints take {@code fields} and {@code expand}, e.g.
+     * {@code ?fields=id,status,finalAmount&expand=}, see {@link OrderFields}. Without them, orders
+     * embed their customer and items with products.
+     */
     @GetMapping
-    public ResponseEntity<Page<OrderResponse>> findAll(
+    public ResponseEntity<StreamingPage<OrderResponse>> findAll(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "created_at") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String expand
     ) {
-        logger.info("GET /api/orders - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        hotPathLogger.info("GET /api/orders - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = Pages.of(page, size, sort);
 
-        Page<OrderResponse> orders = orderService.findAll(pageable);
+        StreamingPage<OrderResponse> orders = orderService.streamAll(pageable, OrderFields.of(fields, expand));
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Multi-get: {@code ?ids=3,1,2}, up to 100 ids, in one query instead of
+     * one request each. Items follow the order of the ids; ids not found are listed under
+     * {@code missing}. Archived orders are included.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponse<OrderResponse>> findByIds(@RequestParam(required = false) List<Long> ids,
+                                                                  @RequestParam(required = false) String fields,
+                                                                  @RequestParam(required = false) String expand) {
+        hotPathLogger.info("GET /api/orders/batch - ids: {}", ids);
+        return ResponseEntity.ok(orderService.findAllByIds(Batches.ids(ids), OrderFields.of(fields, expand)));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponse> findById(@PathVariable Long id) {
-        logger.info("GET /api/orders/{}", id);
-        OrderResponse order = orderService.findById(id);
+    public ResponseEntity<OrderResponse> findById(@PathVariable Long id,
+                                                  @RequestParam(required = false) String fields,
+                                                  @RequestParam(required = false) String expand) {
+        hotPathLogger.info("GET /api/orders/{}", id);
+        OrderResponse order = orderService.findById(id, OrderFields.of(fields, expand));
         return ResponseEntity.ok(order);
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<OrderStatusEventResponse>> findHistory(@PathVariable Long id) {
+        hotPathLogger.info("GET /api/orders/{}/history", id);
+        return ResponseEntity.ok(orderService.findHistory(id));
+    }
+
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<Page<OrderResponse>> findByCustomerId(
+    public ResponseEntity<StreamingPage<OrderResponse>> findByCustomerId(
             @PathVariable Long customerId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "created_at") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String expand
     ) {
-        logger.info("GET /api/orders/customer/{}", customerId);
+        hotPathLogger.info("GET /api/orders/customer/{}", customerId);
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = Pages.of(page, size, sort);
 
-        Page<OrderResponse> orders = orderService.findByCustomerId(customerId, pageable);
+        StreamingPage<OrderResponse> orders = orderService.streamByCustomerId(customerId, pageable,
+                OrderFields.of(fields, expand));
         return ResponseEntity.ok(orders);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<Page<OrderResponse>> findByStatus(
+    public ResponseEntity<StreamingPage<OrderResponse>> findByStatus(
             @PathVariable OrderStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "created_at") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String expand
     ) {
-        logger.info("GET /api/orders/status/{}", status);
+        hotPathLogger.info("GET /api/orders/status/{}", status);
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = Pages.of(page, size, sort);
 
-        Page<OrderResponse> orders = orderService.findByStatus(status, pageable);
+        StreamingPage<OrderResponse> orders = orderService.streamByStatus(status, pageable,
+                OrderFields.of(fields, expand));
         return ResponseEntity.ok(orders);
     }
 
@@ -0,0 +1,26 @@
+package edts.week8_practice1.controller;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Builds the {@link Pageable} of the list endpoints. The page size is capped on the
+ * server, like Spring Data's {@code max-page-size}: larger requests are clamped and the
+ * returned page metadata carries the size actually used.
+ */
+final class Pages {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private Pages() {
+    }
+
+    static Pageable of(int page, int size) {
+        return of(page, size, Sort.unsorted());
+    }
+
+    static Pageable of(int page, int size, Sort sort) {
+        return PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), sort);
+    }
+}
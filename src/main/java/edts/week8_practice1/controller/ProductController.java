@@ -1,31 +1,48 @@
 package edts.week8_practice1.controller;
 
+import edts.week8_practice1.dto.common.BatchResponse;
 import edts.week8_practice1.dto.product.ProductRequest;
 import edts.week8_practice1.dto.product.ProductResponse;
 import edts.week8_practice1.dto.product.ProductUpdateRequest;
 import edts.week8_practice1.enums.ProductCategory;
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.inventory.LowStockProduct;
+import edts.week8_practice1.logging.SampledLogger;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.repository.EntityVersion;
 import edts.week8_practice1.service.ProductService;
+import edts.week8_practice1.stats.ProductCounters;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+    private static final String SORT_POPULAR = "popular";
+    private final SampledLogger hotPathLogger;
     private final ProductService productService;
+    private final ProductCounters productCounters;
+    private final LowStockMonitor lowStockMonitor;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductCounters productCounters,
+                             LowStockMonitor lowStockMonitor, SampledLoggerFactory sampledLoggerFactory) {
         this.productService = productService;
+        this.productCounters = productCounters;
+        this.lowStockMonitor = lowStockMonitor;
+        this.hotPathLogger = sampledLoggerFactory.getLogger(logger);
     }
 
     @GetMapping
@@ -33,22 +50,75 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest
     ) {
-        logger.info("GET /api/products - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        hotPathLogger.info("GET /api/products - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+
+        // sortBy=popular: most sold, then most viewed first (product_stats); sortDir does not apply
+        if (SORT_POPULAR.equalsIgnoreCase(sortBy)) {
+            Pageable pageable = Pages.of(page, size);
+            if (ETags.isConditional(webRequest)
+                    && webRequest.checkNotModified(ETags.ofPage("products-popular",
+                            productService.findPopularActiveVersions(pageable)))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            Page<ProductResponse> products = productService.findPopularActive(pageable);
+            return ETags.ok(ETags.ofPage("products-popular", versions(products)), -1).body(products);
+        }
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = Pages.of(page, size, sort);
+
+        // Only a revalidation looks up the versions first; it is answered without the full page on a match
+        if (ETags.isConditional(webRequest)
+                && webRequest.checkNotModified(ETags.ofPage("products", productService.findAllActiveVersions(pageable)))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
 
         Page<ProductResponse> products = productService.findAllActive(pageable);
-        return ResponseEntity.ok(products);
+        return ETags.ok(ETags.ofPage("products", versions(products)), -1).body(products);
+    }
+
+    /**
+     * Multi-get: {@code ?ids=3,1,2}, up to 100 ids, in one query instead of
+     * one request each. Items follow the order of the ids; ids not found are listed under
+     * {@code missing}. Inactive products are missing.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponse<ProductResponse>> findByIds(@RequestParam(required = false) List<Long> ids) {
+        hotPathLogger.info("GET /api/products/batch - ids: {}", ids);
+        return ResponseEntity.ok(productService.findAllActiveByIds(Batches.ids(ids)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> findById(@PathVariable Long id) {
-        logger.info("GET /api/products/{}", id);
+    public ResponseEntity<ProductResponse> findById(@PathVariable Long id, WebRequest webRequest) {
+        hotPathLogger.info("GET /api/products/{}", id);
+
+        // Revalidation only needs id + updated_at; the full row is loaded on a miss
+        if (ETags.isConditional(webRequest)) {
+            EntityVersion version = productService.findVersionById(id);
+            if (webRequest.checkNotModified(ETags.of("product", version), ETags.lastModified(version))) {
+                // In memory only; flushed to product_stats in the background
+                productCounters.recordView(id);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+        }
+
         ProductResponse product = productService.findById(id);
-        return ResponseEntity.ok(product);
+        productCounters.recordView(id);
+        EntityVersion version = ETags.version(product.getId(), product.getUpdatedAt());
+        return ETags.ok(ETags.of("product", version), ETags.lastModified(version)).body(product);
+    }
+
+    /**
+     * Active products below their low-stock threshold, lowest stock first. Served from memory
+     * (see LowStockMonitor), no query.
+     */
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<LowStockProduct>> findLowStock() {
+        hotPathLogger.info("GET /api/products/low-stock");
+        return ResponseEntity.ok(lowStockMonitor.lowStockProducts());
     }
 
     @GetMapping("/category/{category}")
@@ -59,10 +129,10 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir
     ) {
-        logger.info("GET /api/products/category/{}", category);
+        hotPathLogger.info("GET /api/products/category/{}", category);
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = Pages.of(page, size, sort);
 
         Page<ProductResponse> products = productService.findByCategory(category, pageable);
         return ResponseEntity.ok(products);
@@ -74,8 +144,8 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        logger.info("GET /api/products/search?keyword={}", keyword);
-        Pageable pageable = PageRequest.of(page, size);
+        hotPathLogger.info("GET /api/products/search?keyword={}", keyword);
+        Pageable pageable = Pages.of(page, size);
         Page<ProductResponse> products = productService.searchProducts(keyword, pageable);
         return ResponseEntity.ok(products);
     }
@@ -105,4 +175,8 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static Page<EntityVersion> versions(Page<ProductResponse> products) {
+        return products.map(product -> ETags.version(product.getId(), product.getUpdatedAt()));
+    }
 }
@@ -0,0 +1,352 @@
+package edts.week8_practice1.datagen;
+
+import edts.week8_practice1.enums.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads synthetic customers, products, orders, order items and order status events.
+ *
+ * Rows are written with multi-row INSERT statements on parallel connections, with
+ * explicit primary keys (offset from the current maximum) so that order items can
+ * reference their orders without reading generated keys back. Works on MySQL and H2.
+ *
+ * Skew: the customer of an order follows a Zipf distribution and a small set of hot
+ * SKUs receives a configurable share of all order lines. Popular ranks are spread
+ * over the ID space with a multiplicative permutation, so "hot" is not "low ID".
+ */
+@Component
+public class DataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+    private static final String[] CATEGORIES = {"ELECTRONICS", "FOOD", "FASHION"};
+    private static final long FOOD_MAX_PRICE = 1_000_000L;
+    private static final long PROGRESS_INTERVAL = 500_000L;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataGeneratorProperties defaults;
+
+    public DataGenerator(DataSource dataSource, DataGeneratorProperties defaults) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.defaults = defaults;
+    }
+
+    public GenerationReport generate() {
+        return generate(defaults);
+    }
+
+    public GenerationReport generate(DataGeneratorProperties plan) {
+        long start = System.nanoTime();
+        boolean mysql = isMySql();
+        logger.info("Generating {} customers, {} products, {} orders on {} with {} threads",
+                plan.getCustomers(), plan.getProducts(), plan.getOrders(), mysql ? "MySQL" : "H2", plan.getThreads());
+
+        long customerBase = nextId("customers");
+        long productBase = nextId("products");
+        long orderBase = nextId("orders");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] prices = productPrices(plan);
+
+        long customers = runParallel(plan, plan.getCustomers(), mysql, (connection, from, to, random) ->
+                insertCustomers(connection, plan, customerBase, from, to, random, now));
+        long products = runParallel(plan, plan.getProducts(), mysql, (connection, from, to, random) ->
+                insertProducts(connection, plan, productBase, prices, from, to, random, now));
+
+        ZipfSampler customerSampler = new ZipfSampler(plan.getCustomers(), plan.getCustomerSkew());
+        AtomicLong items = new AtomicLong();
+        AtomicLong statusEvents = new AtomicLong();
+        AtomicLong progress = new AtomicLong();
+        long orders = runParallel(plan, plan.getOrders(), mysql, (connection, from, to, random) ->
+                insertOrders(connection, plan, customerBase, productBase, orderBase, prices, customerSampler,
+                        from, to, random, items, statusEvents, progress));
+
+        if (!mysql) {
+            // H2 identity columns do not advance past explicitly inserted keys
+            restartIdentity("customers", customerBase + plan.getCustomers());
+            restartIdentity("products", productBase + plan.getProducts());
+            restartIdentity("orders", orderBase + plan.getOrders());
+        }
+
+        GenerationReport report = new GenerationReport(customers, products, orders, items.get(),
+                statusEvents.get(), (System.nanoTime() - start) / 1_000_000L);
+        logger.info("Data generation finished: {}", report);
+        return report;
+    }
+
+    private long insertCustomers(Connection connection, DataGeneratorProperties plan, long base, int from, int to,
+                                 SplittableRandom random, Timestamp now) throws SQLException {
+        String[] columns = {"id", "name", "email", "membership_level", "total_spent", "active",
+                "created_at", "updated_at"};
+        int count = plan.getCustomers();
+        long permutation = coprimeMultiplier(count);
+        try (MultiRowInserter inserter = inserter(connection, "customers", columns, plan)) {
+            for (int rank = from; rank < to; rank++) {
+                // Low ranks are the heaviest buyers in the Zipf distribution
+                String membership;
+                long totalSpent;
+                if (rank < count * 0.005) {
+                    membership = "PLATINUM";
+                    totalSpent = 50_000_000L + random.nextLong(100_000_000L);
+                } else if (rank < count * 0.05) {
+                    membership = "GOLD";
+                    totalSpent = 10_000_000L + random.nextLong(40_000_000L);
+                } else {
+                    membership = "REGULAR";
+                    totalSpent = random.nextLong(10_000_000L);
+                }
+                long id = base + permute(rank, count, permutation);
+                inserter.add(id, "Customer " + id, "customer" + id + "@datagen.local", membership,
+                        BigDecimal.valueOf(totalSpent), true, now, now);
+            }
+            return to - from;
+        }
+    }
+
+    private long insertProducts(Connection connection, DataGeneratorProperties plan, long base, long[] prices,
+                                int from, int to, SplittableRandom random, Timestamp now) throws SQLException {
+        String[] columns = {"id", "name", "category", "price", "stock", "active", "created_at", "updated_at"};
+        try (MultiRowInserter inserter = inserter(connection, "products", columns, plan)) {
+            for (int index = from; index < to; index++) {
+                long id = base + index;
+                inserter.add(id, "Product " + id, CATEGORIES[index % CATEGORIES.length],
+                        BigDecimal.valueOf(prices[index]), 100 + random.nextInt(10_000), true, now, now);
+            }
+            return to - from;
+        }
+    }
+
+    private long insertOrders(Connection connection, DataGeneratorProperties plan, long customerBase,
+                              long productBase, long orderBase, long[] prices, ZipfSampler customerSampler,
+                              int from, int to, SplittableRandom random, AtomicLong items,
+                              AtomicLong statusEvents, AtomicLong progress) throws SQLException {
+        String[] orderColumns = {"id", "customer_id", "total_amount", "discount_amount", "final_amount", "status",
+                "created_at", "updated_at"};
+        String[] itemColumns = {"order_id", "product_id", "quantity", "price_at_purchase", "created_at",
+                "updated_at"};
+        String[] eventColumns = {"order_id", "status", "occurred_at"};
+
+        int customerCount = plan.getCustomers();
+        int productCount = plan.getProducts();
+        long customerPermutation = coprimeMultiplier(customerCount);
+        long productPermutation = coprimeMultiplier(productCount);
+        int hotProducts = Math.max(1, (int) (productCount * plan.getHotProductFraction()));
+        long historySeconds = plan.getHistoryDays() * 86_400L;
+        LocalDateTime now = LocalDateTime.now();
+
+        // Items are held back until their orders are written, so FK checks pass on H2
+        List<Object[]> pendingItems = new ArrayList<>(plan.getRowsPerStatement() * plan.getMaxItemsPerOrder());
+        try (MultiRowInserter itemInserter = inserter(connection, "order_items", itemColumns, plan);
+             MultiRowInserter orderInserter = inserter(connection, "orders", orderColumns, plan);
+             MultiRowInserter eventInserter = inserter(connection, "order_status_events", eventColumns, plan)) {
+            for (int index = from; index < to; index++) {
+                long orderId = orderBase + index;
+                long ageSeconds = random.nextLong(historySeconds);
+                LocalDateTime created = now.minusSeconds(ageSeconds);
+                Timestamp createdAt = Timestamp.valueOf(created);
+
+                int lines = 1 + random.nextInt(plan.getMaxItemsPerOrder());
+                long total = 0;
+                for (int line = 0; line < lines; line++) {
+                    int productRank = random.nextDouble() < plan.getHotProductShare()
+                            ? random.nextInt(hotProducts)
+                            : random.nextInt(productCount);
+                    int productIndex = (int) permute(productRank, productCount, productPermutation);
+                    int quantity = 1 + random.nextInt(3);
+                    total += prices[productIndex] * quantity;
+                    pendingItems.add(new Object[]{orderId, productBase + productIndex, quantity,
+                            BigDecimal.valueOf(prices[productIndex]), createdAt, createdAt});
+                }
+                items.addAndGet(lines);
+
+                int customerRank = customerSampler.sample(random) - 1;
+                long customerId = customerBase + permute(customerRank, customerCount, customerPermutation);
+                OrderStatus status = status(ageSeconds, random);
+                // Status events as OrderService appends them: stored as the OrderStatus ordinal (V7)
+                Timestamp updatedAt = createdAt;
+                eventInserter.add(orderId, OrderStatus.CREATED.ordinal(), createdAt);
+                if (status != OrderStatus.CREATED) {
+                    // Settled within an hour of checkout, never in the future
+                    updatedAt = Timestamp.valueOf(created.plusSeconds(
+                            random.nextLong(Math.min(ageSeconds, 3_600L) + 1)));
+                    eventInserter.add(orderId, status.ordinal(), updatedAt);
+                }
+                statusEvents.addAndGet(status != OrderStatus.CREATED ? 2 : 1);
+                orderInserter.add(orderId, customerId, BigDecimal.valueOf(total), BigDecimal.ZERO,
+                        BigDecimal.valueOf(total), status.name(), createdAt, updatedAt);
+
+                if (!orderInserter.hasBufferedRows()) {
+                    writeItems(itemInserter, pendingItems);
+                }
+
+                long done = progress.incrementAndGet();
+                if (done % PROGRESS_INTERVAL == 0) {
+                    logger.info("Generated {} / {} orders", done, plan.getOrders());
+                }
+            }
+            orderInserter.flush();
+            writeItems(itemInserter, pendingItems);
+            return to - from;
+        }
+    }
+
+    private static void writeItems(MultiRowInserter itemInserter, List<Object[]> pendingItems) throws SQLException {
+        for (Object[] item : pendingItems) {
+            itemInserter.add(item);
+        }
+        pendingItems.clear();
+    }
+
+    /** Recent orders may still be open; old ones are settled. */
+    private static OrderStatus status(long ageSeconds, SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (ageSeconds < 2 * 86_400L) {
+            return roll < 50 ? OrderStatus.CREATED : roll < 90 ? OrderStatus.PAID : OrderStatus.CANCELLED;
+        }
+        return roll < 88 ? OrderStatus.PAID : OrderStatus.CANCELLED;
+    }
+
+    private static long[] productPrices(DataGeneratorProperties plan) {
+        SplittableRandom random = new SplittableRandom(plan.getSeed());
+        long[] prices = new long[plan.getProducts()];
+        for (int i = 0; i < prices.length; i++) {
+            boolean food = CATEGORIES[i % CATEGORIES.length].equals("FOOD");
+            long max = food ? FOOD_MAX_PRICE : 50_000_000L;
+            // Round to 1,000 IDR like real price tags
+            prices[i] = Math.max(1_000L, (5_000L + random.nextLong(max - 5_000L)) / 1_000L * 1_000L);
+        }
+        return prices;
+    }
+
+    private MultiRowInserter inserter(Connection connection, String table, String[] columns,
+                                      DataGeneratorProperties plan) {
+        return new MultiRowInserter(connection, table, columns, plan.getRowsPerStatement(),
+                plan.getStatementsPerCommit());
+    }
+
+    private long runParallel(DataGeneratorProperties plan, int total, boolean mysql, ChunkWriter writer) {
+        int threads = Math.max(1, Math.min(plan.getThreads(), total));
+        if (total == 0) {
+            return 0;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>(threads);
+            int chunk = (total + threads - 1) / threads;
+            for (int t = 0; t < threads; t++) {
+                int from = t * chunk;
+                int to = Math.min(total, from + chunk);
+                SplittableRandom random = new SplittableRandom(plan.getSeed() * 31 + t * 7919L + total);
+                futures.add(executor.submit(() -> writeChunk(writer, mysql, from, to, random)));
+            }
+            long written = 0;
+            for (Future<Long> future : futures) {
+                written += future.get();
+            }
+            return written;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long writeChunk(ChunkWriter writer, boolean mysql, int from, int to,
+                            SplittableRandom random) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            if (mysql) {
+                setMySqlChecks(connection, 0);
+            }
+            try {
+                return writer.write(connection, from, to, random);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                if (mysql) {
+                    setMySqlChecks(connection, 1);
+                }
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static void setMySqlChecks(Connection connection, int value) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION unique_checks = " + value);
+            statement.execute("SET SESSION foreign_key_checks = " + value);
+        }
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return (max != null ? max : 0L) + 1;
+    }
+
+    private void restartIdentity(String table, long next) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return product != null && product.toLowerCase().contains("mysql");
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot detect database type", e);
+        }
+    }
+
+    /** Maps rank {@code 0..n-1} to a scattered index {@code 0..n-1} (bijective). */
+    private static long permute(long rank, long n, long multiplier) {
+        return (rank * multiplier) % n;
+    }
+
+    private static long coprimeMultiplier(long n) {
+        long candidate = 1_000_003L;
+        while (gcd(candidate, n) != 1) {
+            candidate += 2;
+        }
+        return candidate % Math.max(n, 1) == 0 ? 1 : candidate;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        long write(Connection connection, int from, int to, SplittableRandom random) throws SQLException;
+    }
+}
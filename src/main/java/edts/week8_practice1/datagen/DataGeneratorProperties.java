@@ -0,0 +1,142 @@
+package edts.week8_practice1.datagen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the synthetic data generator ({@code datagen.*}).
+ * Defaults describe a production-sized dataset; see {@code application-datagen.yaml}.
+ */
+@Component
+@ConfigurationProperties(prefix = "datagen")
+public class DataGeneratorProperties {
+
+    private int customers = 1_000_000;
+    private int products = 50_000;
+    private int orders = 5_000_000;
+    private int maxItemsPerOrder = 4;
+
+    /** Zipf exponent for picking the customer of an order (higher = more skewed). */
+    private double customerSkew = 1.1;
+
+    /** Fraction of SKUs that are "hot". */
+    private double hotProductFraction = 0.01;
+
+    /** Share of order lines that go to hot SKUs. */
+    private double hotProductShare = 0.6;
+
+    /** Orders are spread uniformly over this many days back from now. */
+    private int historyDays = 365;
+
+    private int rowsPerStatement = 500;
+    private int statementsPerCommit = 20;
+    private int threads = 4;
+    private long seed = 42L;
+
+    /** Exit the JVM when generation finishes (CLI usage). */
+    private boolean exitOnCompletion = true;
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public void setCustomers(int customers) {
+        this.customers = customers;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public void setProducts(int products) {
+        this.products = products;
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public void setOrders(int orders) {
+        this.orders = orders;
+    }
+
+    public int getMaxItemsPerOrder() {
+        return maxItemsPerOrder;
+    }
+
+    public void setMaxItemsPerOrder(int maxItemsPerOrder) {
+        this.maxItemsPerOrder = maxItemsPerOrder;
+    }
+
+    public double getCustomerSkew() {
+        return customerSkew;
+    }
+
+    public void setCustomerSkew(double customerSkew) {
+        this.customerSkew = customerSkew;
+    }
+
+    public double getHotProductFraction() {
+        return hotProductFraction;
+    }
+
+    public void setHotProductFraction(double hotProductFraction) {
+        this.hotProductFraction = hotProductFraction;
+    }
+
+    public double getHotProductShare() {
+        return hotProductShare;
+    }
+
+    public void setHotProductShare(double hotProductShare) {
+        this.hotProductShare = hotProductShare;
+    }
+
+    public int getHistoryDays() {
+        return historyDays;
+    }
+
+    public void setHistoryDays(int historyDays) {
+        this.historyDays = historyDays;
+    }
+
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+
+    public void setRowsPerStatement(int rowsPerStatement) {
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    public int getStatementsPerCommit() {
+        return statementsPerCommit;
+    }
+
+    public void setStatementsPerCommit(int statementsPerCommit) {
+        this.statementsPerCommit = statementsPerCommit;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public boolean isExitOnCompletion() {
+        return exitOnCompletion;
+    }
+
+    public void setExitOnCompletion(boolean exitOnCompletion) {
+        this.exitOnCompletion = exitOnCompletion;
+    }
+}
@@ -0,0 +1,35 @@
+package edts.week8_practice1.datagen;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the data generator on startup when the {@code datagen} profile is active, e.g.
+ * {@code java -jar app.jar --spring.profiles.active=dev,datagen --datagen.orders=1000000}.
+ */
+@Component
+@Profile("datagen")
+public class DataGeneratorRunner implements CommandLineRunner {
+
+    private final DataGenerator dataGenerator;
+    private final DataGeneratorProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    public DataGeneratorRunner(DataGenerator dataGenerator, DataGeneratorProperties properties,
+                               ConfigurableApplicationContext context) {
+        this.dataGenerator = dataGenerator;
+        this.properties = properties;
+        this.context = context;
+    }
+
+    @Override
+    public void run(String... args) {
+        dataGenerator.generate();
+        if (properties.isExitOnCompletion()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package edts.week8_practice1.datagen;
+
+/**
+ * Row counts and timing of a {@link DataGenerator} run.
+ */
+public class GenerationReport {
+
+    private final long customers;
+    private final long products;
+    private final long orders;
+    private final long orderItems;
+    private final long statusEvents;
+    private final long elapsedMillis;
+
+    public GenerationReport(long customers, long products, long orders, long orderItems, long statusEvents,
+                            long elapsedMillis) {
+        this.customers = customers;
+        this.products = products;
+        this.orders = orders;
+        this.orderItems = orderItems;
+        this.statusEvents = statusEvents;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getCustomers() {
+        return customers;
+    }
+
+    public long getProducts() {
+        return products;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getOrderItems() {
+        return orderItems;
+    }
+
+    public long getStatusEvents() {
+        return statusEvents;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getTotalRows() {
+        return customers + products + orders + orderItems + statusEvents;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? getTotalRows() : getTotalRows() * 1000L / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d customers, %d products, %d orders, %d order items, %d status events " +
+                        "in %.1fs (%d rows/s)",
+                customers, products, orders, orderItems, statusEvents, elapsedMillis / 1000.0, getRowsPerSecond());
+    }
+}
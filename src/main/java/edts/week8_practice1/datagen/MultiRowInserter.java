@@ -0,0 +1,114 @@
+package edts.week8_practice1.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers rows and writes them as multi-row {@code INSERT ... VALUES (...), (...), ...}
+ * statements. The full-size statement is prepared once and reused; only the final
+ * partial chunk needs its own statement. Commits every {@code statementsPerCommit}
+ * statements so that a single transaction never grows unbounded.
+ *
+ * Not thread-safe: use one instance per connection.
+ */
+class MultiRowInserter implements AutoCloseable {
+
+    private final Connection connection;
+    private final String insertPrefix;
+    private final int columnCount;
+    private final int rowsPerStatement;
+    private final int statementsPerCommit;
+    private final List<Object[]> buffer;
+    private PreparedStatement fullStatement;
+    private int statementsSinceCommit;
+    private long rowsWritten;
+
+    MultiRowInserter(Connection connection, String table, String[] columns, int rowsPerStatement,
+                     int statementsPerCommit) {
+        this.connection = connection;
+        this.insertPrefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+        this.columnCount = columns.length;
+        this.rowsPerStatement = rowsPerStatement;
+        this.statementsPerCommit = statementsPerCommit;
+        this.buffer = new ArrayList<>(rowsPerStatement);
+    }
+
+    void add(Object... values) throws SQLException {
+        buffer.add(values);
+        if (buffer.size() == rowsPerStatement) {
+            if (fullStatement == null) {
+                fullStatement = connection.prepareStatement(sql(rowsPerStatement));
+            }
+            write(fullStatement);
+        }
+    }
+
+    boolean hasBufferedRows() {
+        return !buffer.isEmpty();
+    }
+
+    long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /** Writes buffered rows now, using a statement sized for the partial chunk. */
+    void flush() throws SQLException {
+        if (!buffer.isEmpty()) {
+            try (PreparedStatement partial = connection.prepareStatement(sql(buffer.size()))) {
+                write(partial);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            if (statementsSinceCommit > 0) {
+                connection.commit();
+            }
+        } finally {
+            if (fullStatement != null) {
+                fullStatement.close();
+            }
+        }
+    }
+
+    private void write(PreparedStatement statement) throws SQLException {
+        int index = 1;
+        for (Object[] row : buffer) {
+            for (Object value : row) {
+                statement.setObject(index++, value);
+            }
+        }
+        statement.executeUpdate();
+        rowsWritten += buffer.size();
+        buffer.clear();
+
+        if (++statementsSinceCommit >= statementsPerCommit) {
+            connection.commit();
+            statementsSinceCommit = 0;
+        }
+    }
+
+    private String sql(int rows) {
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columnCount; i++) {
+            row.append(i == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+
+        StringBuilder sql = new StringBuilder(insertPrefix.length() + rows * (row.length() + 2));
+        sql.append(insertPrefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+}
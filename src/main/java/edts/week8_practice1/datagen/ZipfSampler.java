@@ -0,0 +1,85 @@
+package edts.week8_practice1.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks {@code 1..n} from a Zipf distribution with the given exponent.
+ *
+ * Uses the rejection-inversion method of Hörmann and Derflinger, which needs O(1)
+ * memory and expected O(1) time per sample, so it works for millions of elements
+ * without precomputing a cumulative table.
+ */
+public class ZipfSampler {
+
+    private final int numberOfElements;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+
+    public ZipfSampler(int numberOfElements, double exponent) {
+        if (numberOfElements < 1) {
+            throw new IllegalArgumentException("numberOfElements must be >= 1");
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("exponent must be > 0");
+        }
+        this.numberOfElements = numberOfElements;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1d;
+        this.hIntegralNumberOfElements = hIntegral(numberOfElements + 0.5);
+        this.s = 2d - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * @return a rank between 1 (most frequent) and {@code numberOfElements}
+     */
+    public int sample(SplittableRandom random) {
+        while (true) {
+            double u = hIntegralNumberOfElements + random.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1d - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1d - exponent);
+        if (t < -1d) {
+            t = -1d;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    /** log(1+x)/x, accurate near zero. */
+    private static double helper1(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1 - x * (0.5 - x * (1d / 3 - 0.25 * x));
+    }
+
+    /** (exp(x)-1)/x, accurate near zero. */
+    private static double helper2(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1 + x * 0.5 * (1 + x * (1d / 3) * (1 + 0.25 * x));
+    }
+}
@@ -0,0 +1,151 @@
+package edts.week8_practice1.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing ({@code datasource-routing.*}). Disabled by default; see
+ * {@code application-routing.yaml} for a local example.
+ */
+@Component
+@ConfigurationProperties(prefix = "datasource-routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** Replicas lagging more than this are taken out of rotation until they catch up. */
+    private long maxReplicationLagSeconds = 5;
+
+    private long healthCheckIntervalMs = 5000;
+
+    /**
+     * Query returning the replication lag in seconds, e.g. {@code SHOW REPLICA STATUS}
+     * (column {@code Seconds_Behind_Source} is used) or a heartbeat table query.
+     * Empty = only connectivity is checked.
+     */
+    private String lagQuery = "";
+
+    /** After a write, reads for the same customer go to the primary for this long. */
+    private long readYourWritesSeconds = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public long getMaxReplicationLagSeconds() {
+        return maxReplicationLagSeconds;
+    }
+
+    public void setMaxReplicationLagSeconds(long maxReplicationLagSeconds) {
+        this.maxReplicationLagSeconds = maxReplicationLagSeconds;
+    }
+
+    public long getHealthCheckIntervalMs() {
+        return healthCheckIntervalMs;
+    }
+
+    public void setHealthCheckIntervalMs(long healthCheckIntervalMs) {
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public long getReadYourWritesSeconds() {
+        return readYourWritesSeconds;
+    }
+
+    public void setReadYourWritesSeconds(long readYourWritesSeconds) {
+        this.readYourWritesSeconds = readYourWritesSeconds;
+    }
+
+    public static class Replica {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+
+        /** Kept short so that a dead replica fails over to the primary quickly. */
+        private long connectionTimeoutMs = 2000;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public long getConnectionTimeoutMs() {
+            return connectionTimeoutMs;
+        }
+
+        public void setConnectionTimeoutMs(long connectionTimeoutMs) {
+            this.connectionTimeoutMs = connectionTimeoutMs;
+        }
+    }
+}
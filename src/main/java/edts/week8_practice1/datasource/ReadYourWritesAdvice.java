@@ -0,0 +1,49 @@
+package edts.week8_practice1.datasource;
+
+import edts.week8_practice1.dto.customer.CustomerResponse;
+import edts.week8_practice1.dto.order.OrderResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Records the customer of every successful order or customer write, and the order of an
+ * order write, so that {@link ReadYourWritesInterceptor} can pin their next reads to the primary.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+public class ReadYourWritesAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesAdvice(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (HttpMethod.GET.equals(request.getMethod())) {
+            return body;
+        }
+        if (body instanceof OrderResponse order) {
+            tracker.recordOrderWrite(order.getId());
+            tracker.recordWrite(order.getCustomer() != null ? order.getCustomer().getId() : order.getCustomerId());
+        } else if (body instanceof CustomerResponse customer) {
+            tracker.recordWrite(customer.getId());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,24 @@
+package edts.week8_practice1.datasource;
+
+/**
+ * Marks the current request as "must read from the primary".
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,78 @@
+package edts.week8_practice1.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Pins a request to the primary when the client asks for strong consistency
+ * ({@code X-Read-Consistency: strong}) or when it reads data of a customer that wrote
+ * within the read-your-writes window. The customer is taken from the
+ * {@code X-Customer-Id} header or the {@code customerId} / customer {@code id} path variable;
+ * {@code /api/orders/{id}} is pinned when that order itself was written within the window.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String CONSISTENCY_HEADER = "X-Read-Consistency";
+    public static final String CUSTOMER_HEADER = "X-Customer-Id";
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if ("strong".equalsIgnoreCase(request.getHeader(CONSISTENCY_HEADER))
+                || tracker.wroteRecently(customerId(request))
+                || tracker.orderWrittenRecently(orderId(request))) {
+            ReadYourWritesContext.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadYourWritesContext.clear();
+    }
+
+    private static Long customerId(HttpServletRequest request) {
+        String value = request.getHeader(CUSTOMER_HEADER);
+        if (value == null) {
+            Map<String, String> variables = pathVariables(request);
+            if (variables != null) {
+                value = variables.get("customerId");
+                if (value == null && request.getRequestURI().startsWith("/api/customers/")) {
+                    value = variables.get("id");
+                }
+            }
+        }
+        return parse(value);
+    }
+
+    private static Long orderId(HttpServletRequest request) {
+        Map<String, String> variables = pathVariables(request);
+        if (variables == null || !request.getRequestURI().startsWith("/api/orders/")) {
+            return null;
+        }
+        return parse(variables.get("id"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> pathVariables(HttpServletRequest request) {
+        return (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    }
+
+    private static Long parse(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package edts.week8_practice1.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers customers and orders that were written recently, so that their next reads are
+ * served by the primary and never miss their own order because of replication lag.
+ *
+ * Local to the instance: with several instances behind a load balancer, route a
+ * customer to the same instance or send {@code X-Read-Consistency: strong}.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<Long, Long> expiryByCustomer = new ConcurrentHashMap<>();
+    private final Map<Long, Long> expiryByOrder = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowSeconds) {
+        this.windowNanos = windowSeconds * 1_000_000_000L;
+    }
+
+    public void recordWrite(Long customerId) {
+        record(expiryByCustomer, customerId);
+    }
+
+    /**
+     * Covers {@code GET /api/orders/{id}}, whose path does not name the customer.
+     */
+    public void recordOrderWrite(Long orderId) {
+        record(expiryByOrder, orderId);
+    }
+
+    public boolean wroteRecently(Long customerId) {
+        return isRecent(expiryByCustomer, customerId);
+    }
+
+    public boolean orderWrittenRecently(Long orderId) {
+        return isRecent(expiryByOrder, orderId);
+    }
+
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        expiryByCustomer.values().removeIf(expiry -> expiry - now <= 0);
+        expiryByOrder.values().removeIf(expiry -> expiry - now <= 0);
+    }
+
+    private void record(Map<Long, Long> expiryById, Long id) {
+        if (id != null && windowNanos > 0) {
+            expiryById.put(id, System.nanoTime() + windowNanos);
+        }
+    }
+
+    private static boolean isRecent(Map<Long, Long> expiryById, Long id) {
+        if (id == null) {
+            return false;
+        }
+        Long expiry = expiryById.get(id);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - System.nanoTime() > 0) {
+            return true;
+        }
+        expiryById.remove(id, expiry);
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package edts.week8_practice1.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Periodically checks connectivity and replication lag of every replica and takes
+ * it in or out of rotation.
+ */
+public class ReplicaHealthChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthChecker.class);
+    private static final String MYSQL_LAG_COLUMN = "Seconds_Behind_Source";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final List<ReplicaPool> replicas;
+    private final DataSourceRoutingProperties properties;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaHealthChecker(List<ReplicaPool> replicas, DataSourceRoutingProperties properties,
+                                ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = replicas;
+        this.properties = properties;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource-routing.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (ReplicaPool replica : replicas) {
+            boolean healthy = check(replica);
+            if (healthy != replica.isHealthy()) {
+                logger.warn("Replica {} is now {} (lag {}s)", replica.getName(),
+                        healthy ? "in rotation" : "out of rotation", replica.getLagSeconds());
+            }
+            replica.setHealthy(healthy);
+        }
+        readYourWritesTracker.purgeExpired();
+    }
+
+    private boolean check(ReplicaPool replica) {
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return false;
+            }
+            if (!StringUtils.hasText(properties.getLagQuery())) {
+                return true;
+            }
+            Long lag = queryLag(connection);
+            if (lag == null) {
+                // Replication stopped or not configured on this node
+                return false;
+            }
+            replica.setLagSeconds(lag);
+            return lag <= properties.getMaxReplicationLagSeconds();
+        } catch (SQLException e) {
+            logger.debug("Health check of replica {} failed: {}", replica.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private Long queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            int column = lagColumn(resultSet.getMetaData());
+            long lag = resultSet.getLong(column);
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (MYSQL_LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,43 @@
+package edts.week8_practice1.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A replica connection pool and its last known health.
+ */
+public class ReplicaPool {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile boolean healthy = true;
+    private volatile long lagSeconds;
+
+    public ReplicaPool(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public void setLagSeconds(long lagSeconds) {
+        this.lagSeconds = lagSeconds;
+    }
+}
@@ -0,0 +1,34 @@
+package edts.week8_practice1.datasource;
+
+/**
+ * Records whether a read on the current thread got a replica connection, for callers that
+ * must not trust a replica's "not found" (it may lag behind a create on the primary).
+ */
+public final class ReplicaReadContext {
+
+    private static final ThreadLocal<Boolean> SERVED_BY_REPLICA = new ThreadLocal<>();
+
+    private ReplicaReadContext() {
+    }
+
+    /**
+     * Starts recording; pair with {@link #clear()}.
+     */
+    public static void track() {
+        SERVED_BY_REPLICA.set(Boolean.FALSE);
+    }
+
+    public static boolean isServedByReplica() {
+        return Boolean.TRUE.equals(SERVED_BY_REPLICA.get());
+    }
+
+    public static void clear() {
+        SERVED_BY_REPLICA.remove();
+    }
+
+    static void markServedByReplica() {
+        if (SERVED_BY_REPLICA.get() != null) {
+            SERVED_BY_REPLICA.set(Boolean.TRUE);
+        }
+    }
+}
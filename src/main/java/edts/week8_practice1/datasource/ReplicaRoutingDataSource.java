@@ -0,0 +1,80 @@
+package edts.week8_practice1.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only side of the routing: hands out connections from healthy replicas in
+ * round-robin order and falls back to the primary when no replica is usable or the
+ * request is pinned by {@link ReadYourWritesContext}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaPool> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWritesContext.isPinned()) {
+            return primaryConnection("read-your-writes");
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                count(replica.getName(), "replica");
+                ReplicaReadContext.markServedByReplica();
+                return connection;
+            } catch (SQLException e) {
+                // The health check puts it back into rotation once it recovers
+                replica.setHealthy(false);
+                logger.warn("Replica {} failed, removed from rotation: {}", replica.getName(), e.getMessage());
+            }
+        }
+        return primaryConnection("no-healthy-replica");
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica credentials are configured per pool");
+    }
+
+    private Connection primaryConnection(String reason) throws SQLException {
+        count("primary", reason);
+        return primary.getConnection();
+    }
+
+    private void count(String target, String reason) {
+        Counter.builder("datasource.routing.reads")
+                .description("Read-only connections by target")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,57 @@
+package edts.week8_practice1.dto.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO of the multi-get endpoints: the entities found, in the order of the requested
+ * ids, and the ids that were not found.
+ */
+public class BatchResponse<T> {
+
+    private List<T> items;
+    private List<Long> missing;
+
+    public BatchResponse() {
+    }
+
+    public BatchResponse(List<T> items, List<Long> missing) {
+        this.items = items;
+        this.missing = missing;
+    }
+
+    /**
+     * Puts the entities found in the order of {@code ids} and lists the ids without one.
+     */
+    public static <T> BatchResponse<T> of(Collection<Long> ids, Map<Long, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchResponse<>(items, missing);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<Long> missing) {
+        this.missing = missing;
+    }
+}
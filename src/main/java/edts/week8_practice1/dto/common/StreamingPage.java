@@ -0,0 +1,50 @@
+package edts.week8_practice1.dto.common;
+
+import org.springframework.data.domain.Page;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A page whose elements are mapped to DTOs one at a time while the response is written,
+ * instead of building the whole {@code List<T>} up front. Serialized by
+ * {@code StreamingPageHttpMessageConverter} in the same JSON shape as {@link Page}.
+ */
+public final class StreamingPage<T> {
+
+    private final Page<?> source;
+    private final Function<Object, ? extends T> mapper;
+
+    @SuppressWarnings("unchecked")
+    private <E> StreamingPage(Page<E> source, Function<? super E, ? extends T> mapper) {
+        this.source = source;
+        this.mapper = element -> mapper.apply((E) element);
+    }
+
+    public static <E, T> StreamingPage<T> of(Page<E> source, Function<? super E, ? extends T> mapper) {
+        return new StreamingPage<>(source, mapper);
+    }
+
+    /**
+     * Maps and hands over the elements in page order; each DTO can be discarded once consumed.
+     */
+    public void forEach(Consumer<? super T> action) {
+        for (Object element : source.getContent()) {
+            action.accept(mapper.apply(element));
+        }
+    }
+
+    /**
+     * Page metadata (number, size, totals, sort) without the content.
+     */
+    public Page<?> metadata() {
+        return source.map(element -> null);
+    }
+
+    /**
+     * Materializes the page, for callers that need the whole content at once.
+     */
+    public Page<T> toPage() {
+        return source.map(mapper);
+    }
+}
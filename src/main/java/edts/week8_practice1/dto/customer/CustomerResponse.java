@@ -1,8 +1,10 @@
 package edts.week8_practice1.dto.customer;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import edts.week8_practice1.enums.CustomerMembership;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class CustomerResponse {
 
@@ -12,6 +14,9 @@ public class CustomerResponse {
     private CustomerMembership membershipLevel;
     private BigDecimal totalSpent;
     private Boolean active;
+    // Validator of the ETag and Last-Modified headers only, not part of the response body
+    @JsonIgnore
+    private LocalDateTime updatedAt;
 
     // Constructors
     public CustomerResponse() {
@@ -76,6 +81,14 @@ public class CustomerResponse {
         this.active = active;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return "CustomerResponse{" +
@@ -0,0 +1,102 @@
+package edts.week8_practice1.dto.order;
+
+import edts.week8_practice1.exception.BusinessException;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The parts of an {@link OrderResponse} a client asked for, from the {@code fields} and
+ * {@code expand} query parameters of the order read endpoints.
+ *
+ * {@code fields} lists the properties of the order to return ({@code id} is always returned);
+ * without it, all of them. {@code expand} lists the associations to embed: {@code customer},
+ * {@code items} and {@code items.product}. Without it, all of them, as before the parameters
+ * existed; {@code expand=} embeds none. Associations that are not embedded are not loaded
+ * either; the response carries {@code customerId} and the items' {@code productId} instead.
+ */
+public final class OrderFields {
+
+    public static final OrderFields ALL = new OrderFields(null, true, true, true);
+
+    private static final Set<String> PROPERTIES = Set.of("id", "customerId", "customer", "orderItems",
+            "totalAmount", "discountAmount", "finalAmount", "discountPercentage", "status", "createdAt");
+    private static final String EXPAND_CUSTOMER = "customer";
+    private static final String EXPAND_ITEMS = "items";
+    private static final String EXPAND_ITEM_PRODUCTS = "items.product";
+
+    /** {@code null}: all properties */
+    private final Set<String> properties;
+    private final boolean customer;
+    private final boolean items;
+    private final boolean itemProducts;
+
+    private OrderFields(Set<String> properties, boolean customer, boolean items, boolean itemProducts) {
+        this.properties = properties;
+        this.customer = customer;
+        this.items = items;
+        this.itemProducts = itemProducts;
+    }
+
+    /**
+     * @param fields comma-separated properties, or {@code null} for all
+     * @param expand comma-separated associations, or {@code null} for all
+     * @throws BusinessException for unknown properties or associations
+     */
+    public static OrderFields of(String fields, String expand) {
+        if (fields == null && expand == null) {
+            return ALL;
+        }
+        Set<String> properties = null;
+        if (fields != null) {
+            properties = split(fields);
+            Set<String> unknown = new LinkedHashSet<>(properties);
+            unknown.removeAll(PROPERTIES);
+            if (!unknown.isEmpty()) {
+                throw new BusinessException("VALIDATION_ERROR", "Unknown order fields: " + unknown,
+                        Arrays.asList("fields may contain " + String.join(", ", PROPERTIES)));
+            }
+            properties.add("id");
+        }
+        if (expand == null) {
+            return new OrderFields(properties, true, true, true);
+        }
+        Set<String> expansions = split(expand);
+        Set<String> unknown = new LinkedHashSet<>(expansions);
+        unknown.removeAll(Set.of(EXPAND_CUSTOMER, EXPAND_ITEMS, EXPAND_ITEM_PRODUCTS));
+        if (!unknown.isEmpty()) {
+            throw new BusinessException("VALIDATION_ERROR", "Unknown order expansions: " + unknown,
+                    Arrays.asList("expand may contain customer, items, items.product"));
+        }
+        boolean itemProducts = expansions.contains(EXPAND_ITEM_PRODUCTS);
+        return new OrderFields(properties, expansions.contains(EXPAND_CUSTOMER),
+                itemProducts || expansions.contains(EXPAND_ITEMS), itemProducts);
+    }
+
+    public boolean includes(String property) {
+        return properties == null || properties.contains(property);
+    }
+
+    public boolean expandsCustomer() {
+        return customer && includes("customer");
+    }
+
+    public boolean expandsItems() {
+        return items && includes("orderItems");
+    }
+
+    public boolean expandsItemProducts() {
+        return itemProducts && expandsItems();
+    }
+
+    private static Set<String> split(String value) {
+        Set<String> parts = new LinkedHashSet<>();
+        for (String part : value.split(",")) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+}
@@ -1,12 +1,19 @@
 package edts.week8_practice1.dto.order;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import edts.week8_practice1.dto.product.ProductResponse;
 
 import java.math.BigDecimal;
 
+/**
+ * {@code product} is null and not serialized unless {@code items.product} is expanded, see
+ * {@link OrderFields}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OrderItemResponse {
 
     private Long id;
+    private Long productId;
     private ProductResponse product;
     private Integer quantity;
     private BigDecimal priceAtPurchase;
@@ -34,6 +41,14 @@ public class OrderItemResponse {
         this.id = id;
     }
 
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
     public ProductResponse getProduct() {
         return product;
     }
@@ -70,6 +85,7 @@ public class OrderItemResponse {
     public String toString() {
         return "OrderItemResponse{" +
                 "id=" + id +
+                ", productId=" + productId +
                 ", product=" + product +
                 ", quantity=" + quantity +
                 ", priceAtPurchase=" + priceAtPurchase +
@@ -1,5 +1,6 @@
 package edts.week8_practice1.dto.order;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import edts.week8_practice1.dto.customer.CustomerResponse;
 import edts.week8_practice1.enums.OrderStatus;
 
@@ -7,9 +8,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Properties left out with {@code fields=} or {@code expand=} (see {@link OrderFields}) are null
+ * and not serialized.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OrderResponse {
 
     private Long id;
+    private Long customerId;
     private CustomerResponse customer;
     private List<OrderItemResponse> orderItems;
     private BigDecimal totalAmount;
@@ -46,6 +53,14 @@ public class OrderResponse {
         this.id = id;
     }
 
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
     public CustomerResponse getCustomer() {
         return customer;
     }
@@ -114,6 +129,7 @@ public class OrderResponse {
     public String toString() {
         return "OrderResponse{" +
                 "id=" + id +
+                ", customerId=" + customerId +
                 ", customer=" + customer +
                 ", totalAmount=" + totalAmount +
                 ", discountAmount=" + discountAmount +
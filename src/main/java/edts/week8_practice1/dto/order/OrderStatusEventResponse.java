@@ -0,0 +1,45 @@
+package edts.week8_practice1.dto.order;
+
+import edts.week8_practice1.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public class OrderStatusEventResponse {
+
+    private OrderStatus status;
+    private LocalDateTime occurredAt;
+
+    // Constructors
+    public OrderStatusEventResponse() {
+    }
+
+    public OrderStatusEventResponse(OrderStatus status, LocalDateTime occurredAt) {
+        this.status = status;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters and Setters
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStatusEventResponse{" +
+                "status=" + status +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
@@ -22,6 +22,9 @@ public class ProductRequest {
     @Min(value = 0, message = "Stock cannot be negative")
     private Integer stock;
 
+    @Min(value = 0, message = "Low stock threshold cannot be negative")
+    private Integer lowStockThreshold;
+
     // Constructors
     public ProductRequest() {
     }
@@ -66,6 +69,14 @@ public class ProductRequest {
         this.stock = stock;
     }
 
+    public Integer getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(Integer lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
     @Override
     public String toString() {
         return "ProductRequest{" +
@@ -73,6 +84,7 @@ public class ProductRequest {
                 ", category=" + category +
                 ", price=" + price +
                 ", stock=" + stock +
+                ", lowStockThreshold=" + lowStockThreshold +
                 '}';
     }
 }
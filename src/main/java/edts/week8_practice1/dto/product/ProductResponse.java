@@ -12,6 +12,7 @@ public class ProductResponse {
     private ProductCategory category;
     private BigDecimal price;
     private Integer stock;
+    private Integer lowStockThreshold;
     private Boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -97,6 +98,14 @@ public class ProductResponse {
         this.updatedAt = updatedAt;
     }
 
+    public Integer getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(Integer lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
     @Override
     public String toString() {
         return "ProductResponse{" +
@@ -105,6 +114,7 @@ public class ProductResponse {
                 ", category=" + category +
                 ", price=" + price +
                 ", stock=" + stock +
+                ", lowStockThreshold=" + lowStockThreshold +
                 ", active=" + active +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
@@ -20,6 +20,9 @@ public class ProductUpdateRequest {
     @Min(value = 0, message = "Stock cannot be negative")
     private Integer stock;
 
+    @Min(value = 0, message = "Low stock threshold cannot be negative")
+    private Integer lowStockThreshold;
+
     private Boolean active;
 
     // Constructors
@@ -75,6 +78,14 @@ public class ProductUpdateRequest {
         this.active = active;
     }
 
+    public Integer getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(Integer lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
     @Override
     public String toString() {
         return "ProductUpdateRequest{" +
@@ -82,6 +93,7 @@ public class ProductUpdateRequest {
                 ", category=" + category +
                 ", price=" + price +
                 ", stock=" + stock +
+                ", lowStockThreshold=" + lowStockThreshold +
                 ", active=" + active +
                 '}';
     }
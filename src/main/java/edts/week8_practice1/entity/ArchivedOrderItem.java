@@ -0,0 +1,69 @@
+package edts.week8_practice1.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Order item of an archived order, stored as JSON in {@code archived_orders.items}.
+ * The product is only referenced; products are never archived.
+ */
+public class ArchivedOrderItem {
+
+    private Long id;
+    private Long productId;
+    private Integer quantity;
+    private BigDecimal priceAtPurchase;
+
+    // Constructors
+    public ArchivedOrderItem() {
+    }
+
+    public ArchivedOrderItem(Long id, Long productId, Integer quantity, BigDecimal priceAtPurchase) {
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.priceAtPurchase = priceAtPurchase;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPriceAtPurchase() {
+        return priceAtPurchase;
+    }
+
+    public void setPriceAtPurchase(BigDecimal priceAtPurchase) {
+        this.priceAtPurchase = priceAtPurchase;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedOrderItem{" +
+                "id=" + id +
+                ", productId=" + productId +
+                ", quantity=" + quantity +
+                ", priceAtPurchase=" + priceAtPurchase +
+                '}';
+    }
+}
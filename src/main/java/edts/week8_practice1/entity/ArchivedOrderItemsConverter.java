@@ -0,0 +1,30 @@
+package edts.week8_practice1.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+/**
+ * Items of an archived order as a JSON array. Also used by the archive job, which writes the
+ * column with plain JDBC.
+ */
+@Converter
+public class ArchivedOrderItemsConverter implements AttributeConverter<List<ArchivedOrderItem>, String> {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+    private static final TypeReference<List<ArchivedOrderItem>> ITEMS = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<ArchivedOrderItem> items) {
+        return MAPPER.writeValueAsString(items);
+    }
+
+    @Override
+    public List<ArchivedOrderItem> convertToEntityAttribute(String json) {
+        return MAPPER.readValue(json, ITEMS);
+    }
+}
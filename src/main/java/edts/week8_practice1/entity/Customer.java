@@ -16,7 +16,8 @@ public class Customer extends BaseEntityWithSoftDelete {
     @Column(name = "name", nullable = false, length = 255)
     private String name;
 
-    @Column(name = "email", unique = true, nullable = false, length = 255)
+    // Unique among active customers: uk_customers_active_email (migration V8)
+    @Column(name = "email", nullable = false, length = 255)
     private String email;
 
     @Enumerated(EnumType.STRING)
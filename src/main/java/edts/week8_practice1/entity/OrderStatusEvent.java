@@ -0,0 +1,117 @@
+package edts.week8_practice1.entity;
+
+import edts.week8_practice1.enums.OrderStatus;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A status an order reached, appended by OrderService in the same transaction (migration V7).
+ * Never updated or deleted; always new, so that saving it is a plain insert without the
+ * select a merge of an assigned id would cost.
+ */
+@Entity
+@Immutable
+@Table(name = "order_status_events")
+@IdClass(OrderStatusEvent.Key.class)
+public class OrderStatusEvent implements Persistable<OrderStatusEvent.Key> {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // Stored as TINYINT ordinal: new statuses must be appended to OrderStatus, never reordered
+    @Id
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Constructors
+    public OrderStatusEvent() {
+    }
+
+    public OrderStatusEvent(Long orderId, OrderStatus status, LocalDateTime occurredAt) {
+        this.orderId = orderId;
+        this.status = status;
+        this.occurredAt = occurredAt;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(orderId, status);
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    // Getters
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderStatusEvent that = (OrderStatusEvent) o;
+        return Objects.equals(orderId, that.orderId) && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId, status);
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStatusEvent{" +
+                "orderId=" + orderId +
+                ", status=" + status +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+
+    public static class Key implements Serializable {
+
+        private Long orderId;
+        private OrderStatus status;
+
+        public Key() {
+        }
+
+        public Key(Long orderId, OrderStatus status) {
+            this.orderId = orderId;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(orderId, key.orderId) && status == key.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(orderId, status);
+        }
+    }
+}
@@ -14,7 +14,8 @@ public class Product extends BaseEntityWithSoftDelete {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "name", unique = true, nullable = false, length = 255)
+    // Unique among active products: uk_products_active_name (migration V8)
+    @Column(name = "name", nullable = false, length = 255)
     private String name;
 
     @Enumerated(EnumType.STRING)
@@ -27,6 +28,10 @@ public class Product extends BaseEntityWithSoftDelete {
     @Column(name = "stock", nullable = false)
     private Integer stock = 0;
 
+    // null: low-stock.default-threshold applies
+    @Column(name = "low_stock_threshold")
+    private Integer lowStockThreshold;
+
     // Constructors
     public Product() {
         super();
@@ -83,6 +88,14 @@ public class Product extends BaseEntityWithSoftDelete {
         this.stock = stock;
     }
 
+    public Integer getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(Integer lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
     // Business logic helpers
     public boolean hasSufficientStock(Integer requestedQuantity) {
         return this.stock >= requestedQuantity;
@@ -0,0 +1,90 @@
+package edts.week8_practice1.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Views and units sold of a product, accumulated by ProductStatsFlusher (migration V5).
+ * Read-only here; rows are only written by the flusher's upserts.
+ */
+@Entity
+@Immutable
+@Table(name = "product_stats")
+public class ProductStats {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "view_count", nullable = false)
+    private Long viewCount = 0L;
+
+    @Column(name = "units_sold", nullable = false)
+    private Long unitsSold = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ProductStats() {
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(Long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public Long getUnitsSold() {
+        return unitsSold;
+    }
+
+    public void setUnitsSold(Long unitsSold) {
+        this.unitsSold = unitsSold;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductStats that = (ProductStats) o;
+        return Objects.equals(productId, that.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId);
+    }
+
+    @Override
+    public String toString() {
+        return "ProductStats{" +
+                "productId=" + productId +
+                ", viewCount=" + viewCount +
+                ", unitsSold=" + unitsSold +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -1,5 +1,8 @@
 package edts.week8_practice1.enums;
 
+/**
+ * order_status_events stores the ordinal: add new statuses at the end, never reorder.
+ */
 public enum OrderStatus {
     CREATED,
     PAID,
@@ -0,0 +1,21 @@
+package edts.week8_practice1.exception;
+
+public class BulkheadFullException extends RuntimeException {
+    private final String trafficClass;
+    private final int retryAfterSeconds;
+
+    public BulkheadFullException(String trafficClass, int retryAfterSeconds) {
+        // Thrown for every shed request under overload: no stack trace
+        super("No capacity left for " + trafficClass + " requests", null, false, false);
+        this.trafficClass = trafficClass;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getTrafficClass() {
+        return trafficClass;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,21 @@
+package edts.week8_practice1.exception;
+
+public class CoalescedReadTimeoutException extends RuntimeException {
+    private final String operation;
+    private final int retryAfterSeconds;
+
+    public CoalescedReadTimeoutException(String operation, long waitedMs, int retryAfterSeconds) {
+        // Thrown to every waiting caller of a slow read: no stack trace
+        super("Shared " + operation + " call did not complete within " + waitedMs + " ms", null, false, false);
+        this.operation = operation;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,21 @@
+package edts.week8_practice1.exception;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    private final String endpoint;
+    private final int retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(String endpoint, int retryAfterSeconds) {
+        // Thrown for every shed request under overload: no stack trace
+        super(endpoint + " is at its concurrency limit", null, false, false);
+        this.endpoint = endpoint;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
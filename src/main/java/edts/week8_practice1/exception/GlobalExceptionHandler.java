@@ -2,6 +2,7 @@ package edts.week8_practice1.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +49,93 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<ErrorResponse> handleQueryBudgetExceededException(QueryBudgetExceededException ex) {
+        logger.error("Query budget exceeded: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .code("QUERY_BUDGET_EXCEEDED")
+                .message(ex.getMessage())
+                .details(Arrays.asList("Endpoint: " + ex.getEndpoint(),
+                        "Statements: " + ex.getStatements() + ", Budget: " + ex.getBudget()))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceededException(ConcurrencyLimitExceededException ex) {
+        // Counted by http.server.concurrency.rejected; logging each one would add to the overload
+        logger.debug("Request rejected: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .code("CONCURRENCY_LIMIT_EXCEEDED")
+                .message(ex.getMessage())
+                .details(Arrays.asList("Endpoint: " + ex.getEndpoint(),
+                        "Retry after " + ex.getRetryAfterSeconds() + "s"))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFullException(BulkheadFullException ex) {
+        // Counted by bulkhead.requests.rejected
+        logger.debug("Request rejected: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .code("BULKHEAD_FULL")
+                .message(ex.getMessage())
+                .details(Arrays.asList("Traffic class: " + ex.getTrafficClass(),
+                        "Retry after " + ex.getRetryAfterSeconds() + "s"))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(CoalescedReadTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleCoalescedReadTimeoutException(CoalescedReadTimeoutException ex) {
+        // Counted by coalescing.timeouts
+        logger.debug("Request rejected: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .code("COALESCED_READ_TIMEOUT")
+                .message(ex.getMessage())
+                .details(Arrays.asList("Operation: " + ex.getOperation(),
+                        "Retry after " + ex.getRetryAfterSeconds() + "s"))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(LockConflictException.class)
+    public ResponseEntity<ErrorResponse> handleLockConflictException(LockConflictException ex) {
+        // Counted by lock.retries.exhausted
+        logger.debug("Request rejected: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .code("LOCK_CONFLICT")
+                .message(ex.getMessage())
+                .details(Arrays.asList("Operation: " + ex.getOperation(),
+                        "Retry after " + ex.getRetryAfterSeconds() + "s"))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
         logger.error("Validation error: {}", ex.getMessage());
@@ -0,0 +1,27 @@
+package edts.week8_practice1.exception;
+
+public class LockConflictException extends RuntimeException {
+    private final String operation;
+    private final int attempts;
+    private final int retryAfterSeconds;
+
+    public LockConflictException(String operation, int attempts, int retryAfterSeconds) {
+        // Expected under contention and counted by lock.retries.exhausted: no stack trace
+        super(operation + " lost a lock conflict " + attempts + " times", null, false, false);
+        this.operation = operation;
+        this.attempts = attempts;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
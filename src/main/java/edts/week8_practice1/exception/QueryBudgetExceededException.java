@@ -0,0 +1,26 @@
+package edts.week8_practice1.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    private final String endpoint;
+    private final int statements;
+    private final int budget;
+
+    public QueryBudgetExceededException(String endpoint, int statements, int budget) {
+        super(String.format("%s executed %d SQL statements, budget is %d", endpoint, statements, budget));
+        this.endpoint = endpoint;
+        this.statements = statements;
+        this.budget = budget;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+}
@@ -6,7 +6,8 @@ public class ResourceNotFoundException extends RuntimeException {
     private final Object fieldValue;
 
     public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-        super(String.format("%s not found with %s : '%s'", resourceName, fieldName, fieldValue));
+        // A client error, often repeated by scrapers for ids that never existed: no stack trace
+        super(String.format("%s not found with %s : '%s'", resourceName, fieldName, fieldValue), null, false, false);
         this.resourceName = resourceName;
         this.fieldName = fieldName;
         this.fieldValue = fieldValue;
@@ -0,0 +1,20 @@
+package edts.week8_practice1.inventory;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by LowStockMonitor when a product's stock crosses its threshold, after the
+ * transaction that changed it has committed.
+ *
+ * @param stock the stock after the change; null when the recovery was found by reconciliation
+ */
+public record LowStockEvent(Type type, Long productId, String name, Integer stock, int threshold,
+                            LocalDateTime occurredAt) {
+
+    public enum Type {
+        /** Stock fell below the threshold. */
+        LOW,
+        /** Stock is back at or above the threshold, or the product was deactivated. */
+        RECOVERED
+    }
+}
@@ -0,0 +1,27 @@
+package edts.week8_practice1.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default sink of {@link LowStockEvent}s: one line per threshold crossing on the
+ * {@code low-stock-alerts} logger, which can be routed to its own appender.
+ */
+@Component
+public class LowStockEventLog {
+
+    private static final Logger alerts = LoggerFactory.getLogger("low-stock-alerts");
+
+    @EventListener
+    public void onLowStock(LowStockEvent event) {
+        if (event.type() == LowStockEvent.Type.LOW) {
+            alerts.warn("Product {} ({}) is low on stock: {} < {}", event.productId(), event.name(),
+                    event.stock(), event.threshold());
+        } else {
+            alerts.info("Product {} ({}) recovered: stock {}, threshold {}", event.productId(), event.name(),
+                    event.stock() != null ? event.stock() : "unknown", event.threshold());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package edts.week8_practice1.inventory;
+
+import edts.week8_practice1.entity.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of the active products whose stock is below their threshold.
+ *
+ * The services report every stock, threshold or active change, so the set is kept up to date
+ * without scanning products. A {@link LowStockEvent} is published whenever a product enters or
+ * leaves the set. Changes are applied after the transaction commits, so rolled back orders
+ * leave no trace. LowStockReconciler rebuilds the set from the database at startup and
+ * periodically, which also picks up changes made by other instances or directly in SQL.
+ */
+@Component
+public class LowStockMonitor {
+
+    private static final Comparator<LowStockProduct> LOWEST_STOCK_FIRST =
+            Comparator.comparingInt(LowStockProduct::stock).thenComparing(LowStockProduct::productId);
+
+    private final Map<Long, LowStockProduct> lowStock = new ConcurrentHashMap<>();
+    private final LowStockProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    public LowStockMonitor(LowStockProperties properties, ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        // Timestamps are in the JVM zone, like the entities
+        this.clock = Clock.systemDefaultZone();
+        Gauge.builder("products.low.stock", lowStock, Map::size)
+                .description("Active products with stock below their threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the current stock, threshold and active flag of a product. Call after changing
+     * any of them.
+     */
+    public void stockChanged(Product product) {
+        StockLevel level = new StockLevel(product.getId(), product.getName(), product.getStock(),
+                thresholdOf(product), Boolean.TRUE.equals(product.getActive()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(level, true);
+                }
+            });
+        } else {
+            apply(level, true);
+        }
+    }
+
+    /**
+     * @return the products below their threshold, lowest stock first
+     */
+    public List<LowStockProduct> lowStockProducts() {
+        return lowStock.values().stream().sorted(LOWEST_STOCK_FIRST).toList();
+    }
+
+    public int thresholdOf(Product product) {
+        return product.getLowStockThreshold() != null
+                ? product.getLowStockThreshold() : properties.getDefaultThreshold();
+    }
+
+    /**
+     * Replaces the set with the given products, read from the database.
+     *
+     * @param publish whether to publish events for the differences; false for the initial load
+     */
+    void reconcile(List<Product> lowStockProducts, boolean publish) {
+        Set<Long> current = new HashSet<>();
+        for (Product product : lowStockProducts) {
+            current.add(product.getId());
+            apply(new StockLevel(product.getId(), product.getName(), product.getStock(), thresholdOf(product),
+                    true), publish);
+        }
+        for (LowStockProduct product : lowStock.values()) {
+            if (!current.contains(product.productId()) && lowStock.remove(product.productId()) != null && publish) {
+                // Recovered elsewhere (another instance, SQL); the current stock is not known here
+                publish(LowStockEvent.Type.RECOVERED, product.productId(), product.name(), null,
+                        product.threshold());
+            }
+        }
+    }
+
+    private void apply(StockLevel level, boolean publish) {
+        if (level.active() && level.stock() < level.threshold()) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            LowStockProduct[] previous = new LowStockProduct[1];
+            lowStock.compute(level.productId(), (id, existing) -> {
+                previous[0] = existing;
+                // Still low: keep the time it first fell below
+                return new LowStockProduct(id, level.name(), level.stock(), level.threshold(),
+                        existing != null ? existing.since() : now);
+            });
+            if (previous[0] == null && publish) {
+                publish(LowStockEvent.Type.LOW, level.productId(), level.name(), level.stock(), level.threshold());
+            }
+        } else if (lowStock.remove(level.productId()) != null && publish) {
+            publish(LowStockEvent.Type.RECOVERED, level.productId(), level.name(), level.stock(), level.threshold());
+        }
+    }
+
+    private void publish(LowStockEvent.Type type, Long productId, String name, Integer stock, int threshold) {
+        eventPublisher.publishEvent(new LowStockEvent(type, productId, name, stock, threshold,
+                LocalDateTime.now(clock)));
+    }
+
+    private record StockLevel(Long productId, String name, int stock, int threshold, boolean active) {
+    }
+}
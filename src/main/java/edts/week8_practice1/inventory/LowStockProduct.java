@@ -0,0 +1,11 @@
+package edts.week8_practice1.inventory;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product whose stock is below its threshold.
+ *
+ * @param since when the stock fell below the threshold, as far as this instance knows
+ */
+public record LowStockProduct(Long productId, String name, int stock, int threshold, LocalDateTime since) {
+}
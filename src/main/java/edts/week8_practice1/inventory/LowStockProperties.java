@@ -0,0 +1,34 @@
+package edts.week8_practice1.inventory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Low-stock detection ({@code low-stock.*}), see LowStockMonitor.
+ */
+@Component
+@ConfigurationProperties(prefix = "low-stock")
+public class LowStockProperties {
+
+    /** A product is low on stock below this many units, unless it has its own threshold. */
+    private int defaultThreshold = 10;
+
+    /** Milliseconds between two rebuilds of the low-stock set from the database. */
+    private long reconcileIntervalMs = 300_000;
+
+    public int getDefaultThreshold() {
+        return defaultThreshold;
+    }
+
+    public void setDefaultThreshold(int defaultThreshold) {
+        this.defaultThreshold = defaultThreshold;
+    }
+
+    public long getReconcileIntervalMs() {
+        return reconcileIntervalMs;
+    }
+
+    public void setReconcileIntervalMs(long reconcileIntervalMs) {
+        this.reconcileIntervalMs = reconcileIntervalMs;
+    }
+}
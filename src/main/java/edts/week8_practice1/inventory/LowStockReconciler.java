@@ -0,0 +1,54 @@
+package edts.week8_practice1.inventory;
+
+import edts.week8_practice1.entity.Product;
+import edts.week8_practice1.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Loads the low-stock set of LowStockMonitor at startup and rebuilds it periodically
+ * ({@code low-stock.reconcile-interval-ms}) with one query. Between runs, the monitor is
+ * updated by the services as stock changes.
+ */
+public class LowStockReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockReconciler.class);
+
+    private final LowStockMonitor monitor;
+    private final ProductRepository productRepository;
+    private final LowStockProperties properties;
+
+    public LowStockReconciler(LowStockMonitor monitor, ProductRepository productRepository,
+                              LowStockProperties properties) {
+        this.monitor = monitor;
+        this.productRepository = productRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Initial load, without events: products that were already low are not new alerts.
+     */
+    public void load() {
+        reconcile(false);
+    }
+
+    @Scheduled(fixedDelayString = "${low-stock.reconcile-interval-ms:300000}",
+            initialDelayString = "${low-stock.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        reconcile(true);
+    }
+
+    private void reconcile(boolean publish) {
+        try {
+            List<Product> products = productRepository.findAllLowStock(properties.getDefaultThreshold());
+            monitor.reconcile(products, publish);
+            logger.debug("Low-stock set rebuilt: {} products", products.size());
+        } catch (DataAccessException e) {
+            logger.warn("Rebuilding the low-stock set failed, keeping the current one", e);
+        }
+    }
+}
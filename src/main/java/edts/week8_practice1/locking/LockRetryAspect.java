@@ -0,0 +1,125 @@
+package edts.week8_practice1.locking;
+
+import edts.week8_practice1.exception.LockConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs a {@link RetryOnLockConflict} method again when its transaction is chosen as deadlock
+ * victim or times out waiting for a row lock, after a random wait (full jitter, doubling up to
+ * max-backoff-ms) so that the conflicting transactions do not meet again at once.
+ *
+ * Wraps the {@code @Transactional} proxy, so every attempt is a new transaction. Calls made
+ * inside a transaction run once: the conflict rolled back the outer transaction as well, only
+ * its own caller can start over.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class LockRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(LockRetryAspect.class);
+
+    // SQLSTATE of a deadlock victim on MySQL (1213) and H2 (40001)
+    private static final String DEADLOCK_SQL_STATE = "40001";
+
+    private final LockRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Operation> operations = new ConcurrentHashMap<>();
+
+    public LockRetryAspect(LockRetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(edts.week8_practice1.locking.RetryOnLockConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Operation operation = operations.computeIfAbsent(method, this::operation);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (PessimisticLockingFailureException e) {
+                boolean deadlock = isDeadlock(e);
+                (deadlock ? operation.deadlocks() : operation.lockTimeouts()).increment();
+                if (attempt >= properties.getMaxAttempts()) {
+                    operation.exhausted().increment();
+                    throw new LockConflictException(operation.name(), attempt, properties.getRetryAfterSeconds());
+                }
+                long backoffMs = backoffMs(attempt);
+                logger.debug("{} lost a {} on attempt {}, retrying in {} ms", operation.name(),
+                        deadlock ? "deadlock" : "lock wait", attempt, backoffMs);
+                operation.retries().increment();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new LockConflictException(operation.name(), attempt, properties.getRetryAfterSeconds());
+                }
+            }
+        }
+    }
+
+    /**
+     * Random wait before the given retry: up to initial-backoff-ms, doubled per attempt
+     */
+    long backoffMs(int attempt) {
+        long cap = properties.getInitialBackoffMs() << Math.min(attempt - 1, 20);
+        return ThreadLocalRandom.current().nextLong(Math.min(cap, properties.getMaxBackoffMs()) + 1);
+    }
+
+    static boolean isDeadlock(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && DEADLOCK_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Operation operation(Method method) {
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return new Operation(name,
+                conflicts(name, "deadlock", "Transactions rolled back as deadlock victim"),
+                conflicts(name, "lock_timeout", "Transactions that timed out waiting for a row lock"),
+                Counter.builder("lock.retries")
+                        .description("Transactions run again after a lock conflict")
+                        .tag("operation", name)
+                        .register(meterRegistry),
+                Counter.builder("lock.retries.exhausted")
+                        .description("Calls that lost every attempt and got 503")
+                        .tag("operation", name)
+                        .register(meterRegistry));
+    }
+
+    private Counter conflicts(String name, String type, String description) {
+        return Counter.builder("lock.conflicts")
+                .description(description)
+                .tag("operation", name)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private record Operation(String name, Counter deadlocks, Counter lockTimeouts, Counter retries,
+                             Counter exhausted) {
+    }
+}
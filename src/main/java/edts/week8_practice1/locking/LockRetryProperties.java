@@ -0,0 +1,71 @@
+package edts.week8_practice1.locking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retry of transactions that lost a lock conflict ({@code lock-retry.*}), see
+ * {@link LockRetryAspect}. Disabled by default.
+ */
+@Component
+@ConfigurationProperties(prefix = "lock-retry")
+public class LockRetryProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Runs of the transaction per call, the first one included. When the last one loses too,
+     * the caller gets 503.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Upper bound of the random wait before the first retry, doubled for every following one
+     * up to max-backoff-ms.
+     */
+    private long initialBackoffMs = 20;
+
+    private long maxBackoffMs = 200;
+
+    private int retryAfterSeconds = 1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getInitialBackoffMs() {
+        return initialBackoffMs;
+    }
+
+    public void setInitialBackoffMs(long initialBackoffMs) {
+        this.initialBackoffMs = initialBackoffMs;
+    }
+
+    public long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(long maxBackoffMs) {
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package edts.week8_practice1.locking;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional method that is run again when it loses a lock conflict (deadlock or
+ * lock wait timeout), see {@link LockRetryAspect}. The transaction is rolled back and the whole
+ * method runs again, so anything it did outside of the database before the conflict is done
+ * twice: take the locks first.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnLockConflict {
+}
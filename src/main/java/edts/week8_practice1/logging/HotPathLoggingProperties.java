@@ -0,0 +1,26 @@
+package edts.week8_practice1.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logging budget of the hot paths ({@code hot-path-logging.*}), set per profile.
+ */
+@Component
+@ConfigurationProperties(prefix = "hot-path-logging")
+public class HotPathLoggingProperties {
+
+    /**
+     * Lines per second for each {@link SampledLogger} message template.
+     * Negative: no limit; 0: hot-path lines are not logged.
+     */
+    private int maxPerSecond = 10;
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+}
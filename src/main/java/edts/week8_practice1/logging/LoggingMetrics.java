@@ -0,0 +1,56 @@
+package edts.week8_practice1.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+
+/**
+ * Logging pipeline metrics:
+ * <ul>
+ *   <li>{@code logging.events.dropped{appender}}: events dropped by an async appender</li>
+ *   <li>{@code logging.async.queue.size{appender}}: events waiting to be written</li>
+ *   <li>{@code logging.events.suppressed}: hot-path lines over the {@link SampledLogger} budget</li>
+ * </ul>
+ */
+public class LoggingMetrics implements MeterBinder {
+
+    private final SampledLoggerFactory sampledLoggerFactory;
+
+    public LoggingMetrics(SampledLoggerFactory sampledLoggerFactory) {
+        this.sampledLoggerFactory = sampledLoggerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.events.suppressed", sampledLoggerFactory,
+                        SampledLoggerFactory::getSuppressedCount)
+                .description("Hot-path log lines suppressed by the sampling budget")
+                .register(registry);
+
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        Iterator<Appender<ILoggingEvent>> appenders = root.iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof MeteredAsyncAppender appender) {
+                FunctionCounter.builder("logging.events.dropped", appender, MeteredAsyncAppender::getDroppedCount)
+                        .description("Log events dropped because the async queue was full")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                Gauge.builder("logging.async.queue.size", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                        .description("Log events waiting in the async queue")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+            }
+        }
+    }
+}
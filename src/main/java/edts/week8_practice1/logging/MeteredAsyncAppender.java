@@ -0,0 +1,40 @@
+package edts.week8_practice1.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback {@link AsyncAppender} that counts the events it drops, exported as
+ * {@code logging.events.dropped} by {@link LoggingMetrics}.
+ *
+ * Events are dropped when the queue is above the discarding threshold (TRACE to INFO only)
+ * or, with {@code neverBlock}, when it is full. The full-queue count is taken just before
+ * the non-blocking offer, so it is approximate under contention.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            dropped.increment();
+        }
+        return discardable;
+    }
+
+    @Override
+    protected void preprocess(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            dropped.increment();
+        }
+        super.preprocess(event);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,80 @@
+package edts.week8_practice1.logging;
+
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-limited INFO logging for hot paths such as per-request reads.
+ *
+ * Each message template is logged at most {@code hot-path-logging.max-per-second} times per
+ * second. Over-budget lines are dropped and counted. The count is attached to the next line
+ * that is logged, as the {@code suppressed} key-value, so JSON logs keep the real volume.
+ * Writes and errors keep using the plain SLF4J logger. Obtained from {@link SampledLoggerFactory}.
+ */
+public final class SampledLogger {
+
+    private final Logger logger;
+    /** Negative: no limit; 0: hot-path lines are not logged at all. */
+    private final int maxPerSecond;
+    private final Clock clock;
+    private final LongAdder suppressedTotal;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    SampledLogger(Logger logger, int maxPerSecond, Clock clock, LongAdder suppressedTotal) {
+        this.logger = logger;
+        this.maxPerSecond = maxPerSecond;
+        this.clock = clock;
+        this.suppressedTotal = suppressedTotal;
+    }
+
+    public void info(String format, Object... arguments) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        if (maxPerSecond < 0) {
+            logger.info(format, arguments);
+            return;
+        }
+        long suppressed = windows.computeIfAbsent(format, key -> new Window())
+                .acquire(clock.millis() / 1000, maxPerSecond);
+        if (suppressed < 0) {
+            suppressedTotal.increment();
+        } else if (suppressed == 0) {
+            logger.info(format, arguments);
+        } else {
+            logger.atInfo().addKeyValue("suppressed", suppressed).log(format, arguments);
+        }
+    }
+
+    /**
+     * One-second budget of a single message template. The second (high 32 bits) and the
+     * lines emitted in it (low 32 bits) share one word, so a single CAS moves both.
+     */
+    private static final class Window {
+
+        private final AtomicLong state = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        /**
+         * @return lines suppressed since the last logged one, or -1 when over budget
+         */
+        long acquire(long now, int limit) {
+            while (true) {
+                long current = state.get();
+                int emitted = (current >>> 32) == now ? (int) current : 0;
+                if (emitted >= limit) {
+                    suppressed.incrementAndGet();
+                    return -1;
+                }
+                if (state.compareAndSet(current, (now << 32) | (emitted + 1))) {
+                    return suppressed.getAndSet(0);
+                }
+            }
+        }
+    }
+}
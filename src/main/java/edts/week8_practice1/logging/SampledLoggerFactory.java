@@ -0,0 +1,39 @@
+package edts.week8_practice1.logging;
+
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates the {@link SampledLogger}s of the hot paths with the budget of the active profile
+ * ({@code hot-path-logging.max-per-second}) and counts the lines they suppress.
+ */
+public class SampledLoggerFactory {
+
+    private final int maxPerSecond;
+    private final Clock clock;
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * @param maxPerSecond lines per second for each message template; negative: no limit,
+     *                     0: hot-path lines are not logged
+     */
+    public SampledLoggerFactory(int maxPerSecond) {
+        this(maxPerSecond, Clock.systemUTC());
+    }
+
+    SampledLoggerFactory(int maxPerSecond, Clock clock) {
+        this.maxPerSecond = maxPerSecond;
+        this.clock = clock;
+    }
+
+    public SampledLogger getLogger(Logger logger) {
+        return new SampledLogger(logger, maxPerSecond, clock, suppressed);
+    }
+
+    /** Lines dropped by all loggers of this factory since startup. */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+}
@@ -0,0 +1,56 @@
+package edts.week8_practice1.maintenance;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Archiving of old PAID and CANCELLED orders ({@code order-archive.*}), see migration V4.
+ * Disabled by default.
+ */
+@Component
+@ConfigurationProperties(prefix = "order-archive")
+public class OrderArchiveProperties {
+
+    private boolean enabled = false;
+
+    /** Orders created longer ago than this many days are archived. */
+    private int retentionDays = 365;
+
+    /** Orders moved per transaction. */
+    private int batchSize = 500;
+
+    /** When the archive job runs. */
+    private String cron = "0 45 3 * * *";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+}
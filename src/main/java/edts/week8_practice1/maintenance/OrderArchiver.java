@@ -0,0 +1,160 @@
+package edts.week8_practice1.maintenance;
+
+import edts.week8_practice1.entity.ArchivedOrder;
+import edts.week8_practice1.entity.ArchivedOrderItem;
+import edts.week8_practice1.entity.ArchivedOrderItemsConverter;
+import edts.week8_practice1.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves PAID and CANCELLED orders older than {@code order-archive.retention-days} from
+ * {@code orders} and {@code order_items} into {@code archived_orders} (migration V4).
+ *
+ * Each batch is copied and deleted in one transaction, so an order is always in exactly one
+ * place. CREATED orders stay in the hot tables however old they are, since they can still be
+ * paid or cancelled. Reads fall back to the archive in OrderService.
+ */
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+    private static final ArchivedOrderItemsConverter ITEMS = new ArchivedOrderItemsConverter();
+
+    // No ORDER BY: the scan of idx_orders_status_created stops after one batch
+    private static final String SELECT_ORDERS =
+            "SELECT o.id, o.customer_id, o.total_amount, o.discount_amount, o.final_amount, o.status, " +
+            "o.created_at, o.updated_at, o.created_by, o.updated_by FROM orders o " +
+            "WHERE o.status IN ('PAID', 'CANCELLED') AND o.created_at < ? LIMIT ? FOR UPDATE";
+    private static final String SELECT_ITEMS =
+            "SELECT oi.id, oi.order_id, oi.product_id, oi.quantity, oi.price_at_purchase " +
+            "FROM order_items oi WHERE oi.order_id IN (%s) ORDER BY oi.id";
+    private static final String INSERT_ARCHIVED =
+            "INSERT INTO archived_orders (order_id, customer_id, total_amount, discount_amount, final_amount, " +
+            "status, items, created_at, updated_at, created_by, updated_by, archived_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_ITEMS = "DELETE FROM order_items WHERE order_id IN (%s)";
+    // The range on created_at keeps the delete to the old partitions of a partitioned table (V3)
+    private static final String DELETE_ORDERS = "DELETE FROM orders WHERE id IN (%s) AND created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderArchiveProperties properties;
+    private final Clock clock;
+    private final Counter archivedOrders;
+    private final Timer batchTimer;
+
+    public OrderArchiver(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         OrderArchiveProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.archivedOrders = Counter.builder("orders.archived")
+                .description("Orders moved to archived_orders")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("orders.archive.batch")
+                .description("Time to copy and delete one batch of archived orders")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archives in batches until no eligible order is left.
+     *
+     * @return the number of archived orders
+     */
+    @Scheduled(cron = "${order-archive.cron:0 45 3 * * *}")
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusDays(properties.getRetentionDays());
+        long start = System.nanoTime();
+        int archived = 0;
+        try {
+            int batch;
+            do {
+                Integer moved = batchTimer.record(() -> transactionTemplate.execute(status -> archiveBatch(cutoff)));
+                batch = moved == null ? 0 : moved;
+                archived += batch;
+                archivedOrders.increment(batch);
+            } while (batch == properties.getBatchSize());
+        } catch (DataAccessException e) {
+            logger.error("Archiving orders created before {} failed after {} orders", cutoff, archived, e);
+            return archived;
+        }
+        logger.info("Archived {} orders created before {} in {} ms", archived, cutoff,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<ArchivedOrder> orders = jdbcTemplate.query(SELECT_ORDERS, (resultSet, rowNum) -> mapOrder(resultSet),
+                cutoff, properties.getBatchSize());
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, ArchivedOrder> ordersById = new LinkedHashMap<>();
+        for (ArchivedOrder order : orders) {
+            ordersById.put(order.getOrderId(), order);
+        }
+        String placeholders = String.join(", ", Collections.nCopies(orders.size(), "?"));
+        Object[] ids = ordersById.keySet().toArray();
+        jdbcTemplate.query(String.format(SELECT_ITEMS, placeholders), (RowCallbackHandler) resultSet ->
+                ordersById.get(resultSet.getLong(2)).getItems().add(new ArchivedOrderItem(resultSet.getLong(1),
+                        resultSet.getLong(3), resultSet.getInt(4), resultSet.getBigDecimal(5))), ids);
+
+        LocalDateTime archivedAt = LocalDateTime.now(clock);
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVED, orders, orders.size(), (statement, order) -> {
+            statement.setLong(1, order.getOrderId());
+            statement.setLong(2, order.getCustomerId());
+            statement.setBigDecimal(3, order.getTotalAmount());
+            statement.setBigDecimal(4, order.getDiscountAmount());
+            statement.setBigDecimal(5, order.getFinalAmount());
+            statement.setString(6, order.getStatus().name());
+            statement.setString(7, ITEMS.convertToDatabaseColumn(order.getItems()));
+            statement.setObject(8, order.getCreatedAt());
+            statement.setObject(9, order.getUpdatedAt());
+            statement.setString(10, order.getCreatedBy());
+            statement.setString(11, order.getUpdatedBy());
+            statement.setObject(12, archivedAt);
+        });
+
+        jdbcTemplate.update(String.format(DELETE_ITEMS, placeholders), ids);
+        List<Object> deleteArgs = new ArrayList<>(List.of(ids));
+        deleteArgs.add(cutoff);
+        jdbcTemplate.update(String.format(DELETE_ORDERS, placeholders), deleteArgs.toArray());
+        return orders.size();
+    }
+
+    private static ArchivedOrder mapOrder(ResultSet resultSet) throws SQLException {
+        ArchivedOrder order = new ArchivedOrder();
+        order.setOrderId(resultSet.getLong(1));
+        order.setCustomerId(resultSet.getLong(2));
+        order.setTotalAmount(resultSet.getBigDecimal(3));
+        order.setDiscountAmount(resultSet.getBigDecimal(4));
+        order.setFinalAmount(resultSet.getBigDecimal(5));
+        order.setStatus(OrderStatus.valueOf(resultSet.getString(6)));
+        order.setCreatedAt(resultSet.getObject(7, LocalDateTime.class));
+        order.setUpdatedAt(resultSet.getObject(8, LocalDateTime.class));
+        order.setCreatedBy(resultSet.getString(9));
+        order.setUpdatedBy(resultSet.getString(10));
+        return order;
+    }
+}
@@ -0,0 +1,158 @@
+package edts.week8_practice1.maintenance;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the monthly partitions of {@code orders} ahead of time (see migration V3).
+ *
+ * New months are split off the catch-all {@code MAXVALUE} partition ({@code p_future}). While
+ * it is empty this is a metadata change; rows that already landed there have to be copied.
+ * Partition bounds are UTC month starts.
+ */
+public class OrderPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPartitionMaintainer.class);
+    private static final String MAXVALUE = "MAXVALUE";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String PARTITIONS_QUERY =
+            "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'orders' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderPartitionProperties properties;
+    private final Clock clock;
+    private final AtomicLong monthsAhead = new AtomicLong(-1);
+
+    public OrderPartitionMaintainer(JdbcTemplate jdbcTemplate, OrderPartitionProperties properties,
+                                    MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        Gauge.builder("orders.partitions.months.ahead", monthsAhead, AtomicLong::get)
+                .description("Months after the current one that have their own orders partition (-1: unknown)")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${order-partitions.cron:0 15 3 * * *}")
+    public void ensurePartitions() {
+        try {
+            List<Partition> partitions = jdbcTemplate.query(PARTITIONS_QUERY,
+                    (resultSet, rowNum) -> new Partition(resultSet.getString(1), resultSet.getString(2)));
+            if (partitions.isEmpty()) {
+                logger.warn("Table orders is not partitioned (migration V3), no partitions to maintain");
+                return;
+            }
+
+            YearMonth current = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+            PartitionPlan plan = plan(partitions, current, properties.getMonthsAhead());
+            if (plan.ddl() != null) {
+                if (plan.futurePartition() != null) {
+                    warnIfHasRows(plan.futurePartition());
+                }
+                jdbcTemplate.execute(plan.ddl());
+                logger.info("Added orders partitions {} to {}", PARTITION_NAME.format(plan.added().get(0)),
+                        PARTITION_NAME.format(plan.added().get(plan.added().size() - 1)));
+            }
+            monthsAhead.set(ChronoUnit.MONTHS.between(current, plan.coveredUntil()) - 1);
+        } catch (DataAccessException e) {
+            logger.error("Could not create orders partitions", e);
+        }
+    }
+
+    /**
+     * Partitions to add so that every month up to {@code current + monthsAhead} has its own,
+     * with the DDL that adds them. Pure: the partition list comes from information_schema.
+     */
+    static PartitionPlan plan(List<Partition> partitions, YearMonth current, int monthsAhead) {
+        YearMonth coveredUntil = coveredUntil(partitions);
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month = coveredUntil; !month.isAfter(current.plusMonths(monthsAhead));
+             month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+        if (missing.isEmpty()) {
+            return new PartitionPlan(List.of(), null, null, coveredUntil);
+        }
+        Partition last = partitions.get(partitions.size() - 1);
+        String futurePartition = MAXVALUE.equals(last.description()) ? last.name() : null;
+        return new PartitionPlan(List.copyOf(missing), futurePartition, alterStatement(missing, futurePartition),
+                missing.get(missing.size() - 1).plusMonths(1));
+    }
+
+    /**
+     * First month without its own partition: the upper bound of the last bounded partition.
+     */
+    private static YearMonth coveredUntil(List<Partition> partitions) {
+        for (int i = partitions.size() - 1; i >= 0; i--) {
+            String description = partitions.get(i).description();
+            if (!MAXVALUE.equals(description)) {
+                Instant bound = Instant.ofEpochSecond(Long.parseLong(description.trim()));
+                return YearMonth.from(bound.atOffset(ZoneOffset.UTC));
+            }
+        }
+        throw new IllegalStateException("Table orders has no bounded partition");
+    }
+
+    private void warnIfHasRows(String partition) {
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(1) FROM orders PARTITION (" + partition + ")", Long.class);
+        if (rows != null && rows > 0) {
+            logger.warn("Partition {} holds {} orders; they are copied while new months are split off",
+                    partition, rows);
+        }
+    }
+
+    /**
+     * Splits the new months off the {@code MAXVALUE} partition, or appends them if there is none.
+     */
+    private static String alterStatement(List<YearMonth> months, String futurePartition) {
+        StringJoiner definitions = new StringJoiner(", ", "(", ")");
+        for (YearMonth month : months) {
+            long bound = month.plusMonths(1).atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+            definitions.add("PARTITION " + PARTITION_NAME.format(month) + " VALUES LESS THAN (" + bound + ")");
+        }
+        if (futurePartition == null) {
+            return "ALTER TABLE orders ADD PARTITION " + definitions;
+        }
+        definitions.add("PARTITION " + futurePartition + " VALUES LESS THAN " + MAXVALUE);
+        return "ALTER TABLE orders REORGANIZE PARTITION " + futurePartition + " INTO " + definitions;
+    }
+
+    /**
+     * A row of information_schema.PARTITIONS: the name and the exclusive upper bound
+     * ({@code UNIX_TIMESTAMP} seconds or {@code MAXVALUE}).
+     */
+    record Partition(String name, String description) {
+    }
+
+    /**
+     * @param added           months that get a partition, oldest first; empty when nothing is missing
+     * @param futurePartition the {@code MAXVALUE} partition they are split off, or {@code null}
+     * @param ddl             the {@code ALTER TABLE} statement, or {@code null} when nothing is missing
+     * @param coveredUntil    first month without its own partition once the DDL has run
+     */
+    record PartitionPlan(List<YearMonth> added, String futurePartition, String ddl, YearMonth coveredUntil) {
+    }
+}
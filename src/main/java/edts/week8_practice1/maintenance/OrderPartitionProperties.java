@@ -0,0 +1,45 @@
+package edts.week8_practice1.maintenance;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monthly partitions of the {@code orders} table ({@code order-partitions.*}). Only for MySQL
+ * after migration V3; disabled by default.
+ */
+@Component
+@ConfigurationProperties(prefix = "order-partitions")
+public class OrderPartitionProperties {
+
+    private boolean enabled = false;
+
+    /** Months after the current one that must already have their own partition. */
+    private int monthsAhead = 3;
+
+    /** When the partitions are checked, in addition to application startup. */
+    private String cron = "0 15 3 * * *";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+}
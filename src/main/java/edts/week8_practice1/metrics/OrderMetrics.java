@@ -0,0 +1,53 @@
+package edts.week8_practice1.metrics;
+
+import edts.week8_practice1.enums.CustomerMembership;
+import edts.week8_practice1.enums.ProductCategory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Business counters of the order flow.
+ */
+@Component
+public class OrderMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** An order line was rejected because the product did not have enough stock. */
+    public void stockRejected(ProductCategory category) {
+        Counter.builder("orders.stock.rejections")
+                .description("Order lines rejected because of insufficient stock")
+                .tag("category", String.valueOf(category))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * An order was priced with the discount tier of the given membership. Counted when the
+     * transaction commits, so rolled-back attempts and lock-conflict retries count once.
+     */
+    public void discountApplied(CustomerMembership membership, boolean bonus) {
+        Counter counter = Counter.builder("orders.discount.applied")
+                .description("Created orders per discount tier")
+                .tag("membership", String.valueOf(membership))
+                .tag("bonus", String.valueOf(bonus))
+                .register(meterRegistry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.increment();
+                }
+            });
+        } else {
+            counter.increment();
+        }
+    }
+}
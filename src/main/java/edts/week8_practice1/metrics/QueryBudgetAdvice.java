@@ -0,0 +1,78 @@
+package edts.week8_practice1.metrics;
+
+import edts.week8_practice1.exception.ErrorResponse;
+import edts.week8_practice1.exception.QueryBudgetExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds {@code X-Query-Count} and {@code X-Query-Time-Ms} to every API response and
+ * checks the statement count against the {@link QueryBudgetProperties budget} of the
+ * endpoint. Runs just before the body is written, after the service has mapped its
+ * entities to DTOs, so it sees all statements of the request.
+ */
+@RestControllerAdvice
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetAdvice.class);
+
+    private final QueryBudgetProperties properties;
+
+    public QueryBudgetAdvice(QueryBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats == null) {
+            return body;
+        }
+        response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(stats.getStatements()));
+        response.getHeaders().set(QUERY_TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+
+        // Error bodies are not checked again, so a FAIL does not loop through the exception handler
+        if (properties.isEnabled() && !(body instanceof ErrorResponse)
+                && request instanceof ServletServerHttpRequest servletRequest) {
+            checkBudget(servletRequest.getServletRequest(), stats);
+        }
+        return body;
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        int budget = properties.maxStatements(request.getMethod(), pattern.toString());
+        if (stats.getStatements() <= budget) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + pattern;
+        if (properties.getMode() == QueryBudgetProperties.Mode.FAIL) {
+            throw new QueryBudgetExceededException(endpoint, stats.getStatements(), budget);
+        }
+        logger.warn("Query budget exceeded: {} executed {} SQL statements in {} ms, budget is {}",
+                endpoint, stats.getStatements(), stats.getElapsedMillis(), budget);
+    }
+}
@@ -0,0 +1,67 @@
+package edts.week8_practice1.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint SQL statement budgets ({@code query-budget.*}).
+ *
+ * Endpoints are keyed by HTTP method and URI template, e.g.
+ * {@code "[GET /api/orders/{id}]": 2}. Endpoints without an entry use
+ * {@code default-max-statements}.
+ */
+@Component
+@ConfigurationProperties(prefix = "query-budget")
+public class QueryBudgetProperties {
+
+    public enum Mode {
+        /** Log a warning and continue. */
+        LOG,
+        /** Reject the response with {@code QUERY_BUDGET_EXCEEDED} (meant for tests). */
+        FAIL
+    }
+
+    private boolean enabled = true;
+    private Mode mode = Mode.LOG;
+    private int defaultMaxStatements = 10;
+    private Map<String, Integer> endpoints = new LinkedHashMap<>();
+
+    public int maxStatements(String method, String uri) {
+        return endpoints.getOrDefault(method + " " + uri, defaultMaxStatements);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getDefaultMaxStatements() {
+        return defaultMaxStatements;
+    }
+
+    public void setDefaultMaxStatements(int defaultMaxStatements) {
+        this.defaultMaxStatements = defaultMaxStatements;
+    }
+
+    public Map<String, Integer> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Integer> endpoints) {
+        this.endpoints = endpoints;
+    }
+}
@@ -0,0 +1,30 @@
+package edts.week8_practice1.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.MDC;
+
+import java.util.List;
+
+/**
+ * Counts every JDBC statement execution (one per round trip, a batch counts once)
+ * into the {@link SqlStatementStats} of the current request, and mirrors the running
+ * totals into the MDC ({@code queryCount}, {@code queryTimeMs}) for request logging.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.record(execInfo.getElapsedTime());
+            MDC.put(SqlStatementStats.MDC_QUERY_COUNT, String.valueOf(stats.getStatements()));
+            MDC.put(SqlStatementStats.MDC_QUERY_TIME, String.valueOf(stats.getElapsedMillis()));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package edts.week8_practice1.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Records the number of SQL statements and the time spent in JDBC per HTTP request,
+ * tagged like {@code http.server.requests} (method and URI template).
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.clear();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing SQL per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(Duration.ofMillis(stats.getElapsedMillis()));
+    }
+}
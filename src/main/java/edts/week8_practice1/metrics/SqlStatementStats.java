@@ -0,0 +1,55 @@
+package edts.week8_practice1.metrics;
+
+import org.slf4j.MDC;
+
+/**
+ * Number and total execution time of the SQL statements issued by the current request.
+ *
+ * Bound to the request thread by {@link SqlStatementMetricsFilter} and updated by
+ * {@link SqlStatementListener}. Statements issued outside a request are not tracked.
+ */
+public final class SqlStatementStats {
+
+    public static final String MDC_QUERY_COUNT = "queryCount";
+    public static final String MDC_QUERY_TIME = "queryTimeMs";
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long elapsedMillis;
+
+    private SqlStatementStats() {
+    }
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return the statistics of the current request, or {@code null} outside a request
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+        MDC.remove(MDC_QUERY_COUNT);
+        MDC.remove(MDC_QUERY_TIME);
+    }
+
+    void record(long elapsedMillis) {
+        this.statements++;
+        this.elapsedMillis += elapsedMillis;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,23 @@
+package edts.week8_practice1.notfound;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read by id (first argument) whose ResourceNotFoundException may be remembered for a
+ * while and thrown again without calling the method, see {@link NotFoundCacheAspect}. The
+ * service creating the entities must report them to {@link NotFoundCache#created}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedNotFound {
+
+    /**
+     * Resource name, as in the ResourceNotFoundException the method throws (e.g. "Product")
+     */
+    String value();
+}
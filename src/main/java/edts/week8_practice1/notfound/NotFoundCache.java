@@ -0,0 +1,124 @@
+package edts.week8_practice1.notfound;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids recently looked up and not found, per resource, each for not-found-cache.ttl-ms.
+ *
+ * Creates remove their id once the transaction commits. A lookup that ran concurrently with a
+ * create may have missed the new row; its result is dropped rather than remembered (see
+ * {@link #generation}). Creates on other instances are not seen: there an id stays missing for
+ * at most the TTL.
+ */
+@Component
+public class NotFoundCache {
+
+    private final Map<Key, Long> expiries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hits = new ConcurrentHashMap<>();
+    private final NotFoundCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public NotFoundCache(NotFoundCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("notfound.cache.entries", expiries, Map::size)
+                .description("Ids currently known as missing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the id was not found within the last ttl-ms. Counted by notfound.cache.hits.
+     */
+    public boolean isMissing(String resource, Object id) {
+        Key key = new Key(resource, id);
+        Long expiresAt = expiries.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt - System.nanoTime() <= 0) {
+            expiries.remove(key, expiresAt);
+            return false;
+        }
+        hits.computeIfAbsent(resource, this::hitCounter).increment();
+        return true;
+    }
+
+    /**
+     * Number of creates of the resource so far. Read it before the lookup and pass it to
+     * {@link #recordMissing}.
+     */
+    public long generation(String resource) {
+        return generationOf(resource).get();
+    }
+
+    /**
+     * Remembers that the id was not found, unless a create of the resource committed since
+     * {@code generation} was read.
+     */
+    public void recordMissing(String resource, Object id, long generation) {
+        if (expiries.size() >= properties.getMaxEntries()) {
+            long now = System.nanoTime();
+            expiries.values().removeIf(expiresAt -> expiresAt - now <= 0);
+            if (expiries.size() >= properties.getMaxEntries()) {
+                return;
+            }
+        }
+        Key key = new Key(resource, id);
+        expiries.put(key, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getTtlMs()));
+        // Checked after the put: a create committing in between either sees the entry or moved the generation
+        if (generationOf(resource).get() != generation) {
+            expiries.remove(key);
+        }
+    }
+
+    /**
+     * Reports a new entity. Takes effect when the transaction commits, so that lookups
+     * recording a miss meanwhile are dropped.
+     */
+    public void created(String resource, Object id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Key key = new Key(resource, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(key);
+                }
+            });
+        } else {
+            invalidate(key);
+        }
+    }
+
+    private void invalidate(Key key) {
+        generationOf(key.resource()).incrementAndGet();
+        expiries.remove(key);
+    }
+
+    private AtomicLong generationOf(String resource) {
+        return generations.computeIfAbsent(resource, r -> new AtomicLong());
+    }
+
+    private Counter hitCounter(String resource) {
+        return Counter.builder("notfound.cache.hits")
+                .description("Lookups answered as not found without a query")
+                .tag("resource", resource)
+                .register(meterRegistry);
+    }
+
+    private record Key(String resource, Object id) {
+    }
+}
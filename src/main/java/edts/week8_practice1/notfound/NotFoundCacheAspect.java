@@ -0,0 +1,64 @@
+package edts.week8_practice1.notfound;
+
+import edts.week8_practice1.datasource.ReadYourWritesContext;
+import edts.week8_practice1.datasource.ReplicaReadContext;
+import edts.week8_practice1.exception.ResourceNotFoundException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers a {@link CachedNotFound} read of an id known as missing with ResourceNotFoundException,
+ * without calling the method, and remembers the ids the method does not find.
+ *
+ * Runs outside of {@code @Transactional} and before request coalescing, so a known missing id
+ * takes neither a connection nor a query. Calls made inside a transaction, or in a request
+ * pinned to the primary (read-your-writes), always run, since they may look for a row created
+ * in the same transaction or request. A miss read from a replica is not remembered: the row
+ * may exist on the primary and not have replicated yet.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class NotFoundCacheAspect {
+
+    private final NotFoundCache cache;
+    private final Map<Method, String> resources = new ConcurrentHashMap<>();
+
+    public NotFoundCacheAspect(NotFoundCache cache) {
+        this.cache = cache;
+    }
+
+    @Around("@annotation(edts.week8_practice1.notfound.CachedNotFound)")
+    public Object lookup(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive() || ReadYourWritesContext.isPinned()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String resource = resources.computeIfAbsent(method, m -> m.getAnnotation(CachedNotFound.class).value());
+        Object id = joinPoint.getArgs()[0];
+        if (cache.isMissing(resource, id)) {
+            throw new ResourceNotFoundException(resource, "id", id);
+        }
+        long generation = cache.generation(resource);
+        ReplicaReadContext.track();
+        try {
+            return joinPoint.proceed();
+        } catch (ResourceNotFoundException e) {
+            if (resource.equals(e.getResourceName()) && id.equals(e.getFieldValue())
+                    && !ReplicaReadContext.isServedByReplica()) {
+                cache.recordMissing(resource, id, generation);
+            }
+            throw e;
+        } finally {
+            ReplicaReadContext.clear();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package edts.week8_practice1.notfound;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembering ids that were not found ({@code not-found-cache.*}), see {@link NotFoundCache}.
+ * Disabled by default.
+ */
+@Component
+@ConfigurationProperties(prefix = "not-found-cache")
+public class NotFoundCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Milliseconds an id stays known as missing. Creates on this instance take effect at once,
+     * creates on other instances only after this long.
+     */
+    private long ttlMs = 5000;
+
+    /** Ids remembered at most, over all resources; further misses are not remembered. */
+    private int maxEntries = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
@@ -0,0 +1,43 @@
+package edts.week8_practice1.repository;
+
+import edts.week8_practice1.entity.ArchivedOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for archived orders (written by OrderArchiver) using Native Queries as required by PRD.
+ * All queries use specific column names instead of SELECT *
+ * Count queries use COUNT(1) instead of COUNT(*)
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @Query(value = "SELECT a.order_id, a.customer_id, a.total_amount, a.discount_amount, a.final_amount, " +
+                   "a.status, a.items, a.created_at, a.updated_at, a.created_by, a.updated_by, a.archived_at " +
+                   "FROM archived_orders a WHERE a.order_id = :orderId", nativeQuery = true)
+    Optional<ArchivedOrder> findByOrderId(@Param("orderId") Long orderId);
+
+    @Query(value = "SELECT a.order_id, a.customer_id, a.total_amount, a.discount_amount, a.final_amount, " +
+                   "a.status, a.items, a.created_at, a.updated_at, a.created_by, a.updated_by, a.archived_at " +
+                   "FROM archived_orders a WHERE a.order_id IN (:orderIds)", nativeQuery = true)
+    List<ArchivedOrder> findByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Newest first, like OrderRepository.findByCustomerId; reads the primary key range of the customer.
+     */
+    @Query(value = "SELECT a.order_id, a.customer_id, a.total_amount, a.discount_amount, a.final_amount, " +
+                   "a.status, a.items, a.created_at, a.updated_at, a.created_by, a.updated_by, a.archived_at " +
+                   "FROM archived_orders a WHERE a.customer_id = :customerId " +
+                   "ORDER BY a.created_at DESC, a.order_id DESC", nativeQuery = true)
+    List<ArchivedOrder> findByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(1) FROM archived_orders a WHERE a.customer_id = :customerId", nativeQuery = true)
+    long countByCustomerId(@Param("customerId") Long customerId);
+}
@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,15 +21,18 @@ import java.util.Optional;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+    /**
+     * Multi-get: the active customers among the ids, in no particular order
+     */
     @Query(value = "SELECT c.id, c.name, c.email, c.membership_level, c.total_spent, c.active, " +
                    "c.created_at, c.updated_at, c.created_by, c.updated_by " +
-                   "FROM customers c WHERE c.id = :id AND c.active = TRUE", nativeQuery = true)
-    Optional<Customer> findActiveById(@Param("id") Long id);
+                   "FROM customers c WHERE c.id IN (:ids) AND c.active = TRUE", nativeQuery = true)
+    List<Customer> findActiveByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query(value = "SELECT c.id, c.name, c.email, c.membership_level, c.total_spent, c.active, " +
                    "c.created_at, c.updated_at, c.created_by, c.updated_by " +
-                   "FROM customers c WHERE c.email = :email AND c.active = TRUE", nativeQuery = true)
-    Optional<Customer> findActiveByEmail(@Param("email") String email);
+                   "FROM customers c WHERE c.id = :id AND c.active = TRUE", nativeQuery = true)
+    Optional<Customer> findActiveById(@Param("id") Long id);
 
     @Query(value = "SELECT c.id, c.name, c.email, c.membership_level, c.total_spent, c.active, " +
                    "c.created_at, c.updated_at, c.created_by, c.updated_by " +
@@ -35,6 +40,18 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
                    "ORDER BY c.id", nativeQuery = true)
     Page<Customer> findAllActive(Pageable pageable);
 
+    @Query(value = "SELECT c.id AS id, c.updated_at AS updatedAt " +
+                   "FROM customers c WHERE c.id = :id AND c.active = TRUE", nativeQuery = true)
+    Optional<EntityVersion> findActiveVersionById(@Param("id") Long id);
+
+    /**
+     * Same rows and order as findAllActive, but only id and updated_at
+     */
+    @Query(value = "SELECT c.id AS id, c.updated_at AS updatedAt " +
+                   "FROM customers c WHERE c.active = TRUE " +
+                   "ORDER BY c.id", nativeQuery = true)
+    Page<EntityVersion> findAllActiveVersions(Pageable pageable);
+
     @Query(value = "SELECT c.id, c.name, c.email, c.membership_level, c.total_spent, c.active, " +
                    "c.created_at, c.updated_at, c.created_by, c.updated_by " +
                    "FROM customers c WHERE c.active = TRUE AND c.membership_level = :level " +
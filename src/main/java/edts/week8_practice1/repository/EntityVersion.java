@@ -0,0 +1,14 @@
+package edts.week8_practice1.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id and last modification time of a row. Used to answer conditional GET requests
+ * without loading the full entity.
+ */
+public interface EntityVersion {
+
+    Long getId();
+
+    LocalDateTime getUpdatedAt();
+}
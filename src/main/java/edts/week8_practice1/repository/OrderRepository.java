@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                    "FROM orders o WHERE o.id = :id", nativeQuery = true)
     Optional<Order> findByIdWithDetails(@Param("id") Long id);
 
+    /**
+     * Multi-get: the orders among the ids, in no particular order
+     */
+    @Query(value = "SELECT o.id, o.customer_id, o.total_amount, o.discount_amount, o.final_amount, " +
+                   "o.status, o.created_at, o.updated_at, o.created_by, o.updated_by " +
+                   "FROM orders o WHERE o.id IN (:ids)", nativeQuery = true)
+    List<Order> findByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query(value = "SELECT o.id, o.customer_id, o.total_amount, o.discount_amount, o.final_amount, " +
                    "o.status, o.created_at, o.updated_at, o.created_by, o.updated_by " +
                    "FROM orders o WHERE o.status = :status " +
@@ -40,10 +49,16 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByCustomerIdAndStatus(@Param("customerId") Long customerId,
                                           @Param("status") OrderStatus status, Pageable pageable);
 
+    /**
+     * The range on the partitioning column lets MySQL read only the months it covers (migration V3).
+     * The count query keeps the same predicate so that it is pruned as well.
+     */
     @Query(value = "SELECT o.id, o.customer_id, o.total_amount, o.discount_amount, o.final_amount, " +
                    "o.status, o.created_at, o.updated_at, o.created_by, o.updated_by " +
                    "FROM orders o WHERE o.created_at BETWEEN :startDate AND :endDate " +
-                   "ORDER BY o.created_at DESC", nativeQuery = true)
+                   "ORDER BY o.created_at DESC",
+           countQuery = "SELECT COUNT(1) FROM orders o WHERE o.created_at BETWEEN :startDate AND :endDate",
+           nativeQuery = true)
     Page<Order> findByDateRange(@Param("startDate") LocalDateTime startDate,
                                 @Param("endDate") LocalDateTime endDate, Pageable pageable);
 
@@ -51,7 +66,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                    "o.status, o.created_at, o.updated_at, o.created_by, o.updated_by " +
                    "FROM orders o WHERE o.customer_id = :customerId " +
                    "AND o.created_at BETWEEN :startDate AND :endDate " +
-                   "ORDER BY o.created_at DESC", nativeQuery = true)
+                   "ORDER BY o.created_at DESC",
+           countQuery = "SELECT COUNT(1) FROM orders o WHERE o.customer_id = :customerId " +
+                        "AND o.created_at BETWEEN :startDate AND :endDate",
+           nativeQuery = true)
     Page<Order> findByCustomerIdAndDateRange(@Param("customerId") Long customerId,
                                              @Param("startDate") LocalDateTime startDate,
                                              @Param("endDate") LocalDateTime endDate, Pageable pageable);
@@ -0,0 +1,22 @@
+package edts.week8_practice1.repository;
+
+import edts.week8_practice1.entity.OrderStatusEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the append-only order status history using Native Queries as required by PRD.
+ * Events are only inserted through save(); there are no update or delete queries.
+ */
+@Repository
+public interface OrderStatusEventRepository extends JpaRepository<OrderStatusEvent, OrderStatusEvent.Key> {
+
+    // Reads a prefix of the primary key; an order has at most a few rows
+    @Query(value = "SELECT e.order_id, e.status, e.occurred_at FROM order_status_events e " +
+                   "WHERE e.order_id = :orderId ORDER BY e.occurred_at", nativeQuery = true)
+    List<OrderStatusEvent> findByOrderId(@Param("orderId") Long orderId);
+}
@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,33 +22,93 @@ import java.util.Optional;
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
-                   "p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
                    "FROM products p WHERE p.id = :id AND p.active = TRUE", nativeQuery = true)
     Optional<Product> findActiveById(@Param("id") Long id);
 
+    /**
+     * Multi-get: the active products among the ids, in no particular order
+     */
+    @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "FROM products p WHERE p.id IN (:ids) AND p.active = TRUE", nativeQuery = true)
+    List<Product> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks the active products among the ids until the end of the transaction. Rows are read,
+     * and so locked, in id order: two checkouts sharing products wait for each other instead of
+     * deadlocking. Must be the first read of these products in the transaction, since the state
+     * of an already loaded entity is not refreshed.
+     */
     @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
-                   "p.created_at, p.updated_at, p.created_by, p.updated_by " +
-                   "FROM products p WHERE p.name = :name AND p.active = TRUE", nativeQuery = true)
-    Optional<Product> findActiveByName(@Param("name") String name);
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "FROM products p WHERE p.id IN (:ids) AND p.active = TRUE " +
+                   "ORDER BY p.id FOR UPDATE", nativeQuery = true)
+    List<Product> lockActiveByIdIn(@Param("ids") Collection<Long> ids);
 
+    /**
+     * Same as lockActiveByIdIn, including deactivated products (stock restored on cancel)
+     */
     @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
-                   "p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "FROM products p WHERE p.id IN (:ids) " +
+                   "ORDER BY p.id FOR UPDATE", nativeQuery = true)
+    List<Product> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
                    "FROM products p WHERE p.active = TRUE AND p.category = :category " +
                    "ORDER BY p.id", nativeQuery = true)
     Page<Product> findActiveByCategory(@Param("category") ProductCategory category, Pageable pageable);
 
     @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
-                   "p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
                    "FROM products p WHERE p.active = TRUE " +
                    "ORDER BY p.id", nativeQuery = true)
     Page<Product> findAllActive(Pageable pageable);
 
+    @Query(value = "SELECT p.id AS id, p.updated_at AS updatedAt " +
+                   "FROM products p WHERE p.id = :id AND p.active = TRUE", nativeQuery = true)
+    Optional<EntityVersion> findActiveVersionById(@Param("id") Long id);
+
+    /**
+     * Same rows and order as findAllActive, but only id and updated_at
+     */
+    @Query(value = "SELECT p.id AS id, p.updated_at AS updatedAt " +
+                   "FROM products p WHERE p.active = TRUE " +
+                   "ORDER BY p.id", nativeQuery = true)
+    Page<EntityVersion> findAllActiveVersions(Pageable pageable);
+
+    /**
+     * Most units sold first, then most viewed (product_stats, migration V5). Products without
+     * stats come last. Sorts all active products, which is fine at catalog sizes.
+     */
+    @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "FROM products p LEFT JOIN product_stats s ON s.product_id = p.id " +
+                   "WHERE p.active = TRUE " +
+                   "ORDER BY COALESCE(s.units_sold, 0) DESC, COALESCE(s.view_count, 0) DESC, p.id",
+           countQuery = "SELECT COUNT(1) FROM products p WHERE p.active = TRUE",
+           nativeQuery = true)
+    Page<Product> findPopularActive(Pageable pageable);
+
+    /**
+     * Same rows and order as findPopularActive, but only id and updated_at
+     */
+    @Query(value = "SELECT p.id AS id, p.updated_at AS updatedAt " +
+                   "FROM products p LEFT JOIN product_stats s ON s.product_id = p.id " +
+                   "WHERE p.active = TRUE " +
+                   "ORDER BY COALESCE(s.units_sold, 0) DESC, COALESCE(s.view_count, 0) DESC, p.id",
+           countQuery = "SELECT COUNT(1) FROM products p WHERE p.active = TRUE",
+           nativeQuery = true)
+    Page<EntityVersion> findPopularActiveVersions(Pageable pageable);
+
     /**
      * Search products by name (contains, case-insensitive)
      * SEPARATE from sorting - this is for SEARCHING only
      */
     @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
-                   "p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
                    "FROM products p WHERE p.active = TRUE " +
                    "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
                    "ORDER BY p.name", nativeQuery = true)
@@ -60,11 +122,21 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     long countLowStockProducts(@Param("threshold") Integer threshold);
 
     @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
-                   "p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
                    "FROM products p WHERE p.active = TRUE AND p.stock < :threshold " +
                    "ORDER BY p.stock ASC", nativeQuery = true)
     Page<Product> findLowStockProducts(@Param("threshold") Integer threshold, Pageable pageable);
 
+    /**
+     * Active products below their own threshold, or below the default one if they have none.
+     * Used by LowStockReconciler to (re)build the in-memory low-stock set.
+     */
+    @Query(value = "SELECT p.id, p.name, p.category, p.price, p.stock, p.active, " +
+                   "p.low_stock_threshold, p.created_at, p.updated_at, p.created_by, p.updated_by " +
+                   "FROM products p WHERE p.active = TRUE " +
+                   "AND p.stock < COALESCE(p.low_stock_threshold, :defaultThreshold)", nativeQuery = true)
+    List<Product> findAllLowStock(@Param("defaultThreshold") Integer defaultThreshold);
+
     @Query(value = "SELECT COUNT(1) FROM products WHERE active = TRUE", nativeQuery = true)
     long countActive();
 
@@ -0,0 +1,34 @@
+package edts.week8_practice1.repository;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Unique keys the services rely on instead of looking up duplicates before a write (migration
+ * V8). They only cover active rows, so a soft-deleted product or customer frees its name or email.
+ */
+public final class UniqueConstraints {
+
+    public static final String PRODUCT_ACTIVE_NAME = "uk_products_active_name";
+    public static final String CUSTOMER_ACTIVE_EMAIL = "uk_customers_active_email";
+
+    private UniqueConstraints() {
+    }
+
+    /**
+     * Whether the write failed on the given unique key. The name reported by the database may be
+     * qualified and upper-cased (H2: {@code PUBLIC.UK_PRODUCTS_ACTIVE_NAME}, MySQL:
+     * {@code products.uk_products_active_name}).
+     */
+    public static boolean isViolated(DataIntegrityViolationException ex, String constraint) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(constraint);
+            }
+        }
+        return false;
+    }
+}
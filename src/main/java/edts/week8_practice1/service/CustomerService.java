@@ -1,14 +1,24 @@
 package edts.week8_practice1.service;
 
+import edts.week8_practice1.coalescing.Coalesced;
+import edts.week8_practice1.dto.common.BatchResponse;
 import edts.week8_practice1.dto.customer.CustomerRequest;
 import edts.week8_practice1.dto.customer.CustomerResponse;
 import edts.week8_practice1.entity.Customer;
 import edts.week8_practice1.enums.CustomerMembership;
 import edts.week8_practice1.exception.BusinessException;
 import edts.week8_practice1.exception.ResourceNotFoundException;
+import edts.week8_practice1.logging.SampledLogger;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.notfound.CachedNotFound;
+import edts.week8_practice1.notfound.NotFoundCache;
 import edts.week8_practice1.repository.CustomerRepository;
+import edts.week8_practice1.repository.EntityVersion;
+import edts.week8_practice1.repository.UniqueConstraints;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,8 +26,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
+@Timed("service.method")
 @Transactional
 public class CustomerService {
 
@@ -25,37 +39,72 @@ public class CustomerService {
     private static final BigDecimal GOLD_THRESHOLD = new BigDecimal("10000000");
     private static final BigDecimal PLATINUM_THRESHOLD = new BigDecimal("50000000");
 
+    private final SampledLogger hotPathLogger;
     private final CustomerRepository customerRepository;
+    private final NotFoundCache notFoundCache;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, NotFoundCache notFoundCache,
+                           SampledLoggerFactory sampledLoggerFactory) {
         this.customerRepository = customerRepository;
+        this.notFoundCache = notFoundCache;
+        this.hotPathLogger = sampledLoggerFactory.getLogger(logger);
     }
 
     @Transactional(readOnly = true)
     public Page<CustomerResponse> findAllActive(Pageable pageable) {
-        logger.info("Finding all active customers");
+        hotPathLogger.info("Finding all active customers");
         Page<Customer> customers = customerRepository.findAllActive(pageable);
         return customers.map(this::mapToResponse);
     }
 
+    @CachedNotFound("Customer")
+    @Coalesced
+    @Transactional(readOnly = true)
+    public EntityVersion findVersionById(Long id) {
+        return customerRepository.findActiveVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<EntityVersion> findAllActiveVersions(Pageable pageable) {
+        return customerRepository.findAllActiveVersions(pageable);
+    }
+
+    @CachedNotFound("Customer")
+    @Coalesced
     @Transactional(readOnly = true)
     public CustomerResponse findById(Long id) {
-        logger.info("Finding customer by id: {}", id);
+        hotPathLogger.info("Finding customer by id: {}", id);
         Customer customer = customerRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", id));
         return mapToResponse(customer);
     }
 
+    /**
+     * Multi-get in one query. Inactive customers count as missing.
+     */
+    @Transactional(readOnly = true)
+    public BatchResponse<CustomerResponse> findAllActiveByIds(Collection<Long> ids) {
+        hotPathLogger.info("Finding {} customers by id", ids.size());
+        Map<Long, CustomerResponse> found = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Customer customer : customerRepository.findActiveByIdIn(ids)) {
+                found.put(customer.getId(), mapToResponse(customer));
+            }
+        }
+        return BatchResponse.of(ids, found);
+    }
+
     @Transactional(readOnly = true)
     public Page<CustomerResponse> findByMembershipLevel(CustomerMembership level, Pageable pageable) {
-        logger.info("Finding customers by membership level: {}", level);
+        hotPathLogger.info("Finding customers by membership level: {}", level);
         Page<Customer> customers = customerRepository.findActiveByMembershipLevel(level, pageable);
         return customers.map(this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public Page<CustomerResponse> searchCustomers(String keyword, Pageable pageable) {
-        logger.info("Searching customers with keyword: {}", keyword);
+        hotPathLogger.info("Searching customers with keyword: {}", keyword);
         Page<Customer> customers = customerRepository.searchActiveCustomers(keyword, pageable);
         return customers.map(this::mapToResponse);
     }
@@ -63,14 +112,6 @@ public class CustomerService {
     public CustomerResponse createCustomer(CustomerRequest request) {
         logger.info("Creating new customer: {}", request.getEmail());
 
-        // Check duplicate email
-        customerRepository.findActiveByEmail(request.getEmail())
-                .ifPresent(c -> {
-                    throw new BusinessException("DUPLICATE_ERROR",
-                            "Email already exists",
-                            Arrays.asList("Customer with email '" + request.getEmail() + "' already exists"));
-                });
-
         Customer customer = new Customer();
         customer.setName(request.getName());
         customer.setEmail(request.getEmail());
@@ -78,7 +119,15 @@ public class CustomerService {
         customer.setTotalSpent(BigDecimal.ZERO);
         customer.setActive(true);
 
-        Customer savedCustomer = customerRepository.save(customer);
+        // Duplicate emails are rejected by uk_customers_active_email, not looked up first
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.save(customer);
+            customerRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, request.getEmail());
+        }
+        notFoundCache.created("Customer", savedCustomer.getId());
         logger.info("Customer created successfully with id: {}", savedCustomer.getId());
         return mapToResponse(savedCustomer);
     }
@@ -89,24 +138,30 @@ public class CustomerService {
         Customer customer = customerRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", id));
 
-        // Check duplicate email (excluding current customer)
-        customerRepository.findActiveByEmail(request.getEmail())
-                .ifPresent(c -> {
-                    if (!c.getId().equals(id)) {
-                        throw new BusinessException("DUPLICATE_ERROR",
-                                "Email already exists",
-                                Arrays.asList("Customer with email '" + request.getEmail() + "' already exists"));
-                    }
-                });
-
         customer.setName(request.getName());
         customer.setEmail(request.getEmail());
 
-        Customer savedCustomer = customerRepository.save(customer);
+        // Flushed here, so that a duplicate email fails as DUPLICATE_ERROR
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.save(customer);
+            customerRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, request.getEmail());
+        }
         logger.info("Customer updated successfully: {}", savedCustomer.getId());
         return mapToResponse(savedCustomer);
     }
 
+    private RuntimeException duplicateEmail(DataIntegrityViolationException e, String email) {
+        if (!UniqueConstraints.isViolated(e, UniqueConstraints.CUSTOMER_ACTIVE_EMAIL)) {
+            return e;
+        }
+        return new BusinessException("DUPLICATE_ERROR",
+                "Email already exists",
+                Arrays.asList("Customer with email '" + email + "' already exists"));
+    }
+
     public void deleteCustomer(Long id) {
         logger.info("Soft deleting customer with id: {}", id);
 
@@ -150,8 +205,8 @@ public class CustomerService {
         }
     }
 
-    private CustomerResponse mapToResponse(Customer customer) {
-        return new CustomerResponse(
+    CustomerResponse mapToResponse(Customer customer) {
+        CustomerResponse response = new CustomerResponse(
                 customer.getId(),
                 customer.getName(),
                 customer.getEmail(),
@@ -159,5 +214,7 @@ public class CustomerService {
                 customer.getTotalSpent(),
                 customer.getActive()
         );
+        response.setUpdatedAt(customer.getUpdatedAt());
+        return response;
     }
 }
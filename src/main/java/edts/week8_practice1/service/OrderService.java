@@ -1,5 +1,7 @@
 package edts.week8_practice1.service;
 
+import edts.week8_practice1.dto.common.BatchResponse;
+import edts.week8_practice1.dto.common.StreamingPage;
 import edts.week8_practice1.dto.customer.CustomerResponse;
 import edts.week8_practice1.dto.order.*;
 import edts.week8_practice1.dto.product.ProductResponse;
@@ -8,25 +10,45 @@ import edts.week8_practice1.enums.CustomerMembership;
 import edts.week8_practice1.enums.OrderStatus;
 import edts.week8_practice1.exception.BusinessException;
 import edts.week8_practice1.exception.ResourceNotFoundException;
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.locking.RetryOnLockConflict;
+import edts.week8_practice1.logging.SampledLogger;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.metrics.OrderMetrics;
+import edts.week8_practice1.repository.ArchivedOrderRepository;
 import edts.week8_practice1.repository.CustomerRepository;
 import edts.week8_practice1.repository.OrderRepository;
+import edts.week8_practice1.repository.OrderStatusEventRepository;
 import edts.week8_practice1.repository.ProductRepository;
+import edts.week8_practice1.stats.ProductCounters;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @Transactional
 public class OrderService {
 
@@ -35,49 +57,146 @@ public class OrderService {
     private static final BigDecimal BONUS_DISCOUNT_PERCENTAGE = new BigDecimal("0.05");
     private static final BigDecimal MAX_DISCOUNT_PERCENTAGE = new BigDecimal("0.30");
     private static final BigDecimal HUNDRED = new BigDecimal("100");
+    // Deepest row a page may reach when orders and archived_orders are merged; each source reads up to it
+    static final int MAX_MERGED_ORDERS_WINDOW = 10_000;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "created_at");
 
+    private final SampledLogger hotPathLogger;
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderStatusEventRepository orderStatusEventRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final CustomerService customerService;
-
-    public OrderService(OrderRepository orderRepository, CustomerRepository customerRepository,
-                       ProductRepository productRepository, CustomerService customerService) {
+    private final OrderMetrics orderMetrics;
+    private final ProductCounters productCounters;
+    private final LowStockMonitor lowStockMonitor;
+
+    public OrderService(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                       OrderStatusEventRepository orderStatusEventRepository,
+                       CustomerRepository customerRepository, ProductRepository productRepository,
+                       CustomerService customerService, OrderMetrics orderMetrics,
+                       ProductCounters productCounters, LowStockMonitor lowStockMonitor,
+                       SampledLoggerFactory sampledLoggerFactory) {
         this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderStatusEventRepository = orderStatusEventRepository;
         this.customerRepository = customerRepository;
         this.productRepository = productRepository;
         this.customerService = customerService;
+        this.orderMetrics = orderMetrics;
+        this.productCounters = productCounters;
+        this.lowStockMonitor = lowStockMonitor;
+        this.hotPathLogger = sampledLoggerFactory.getLogger(logger);
     }
 
     @Transactional(readOnly = true)
     public Page<OrderResponse> findAll(Pageable pageable) {
-        logger.info("Finding all orders");
+        hotPathLogger.info("Finding all orders");
         Page<Order> orders = orderRepository.findAll(pageable);
         return orders.map(this::mapToResponse);
     }
 
+    /**
+     * Same page as {@link #findAll(Pageable)}, mapped to DTOs only while the response is written.
+     */
+    @Transactional(readOnly = true)
+    public StreamingPage<OrderResponse> streamAll(Pageable pageable) {
+        return streamAll(pageable, OrderFields.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public StreamingPage<OrderResponse> streamAll(Pageable pageable, OrderFields fields) {
+        hotPathLogger.info("Streaming all orders");
+        return stream(orderRepository.findAll(pageable), fields);
+    }
+
+    /**
+     * Falls back to the archive for old PAID and CANCELLED orders.
+     */
     @Transactional(readOnly = true)
     public OrderResponse findById(Long id) {
-        logger.info("Finding order by id: {}", id);
+        return findById(id, OrderFields.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse findById(Long id, OrderFields fields) {
+        hotPathLogger.info("Finding order by id: {}", id);
         Order order = orderRepository.findByIdWithDetails(id)
+                .or(() -> archivedOrderRepository.findByOrderId(id).map(this::restore))
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
-        return mapToResponse(order);
+        return mapToResponse(order, fields);
+    }
+
+    /**
+     * Multi-get: one query for the orders, one for those of the rest that are archived. Customers,
+     * items and products are loaded in batches (default_batch_fetch_size) while mapping.
+     */
+    @Transactional(readOnly = true)
+    public BatchResponse<OrderResponse> findAllByIds(Collection<Long> ids) {
+        return findAllByIds(ids, OrderFields.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public BatchResponse<OrderResponse> findAllByIds(Collection<Long> ids, OrderFields fields) {
+        hotPathLogger.info("Finding {} orders by id", ids.size());
+        Map<Long, Order> orders = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Order order : orderRepository.findByIdIn(ids)) {
+                orders.put(order.getId(), order);
+            }
+        }
+        if (orders.size() < ids.size()) {
+            List<Long> notHot = ids.stream().filter(id -> !orders.containsKey(id)).toList();
+            for (ArchivedOrder archived : archivedOrderRepository.findByOrderIdIn(notHot)) {
+                orders.put(archived.getOrderId(), restore(archived));
+            }
+        }
+        Map<Long, OrderResponse> found = new HashMap<>();
+        orders.forEach((id, order) -> found.put(id, mapToResponse(order, fields)));
+        return BatchResponse.of(ids, found);
     }
 
+    /**
+     * Includes the customer's archived orders, see {@link #findCustomerOrders(Long, Pageable)}.
+     */
     @Transactional(readOnly = true)
     public Page<OrderResponse> findByCustomerId(Long customerId, Pageable pageable) {
-        logger.info("Finding orders for customer: {}", customerId);
-        Page<Order> orders = orderRepository.findByCustomerId(customerId, pageable);
+        hotPathLogger.info("Finding orders for customer: {}", customerId);
+        Page<Order> orders = findCustomerOrders(customerId, pageable);
         return orders.map(this::mapToResponse);
     }
 
+    @Transactional(readOnly = true)
+    public StreamingPage<OrderResponse> streamByCustomerId(Long customerId, Pageable pageable) {
+        return streamByCustomerId(customerId, pageable, OrderFields.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public StreamingPage<OrderResponse> streamByCustomerId(Long customerId, Pageable pageable, OrderFields fields) {
+        hotPathLogger.info("Streaming orders for customer: {}", customerId);
+        return stream(findCustomerOrders(customerId, pageable), fields);
+    }
+
     @Transactional(readOnly = true)
     public Page<OrderResponse> findByStatus(OrderStatus status, Pageable pageable) {
-        logger.info("Finding orders by status: {}", status);
+        hotPathLogger.info("Finding orders by status: {}", status);
         Page<Order> orders = orderRepository.findByStatus(status, pageable);
         return orders.map(this::mapToResponse);
     }
 
+    @Transactional(readOnly = true)
+    public StreamingPage<OrderResponse> streamByStatus(OrderStatus status, Pageable pageable) {
+        return streamByStatus(status, pageable, OrderFields.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public StreamingPage<OrderResponse> streamByStatus(OrderStatus status, Pageable pageable, OrderFields fields) {
+        hotPathLogger.info("Streaming orders by status: {}", status);
+        return stream(orderRepository.findByStatus(status, pageable), fields);
+    }
+
+    @RetryOnLockConflict
     public OrderResponse createOrder(OrderRequest request) {
         logger.info("Creating order for customer: {}", request.getCustomerId());
 
@@ -93,34 +212,49 @@ public class OrderService {
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
-        // Process order items
+        // One line per product, in request order; repeated products are added up
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (OrderItemRequest itemRequest : request.getOrderItems()) {
-            Product product = productRepository.findActiveById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", itemRequest.getProductId()));
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+
+        // Lock all products at once, in id order, before touching any stock
+        Map<Long, Product> products = productRepository.lockActiveByIdIn(new TreeSet<>(quantities.keySet())).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Process order items
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", line.getKey());
+            }
+            int quantity = line.getValue();
 
             // Validate stock
-            if (product.getStock() < itemRequest.getQuantity()) {
+            if (product.getStock() < quantity) {
+                orderMetrics.stockRejected(product.getCategory());
                 throw new BusinessException("INSUFFICIENT_STOCK",
                         "Not enough stock for product: " + product.getName(),
-                        Arrays.asList("Available: " + product.getStock() + ", Requested: " + itemRequest.getQuantity()));
+                        Arrays.asList("Available: " + product.getStock() + ", Requested: " + quantity));
             }
 
             // Create order item
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
-            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setQuantity(quantity);
             orderItem.setPriceAtPurchase(product.getPrice());
             orderItem.setOrder(order);
 
             orderItems.add(orderItem);
 
             // Calculate item subtotal
-            BigDecimal itemSubtotal = product.getPrice().multiply(new BigDecimal(itemRequest.getQuantity()));
+            BigDecimal itemSubtotal = product.getPrice().multiply(new BigDecimal(quantity));
             totalAmount = totalAmount.add(itemSubtotal);
 
             // Reduce stock immediately
-            product.setStock(product.getStock() - itemRequest.getQuantity());
+            product.setStock(product.getStock() - quantity);
             productRepository.save(product);
+            lowStockMonitor.stockChanged(product);
         }
 
         order.setOrderItems(orderItems);
@@ -129,19 +263,26 @@ public class OrderService {
         // Calculate discount
         BigDecimal discountAmount = calculateDiscount(customer, totalAmount);
         order.setDiscountAmount(discountAmount);
+        orderMetrics.discountApplied(customer.getMembershipLevel(),
+                totalAmount.compareTo(BONUS_DISCOUNT_THRESHOLD) > 0);
 
         // Calculate final amount
         BigDecimal finalAmount = totalAmount.subtract(discountAmount);
         order.setFinalAmount(finalAmount);
 
         Order savedOrder = orderRepository.save(order);
+        recordStatus(savedOrder);
+        // In memory only, after commit; flushed to product_stats in the background
+        for (OrderItem orderItem : orderItems) {
+            productCounters.recordSale(orderItem.getProduct().getId(), orderItem.getQuantity());
+        }
         logger.info("Order created successfully with id: {}, total amount: {}, discount: {}, final amount: {}",
                 savedOrder.getId(), totalAmount, discountAmount, finalAmount);
 
         return mapToResponse(savedOrder);
     }
 
-    private BigDecimal calculateDiscount(Customer customer, BigDecimal totalAmount) {
+    BigDecimal calculateDiscount(Customer customer, BigDecimal totalAmount) {
         // Base discount by membership
         BigDecimal baseDiscountRate = switch (customer.getMembershipLevel()) {
             case REGULAR -> BigDecimal.ZERO;
@@ -169,6 +310,7 @@ public class OrderService {
         return discountAmount;
     }
 
+    @RetryOnLockConflict
     public OrderResponse payOrder(Long orderId) {
         logger.info("Paying order: {}", orderId);
 
@@ -183,6 +325,7 @@ public class OrderService {
 
         order.setStatus(OrderStatus.PAID);
         Order savedOrder = orderRepository.save(order);
+        recordStatus(savedOrder);
 
         // Update customer total spent and recalculate membership
         customerService.updateTotalSpent(order.getCustomer().getId(), order.getFinalAmount());
@@ -191,9 +334,16 @@ public class OrderService {
         return mapToResponse(savedOrder);
     }
 
+    @RetryOnLockConflict
     public OrderResponse cancelOrder(Long orderId) {
         logger.info("Cancelling order: {}", orderId);
 
+        // Lock the products before the order loads them, in the same order as createOrder
+        List<Long> productIds = orderRepository.findProductIdsByOrderId(orderId);
+        if (!productIds.isEmpty()) {
+            productRepository.lockByIdIn(new TreeSet<>(productIds));
+        }
+
         Order order = orderRepository.findByIdWithDetails(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
@@ -208,42 +358,188 @@ public class OrderService {
             Product product = orderItem.getProduct();
             product.setStock(product.getStock() + orderItem.getQuantity());
             productRepository.save(product);
+            lowStockMonitor.stockChanged(product);
         }
 
         order.setStatus(OrderStatus.CANCELLED);
         Order savedOrder = orderRepository.save(order);
+        recordStatus(savedOrder);
 
         logger.info("Order cancelled successfully: {}", orderId);
         return mapToResponse(savedOrder);
     }
 
-    private OrderResponse mapToResponse(Order order) {
-        CustomerResponse customerResponse = mapCustomerToResponse(order.getCustomer());
-
-        List<OrderItemResponse> orderItemResponses = order.getOrderItems().stream()
-                .map(this::mapOrderItemToResponse)
+    /**
+     * Statuses the order went through, oldest first. Archived orders keep their history; orders
+     * placed before it existed have the events backfilled by migration V7.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderStatusEventResponse> findHistory(Long orderId) {
+        hotPathLogger.info("Finding status history of order: {}", orderId);
+        List<OrderStatusEvent> events = orderStatusEventRepository.findByOrderId(orderId);
+        if (events.isEmpty() && !orderRepository.existsById(orderId) && !archivedOrderRepository.existsById(orderId)) {
+            throw new ResourceNotFoundException("Order", "id", orderId);
+        }
+        return events.stream()
+                .map(event -> new OrderStatusEventResponse(event.getStatus(), event.getOccurredAt()))
                 .collect(Collectors.toList());
+    }
 
-        // Calculate discount percentage
-        BigDecimal discountPercentage = BigDecimal.ZERO;
-        if (order.getTotalAmount().compareTo(BigDecimal.ZERO) > 0) {
-            discountPercentage = order.getDiscountAmount()
-                    .divide(order.getTotalAmount(), 4, RoundingMode.HALF_UP)
-                    .multiply(HUNDRED)
-                    .setScale(2, RoundingMode.HALF_UP);
+    // Appended in the caller's transaction: the status change and its event commit together
+    private void recordStatus(Order order) {
+        orderStatusEventRepository.save(new OrderStatusEvent(order.getId(), order.getStatus(), LocalDateTime.now()));
+    }
+
+    /**
+     * Orders of a customer from the hot table and the archive. Customers without archived orders
+     * cost one extra count query and keep the requested sort. Otherwise both sources are read up
+     * to the end of the requested page and merged newest first, whatever sort was requested (the
+     * returned page carries the sort applied), and pages ending past
+     * {@value #MAX_MERGED_ORDERS_WINDOW} rows are rejected.
+     */
+    private Page<Order> findCustomerOrders(Long customerId, Pageable pageable) {
+        long archived = archivedOrderRepository.countByCustomerId(customerId);
+        if (archived == 0) {
+            return orderRepository.findByCustomerId(customerId, pageable);
         }
 
-        return new OrderResponse(
-                order.getId(),
-                customerResponse,
-                orderItemResponses,
-                order.getTotalAmount(),
-                order.getDiscountAmount(),
-                order.getFinalAmount(),
-                discountPercentage,
-                order.getStatus(),
-                order.getCreatedAt()
-        );
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (end > MAX_MERGED_ORDERS_WINDOW) {
+            throw new BusinessException("VALIDATION_ERROR",
+                    "Page too deep for a customer with archived orders",
+                    List.of("page * size + size must not exceed " + MAX_MERGED_ORDERS_WINDOW));
+        }
+        int window = (int) end;
+        // The query itself orders by created_at DESC, as the archive query does
+        Page<Order> hot = orderRepository.findByCustomerId(customerId, PageRequest.of(0, window));
+        List<ArchivedOrder> cold = archivedOrderRepository.findByCustomerId(customerId, PageRequest.of(0, window));
+
+        List<Order> content = new ArrayList<>(pageable.getPageSize());
+        int hotIndex = 0;
+        int coldIndex = 0;
+        for (long position = 0; position < window; position++) {
+            boolean hotLeft = hotIndex < hot.getNumberOfElements();
+            boolean coldLeft = coldIndex < cold.size();
+            if (!hotLeft && !coldLeft) {
+                break;
+            }
+            boolean takeHot = hotLeft && (!coldLeft || !hot.getContent().get(hotIndex).getCreatedAt()
+                    .isBefore(cold.get(coldIndex).getCreatedAt()));
+            if (takeHot) {
+                Order order = hot.getContent().get(hotIndex++);
+                if (position >= pageable.getOffset()) {
+                    content.add(order);
+                }
+            } else {
+                ArchivedOrder order = cold.get(coldIndex++);
+                if (position >= pageable.getOffset()) {
+                    content.add(restore(order));
+                }
+            }
+        }
+        return new PageImpl<>(content,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST),
+                hot.getTotalElements() + archived);
+    }
+
+    /**
+     * Rebuilds an archived order as a detached Order. Customer and products are references,
+     * loaded in batches when the response is mapped.
+     */
+    private Order restore(ArchivedOrder archived) {
+        Order order = new Order(customerRepository.getReferenceById(archived.getCustomerId()));
+        order.setId(archived.getOrderId());
+        order.setTotalAmount(archived.getTotalAmount());
+        order.setDiscountAmount(archived.getDiscountAmount());
+        order.setFinalAmount(archived.getFinalAmount());
+        order.setStatus(archived.getStatus());
+        order.setCreatedAt(archived.getCreatedAt());
+        order.setUpdatedAt(archived.getUpdatedAt());
+        order.setCreatedBy(archived.getCreatedBy());
+        order.setUpdatedBy(archived.getUpdatedBy());
+        for (ArchivedOrderItem item : archived.getItems()) {
+            OrderItem orderItem = new OrderItem(order, productRepository.getReferenceById(item.getProductId()),
+                    item.getQuantity(), item.getPriceAtPurchase());
+            orderItem.setId(item.getId());
+            order.getOrderItems().add(orderItem);
+        }
+        return order;
+    }
+
+    /**
+     * Loads the customers, items and products the response embeds while the transaction is still
+     * open (in batches, see {@code hibernate.default_batch_fetch_size}), so that mapping during
+     * the write runs no further queries. Associations that are not expanded are not loaded.
+     */
+    private StreamingPage<OrderResponse> stream(Page<Order> orders, OrderFields fields) {
+        for (Order order : orders) {
+            if (fields.expandsCustomer()) {
+                Hibernate.initialize(order.getCustomer());
+            }
+            if (fields.expandsItems()) {
+                Hibernate.initialize(order.getOrderItems());
+                if (fields.expandsItemProducts()) {
+                    for (OrderItem orderItem : order.getOrderItems()) {
+                        Hibernate.initialize(orderItem.getProduct());
+                    }
+                }
+            }
+        }
+        return StreamingPage.of(orders, order -> mapToResponse(order, fields));
+    }
+
+    OrderResponse mapToResponse(Order order) {
+        return mapToResponse(order, OrderFields.ALL);
+    }
+
+    /**
+     * Only touches the associations the fields expand; the customer and product ids come from the
+     * foreign keys, without loading the rows.
+     */
+    OrderResponse mapToResponse(Order order, OrderFields fields) {
+        OrderResponse response = new OrderResponse();
+        response.setId(order.getId());
+        if (fields.includes("customerId")) {
+            response.setCustomerId(order.getCustomer().getId());
+        }
+        if (fields.expandsCustomer()) {
+            response.setCustomer(mapCustomerToResponse(order.getCustomer()));
+        }
+        if (fields.expandsItems()) {
+            boolean products = fields.expandsItemProducts();
+            response.setOrderItems(order.getOrderItems().stream()
+                    .map(orderItem -> mapOrderItemToResponse(orderItem, products))
+                    .collect(Collectors.toList()));
+        }
+        if (fields.includes("totalAmount")) {
+            response.setTotalAmount(order.getTotalAmount());
+        }
+        if (fields.includes("discountAmount")) {
+            response.setDiscountAmount(order.getDiscountAmount());
+        }
+        if (fields.includes("finalAmount")) {
+            response.setFinalAmount(order.getFinalAmount());
+        }
+        if (fields.includes("discountPercentage")) {
+            response.setDiscountPercentage(discountPercentage(order));
+        }
+        if (fields.includes("status")) {
+            response.setStatus(order.getStatus());
+        }
+        if (fields.includes("createdAt")) {
+            response.setCreatedAt(order.getCreatedAt());
+        }
+        return response;
+    }
+
+    private BigDecimal discountPercentage(Order order) {
+        if (order.getTotalAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return order.getDiscountAmount()
+                .divide(order.getTotalAmount(), 4, RoundingMode.HALF_UP)
+                .multiply(HUNDRED)
+                .setScale(2, RoundingMode.HALF_UP);
     }
 
     private CustomerResponse mapCustomerToResponse(Customer customer) {
@@ -270,17 +566,18 @@ public class OrderService {
         );
     }
 
-    private OrderItemResponse mapOrderItemToResponse(OrderItem orderItem) {
-        ProductResponse productResponse = mapProductToResponse(orderItem.getProduct());
+    private OrderItemResponse mapOrderItemToResponse(OrderItem orderItem, boolean product) {
         BigDecimal subtotal = orderItem.getPriceAtPurchase()
                 .multiply(new BigDecimal(orderItem.getQuantity()));
 
-        return new OrderItemResponse(
+        OrderItemResponse response = new OrderItemResponse(
                 orderItem.getId(),
-                productResponse,
+                product ? mapProductToResponse(orderItem.getProduct()) : null,
                 orderItem.getQuantity(),
                 orderItem.getPriceAtPurchase(),
                 subtotal
         );
+        response.setProductId(orderItem.getProduct().getId());
+        return response;
     }
 }
@@ -1,5 +1,7 @@
 package edts.week8_practice1.service;
 
+import edts.week8_practice1.coalescing.Coalesced;
+import edts.week8_practice1.dto.common.BatchResponse;
 import edts.week8_practice1.dto.product.ProductRequest;
 import edts.week8_practice1.dto.product.ProductResponse;
 import edts.week8_practice1.dto.product.ProductUpdateRequest;
@@ -7,10 +9,19 @@ import edts.week8_practice1.entity.Product;
 import edts.week8_practice1.enums.ProductCategory;
 import edts.week8_practice1.exception.BusinessException;
 import edts.week8_practice1.exception.ResourceNotFoundException;
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.logging.SampledLogger;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.notfound.CachedNotFound;
+import edts.week8_practice1.notfound.NotFoundCache;
+import edts.week8_practice1.repository.EntityVersion;
 import edts.week8_practice1.repository.OrderRepository;
 import edts.week8_practice1.repository.ProductRepository;
+import edts.week8_practice1.repository.UniqueConstraints;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -18,48 +29,105 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Timed("service.method")
 @Transactional
 public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
     private static final BigDecimal FOOD_MAX_PRICE = new BigDecimal("1000000");
 
+    private final SampledLogger hotPathLogger;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final LowStockMonitor lowStockMonitor;
+    private final NotFoundCache notFoundCache;
 
-    public ProductService(ProductRepository productRepository, OrderRepository orderRepository) {
+    public ProductService(ProductRepository productRepository, OrderRepository orderRepository,
+                          LowStockMonitor lowStockMonitor, NotFoundCache notFoundCache,
+                          SampledLoggerFactory sampledLoggerFactory) {
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
+        this.lowStockMonitor = lowStockMonitor;
+        this.notFoundCache = notFoundCache;
+        this.hotPathLogger = sampledLoggerFactory.getLogger(logger);
     }
 
     @Transactional(readOnly = true)
     public Page<ProductResponse> findAllActive(Pageable pageable) {
-        logger.info("Finding all active products");
+        hotPathLogger.info("Finding all active products");
         Page<Product> products = productRepository.findAllActive(pageable);
         return products.map(this::mapToResponse);
     }
 
+    /**
+     * Active products by popularity, see {@link ProductRepository#findPopularActive(Pageable)}.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> findPopularActive(Pageable pageable) {
+        hotPathLogger.info("Finding popular active products");
+        Page<Product> products = productRepository.findPopularActive(pageable);
+        return products.map(this::mapToResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<EntityVersion> findPopularActiveVersions(Pageable pageable) {
+        return productRepository.findPopularActiveVersions(pageable);
+    }
+
+    @CachedNotFound("Product")
+    @Coalesced
+    @Transactional(readOnly = true)
+    public EntityVersion findVersionById(Long id) {
+        return productRepository.findActiveVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<EntityVersion> findAllActiveVersions(Pageable pageable) {
+        return productRepository.findAllActiveVersions(pageable);
+    }
+
+    @CachedNotFound("Product")
+    @Coalesced
     @Transactional(readOnly = true)
     public ProductResponse findById(Long id) {
-        logger.info("Finding product by id: {}", id);
+        hotPathLogger.info("Finding product by id: {}", id);
         Product product = productRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         return mapToResponse(product);
     }
 
+    /**
+     * Multi-get in one query. Inactive products count as missing.
+     */
+    @Transactional(readOnly = true)
+    public BatchResponse<ProductResponse> findAllActiveByIds(Collection<Long> ids) {
+        hotPathLogger.info("Finding {} products by id", ids.size());
+        Map<Long, ProductResponse> found = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Product product : productRepository.findActiveByIdIn(ids)) {
+                found.put(product.getId(), mapToResponse(product));
+            }
+        }
+        return BatchResponse.of(ids, found);
+    }
+
     @Transactional(readOnly = true)
     public Page<ProductResponse> findByCategory(ProductCategory category, Pageable pageable) {
-        logger.info("Finding products by category: {}", category);
+        hotPathLogger.info("Finding products by category: {}", category);
         Page<Product> products = productRepository.findActiveByCategory(category, pageable);
         return products.map(this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
-        logger.info("Searching products with keyword: {}", keyword);
+        hotPathLogger.info("Searching products with keyword: {}", keyword);
         Page<Product> products = productRepository.searchActiveProducts(keyword, pageable);
         return products.map(this::mapToResponse);
     }
@@ -87,22 +155,24 @@ public class ProductService {
                     Arrays.asList("Maximum price for FOOD category is 1,000,000"));
         }
 
-        // Check duplicate name
-        productRepository.findActiveByName(request.getName())
-                .ifPresent(p -> {
-                    throw new BusinessException("DUPLICATE_ERROR",
-                            "Product name already exists",
-                            Arrays.asList("Product with name '" + request.getName() + "' already exists"));
-                });
-
         Product product = new Product();
         product.setName(request.getName());
         product.setCategory(request.getCategory());
         product.setPrice(request.getPrice());
         product.setStock(request.getStock());
+        product.setLowStockThreshold(request.getLowStockThreshold());
         product.setActive(true);
 
-        Product savedProduct = productRepository.save(product);
+        // Duplicate names are rejected by uk_products_active_name, not looked up first
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.save(product);
+            productRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateName(e, request.getName());
+        }
+        lowStockMonitor.stockChanged(savedProduct);
+        notFoundCache.created("Product", savedProduct.getId());
         logger.info("Product created successfully with id: {}", savedProduct.getId());
         return mapToResponse(savedProduct);
     }
@@ -123,14 +193,6 @@ public class ProductService {
         }
 
         if (request.getName() != null) {
-            productRepository.findActiveByName(request.getName())
-                    .ifPresent(p -> {
-                        if (!p.getId().equals(id)) {
-                            throw new BusinessException("DUPLICATE_ERROR",
-                                    "Product name already exists",
-                                    Arrays.asList("Product with name '" + request.getName() + "' already exists"));
-                        }
-                    });
             product.setName(request.getName());
         }
 
@@ -156,6 +218,10 @@ public class ProductService {
             product.setStock(request.getStock());
         }
 
+        if (request.getLowStockThreshold() != null) {
+            product.setLowStockThreshold(request.getLowStockThreshold());
+        }
+
         if (request.getActive() != null) {
             if (!request.getActive() && product.getStock() > 0) {
                 throw new BusinessException("BUSINESS_ERROR",
@@ -165,11 +231,28 @@ public class ProductService {
             product.setActive(request.getActive());
         }
 
-        Product savedProduct = productRepository.save(product);
+        // Flushed here, so that a duplicate name (or reactivating one) fails as DUPLICATE_ERROR
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.save(product);
+            productRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateName(e, product.getName());
+        }
+        lowStockMonitor.stockChanged(savedProduct);
         logger.info("Product updated successfully: {}", savedProduct.getId());
         return mapToResponse(savedProduct);
     }
 
+    private RuntimeException duplicateName(DataIntegrityViolationException e, String name) {
+        if (!UniqueConstraints.isViolated(e, UniqueConstraints.PRODUCT_ACTIVE_NAME)) {
+            return e;
+        }
+        return new BusinessException("DUPLICATE_ERROR",
+                "Product name already exists",
+                Arrays.asList("Product with name '" + name + "' already exists"));
+    }
+
     public void deleteProduct(Long id) {
         logger.info("Soft deleting product with id: {}", id);
 
@@ -184,6 +267,7 @@ public class ProductService {
 
         product.setActive(false);
         productRepository.save(product);
+        lowStockMonitor.stockChanged(product);
         logger.info("Product soft deleted successfully: {}", id);
     }
 
@@ -193,10 +277,11 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
         product.setStock(product.getStock() + quantity);
         productRepository.save(product);
+        lowStockMonitor.stockChanged(product);
     }
 
-    private ProductResponse mapToResponse(Product product) {
-        return new ProductResponse(
+    ProductResponse mapToResponse(Product product) {
+        ProductResponse response = new ProductResponse(
                 product.getId(),
                 product.getName(),
                 product.getCategory(),
@@ -206,5 +291,7 @@ public class ProductService {
                 product.getCreatedAt(),
                 product.getUpdatedAt()
         );
+        response.setLowStockThreshold(product.getLowStockThreshold());
+        return response;
     }
 }
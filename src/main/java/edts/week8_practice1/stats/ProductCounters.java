@@ -0,0 +1,94 @@
+package edts.week8_practice1.stats;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory view and sales counters per product, not yet written to {@code product_stats}.
+ *
+ * Requests only increment {@link LongAdder}s, which spread concurrent updates over cells
+ * instead of contending on one value; ProductStatsFlusher drains them in the background.
+ * Sales are counted once the order's transaction commits, so rolled back or retried
+ * checkouts are not counted.
+ */
+@Component
+public class ProductCounters {
+
+    private final Map<Long, Counts> counts = new ConcurrentHashMap<>();
+
+    /** A product was returned by GET /api/products/{id}. */
+    public void recordView(Long productId) {
+        counts(productId).views.increment();
+    }
+
+    /** Units of a product were ordered. Counted when the transaction commits. */
+    public void recordSale(Long productId, int quantity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counts(productId).unitsSold.add(quantity);
+                }
+            });
+        } else {
+            counts(productId).unitsSold.add(quantity);
+        }
+    }
+
+    /**
+     * Takes the counts recorded so far and resets them. Increments that race with the drain
+     * are kept for the next one.
+     *
+     * @return non-zero counts by product id, in ascending id order
+     */
+    public Map<Long, ProductCounts> drain() {
+        Map<Long, ProductCounts> drained = new TreeMap<>();
+        counts.forEach((productId, count) -> {
+            ProductCounts taken = new ProductCounts(count.views.sumThenReset(), count.unitsSold.sumThenReset());
+            if (!taken.isZero()) {
+                drained.put(productId, taken);
+            }
+        });
+        return drained;
+    }
+
+    /**
+     * The counts recorded so far, without resetting them.
+     */
+    public Map<Long, ProductCounts> snapshot() {
+        Map<Long, ProductCounts> snapshot = new TreeMap<>();
+        counts.forEach((productId, count) -> {
+            ProductCounts current = new ProductCounts(count.views.sum(), count.unitsSold.sum());
+            if (!current.isZero()) {
+                snapshot.put(productId, current);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Adds counts back, e.g. after a failed flush or from the journal at startup.
+     */
+    public void add(Map<Long, ProductCounts> pending) {
+        pending.forEach((productId, count) -> {
+            Counts current = counts(productId);
+            current.views.add(count.views());
+            current.unitsSold.add(count.unitsSold());
+        });
+    }
+
+    private Counts counts(Long productId) {
+        return counts.computeIfAbsent(productId, id -> new Counts());
+    }
+
+    private static final class Counts {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder unitsSold = new LongAdder();
+    }
+}
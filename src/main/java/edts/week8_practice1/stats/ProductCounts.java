@@ -0,0 +1,11 @@
+package edts.week8_practice1.stats;
+
+/**
+ * Views and units sold of one product over some period.
+ */
+public record ProductCounts(long views, long unitsSold) {
+
+    public boolean isZero() {
+        return views == 0 && unitsSold == 0;
+    }
+}
@@ -0,0 +1,123 @@
+package edts.week8_practice1.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the counts of {@link ProductCounters} to {@code product_stats} (migration V5) in
+ * batched upserts, and keeps the not yet flushed counts in a {@link ProductStatsJournal}.
+ *
+ * A flush adds the drained counts to the stored ones in one transaction; if it fails they
+ * go back into the counters. The journal is rewritten every {@code journal-interval-ms}
+ * and after each flush, and read back at startup, so a crash loses at most one journal
+ * interval. A crash between a flush and the next journal write counts that flush twice.
+ */
+public class ProductStatsFlusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductStatsFlusher.class);
+
+    // Rows in product id order, so concurrent flushes of several instances lock in the same order
+    private static final String UPSERT =
+            "INSERT INTO product_stats (product_id, view_count, units_sold, updated_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count), " +
+            "units_sold = units_sold + VALUES(units_sold), updated_at = VALUES(updated_at)";
+
+    private final ProductCounters counters;
+    private final ProductStatsJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductStatsProperties properties;
+    private final Clock clock;
+    private final Counter flushedRows;
+    private final Timer flushTimer;
+
+    public ProductStatsFlusher(ProductCounters counters, ProductStatsJournal journal, JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate, ProductStatsProperties properties,
+                               MeterRegistry meterRegistry, Clock clock) {
+        this.counters = counters;
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.flushedRows = Counter.builder("product.stats.flushed")
+                .description("Product rows upserted into product_stats")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("product.stats.flush")
+                .description("Time to upsert one flush of product counters")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the counts left in the journal by the previous run to the counters.
+     */
+    public synchronized void restore() {
+        try {
+            Map<Long, ProductCounts> journaled = journal.read();
+            counters.add(journaled);
+            if (!journaled.isEmpty()) {
+                logger.info("Restored unflushed counts of {} products from {}", journaled.size(), journal.getFile());
+            }
+        } catch (UncheckedIOException | NumberFormatException e) {
+            logger.warn("Ignoring unreadable product stats journal {}", journal.getFile(), e);
+        }
+    }
+
+    /**
+     * @return the number of upserted product rows
+     */
+    @Scheduled(fixedDelayString = "${product-stats.flush-interval-ms:5000}",
+            initialDelayString = "${product-stats.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        Map<Long, ProductCounts> pending = counters.drain();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> upsert(pending)));
+        } catch (DataAccessException e) {
+            counters.add(pending);
+            logger.warn("Flushing counts of {} products failed, retrying with the next flush", pending.size(), e);
+            return 0;
+        }
+        flushedRows.increment(pending.size());
+        writeJournal();
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${product-stats.journal-interval-ms:1000}",
+            initialDelayString = "${product-stats.journal-interval-ms:1000}")
+    public synchronized void writeJournal() {
+        try {
+            journal.write(counters.snapshot());
+        } catch (UncheckedIOException e) {
+            logger.warn("Writing product stats journal {} failed", journal.getFile(), e);
+        }
+    }
+
+    private void upsert(Map<Long, ProductCounts> pending) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Map.Entry<Long, ProductCounts>> rows = new ArrayList<>(pending.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT, rows, properties.getBatchSize(), (statement, row) -> {
+            statement.setLong(1, row.getKey());
+            statement.setLong(2, row.getValue().views());
+            statement.setLong(3, row.getValue().unitsSold());
+            statement.setObject(4, now);
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package edts.week8_practice1.stats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Local file with the counts that are not in {@code product_stats} yet, one
+ * {@code productId views unitsSold} line per product.
+ *
+ * The file is replaced as a whole: written to a temporary file next to it, synced and moved
+ * over the old one, so a crash leaves either the previous or the new version.
+ */
+public class ProductStatsJournal {
+
+    private final Path file;
+    private final Path tempFile;
+
+    public ProductStatsJournal(Path file) {
+        this.file = file;
+        this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    public void write(Map<Long, ProductCounts> counts) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<Long, ProductCounts> entry : counts.entrySet()) {
+                    writer.write(entry.getKey() + " " + entry.getValue().views() + " " + entry.getValue().unitsSold());
+                    writer.newLine();
+                }
+            }
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write product stats journal " + file, e);
+        }
+    }
+
+    /**
+     * @return the journaled counts, empty if there is no journal
+     */
+    public Map<Long, ProductCounts> read() {
+        Map<Long, ProductCounts> counts = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return counts;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                String[] fields = line.trim().split(" ");
+                if (fields.length == 3) {
+                    counts.put(Long.parseLong(fields[0]),
+                            new ProductCounts(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+                }
+            }
+            return counts;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read product stats journal " + file, e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
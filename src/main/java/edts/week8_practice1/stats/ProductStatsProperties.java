@@ -0,0 +1,67 @@
+package edts.week8_practice1.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flushing of the product view and sales counters ({@code product-stats.*}) to
+ * {@code product_stats}, see migration V5. Disabled by default.
+ */
+@Component
+@ConfigurationProperties(prefix = "product-stats")
+public class ProductStatsProperties {
+
+    private boolean enabled = false;
+
+    /** Milliseconds between two flushes to the database. */
+    private long flushIntervalMs = 5000;
+
+    /** Milliseconds between two writes of the local journal. */
+    private long journalIntervalMs = 1000;
+
+    /** Local file with the counts not yet flushed; read back at startup. */
+    private String journal = "data/product-stats.journal";
+
+    /** Rows per JDBC batch of the upsert. */
+    private int batchSize = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public long getJournalIntervalMs() {
+        return journalIntervalMs;
+    }
+
+    public void setJournalIntervalMs(long journalIntervalMs) {
+        this.journalIntervalMs = journalIntervalMs;
+    }
+
+    public String getJournal() {
+        return journal;
+    }
+
+    public void setJournal(String journal) {
+        this.journal = journal;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
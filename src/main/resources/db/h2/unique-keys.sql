@@ -0,0 +1,6 @@
+-- Keys of migration V8 for the schema Hibernate creates in the test profile
+ALTER TABLE products ADD COLUMN active_name VARCHAR(255) GENERATED ALWAYS AS (CASE WHEN active THEN name END);
+CREATE UNIQUE INDEX uk_products_active_name ON products (active_name);
+
+ALTER TABLE customers ADD COLUMN active_email VARCHAR(255) GENERATED ALWAYS AS (CASE WHEN active THEN email END);
+CREATE UNIQUE INDEX uk_customers_active_email ON customers (active_email);
@@ -0,0 +1,74 @@
+-- =====================================================
+-- Week8 Practice1 - Monthly Partitioning of Orders (MySQL 8)
+-- Smart Inventory & Order Management System
+-- =====================================================
+-- orders is range-partitioned by month of created_at. Queries with a created_at range
+-- (findByDateRange, findByCustomerIdAndDateRange) only read the matching partitions.
+--
+-- MySQL restrictions that shape this script:
+-- * every unique key must contain the partitioning column: the primary key becomes (id, created_at)
+-- * partitioned InnoDB tables cannot have or be referenced by foreign keys: the order
+--   foreign keys are dropped, the application keeps orders and their items consistent
+-- * TIMESTAMP columns can only be partitioned through UNIX_TIMESTAMP()
+--
+-- Partitions up to 2026-12 are created here. OrderPartitionMaintainer (order-partitions.*)
+-- splits new months off p_future ahead of time, while p_future is still empty.
+-- On a large table the ALTER statements rebuild it: run during a maintenance window.
+
+-- Partition bounds are absolute instants; UNIX_TIMESTAMP() of a literal depends on the session zone
+SET time_zone = '+00:00';
+
+-- =====================================================
+-- FOREIGN KEYS AND KEYS
+-- =====================================================
+ALTER TABLE order_items DROP FOREIGN KEY fk_order_items_order;
+ALTER TABLE orders DROP FOREIGN KEY fk_orders_customer;
+
+ALTER TABLE orders
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+-- Customer order history is always sorted by date
+CREATE INDEX idx_orders_customer_created ON orders(customer_id, created_at DESC) COMMENT 'For finding orders by customer, newest first, and customer date ranges';
+DROP INDEX idx_orders_customer_id ON orders;
+
+-- =====================================================
+-- PARTITIONS
+-- =====================================================
+ALTER TABLE orders
+PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+    PARTITION p_history VALUES LESS THAN (UNIX_TIMESTAMP('2025-01-01 00:00:00')),
+    PARTITION p202501 VALUES LESS THAN (UNIX_TIMESTAMP('2025-02-01 00:00:00')),
+    PARTITION p202502 VALUES LESS THAN (UNIX_TIMESTAMP('2025-03-01 00:00:00')),
+    PARTITION p202503 VALUES LESS THAN (UNIX_TIMESTAMP('2025-04-01 00:00:00')),
+    PARTITION p202504 VALUES LESS THAN (UNIX_TIMESTAMP('2025-05-01 00:00:00')),
+    PARTITION p202505 VALUES LESS THAN (UNIX_TIMESTAMP('2025-06-01 00:00:00')),
+    PARTITION p202506 VALUES LESS THAN (UNIX_TIMESTAMP('2025-07-01 00:00:00')),
+    PARTITION p202507 VALUES LESS THAN (UNIX_TIMESTAMP('2025-08-01 00:00:00')),
+    PARTITION p202508 VALUES LESS THAN (UNIX_TIMESTAMP('2025-09-01 00:00:00')),
+    PARTITION p202509 VALUES LESS THAN (UNIX_TIMESTAMP('2025-10-01 00:00:00')),
+    PARTITION p202510 VALUES LESS THAN (UNIX_TIMESTAMP('2025-11-01 00:00:00')),
+    PARTITION p202511 VALUES LESS THAN (UNIX_TIMESTAMP('2025-12-01 00:00:00')),
+    PARTITION p202512 VALUES LESS THAN (UNIX_TIMESTAMP('2026-01-01 00:00:00')),
+    PARTITION p202601 VALUES LESS THAN (UNIX_TIMESTAMP('2026-02-01 00:00:00')),
+    PARTITION p202602 VALUES LESS THAN (UNIX_TIMESTAMP('2026-03-01 00:00:00')),
+    PARTITION p202603 VALUES LESS THAN (UNIX_TIMESTAMP('2026-04-01 00:00:00')),
+    PARTITION p202604 VALUES LESS THAN (UNIX_TIMESTAMP('2026-05-01 00:00:00')),
+    PARTITION p202605 VALUES LESS THAN (UNIX_TIMESTAMP('2026-06-01 00:00:00')),
+    PARTITION p202606 VALUES LESS THAN (UNIX_TIMESTAMP('2026-07-01 00:00:00')),
+    PARTITION p202607 VALUES LESS THAN (UNIX_TIMESTAMP('2026-08-01 00:00:00')),
+    PARTITION p202608 VALUES LESS THAN (UNIX_TIMESTAMP('2026-09-01 00:00:00')),
+    PARTITION p202609 VALUES LESS THAN (UNIX_TIMESTAMP('2026-10-01 00:00:00')),
+    PARTITION p202610 VALUES LESS THAN (UNIX_TIMESTAMP('2026-11-01 00:00:00')),
+    PARTITION p202611 VALUES LESS THAN (UNIX_TIMESTAMP('2026-12-01 00:00:00')),
+    PARTITION p202612 VALUES LESS THAN (UNIX_TIMESTAMP('2027-01-01 00:00:00')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+FROM information_schema.PARTITIONS
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'orders'
+ORDER BY PARTITION_ORDINAL_POSITION;
@@ -0,0 +1,35 @@
+-- =====================================================
+-- Week8 Practice1 - Cold archive of old orders
+-- PAID and CANCELLED orders older than order-archive.retention-days are moved here
+-- by OrderArchiver; the order items travel along as JSON in the same row.
+-- =====================================================
+
+CREATE TABLE archived_orders (
+    -- Key: a customer's archived orders are stored next to each other, by month
+    order_id BIGINT NOT NULL COMMENT 'Id the order had in orders',
+    customer_id BIGINT NOT NULL COMMENT 'Customer who placed the order',
+
+    -- Business Fields (as in orders)
+    total_amount DECIMAL(19, 2) NOT NULL COMMENT 'Total order amount before discount',
+    discount_amount DECIMAL(19, 2) NOT NULL COMMENT 'Discount amount applied',
+    final_amount DECIMAL(19, 2) NOT NULL COMMENT 'Final amount paid',
+    status VARCHAR(50) NOT NULL COMMENT 'Order status: PAID or CANCELLED',
+    items MEDIUMTEXT NOT NULL COMMENT 'Order items as JSON: id, productId, quantity, priceAtPurchase',
+
+    -- Audit Fields (as in orders)
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Order creation timestamp',
+    updated_at TIMESTAMP NULL COMMENT 'Last update timestamp of the order',
+    created_by VARCHAR(255) COMMENT 'User who created the order',
+    updated_by VARCHAR(255) COMMENT 'User who last updated the order',
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'When the order was archived',
+
+    PRIMARY KEY (customer_id, created_at, order_id),
+    CONSTRAINT uk_archived_orders_order_id UNIQUE (order_id)
+) ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8
+  COMMENT 'Archived orders, read-only; clustered by customer and creation time and page-compressed';
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+SELECT TABLE_NAME, ROW_FORMAT FROM information_schema.TABLES
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'archived_orders';
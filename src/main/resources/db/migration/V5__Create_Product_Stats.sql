@@ -0,0 +1,25 @@
+-- =====================================================
+-- Week8 Practice1 - Product popularity counters
+-- Views and units sold per product, counted in memory and added here in batched
+-- upserts by ProductStatsFlusher every few seconds (product-stats.*).
+-- =====================================================
+
+CREATE TABLE product_stats (
+    -- Primary Key: one row per product, created by the first flush that counts it
+    product_id BIGINT NOT NULL PRIMARY KEY COMMENT 'Product the counts belong to',
+
+    -- Counters
+    view_count BIGINT NOT NULL DEFAULT 0 COMMENT 'Times the product was returned by GET /api/products/{id}',
+    units_sold BIGINT NOT NULL DEFAULT 0 COMMENT 'Units ordered through POST /api/orders',
+
+    -- Audit Fields
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Time of the last flush that changed the row',
+
+    -- Constraints
+    CONSTRAINT fk_product_stats_product FOREIGN KEY (product_id) REFERENCES products(id)
+) COMMENT 'Product popularity counters for sortBy=popular';
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+SELECT COUNT(1) AS products_with_stats FROM product_stats;
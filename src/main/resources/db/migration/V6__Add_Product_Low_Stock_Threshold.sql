@@ -0,0 +1,16 @@
+-- =====================================================
+-- Week8 Practice1 - Per-product low-stock threshold
+-- A product is low on stock when stock < low_stock_threshold, or below
+-- low-stock.default-threshold when the column is NULL (see LowStockMonitor).
+-- =====================================================
+
+ALTER TABLE products
+    ADD COLUMN low_stock_threshold INT NULL
+        COMMENT 'Low-stock alert threshold; NULL uses low-stock.default-threshold' AFTER stock,
+    ADD CONSTRAINT chk_low_stock_threshold_positive CHECK (low_stock_threshold >= 0);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+SELECT COLUMN_NAME, IS_NULLABLE, COLUMN_TYPE FROM information_schema.COLUMNS
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'products' AND COLUMN_NAME = 'low_stock_threshold';
@@ -0,0 +1,43 @@
+-- =====================================================
+-- Week8 Practice1 - Order status history
+-- Append-only: OrderService inserts one row per status an order reaches, in the transaction
+-- that changes orders.status. Rows are never updated or deleted, and stay when the order
+-- is archived. Read by GET /api/orders/{id}/history.
+-- =====================================================
+
+CREATE TABLE order_status_events (
+    -- Primary Key: an order reaches each status at most once (CREATED, then PAID or CANCELLED).
+    -- Order ids only grow, so inserts go to the right edge of the clustered index; there are
+    -- no secondary indexes and no foreign keys (orders is partitioned, see V3) to maintain.
+    order_id BIGINT NOT NULL COMMENT 'Order the event belongs to',
+    status TINYINT NOT NULL COMMENT 'OrderStatus ordinal: 0 CREATED, 1 PAID, 2 CANCELLED',
+
+    -- Event Fields
+    occurred_at TIMESTAMP(3) NOT NULL COMMENT 'When the order reached the status',
+
+    PRIMARY KEY (order_id, status)
+) COMMENT 'Order status timeline, append-only; about 20 bytes of data per row';
+
+-- =====================================================
+-- BACKFILL
+-- Orders created before this migration: their creation, and their current status at the
+-- time of the last update. Intermediate steps were never recorded.
+-- =====================================================
+INSERT INTO order_status_events (order_id, status, occurred_at)
+SELECT o.id, 0, o.created_at FROM orders o;
+
+INSERT INTO order_status_events (order_id, status, occurred_at)
+SELECT o.id, CASE o.status WHEN 'PAID' THEN 1 ELSE 2 END, COALESCE(o.updated_at, o.created_at)
+FROM orders o WHERE o.status IN ('PAID', 'CANCELLED');
+
+INSERT INTO order_status_events (order_id, status, occurred_at)
+SELECT a.order_id, 0, a.created_at FROM archived_orders a;
+
+INSERT INTO order_status_events (order_id, status, occurred_at)
+SELECT a.order_id, CASE a.status WHEN 'PAID' THEN 1 ELSE 2 END, COALESCE(a.updated_at, a.created_at)
+FROM archived_orders a WHERE a.status IN ('PAID', 'CANCELLED');
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+SELECT status, COUNT(1) AS events FROM order_status_events GROUP BY status;
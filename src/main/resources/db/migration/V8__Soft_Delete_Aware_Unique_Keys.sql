@@ -0,0 +1,26 @@
+-- =====================================================
+-- Week8 Practice1 - Unique keys among active rows
+-- ProductService and CustomerService no longer look up a duplicate name or email before each
+-- write: the insert or update fails on these keys and is answered with DUPLICATE_ERROR (see
+-- UniqueConstraints). The keys of V1 covered soft-deleted rows too, so a deleted product kept
+-- its name forever. MySQL has no partial indexes: the keys are on generated columns that are
+-- NULL for inactive rows, and NULLs never collide in a unique index.
+-- =====================================================
+
+ALTER TABLE products
+    DROP INDEX name,
+    ADD COLUMN active_name VARCHAR(255) GENERATED ALWAYS AS (CASE WHEN active THEN name END) VIRTUAL
+        COMMENT 'name while active, NULL once soft deleted',
+    ADD UNIQUE INDEX uk_products_active_name (active_name);
+
+ALTER TABLE customers
+    DROP INDEX email,
+    ADD COLUMN active_email VARCHAR(255) GENERATED ALWAYS AS (CASE WHEN active THEN email END) VIRTUAL
+        COMMENT 'email while active, NULL once soft deleted',
+    ADD UNIQUE INDEX uk_customers_active_email (active_email);
+
+-- =====================================================
+-- VERIFICATION QUERIES
+-- =====================================================
+SELECT TABLE_NAME, INDEX_NAME, COLUMN_NAME, NON_UNIQUE FROM information_schema.STATISTICS
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN ('products', 'customers') AND NON_UNIQUE = 0;
@@ -5,6 +5,9 @@ import edts.week8_practice1.dto.order.*;
 import edts.week8_practice1.dto.product.ProductRequest;
 import edts.week8_practice1.entity.*;
 import edts.week8_practice1.enums.*;
+import edts.week8_practice1.metrics.QueryBudgetAdvice;
+import edts.week8_practice1.metrics.QueryBudgetProperties;
+import edts.week8_practice1.metrics.SqlStatementMetricsFilter;
 import edts.week8_practice1.repository.*;
 import edts.week8_practice1.service.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,14 +15,23 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 /**
  * Integration Test - Full Spring Boot Context Test
@@ -29,9 +41,13 @@ import static org.assertj.core.api.Assertions.assertThat;
  *
  * To enable temporarily:
  * 1. Remove @Disabled annotation
- * 2. Or run: mvn test -Dtest=IntegrationTest
+ * 2. Or run: mvn test -Dtest=IntegrationTest -Dsurefire.jvmArgs="-Xmx512m"
+ *    -Djunit.jupiter.conditions.deactivate='org.junit.*DisabledCondition'
+ *
+ * Endpoint tests run with query-budget.mode=fail, so any request that executes more
+ * SQL statements than its budget in application.yaml fails with QUERY_BUDGET_EXCEEDED.
  */
-@SpringBootTest
+@SpringBootTest(properties = "query-budget.mode=fail")
 @ActiveProfiles("test")
 @Transactional
 @Disabled("Integration test disabled for fast CI/CD. Run manually with: mvn test -Dtest=IntegrationTest")
@@ -55,6 +71,13 @@ class IntegrationTest {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private QueryBudgetProperties queryBudgetProperties;
+
+    private MockMvc mockMvc;
     private Customer customer;
     private Product product;
 
@@ -82,6 +105,10 @@ class IntegrationTest {
         product.setStock(100);
         product.setActive(true);
         product = productRepository.save(product);
+
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(new SqlStatementMetricsFilter(new SimpleMeterRegistry()))
+                .build();
     }
 
     @Test
@@ -226,4 +253,68 @@ class IntegrationTest {
         assertThat(customer.getMembershipLevel()).isEqualTo(CustomerMembership.PLATINUM);
         assertThat(customer.getTotalSpent()).isEqualByComparingTo("55000000");
     }
+
+    @Test
+    @DisplayName("Read endpoints stay within their SQL statement budget")
+    void readEndpoints_WithinQueryBudget() throws Exception {
+        OrderResponse order = orderService.createOrder(new OrderRequest(customer.getId(),
+                Collections.singletonList(new OrderItemRequest(product.getId(), 1))));
+
+        assertWithinBudget(get("/api/products"), "GET /api/products");
+        assertWithinBudget(get("/api/products/{id}", product.getId()), "GET /api/products/{id}");
+        assertWithinBudget(get("/api/products/search").param("keyword", "Test"), "GET /api/products/search");
+        assertWithinBudget(get("/api/customers"), "GET /api/customers");
+        assertWithinBudget(get("/api/customers/{id}", customer.getId()), "GET /api/customers/{id}");
+        assertWithinBudget(get("/api/orders"), "GET /api/orders");
+        assertWithinBudget(get("/api/orders/{id}", order.getId()), "GET /api/orders/{id}");
+        assertWithinBudget(get("/api/orders/customer/{customerId}", customer.getId()),
+                "GET /api/orders/customer/{customerId}");
+        assertWithinBudget(get("/api/products/batch").param("ids", product.getId() + ",999"),
+                "GET /api/products/batch");
+        assertWithinBudget(get("/api/customers/batch").param("ids", customer.getId() + ",999"),
+                "GET /api/customers/batch");
+        assertWithinBudget(get("/api/orders/batch").param("ids", order.getId() + ",999"),
+                "GET /api/orders/batch");
+        assertWithinBudget(get("/api/orders/{id}/history", order.getId()), "GET /api/orders/{id}/history");
+    }
+
+    @Test
+    @DisplayName("Order write endpoints stay within their SQL statement budget")
+    void orderWriteEndpoints_WithinQueryBudget() throws Exception {
+        String body = "{\"customerId\":" + customer.getId()
+                + ",\"orderItems\":[{\"productId\":" + product.getId() + ",\"quantity\":2}]}";
+        MvcResult created = assertWithinBudget(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body), "POST /api/orders");
+
+        Long orderId = orderRepository.findAll().get(0).getId();
+        assertThat(created.getResponse().getStatus()).isEqualTo(201);
+        assertWithinBudget(post("/api/orders/{id}/pay", orderId), "POST /api/orders/{id}/pay");
+    }
+
+    @Test
+    @DisplayName("Exceeding a query budget fails the request in FAIL mode")
+    void queryBudgetExceeded_FailsRequest() throws Exception {
+        queryBudgetProperties.getEndpoints().put("GET /api/products/{id}", 0);
+        try {
+            MvcResult result = mockMvc.perform(get("/api/products/{id}", product.getId())).andReturn();
+
+            assertThat(result.getResponse().getStatus()).isEqualTo(500);
+            assertThat(result.getResponse().getContentAsString()).contains("QUERY_BUDGET_EXCEEDED");
+        } finally {
+            queryBudgetProperties.getEndpoints().remove("GET /api/products/{id}");
+        }
+    }
+
+    private MvcResult assertWithinBudget(RequestBuilder request, String endpoint) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        String[] parts = endpoint.split(" ", 2);
+        int budget = queryBudgetProperties.maxStatements(parts[0], parts[1]);
+
+        assertThat(result.getResponse().getStatus()).as(endpoint).isLessThan(400);
+        assertThat(Integer.parseInt(result.getResponse().getHeader(QueryBudgetAdvice.QUERY_COUNT_HEADER)))
+                .as("SQL statements of %s", endpoint)
+                .isLessThanOrEqualTo(budget);
+        return result;
+    }
 }
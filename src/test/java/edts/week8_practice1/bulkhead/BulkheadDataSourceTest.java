@@ -0,0 +1,145 @@
+package edts.week8_practice1.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BulkheadDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getClasses().put(TrafficClass.ADMIN, new BulkheadProperties.Limits(10, 0, 2, 0));
+        Bulkheads bulkheads = new Bulkheads(properties, meterRegistry);
+        dataSource = new BulkheadDataSource(target, () -> bulkheads);
+        TrafficClassContext.set(TrafficClass.ADMIN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TrafficClassContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the connection is closed")
+    void close_ReturnsPermit() throws SQLException {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        Connection handedOut = dataSource.getConnection();
+        assertThat(activeConnections()).isEqualTo(1);
+
+        // When
+        handedOut.close();
+
+        // Then
+        verify(connection).close();
+        assertThat(activeConnections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return the permit only once when the connection is closed twice")
+    void close_Twice_ReturnsPermitOnce() throws SQLException {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        // When
+        first.close();
+        first.close();
+
+        // Then: one permit is free again, not two
+        assertThat(activeConnections()).isEqualTo(1);
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        second.close();
+        assertThat(activeConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the pool fails to hand out a connection")
+    void getConnection_PoolFails_ReturnsPermit() throws SQLException {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+
+        // When/Then
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool timeout");
+        assertThat(activeConnections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail like a pool timeout when the class holds all its connections")
+    void getConnection_ClassFull_Timeout() throws SQLException {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // When/Then
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("No admin connection available");
+        assertThat(meterRegistry.get("bulkhead.connections.timeout").tag("class", "admin").counter().count())
+                .isEqualTo(1);
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should not limit connections outside of requests")
+    void getConnection_NoTrafficClass_NotLimited() throws SQLException {
+        // Given
+        TrafficClassContext.clear();
+        when(target.getConnection()).thenReturn(connection);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThat(dataSource.getConnection()).isSameAs(connection);
+        }
+
+        // Then
+        assertThat(activeConnections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should pass other calls through to the connection")
+    void connection_DelegatesCalls() throws SQLException {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        doThrow(new SQLException("read only")).when(connection).setReadOnly(true);
+        Connection handedOut = dataSource.getConnection();
+
+        // When/Then
+        assertThat(handedOut.getAutoCommit()).isTrue();
+        assertThatThrownBy(() -> handedOut.setReadOnly(true)).isInstanceOf(SQLException.class)
+                .hasMessage("read only");
+    }
+
+    private double activeConnections() {
+        return meterRegistry.get("bulkhead.connections.active").tag("class", "admin").gauge().value();
+    }
+}
@@ -0,0 +1,101 @@
+package edts.week8_practice1.bulkhead;
+
+import edts.week8_practice1.exception.BulkheadFullException;
+import edts.week8_practice1.exception.ErrorResponse;
+import edts.week8_practice1.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.Mockito.mock;
+
+class BulkheadInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HandlerMethod handler = mock(HandlerMethod.class);
+    private BulkheadInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getClasses().put(TrafficClass.ADMIN, new BulkheadProperties.Limits(1, 0, 4, 0));
+        properties.getEndpoints().put("POST /api/orders", TrafficClass.CHECKOUT);
+        interceptor = new BulkheadInterceptor(new Bulkheads(properties, meterRegistry), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TrafficClassContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should reject a request of a full class with 503 and Retry-After")
+    void preHandle_ClassFull_Rejected() throws Exception {
+        // Given
+        interceptor.preHandle(request("DELETE", "/api/products/{id}"), new MockHttpServletResponse(), handler);
+
+        // When
+        BulkheadFullException rejected = catchThrowableOfType(BulkheadFullException.class,
+                () -> interceptor.preHandle(request("DELETE", "/api/products/{id}"),
+                        new MockHttpServletResponse(), handler));
+        ResponseEntity<ErrorResponse> response = new GlobalExceptionHandler().handleBulkheadFullException(rejected);
+
+        // Then
+        assertThat(rejected.getTrafficClass()).isEqualTo("admin");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody().getCode()).isEqualTo("BULKHEAD_FULL");
+        assertThat(meterRegistry.get("bulkhead.requests.rejected").tag("class", "admin").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not let a full class take the slots of another class")
+    void preHandle_OtherClassFull_Admitted() throws Exception {
+        // Given
+        interceptor.preHandle(request("DELETE", "/api/products/{id}"), new MockHttpServletResponse(), handler);
+        TrafficClassContext.clear();
+
+        // When
+        boolean admitted = interceptor.preHandle(request("POST", "/api/orders"), new MockHttpServletResponse(),
+                handler);
+
+        // Then
+        assertThat(admitted).isTrue();
+        assertThat(TrafficClassContext.current()).isEqualTo(TrafficClass.CHECKOUT);
+    }
+
+    @Test
+    @DisplayName("Should free the slot and the thread's class when the request completes")
+    void afterCompletion_ReleasesSlot() throws Exception {
+        // Given
+        MockHttpServletRequest first = request("DELETE", "/api/products/{id}");
+        interceptor.preHandle(first, new MockHttpServletResponse(), handler);
+        assertThat(TrafficClassContext.current()).isEqualTo(TrafficClass.ADMIN);
+
+        // When
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), handler, null);
+
+        // Then
+        assertThat(TrafficClassContext.current()).isNull();
+        assertThat(interceptor.preHandle(request("DELETE", "/api/products/{id}"), new MockHttpServletResponse(),
+                handler)).isTrue();
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
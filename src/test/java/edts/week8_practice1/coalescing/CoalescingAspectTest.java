@@ -0,0 +1,87 @@
+package edts.week8_practice1.coalescing;
+
+import edts.week8_practice1.exception.CoalescedReadTimeoutException;
+import edts.week8_practice1.exception.ErrorResponse;
+import edts.week8_practice1.exception.GlobalExceptionHandler;
+import edts.week8_practice1.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoalescingAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch leaderRunning = new CountDownLatch(1);
+    private final CountDownLatch finishLeader = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        finishLeader.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After to a caller that waited past wait-timeout-ms")
+    void coalesce_WaitTimeout_ServiceUnavailable() throws Throwable {
+        // Given
+        RequestCoalescingProperties properties = new RequestCoalescingProperties();
+        properties.setWaitTimeoutMs(50);
+        properties.setRetryAfterSeconds(2);
+        CoalescingAspect aspect = new CoalescingAspect(properties, meterRegistry);
+        ProceedingJoinPoint leaderCall = findById(1L);
+        when(leaderCall.proceed()).thenAnswer(invocation -> {
+            leaderRunning.countDown();
+            finishLeader.await();
+            return "product 1";
+        });
+        Future<Object> leader = executor.submit(() -> {
+            try {
+                return aspect.coalesce(leaderCall);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(leaderRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CoalescedReadTimeoutException timeout = catchThrowableOfType(CoalescedReadTimeoutException.class,
+                () -> aspect.coalesce(findById(1L)));
+        ResponseEntity<ErrorResponse> response = new GlobalExceptionHandler()
+                .handleCoalescedReadTimeoutException(timeout);
+
+        // Then
+        assertThat(timeout.getOperation()).isEqualTo("ProductService.findById");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(meterRegistry.get("coalescing.timeouts").counter().count()).isEqualTo(1);
+        finishLeader.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("product 1");
+    }
+
+    private static ProceedingJoinPoint findById(Long id) throws NoSuchMethodException {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(ProductService.class.getMethod("findById", Long.class));
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{id});
+        return joinPoint;
+    }
+}
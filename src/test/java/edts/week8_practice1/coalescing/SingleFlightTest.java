@@ -0,0 +1,188 @@
+package edts.week8_practice1.coalescing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 4;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch leaderRunning = new CountDownLatch(1);
+    private final CountDownLatch finishLeader = new CountDownLatch(1);
+    private final CountDownLatch followersJoined = new CountDownLatch(FOLLOWERS);
+
+    private final SingleFlight.Listener listener = new SingleFlight.Listener() {
+        @Override
+        public void led() {
+        }
+
+        @Override
+        public void joined() {
+            followersJoined.countDown();
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        finishLeader.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should let concurrent callers of a key share one call")
+    void execute_ConcurrentCallers_ShareOneCall() throws Exception {
+        // Given
+        Future<Object> leader = submit(blockingCall("product 1"), 5000);
+        assertThat(leaderRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<Object>> followers = submitFollowers(5000);
+        assertThat(followersJoined.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        finishLeader.countDown();
+
+        // Then
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("product 1");
+        for (Future<Object> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("product 1");
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(singleFlight.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should hand the leader's exception to every waiting caller")
+    void execute_LeaderFails_EveryCallerGetsException() throws Exception {
+        // Given
+        IllegalStateException failure = new IllegalStateException("database down");
+        Future<Object> leader = submit(() -> {
+            calls.incrementAndGet();
+            leaderRunning.countDown();
+            finishLeader.await();
+            throw failure;
+        }, 5000);
+        assertThat(leaderRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<Object>> followers = submitFollowers(5000);
+        assertThat(followersJoined.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        finishLeader.countDown();
+
+        // Then
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .cause().isSameAs(failure);
+        for (Future<Object> follower : followers) {
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(failure);
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should time out a waiting caller while the call keeps running")
+    void execute_SlowCall_WaiterTimesOut() throws Exception {
+        // Given
+        Future<Object> leader = submit(blockingCall("product 1"), 5000);
+        assertThat(leaderRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When/Then
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> "never run", 50, listener))
+                .isInstanceOf(TimeoutException.class);
+        assertThat(leader.isDone()).isFalse();
+        finishLeader.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("product 1");
+    }
+
+    @Test
+    @DisplayName("Should run the call again after a failure")
+    void execute_AfterFailure_KeyReleased() throws Throwable {
+        // Given
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("database down");
+        }, 5000, listener)).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.size()).isZero();
+
+        // When
+        Object result = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return "product 1";
+        }, 5000, listener);
+
+        // Then
+        assertThat(result).isEqualTo("product 1");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not reuse a result once the call has returned")
+    void execute_Sequential_RunsEachTime() throws Throwable {
+        // When
+        for (int i = 0; i < 3; i++) {
+            singleFlight.execute("key", calls::incrementAndGet, 5000, listener);
+        }
+
+        // Then
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should not share calls between keys")
+    void execute_DifferentKeys_RunSeparately() throws Throwable {
+        // Given
+        submit(blockingCall("product 1"), 5000);
+        assertThat(leaderRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When/Then
+        assertThat(singleFlight.execute("other key", () -> "product 2", 5000, listener)).isEqualTo("product 2");
+    }
+
+    private SingleFlight.Call blockingCall(Object result) {
+        return () -> {
+            calls.incrementAndGet();
+            leaderRunning.countDown();
+            finishLeader.await();
+            return result;
+        };
+    }
+
+    private Future<Object> submit(SingleFlight.Call call, long timeoutMillis) {
+        return executor.submit(() -> {
+            try {
+                return singleFlight.execute("key", call, timeoutMillis, listener);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private List<Future<Object>> submitFollowers(long timeoutMillis) {
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(submit(() -> {
+                calls.incrementAndGet();
+                return "follower ran the call";
+            }, timeoutMillis));
+        }
+        return followers;
+    }
+}
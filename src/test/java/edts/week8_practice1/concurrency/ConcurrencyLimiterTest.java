@@ -0,0 +1,123 @@
+package edts.week8_practice1.concurrency;
+
+import edts.week8_practice1.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrencyLimitProperties properties;
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setWindowSize(1);
+        properties.setRetryAfterSeconds(2);
+        ConcurrencyLimitProperties.Endpoint orders = new ConcurrencyLimitProperties.Endpoint();
+        orders.setInitialLimit(10);
+        properties.setEndpoints(Map.of("POST /api/orders", orders));
+        limiter = new ConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should reject a request over the endpoint's limit and count it")
+    void tryAcquire_OverLimit_RejectedAndCounted() {
+        // Given
+        assertThat(limiter.tryAcquire("GET", "/api/products/{id}")).isNotNull();
+
+        // When
+        VegasLimit rejected = limiter.tryAcquire("GET", "/api/products/{id}");
+
+        // Then
+        assertThat(rejected).isNull();
+        assertThat(meterRegistry.get("http.server.concurrency.rejected")
+                .tag("uri", "/api/products/{id}").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.concurrency.inflight")
+                .tag("uri", "/api/products/{id}").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep a separate limit per endpoint, with overridden bounds")
+    void tryAcquire_SeparateLimitsPerEndpoint() {
+        // Given
+        limiter.tryAcquire("GET", "/api/products/{id}");
+
+        // When/Then
+        assertThat(limiter.tryAcquire("GET", "/api/customers/{id}")).isNotNull();
+        assertThat(limiter.tryAcquire("POST", "/api/orders").getLimit()).isEqualTo(10);
+        assertThat(meterRegistry.get("http.server.concurrency.limit")
+                .tag("method", "POST").tag("uri", "/api/orders").gauge().value()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should answer a request over the limit with 503 and Retry-After")
+    void preHandle_OverLimit_Rejected() {
+        // Given
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(limiter);
+        interceptor.preHandle(request("GET", "/api/products/{id}"), new MockHttpServletResponse(), handler());
+
+        // When/Then
+        assertThatThrownBy(() -> interceptor.preHandle(request("GET", "/api/products/{id}"),
+                new MockHttpServletResponse(), handler()))
+                .isInstanceOfSatisfying(ConcurrencyLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("Should not back off for a 503 shed on purpose")
+    void afterCompletion_ServiceUnavailable_NoBackoff() {
+        assertThat(limitAfter(503, null)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should back off for a 500")
+    void afterCompletion_InternalServerError_BacksOff() {
+        assertThat(limitAfter(500, null)).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should back off for an unhandled exception")
+    void afterCompletion_UnhandledException_BacksOff() {
+        assertThat(limitAfter(200, new IllegalStateException("boom"))).isEqualTo(9);
+    }
+
+    /**
+     * The limit of POST /api/orders (initially 10) after one request ends with the status
+     */
+    private int limitAfter(int status, Exception ex) {
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(limiter);
+        MockHttpServletRequest request = request("POST", "/api/orders");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler());
+        response.setStatus(status);
+        interceptor.afterCompletion(request, response, handler(), ex);
+        VegasLimit limit = limiter.tryAcquire("POST", "/api/orders");
+        return limit.getLimit();
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    private static HandlerMethod handler() {
+        return mock(HandlerMethod.class);
+    }
+}
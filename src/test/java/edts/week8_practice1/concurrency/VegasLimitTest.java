@@ -0,0 +1,145 @@
+package edts.week8_practice1.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VegasLimitTest {
+
+    private static final int WINDOW_SIZE = 10;
+    private static final long RTT = 1_000_000;
+
+    @Test
+    @DisplayName("Should admit requests up to the limit")
+    void tryAcquire_UpToLimit() {
+        // Given
+        VegasLimit limit = limit(10, 2, 50);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+
+        // When/Then
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(10);
+        limit.release(RTT, false);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should grow while the latency stays at its baseline and the limit is in use")
+    void release_LowLatency_LimitGrows() {
+        // Given
+        VegasLimit limit = limit(10, 2, 50);
+
+        // When/Then
+        busyWindow(limit, RTT);
+        assertThat(limit.getLimit()).isEqualTo(16);
+        busyWindow(limit, RTT);
+        assertThat(limit.getLimit()).isEqualTo(23);
+    }
+
+    @Test
+    @DisplayName("Should not grow when less than half the limit was in use")
+    void release_LowUtilization_LimitKept() {
+        // Given
+        VegasLimit limit = limit(10, 2, 50);
+
+        // When
+        sequentialWindow(limit, RTT, false);
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should shrink when the latency shows queueing")
+    void release_Queueing_LimitShrinks() {
+        // Given
+        VegasLimit limit = limit(20, 2, 50);
+        busyWindow(limit, RTT);
+        int before = limit.getLimit();
+
+        // When
+        sequentialWindow(limit, 10 * RTT, false);
+
+        // Then
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    @DisplayName("Should back off by the ratio after a window with a failure")
+    void release_Failure_LimitBacksOff() {
+        // Given
+        VegasLimit limit = limit(20, 2, 50);
+
+        // When
+        sequentialWindow(limit, RTT, true);
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("Should not grow beyond the max limit")
+    void release_ManyFastWindows_CappedAtMax() {
+        // Given
+        VegasLimit limit = limit(10, 2, 20);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            busyWindow(limit, RTT);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should not shrink below the min limit")
+    void release_ManyFailures_FlooredAtMin() {
+        // Given
+        VegasLimit limit = limit(10, 8, 20);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            sequentialWindow(limit, RTT, true);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should clamp the initial limit into the bounds")
+    void constructor_InitialOutOfBounds_Clamped() {
+        assertThat(limit(500, 2, 50).getLimit()).isEqualTo(50);
+        assertThat(limit(1, 2, 50).getLimit()).isEqualTo(2);
+    }
+
+    private static VegasLimit limit(int initial, int min, int max) {
+        return new VegasLimit(initial, min, max, WINDOW_SIZE, 1000, 0.9);
+    }
+
+    /**
+     * One window of requests that all ran at the same time
+     */
+    private static void busyWindow(VegasLimit limit, long rttNanos) {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            limit.release(rttNanos, false);
+        }
+    }
+
+    /**
+     * One window of requests that ran one after the other
+     */
+    private static void sequentialWindow(VegasLimit limit, long rttNanos, boolean failed) {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(rttNanos, failed);
+        }
+    }
+}
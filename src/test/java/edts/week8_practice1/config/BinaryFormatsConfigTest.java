@@ -0,0 +1,175 @@
+package edts.week8_practice1.config;
+
+import edts.week8_practice1.controller.OrderController;
+import edts.week8_practice1.controller.ProductController;
+import edts.week8_practice1.dto.common.StreamingPage;
+import edts.week8_practice1.dto.order.OrderResponse;
+import edts.week8_practice1.dto.product.ProductResponse;
+import edts.week8_practice1.enums.OrderStatus;
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.logging.HotPathLoggingProperties;
+import edts.week8_practice1.service.OrderService;
+import edts.week8_practice1.service.ProductService;
+import edts.week8_practice1.stats.ProductCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.http.converter.autoconfigure.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.autoconfigure.WebMvcAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Content negotiation over Boot's MVC and Jackson setup plus the binary formats, with the
+ * services mocked. {@code default-property-inclusion} checks that the Smile mapper follows
+ * {@code spring.jackson.*} like the JSON and CBOR ones.
+ */
+@SpringBootTest(classes = BinaryFormatsConfigTest.WebConfig.class,
+        properties = "spring.jackson.default-property-inclusion=non_null")
+class BinaryFormatsConfigTest {
+
+    @Configuration
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            WebMvcAutoConfiguration.class})
+    @Import({BinaryFormatsConfig.class, JsonStreamingConfig.class, LoggingConfig.class, HotPathLoggingProperties.class,
+            OrderController.class, ProductController.class})
+    static class WebConfig {
+    }
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @MockitoBean
+    private ProductCounters productCounters;
+
+    @MockitoBean
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private CBORMapper cborMapper;
+
+    @Autowired
+    private SmileMapper smileMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        ProductResponse product = new ProductResponse();
+        product.setId(1L);
+        product.setName("Laptop");
+        product.setPrice(new BigDecimal("15000000.00"));
+        when(productService.findAllActive(any()))
+                .thenReturn(new PageImpl<>(List.of(product), PageRequest.of(0, 10), 1));
+
+        OrderResponse order = new OrderResponse();
+        order.setId(7L);
+        order.setStatus(OrderStatus.PAID);
+        when(orderService.streamByStatus(eq(OrderStatus.PAID), any(), any()))
+                .thenAnswer(invocation -> StreamingPage.of(
+                        new PageImpl<>(List.of(order), PageRequest.of(0, 10), 1), Function.identity()));
+    }
+
+    @Test
+    @DisplayName("Should stream orders as CBOR when the client accepts application/cbor")
+    void ordersByStatus_AcceptCbor_Cbor() throws Exception {
+        JsonNode body = read(cborMapper, "/api/orders/status/PAID", MediaType.APPLICATION_CBOR);
+
+        assertThat(body.get("content").get(0).get("id").asLong()).isEqualTo(7L);
+        assertThat(body.get("content").get(0).get("status").asString()).isEqualTo("PAID");
+        assertThat(body.get("totalElements").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should stream orders as Smile when the client accepts application/x-jackson-smile")
+    void ordersByStatus_AcceptSmile_Smile() throws Exception {
+        JsonNode body = read(smileMapper, "/api/orders/status/PAID", BinaryFormatsConfig.APPLICATION_SMILE);
+
+        assertThat(body.get("content").get(0).get("id").asLong()).isEqualTo(7L);
+        assertThat(body.get("totalElements").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should stream orders as JSON without an Accept header")
+    void ordersByStatus_NoAccept_Json() throws Exception {
+        JsonNode body = read(jsonMapper, "/api/orders/status/PAID", null);
+
+        assertThat(body.get("content").get(0).get("id").asLong()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should write products as CBOR when the client accepts application/cbor")
+    void products_AcceptCbor_Cbor() throws Exception {
+        JsonNode body = read(cborMapper, "/api/products", MediaType.APPLICATION_CBOR);
+
+        assertThat(body.get("content").get(0).get("name").asString()).isEqualTo("Laptop");
+    }
+
+    @Test
+    @DisplayName("Should write products as Smile with the spring.jackson settings of the JSON mapper")
+    void products_AcceptSmile_SmileWithBootSettings() throws Exception {
+        JsonNode smile = read(smileMapper, "/api/products", BinaryFormatsConfig.APPLICATION_SMILE);
+        JsonNode json = read(jsonMapper, "/api/products", MediaType.APPLICATION_JSON);
+
+        assertThat(smile.get("content").get(0).get("name").asString()).isEqualTo("Laptop");
+        assertThat(json.get("content").get(0).has("stock")).isFalse();
+        assertThat(smile.get("content").get(0).has("stock")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should write products as JSON without an Accept header")
+    void products_NoAccept_Json() throws Exception {
+        JsonNode body = read(jsonMapper, "/api/products", null);
+
+        assertThat(body.get("content").get(0).get("name").asString()).isEqualTo("Laptop");
+    }
+
+    private JsonNode read(ObjectMapper mapper, String uri, MediaType accept) throws Exception {
+        MediaType expected = accept != null ? accept : MediaType.APPLICATION_JSON;
+        MvcResult result = mockMvc.perform(accept != null ? get(uri).accept(accept) : get(uri))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(expected))
+                .andReturn();
+        return mapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
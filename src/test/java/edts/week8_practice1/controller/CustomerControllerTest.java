@@ -0,0 +1,79 @@
+package edts.week8_practice1.controller;
+
+import edts.week8_practice1.dto.customer.CustomerResponse;
+import edts.week8_practice1.enums.CustomerMembership;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.service.CustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerControllerTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 10, 9, 30);
+
+    @Mock
+    private CustomerService customerService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new CustomerController(customerService, new SampledLoggerFactory(-1))).build();
+    }
+
+    @Test
+    @DisplayName("Should load the customer once, without a version lookup, when the request has no validator")
+    void findById_Unconditional_SingleLoadWithValidators() throws Exception {
+        // Given
+        CustomerResponse customer = new CustomerResponse(1L, "John Doe", "john@example.com",
+                CustomerMembership.REGULAR, BigDecimal.ZERO, true);
+        customer.setUpdatedAt(UPDATED_AT);
+        when(customerService.findById(1L)).thenReturn(customer);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/customers/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedAt").doesNotExist())
+                .andReturn();
+
+        // Then
+        assertThat(result.getResponse().getHeaders(HttpHeaders.ETAG))
+                .containsExactly(ETags.of("customer", ETags.version(1L, UPDATED_AT)));
+        verify(customerService, never()).findVersionById(any());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 from the version lookup when If-None-Match matches")
+    void findById_MatchingETag_NotModifiedWithoutLoad() throws Exception {
+        // Given
+        when(customerService.findVersionById(1L)).thenReturn(ETags.version(1L, UPDATED_AT));
+
+        // When/Then
+        mockMvc.perform(get("/api/customers/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, ETags.of("customer", ETags.version(1L, UPDATED_AT))))
+                .andExpect(status().isNotModified());
+        verify(customerService, never()).findById(any());
+    }
+}
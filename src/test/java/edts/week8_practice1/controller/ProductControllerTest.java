@@ -0,0 +1,147 @@
+package edts.week8_practice1.controller;
+
+import edts.week8_practice1.dto.product.ProductResponse;
+import edts.week8_practice1.enums.ProductCategory;
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.repository.EntityVersion;
+import edts.week8_practice1.service.ProductService;
+import edts.week8_practice1.stats.ProductCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ProductControllerTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 10, 9, 30);
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductCounters productCounters;
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    private MockMvc mockMvc;
+    private ProductResponse product;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new ProductController(productService, productCounters, lowStockMonitor,
+                        new SampledLoggerFactory(-1))).build();
+        product = new ProductResponse(1L, "Laptop", ProductCategory.ELECTRONICS, new BigDecimal("15000000"),
+                10, true, UPDATED_AT.minusDays(5), UPDATED_AT);
+    }
+
+    @Test
+    @DisplayName("Should load the product once, without a version lookup, when the request has no validator")
+    void findById_Unconditional_SingleLoadWithValidators() throws Exception {
+        // Given
+        when(productService.findById(1L)).thenReturn(product);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertThat(result.getResponse().getHeaders(HttpHeaders.ETAG))
+                .containsExactly(ETags.of("product", ETags.version(1L, UPDATED_AT)));
+        assertThat(result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+        verify(productService, never()).findVersionById(any());
+        verify(productCounters).recordView(1L);
+    }
+
+    @Test
+    @DisplayName("Should answer 304 from the version lookup when If-None-Match matches")
+    void findById_MatchingETag_NotModifiedWithoutLoad() throws Exception {
+        // Given
+        when(productService.findVersionById(1L)).thenReturn(ETags.version(1L, UPDATED_AT));
+        String eTag = ETags.of("product", ETags.version(1L, UPDATED_AT));
+
+        // When/Then
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verify(productService, never()).findById(any());
+        verify(productCounters).recordView(1L);
+    }
+
+    @Test
+    @DisplayName("Should load the product and send the new ETag once when If-None-Match is stale")
+    void findById_StaleETag_LoadedWithNewETag() throws Exception {
+        // Given
+        when(productService.findVersionById(1L)).thenReturn(ETags.version(1L, UPDATED_AT));
+        when(productService.findById(1L)).thenReturn(product);
+        String stale = ETags.of("product", ETags.version(1L, UPDATED_AT.minusHours(1)));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, stale))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertThat(result.getResponse().getHeaders(HttpHeaders.ETAG))
+                .containsExactly(ETags.of("product", ETags.version(1L, UPDATED_AT)));
+    }
+
+    @Test
+    @DisplayName("Should load the page without a version lookup and derive its ETag from the loaded rows")
+    void findAll_Unconditional_ETagFromLoadedPage() throws Exception {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name").ascending());
+        when(productService.findAllActive(pageable)).thenReturn(new PageImpl<>(List.of(product), pageable, 1));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        String expected = ETags.ofPage("products",
+                new PageImpl<>(List.of(ETags.version(1L, UPDATED_AT)), pageable, 1));
+        assertThat(result.getResponse().getHeaders(HttpHeaders.ETAG)).containsExactly(expected);
+        verify(productService, never()).findAllActiveVersions(any());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for a page whose versions match If-None-Match")
+    void findAll_MatchingETag_NotModifiedWithoutLoad() throws Exception {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name").ascending());
+        PageImpl<EntityVersion> versions =
+                new PageImpl<>(List.of(ETags.version(1L, UPDATED_AT)), pageable, 1);
+        when(productService.findAllActiveVersions(pageable)).thenReturn(versions);
+
+        // When/Then
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, ETags.ofPage("products", versions)))
+                .andExpect(status().isNotModified());
+        verify(productService, never()).findAllActive(any());
+    }
+}
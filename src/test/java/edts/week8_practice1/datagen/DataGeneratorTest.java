@@ -0,0 +1,143 @@
+package edts.week8_practice1.datagen;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration;
+import org.springframework.boot.jdbc.autoconfigure.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the generator against the schema Hibernate creates in the {@code test} profile (H2),
+ * with statements and commits small enough that every chunk ends in a partial statement.
+ */
+@SpringBootTest(classes = DataGeneratorTest.JpaConfig.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:datagen")
+@ActiveProfiles("test")
+class DataGeneratorTest {
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class})
+    @EntityScan("edts.week8_practice1.entity")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DataGenerator generator;
+    private DataGeneratorProperties plan;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM order_status_events");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM customers");
+
+        plan = new DataGeneratorProperties();
+        plan.setCustomers(200);
+        plan.setProducts(100);
+        plan.setOrders(1_000);
+        plan.setHistoryDays(30);
+        plan.setRowsPerStatement(7);
+        plan.setStatementsPerCommit(3);
+        plan.setThreads(3);
+        generator = new DataGenerator(dataSource, plan);
+    }
+
+    @Test
+    @DisplayName("Should write the planned rows, each order with its items and status events")
+    void generate_SmallPlan_RowCountsAndReferences() {
+        // When
+        GenerationReport report = generator.generate();
+
+        // Then
+        assertThat(report.getCustomers()).isEqualTo(200).isEqualTo(count("customers"));
+        assertThat(report.getProducts()).isEqualTo(100).isEqualTo(count("products"));
+        assertThat(report.getOrders()).isEqualTo(1_000).isEqualTo(count("orders"));
+        assertThat(report.getOrderItems()).isEqualTo(count("order_items")).isBetween(1_000L, 4_000L);
+        assertThat(report.getStatusEvents()).isEqualTo(count("order_status_events"))
+                .isEqualTo(1_000 + count("orders WHERE status <> 'CREATED'"));
+        assertReferencesConsistent();
+    }
+
+    @Test
+    @DisplayName("Should skew orders towards few customers and order lines towards the hot products")
+    void generate_SmallPlan_Skewed() {
+        // When
+        generator.generate();
+
+        // Then: Zipf(1.1) over 200 customers gives rank 1 about a fifth of the orders, uniform 0.5%
+        Long topCustomerOrders = jdbcTemplate.queryForObject(
+                "SELECT MAX(n) FROM (SELECT COUNT(1) AS n FROM orders GROUP BY customer_id) t", Long.class);
+        assertThat(topCustomerOrders).isGreaterThan(100);
+        // 60% of the lines go to the single hot product (1% of 100)
+        Long topProductLines = jdbcTemplate.queryForObject(
+                "SELECT MAX(n) FROM (SELECT COUNT(1) AS n FROM order_items GROUP BY product_id) t", Long.class);
+        assertThat((double) topProductLines / count("order_items")).isGreaterThan(0.5);
+    }
+
+    @Test
+    @DisplayName("Should append a second run after the existing keys and leave the identities past them")
+    void generate_SecondRun_Appends() {
+        // Given
+        generator.generate();
+
+        // When
+        generator.generate();
+
+        // Then
+        assertThat(count("customers")).isEqualTo(400);
+        assertThat(count("orders")).isEqualTo(2_000);
+        assertThat(jdbcTemplate.queryForObject("SELECT MIN(id) FROM orders", Long.class)).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class)).isEqualTo(2_000L);
+        assertReferencesConsistent();
+        jdbcTemplate.update("INSERT INTO customers (name, email, membership_level, total_spent, active, created_at) " +
+                "VALUES ('New', 'new@example.com', 'REGULAR', 0, TRUE, CURRENT_TIMESTAMP)");
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM customers WHERE email = 'new@example.com'",
+                Long.class)).isEqualTo(401L);
+    }
+
+    private void assertReferencesConsistent() {
+        assertThat(count("orders o WHERE NOT EXISTS (SELECT 1 FROM customers c WHERE c.id = o.customer_id)"))
+                .isZero();
+        assertThat(count("order_items i WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = i.order_id)"))
+                .isZero();
+        assertThat(count("order_items i WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.id = i.product_id)"))
+                .isZero();
+        assertThat(count("orders o WHERE NOT EXISTS (SELECT 1 FROM order_items i WHERE i.order_id = o.id)"))
+                .isZero();
+        assertThat(count("orders o WHERE o.total_amount <> " +
+                "(SELECT SUM(i.quantity * i.price_at_purchase) FROM order_items i WHERE i.order_id = o.id)"))
+                .isZero();
+        assertThat(count("order_status_events e WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = e.order_id)"))
+                .isZero();
+        // CREATED (0) at checkout, then the current status at updated_at
+        assertThat(count("orders o WHERE NOT EXISTS (SELECT 1 FROM order_status_events e " +
+                "WHERE e.order_id = o.id AND e.status = 0 AND e.occurred_at = o.created_at)")).isZero();
+        assertThat(count("orders o WHERE o.status <> 'CREATED' AND NOT EXISTS (SELECT 1 FROM order_status_events e " +
+                "WHERE e.order_id = o.id AND e.status = CASE o.status WHEN 'PAID' THEN 1 ELSE 2 END " +
+                "AND e.occurred_at = o.updated_at AND e.occurred_at >= o.created_at)")).isZero();
+    }
+
+    private long count(String from) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(1) FROM " + from, Long.class);
+    }
+}
@@ -0,0 +1,132 @@
+package edts.week8_practice1.datasource;
+
+import edts.week8_practice1.dto.customer.CustomerResponse;
+import edts.week8_practice1.dto.order.OrderResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(10);
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(tracker);
+    private final ReadYourWritesAdvice advice = new ReadYourWritesAdvice(tracker);
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should pin the customer's order list to the primary right after the customer placed an order")
+    void preHandle_CustomerOrdersAfterOrderWrite_Pinned() {
+        // Given
+        write(HttpMethod.POST, "/api/orders", order(5L, 1L));
+
+        // When
+        interceptor.preHandle(get("/api/orders/customer/1", Map.of("customerId", "1")),
+                new MockHttpServletResponse(), null);
+
+        // Then
+        assertThat(ReadYourWritesContext.isPinned()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should pin GET /api/orders/{id} to the primary right after that order was created")
+    void preHandle_OrderByIdAfterCreate_Pinned() {
+        // Given
+        write(HttpMethod.POST, "/api/orders", order(5L, 1L));
+
+        // When
+        interceptor.preHandle(get("/api/orders/5", Map.of("id", "5")), new MockHttpServletResponse(), null);
+
+        // Then
+        assertThat(ReadYourWritesContext.isPinned()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should pin the customer profile to the primary right after an update")
+    void preHandle_CustomerAfterUpdate_Pinned() {
+        // Given
+        CustomerResponse customer = new CustomerResponse();
+        customer.setId(1L);
+        write(HttpMethod.PUT, "/api/customers/1", customer);
+
+        // When
+        interceptor.preHandle(get("/api/customers/1", Map.of("id", "1")), new MockHttpServletResponse(), null);
+
+        // Then
+        assertThat(ReadYourWritesContext.isPinned()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave reads of other orders and customers on the replicas")
+    void preHandle_Unrelated_NotPinned() {
+        // Given
+        write(HttpMethod.POST, "/api/orders", order(5L, 1L));
+
+        // When
+        interceptor.preHandle(get("/api/orders/6", Map.of("id", "6")), new MockHttpServletResponse(), null);
+
+        // Then
+        assertThat(ReadYourWritesContext.isPinned()).isFalse();
+        interceptor.preHandle(get("/api/customers/2", Map.of("id", "2")), new MockHttpServletResponse(), null);
+        assertThat(ReadYourWritesContext.isPinned()).isFalse();
+        interceptor.preHandle(get("/api/products/5", Map.of("id", "5")), new MockHttpServletResponse(), null);
+        assertThat(ReadYourWritesContext.isPinned()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not treat a GET response as a write")
+    void beforeBodyWrite_Get_NotRecorded() {
+        // When
+        write(HttpMethod.GET, "/api/orders/5", order(5L, 1L));
+
+        // Then
+        assertThat(tracker.orderWrittenRecently(5L)).isFalse();
+        assertThat(tracker.wroteRecently(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should pin any request that asks for strong consistency, and unpin it on completion")
+    void preHandle_StrongConsistency_PinnedUntilCompletion() {
+        // Given
+        MockHttpServletRequest request = get("/api/products", Map.of());
+        request.addHeader(ReadYourWritesInterceptor.CONSISTENCY_HEADER, "strong");
+
+        // When
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        // Then
+        assertThat(ReadYourWritesContext.isPinned()).isTrue();
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        assertThat(ReadYourWritesContext.isPinned()).isFalse();
+    }
+
+    private void write(HttpMethod method, String uri, Object body) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method.name(), uri);
+        advice.beforeBodyWrite(body, null, null, null, new ServletServerHttpRequest(request), null);
+    }
+
+    private static MockHttpServletRequest get(String uri, Map<String, String> pathVariables) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, pathVariables);
+        return request;
+    }
+
+    private static OrderResponse order(Long id, Long customerId) {
+        OrderResponse order = new OrderResponse();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        return order;
+    }
+}
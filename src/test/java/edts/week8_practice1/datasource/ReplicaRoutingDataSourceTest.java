@@ -0,0 +1,165 @@
+package edts.week8_practice1.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final HikariDataSource replica1DataSource = mock(HikariDataSource.class);
+    private final HikariDataSource replica2DataSource = mock(HikariDataSource.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+    private final ReplicaPool replica1 = new ReplicaPool("replica-1", replica1DataSource);
+    private final ReplicaPool replica2 = new ReplicaPool("replica-2", replica2DataSource);
+    private final ReplicaRoutingDataSource routing =
+            new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), meterRegistry);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1DataSource.getConnection()).thenReturn(replica1Connection);
+        when(replica2DataSource.getConnection()).thenReturn(replica2Connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+        ReplicaReadContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should serve a readOnly transaction from a replica and a read-write one from the primary")
+    void lazyProxy_ReadOnlyTransaction_Replica() {
+        // Given: the wiring of DataSourceRoutingConfig
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // When
+        Connection readConnection = readOnly.execute(status -> target(dataSource));
+        Connection writeConnection = readWrite.execute(status -> target(dataSource));
+
+        // Then
+        assertThat(readConnection).isIn(replica1Connection, replica2Connection);
+        assertThat(writeConnection).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should hand out healthy replicas in round-robin order")
+    void getConnection_HealthyReplicas_RoundRobin() throws SQLException {
+        // Given
+        ReplicaReadContext.track();
+
+        // When
+        Connection first = routing.getConnection();
+        Connection second = routing.getConnection();
+
+        // Then
+        assertThat(List.of(first, second)).containsExactlyInAnyOrder(replica1Connection, replica2Connection);
+        assertThat(ReplicaReadContext.isServedByReplica()).isTrue();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should skip an unhealthy replica")
+    void getConnection_OneUnhealthy_OtherReplica() throws SQLException {
+        // Given
+        replica1.setHealthy(false);
+
+        // When/Then
+        assertThat(routing.getConnection()).isSameAs(replica2Connection);
+        assertThat(routing.getConnection()).isSameAs(replica2Connection);
+        verify(replica1DataSource, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when every replica is unhealthy")
+    void getConnection_AllUnhealthy_Primary() throws SQLException {
+        // Given
+        replica1.setHealthy(false);
+        replica2.setHealthy(false);
+
+        // When
+        Connection connection = routing.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(reads("primary", "no-healthy-replica")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should take a failing replica out of rotation and fall back to the primary")
+    void getConnection_ReplicasFail_RemovedAndPrimary() throws SQLException {
+        // Given
+        when(replica1DataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replica2DataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // When
+        Connection connection = routing.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(replica1.isHealthy()).isFalse();
+        assertThat(replica2.isHealthy()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should read from the primary while the request is pinned after a write")
+    void getConnection_Pinned_Primary() throws SQLException {
+        // Given
+        ReadYourWritesContext.pinToPrimary();
+
+        // When
+        Connection connection = routing.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(reads("primary", "read-your-writes")).isEqualTo(1);
+        verify(replica1DataSource, never()).getConnection();
+        verify(replica2DataSource, never()).getConnection();
+    }
+
+    /**
+     * The physical connection behind the transaction's lazy proxy, fetched on first use
+     */
+    private static Connection target(DataSource dataSource) {
+        try {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            connection.createStatement();
+            return ((ConnectionProxy) connection).getTargetConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double reads(String target, String reason) {
+        return meterRegistry.get("datasource.routing.reads").tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+}
@@ -0,0 +1,185 @@
+package edts.week8_practice1.inventory;
+
+import edts.week8_practice1.entity.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class LowStockMonitorTest {
+
+    private final List<LowStockEvent> events = new ArrayList<>();
+    private LowStockMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        LowStockProperties properties = new LowStockProperties();
+        properties.setDefaultThreshold(10);
+        monitor = new LowStockMonitor(properties, event -> events.add((LowStockEvent) event), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should add a product once when its stock falls below the threshold")
+    void stockChanged_BelowThreshold_AddedOnce() {
+        // Given
+        Product product = product(1L, 5, null);
+
+        // When
+        monitor.stockChanged(product);
+        product.setStock(3);
+        monitor.stockChanged(product);
+
+        // Then
+        assertThat(monitor.lowStockProducts()).singleElement()
+                .satisfies(low -> {
+                    assertThat(low.productId()).isEqualTo(1L);
+                    assertThat(low.stock()).isEqualTo(3);
+                    assertThat(low.threshold()).isEqualTo(10);
+                });
+        assertThat(events).extracting(LowStockEvent::type).containsExactly(LowStockEvent.Type.LOW);
+    }
+
+    @Test
+    @DisplayName("Should use the product's own threshold over the default")
+    void stockChanged_OwnThreshold_Used() {
+        // When
+        monitor.stockChanged(product(1L, 15, 20));
+        monitor.stockChanged(product(2L, 5, 3));
+
+        // Then
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should remove a restocked product and publish its recovery")
+    void stockChanged_Restocked_Removed() {
+        // Given
+        Product product = product(1L, 5, null);
+        monitor.stockChanged(product);
+
+        // When
+        product.setStock(50);
+        monitor.stockChanged(product);
+
+        // Then
+        assertThat(monitor.lowStockProducts()).isEmpty();
+        assertThat(events).extracting(LowStockEvent::type)
+                .containsExactly(LowStockEvent.Type.LOW, LowStockEvent.Type.RECOVERED);
+        assertThat(events.get(1).stock()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should remove a deactivated product")
+    void stockChanged_Deactivated_Removed() {
+        // Given
+        Product product = product(1L, 5, null);
+        monitor.stockChanged(product);
+
+        // When
+        product.setActive(false);
+        monitor.stockChanged(product);
+
+        // Then
+        assertThat(monitor.lowStockProducts()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply a change only when the transaction commits")
+    void stockChanged_InTransaction_AppliedAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        monitor.stockChanged(product(1L, 5, null));
+
+        // Then
+        assertThat(monitor.lowStockProducts()).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should leave the set unchanged when the transaction rolls back")
+    void stockChanged_RolledBack_Unchanged() {
+        // Given
+        monitor.stockChanged(product(2L, 4, null));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        monitor.stockChanged(product(1L, 5, null));
+        monitor.stockChanged(product(2L, 40, null));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(2L);
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should list the lowest stock first")
+    void lowStockProducts_LowestStockFirst() {
+        // When
+        monitor.stockChanged(product(1L, 7, null));
+        monitor.stockChanged(product(2L, 2, null));
+        monitor.stockChanged(product(3L, 7, null));
+
+        // Then
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should replace the set on reconcile and publish the differences")
+    void reconcile_ReplacesSet() {
+        // Given
+        monitor.stockChanged(product(1L, 5, null));
+        monitor.stockChanged(product(2L, 5, null));
+        events.clear();
+
+        // When
+        monitor.reconcile(List.of(product(2L, 4, null), product(3L, 1, null)), true);
+
+        // Then
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(3L, 2L);
+        assertThat(events).extracting(LowStockEvent::type, LowStockEvent::productId).containsExactlyInAnyOrder(
+                tuple(LowStockEvent.Type.LOW, 3L),
+                tuple(LowStockEvent.Type.RECOVERED, 1L));
+    }
+
+    @Test
+    @DisplayName("Should load the set without events")
+    void reconcile_InitialLoad_NoEvents() {
+        // When
+        monitor.reconcile(List.of(product(1L, 5, null)), false);
+
+        // Then
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(1L);
+        assertThat(events).isEmpty();
+    }
+
+    static Product product(Long id, int stock, Integer threshold) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setStock(stock);
+        product.setLowStockThreshold(threshold);
+        product.setActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,82 @@
+package edts.week8_practice1.inventory;
+
+import edts.week8_practice1.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static edts.week8_practice1.inventory.LowStockMonitorTest.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockReconcilerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final List<LowStockEvent> events = new ArrayList<>();
+    private LowStockMonitor monitor;
+    private LowStockReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        LowStockProperties properties = new LowStockProperties();
+        properties.setDefaultThreshold(10);
+        monitor = new LowStockMonitor(properties, event -> events.add((LowStockEvent) event), new SimpleMeterRegistry());
+        reconciler = new LowStockReconciler(monitor, productRepository, properties);
+    }
+
+    @Test
+    @DisplayName("Should load the set from the database without events at startup")
+    void load_FillsSetWithoutEvents() {
+        // Given
+        when(productRepository.findAllLowStock(10)).thenReturn(List.of(product(1L, 5, null)));
+
+        // When
+        reconciler.load();
+
+        // Then
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(1L);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replace the set with the database's on periodic reconcile")
+    void reconcile_ReplacesSet() {
+        // Given
+        monitor.stockChanged(product(1L, 5, null));
+        events.clear();
+        when(productRepository.findAllLowStock(10)).thenReturn(List.of(product(2L, 3, null)));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(2L);
+        assertThat(events).extracting(LowStockEvent::type)
+                .containsExactlyInAnyOrder(LowStockEvent.Type.LOW, LowStockEvent.Type.RECOVERED);
+    }
+
+    @Test
+    @DisplayName("Should keep the current set when the query fails")
+    void reconcile_QueryFails_SetKept() {
+        // Given
+        monitor.stockChanged(product(1L, 5, null));
+        when(productRepository.findAllLowStock(10)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        assertThat(monitor.lowStockProducts()).extracting(LowStockProduct::productId).containsExactly(1L);
+    }
+}
@@ -0,0 +1,112 @@
+package edts.week8_practice1.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeteredAsyncAppenderTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    private final BlockingAppender target = new BlockingAppender();
+    private final MeteredAsyncAppender appender = new MeteredAsyncAppender();
+    private final Logger logger = context.getLogger(MeteredAsyncAppenderTest.class);
+
+    @BeforeEach
+    void setUp() {
+        target.setContext(context);
+        target.start();
+        appender.setContext(context);
+        appender.setName("ASYNC_TEST");
+        appender.setQueueSize(1);
+        appender.setNeverBlock(true);
+        appender.addAppender(target);
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        logger.detachAppender(appender);
+        root.detachAppender(appender);
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("Should count the events dropped by a full queue and export them as logging.events.dropped")
+    void append_QueueFull_DroppedAndExported() throws InterruptedException {
+        // Given: the worker is stuck writing the first event and the queue holds the second
+        appender.setDiscardingThreshold(0);
+        appender.start();
+        logger.info("first");
+        assertThat(target.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        logger.info("second");
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            logger.info("dropped {}", i);
+        }
+
+        // Then
+        assertThat(appender.getDroppedCount()).isEqualTo(3);
+        root.addAppender(appender);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new LoggingMetrics(new SampledLoggerFactory(10)).bindTo(registry);
+        assertThat(registry.get("logging.events.dropped").tag("appender", "ASYNC_TEST").functionCounter().count())
+                .isEqualTo(3);
+        assertThat(registry.get("logging.async.queue.size").tag("appender", "ASYNC_TEST").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count INFO events discarded above the discarding threshold but keep WARN")
+    void append_AboveThreshold_InfoDiscarded() throws InterruptedException {
+        // Given: the worker is stuck writing the first event and the queue holds one of two
+        appender.setQueueSize(2);
+        appender.setDiscardingThreshold(2);
+        appender.start();
+        logger.info("first");
+        assertThat(target.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        logger.info("queued");
+
+        // When: remaining capacity 1 is below the threshold
+        logger.info("discarded");
+        logger.warn("kept");
+
+        // Then
+        assertThat(appender.getDroppedCount()).isEqualTo(1);
+        assertThat(appender.getNumberOfElementsInQueue()).isEqualTo(2);
+    }
+
+    /** Blocks on the first event until the test ends. */
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package edts.week8_practice1.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SampledLoggerTest {
+
+    private static final long SECOND = 1_760_000_000_000L;
+
+    private final Clock clock = mock(Clock.class);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        events.setContext(context);
+        events.start();
+        logger = context.getLogger(SampledLoggerTest.class);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(events);
+        when(clock.millis()).thenReturn(SECOND);
+    }
+
+    @Test
+    @DisplayName("Should log a template at most max-per-second times per second and count the rest")
+    void info_OverBudget_Suppressed() {
+        // Given
+        SampledLoggerFactory factory = new SampledLoggerFactory(2, clock);
+        SampledLogger sampled = factory.getLogger(logger);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            sampled.info("Finding product by id: {}", i);
+        }
+
+        // Then
+        assertThat(events.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Finding product by id: 0", "Finding product by id: 1");
+        assertThat(factory.getSuppressedCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should attach the lines suppressed in the last second to the next logged line only")
+    void info_NextSecond_ReportsSuppressed() {
+        // Given
+        SampledLogger sampled = new SampledLoggerFactory(1, clock).getLogger(logger);
+        for (int i = 0; i < 4; i++) {
+            sampled.info("GET /api/products");
+        }
+
+        // When
+        when(clock.millis()).thenReturn(SECOND + 1_000);
+        sampled.info("GET /api/products");
+        when(clock.millis()).thenReturn(SECOND + 2_000);
+        sampled.info("GET /api/products");
+
+        // Then
+        assertThat(events.list).hasSize(3);
+        assertThat(suppressed(events.list.get(0))).isNull();
+        assertThat(suppressed(events.list.get(1))).isEqualTo(3L);
+        assertThat(suppressed(events.list.get(2))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should give every message template its own budget")
+    void info_OtherTemplate_OwnBudget() {
+        // Given
+        SampledLogger sampled = new SampledLoggerFactory(1, clock).getLogger(logger);
+
+        // When
+        sampled.info("GET /api/products");
+        sampled.info("GET /api/products");
+        sampled.info("GET /api/customers");
+
+        // Then
+        assertThat(events.list).extracting(ILoggingEvent::getMessage)
+                .containsExactly("GET /api/products", "GET /api/customers");
+    }
+
+    @Test
+    @DisplayName("Should log every line with a negative limit and none with a zero limit")
+    void info_NoLimitAndZero() {
+        // Given
+        SampledLogger unlimited = new SampledLoggerFactory(-1, clock).getLogger(logger);
+        SampledLoggerFactory silentFactory = new SampledLoggerFactory(0, clock);
+        SampledLogger silent = silentFactory.getLogger(logger);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            unlimited.info("GET /api/products");
+            silent.info("GET /api/customers");
+        }
+
+        // Then
+        assertThat(events.list).hasSize(20).allMatch(event -> event.getMessage().equals("GET /api/products"));
+        assertThat(silentFactory.getSuppressedCount()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should neither log nor count when INFO is disabled")
+    void info_InfoDisabled_Nothing() {
+        // Given
+        logger.setLevel(Level.WARN);
+        SampledLoggerFactory factory = new SampledLoggerFactory(1, clock);
+
+        // When
+        factory.getLogger(logger).info("GET /api/products");
+        factory.getLogger(logger).info("GET /api/products");
+
+        // Then
+        assertThat(events.list).isEmpty();
+        assertThat(factory.getSuppressedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep the budget exact when many threads log the same template")
+    void info_Concurrent_ExactBudget() throws Exception {
+        // Given
+        SampledLoggerFactory factory = new SampledLoggerFactory(10, clock);
+        SampledLogger sampled = factory.getLogger(logger);
+        int threads = 8;
+        int linesPerThread = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < linesPerThread; i++) {
+                        sampled.info("GET /api/orders");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(events.list).hasSize(10);
+        assertThat(factory.getSuppressedCount()).isEqualTo(threads * linesPerThread - 10);
+    }
+
+    private static Object suppressed(ILoggingEvent event) {
+        List<KeyValuePair> pairs = event.getKeyValuePairs();
+        if (pairs == null) {
+            return null;
+        }
+        return pairs.stream().filter(pair -> pair.key.equals("suppressed")).map(pair -> pair.value)
+                .findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,141 @@
+package edts.week8_practice1.maintenance;
+
+import edts.week8_practice1.entity.ArchivedOrderItem;
+import edts.week8_practice1.entity.ArchivedOrderItemsConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration;
+import org.springframework.boot.jdbc.autoconfigure.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.transaction.autoconfigure.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the archiver against the schema Hibernate creates in the {@code test} profile (H2).
+ */
+@SpringBootTest(classes = OrderArchiverTest.JpaConfig.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:order-archiver")
+@ActiveProfiles("test")
+class OrderArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 15, 12, 0);
+    private static final LocalDateTime OLD = NOW.minusDays(400);
+    private static final LocalDateTime RECENT = NOW.minusDays(10);
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan("edts.week8_practice1.entity")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM archived_orders");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("INSERT INTO customers (id, name, email, membership_level, total_spent, active, created_at) " +
+                "VALUES (1, 'John Doe', 'john@example.com', 'REGULAR', 0, TRUE, ?)", OLD);
+        jdbcTemplate.update("INSERT INTO products (id, name, category, price, stock, active, created_at) " +
+                "VALUES (1, 'Laptop', 'ELECTRONICS', 100000, 10, TRUE, ?)", OLD);
+
+        OrderArchiveProperties properties = new OrderArchiveProperties();
+        properties.setRetentionDays(365);
+        properties.setBatchSize(2);
+        archiver = new OrderArchiver(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                meterRegistry, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Should move old PAID and CANCELLED orders with their items to the archive, in batches")
+    void archive_OldFinishedOrders_MovedWithItems() {
+        // Given: three old finished orders (two batches of 2), an old CREATED and a recent PAID order
+        insertOrder(10L, "PAID", OLD, 11L, 2);
+        insertOrder(11L, "CANCELLED", OLD.plusDays(1), 12L, 1);
+        insertOrder(12L, "PAID", OLD.plusDays(2), 13L, 3);
+        insertOrder(20L, "CREATED", OLD, 21L, 1);
+        insertOrder(30L, "PAID", RECENT, 31L, 1);
+
+        // When
+        int archived = archiver.archive();
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        assertThat(meterRegistry.get("orders.archived").counter().count()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT order_id FROM archived_orders ORDER BY order_id", Long.class))
+                .containsExactly(10L, 11L, 12L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY id", Long.class))
+                .containsExactly(20L, 30L);
+        assertThat(jdbcTemplate.queryForList("SELECT order_id FROM order_items ORDER BY order_id", Long.class))
+                .containsExactly(20L, 30L);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM archived_orders WHERE order_id = 11", String.class))
+                .isEqualTo("CANCELLED");
+        assertThat(jdbcTemplate.queryForObject("SELECT created_at FROM archived_orders WHERE order_id = 10",
+                LocalDateTime.class)).isEqualTo(OLD);
+        assertThat(jdbcTemplate.queryForObject("SELECT archived_at FROM archived_orders WHERE order_id = 10",
+                LocalDateTime.class)).isEqualTo(NOW);
+        List<ArchivedOrderItem> items = new ArchivedOrderItemsConverter().convertToEntityAttribute(
+                jdbcTemplate.queryForObject("SELECT items FROM archived_orders WHERE order_id = 12", String.class));
+        assertThat(items).singleElement().satisfies(item -> {
+            assertThat(item.getId()).isEqualTo(13L);
+            assertThat(item.getProductId()).isEqualTo(1L);
+            assertThat(item.getQuantity()).isEqualTo(3);
+            assertThat(item.getPriceAtPurchase()).isEqualByComparingTo("100000");
+        });
+    }
+
+    @Test
+    @DisplayName("Should archive nothing when no finished order is past the retention")
+    void archive_NothingEligible_NoChange() {
+        // Given
+        insertOrder(20L, "CREATED", OLD, 21L, 1);
+        insertOrder(30L, "PAID", RECENT, 31L, 1);
+
+        // When
+        int archived = archiver.archive();
+
+        // Then
+        assertThat(archived).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archived_orders", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items", Long.class)).isEqualTo(2);
+    }
+
+    private void insertOrder(Long id, String status, LocalDateTime createdAt, Long itemId, int quantity) {
+        BigDecimal amount = new BigDecimal("100000").multiply(BigDecimal.valueOf(quantity));
+        jdbcTemplate.update("INSERT INTO orders (id, customer_id, total_amount, discount_amount, final_amount, " +
+                "status, created_at) VALUES (?, 1, ?, 0, ?, ?, ?)", id, amount, amount, status, createdAt);
+        jdbcTemplate.update("INSERT INTO order_items (id, order_id, product_id, quantity, price_at_purchase, " +
+                "created_at) VALUES (?, ?, 1, ?, 100000, ?)", itemId, id, quantity, createdAt);
+    }
+}
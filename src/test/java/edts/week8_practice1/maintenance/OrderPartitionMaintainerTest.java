@@ -0,0 +1,122 @@
+package edts.week8_practice1.maintenance;
+
+import edts.week8_practice1.maintenance.OrderPartitionMaintainer.Partition;
+import edts.week8_practice1.maintenance.OrderPartitionMaintainer.PartitionPlan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderPartitionMaintainerTest {
+
+    private static final Partition FUTURE = new Partition("p_future", "MAXVALUE");
+
+    @Test
+    @DisplayName("Should split December and January off p_future across the year boundary")
+    void plan_AcrossYearBoundary_ReorganizesFuture() {
+        // Given: partitions up to November 2026
+        List<Partition> partitions = monthly(YearMonth.of(2026, 9), YearMonth.of(2026, 11), FUTURE);
+
+        // When
+        PartitionPlan plan = OrderPartitionMaintainer.plan(partitions, YearMonth.of(2026, 11), 2);
+
+        // Then
+        assertThat(plan.added()).containsExactly(YearMonth.of(2026, 12), YearMonth.of(2027, 1));
+        assertThat(plan.futurePartition()).isEqualTo("p_future");
+        assertThat(plan.ddl()).isEqualTo("ALTER TABLE orders REORGANIZE PARTITION p_future INTO (" +
+                "PARTITION p202612 VALUES LESS THAN (1798761600), " +
+                "PARTITION p202701 VALUES LESS THAN (1801440000), " +
+                "PARTITION p_future VALUES LESS THAN MAXVALUE)");
+        assertThat(plan.coveredUntil()).isEqualTo(YearMonth.of(2027, 2));
+    }
+
+    @Test
+    @DisplayName("Should add the next month in December as January of the next year")
+    void plan_December_NextYearJanuary() {
+        // Given
+        List<Partition> partitions = monthly(YearMonth.of(2026, 11), YearMonth.of(2026, 12), FUTURE);
+
+        // When
+        PartitionPlan plan = OrderPartitionMaintainer.plan(partitions, YearMonth.of(2026, 12), 1);
+
+        // Then
+        assertThat(plan.added()).containsExactly(YearMonth.of(2027, 1));
+        assertThat(plan.ddl()).contains("PARTITION p202701 VALUES LESS THAN (1801440000)");
+    }
+
+    @Test
+    @DisplayName("Should append partitions with ADD PARTITION when there is no MAXVALUE partition")
+    void plan_NoFuturePartition_AddsPartitions() {
+        // Given
+        List<Partition> partitions = monthly(YearMonth.of(2026, 3), YearMonth.of(2026, 4));
+
+        // When
+        PartitionPlan plan = OrderPartitionMaintainer.plan(partitions, YearMonth.of(2026, 4), 2);
+
+        // Then
+        assertThat(plan.futurePartition()).isNull();
+        assertThat(plan.ddl()).isEqualTo("ALTER TABLE orders ADD PARTITION (" +
+                "PARTITION p202605 VALUES LESS THAN (1780272000), " +
+                "PARTITION p202606 VALUES LESS THAN (1782864000))");
+        assertThat(plan.coveredUntil()).isEqualTo(YearMonth.of(2026, 7));
+    }
+
+    @Test
+    @DisplayName("Should fill every month from the last partition on when maintenance fell behind")
+    void plan_FellBehind_FillsGap() {
+        // Given: the last partition is March 2026, it is now June
+        List<Partition> partitions = monthly(YearMonth.of(2026, 2), YearMonth.of(2026, 3), FUTURE);
+
+        // When
+        PartitionPlan plan = OrderPartitionMaintainer.plan(partitions, YearMonth.of(2026, 6), 0);
+
+        // Then
+        assertThat(plan.added()).containsExactly(YearMonth.of(2026, 4), YearMonth.of(2026, 5),
+                YearMonth.of(2026, 6));
+        assertThat(plan.ddl()).startsWith("ALTER TABLE orders REORGANIZE PARTITION p_future INTO " +
+                "(PARTITION p202604 VALUES LESS THAN (1777593600), ");
+    }
+
+    @Test
+    @DisplayName("Should plan nothing when the months ahead are already covered")
+    void plan_AlreadyCovered_NoDdl() {
+        // Given: partitions up to January 2027, three months after October 2026
+        List<Partition> partitions = monthly(YearMonth.of(2026, 10), YearMonth.of(2027, 1), FUTURE);
+
+        // When
+        PartitionPlan plan = OrderPartitionMaintainer.plan(partitions, YearMonth.of(2026, 10), 3);
+
+        // Then
+        assertThat(plan.added()).isEmpty();
+        assertThat(plan.ddl()).isNull();
+        assertThat(plan.futurePartition()).isNull();
+        assertThat(plan.coveredUntil()).isEqualTo(YearMonth.of(2027, 2));
+    }
+
+    @Test
+    @DisplayName("Should refuse a table whose only partition is MAXVALUE")
+    void plan_NoBoundedPartition_Throws() {
+        assertThatThrownBy(() -> OrderPartitionMaintainer.plan(List.of(FUTURE), YearMonth.of(2026, 10), 3))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * One partition per month from {@code first} to {@code last}, as MySQL lists them, then {@code tail}
+     */
+    private static List<Partition> monthly(YearMonth first, YearMonth last, Partition... tail) {
+        List<Partition> partitions = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            long bound = month.plusMonths(1).atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+            partitions.add(new Partition("p%d%02d".formatted(month.getYear(), month.getMonthValue()),
+                    String.valueOf(bound)));
+        }
+        partitions.addAll(List.of(tail));
+        return partitions;
+    }
+}
@@ -0,0 +1,75 @@
+package edts.week8_practice1.metrics;
+
+import edts.week8_practice1.enums.CustomerMembership;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderMetrics orderMetrics = new OrderMetrics(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should count an applied discount only once the transaction commits")
+    void discountApplied_InTransaction_CountedAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        orderMetrics.discountApplied(CustomerMembership.GOLD, true);
+
+        // Then
+        assertThat(discounts(CustomerMembership.GOLD, true)).isZero();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(discounts(CustomerMembership.GOLD, true)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not count the discount of a rolled-back attempt")
+    void discountApplied_RolledBack_NotCounted() {
+        // Given: a first attempt rolls back on a lock conflict, the retry commits
+        TransactionSynchronizationManager.initSynchronization();
+        orderMetrics.discountApplied(CustomerMembership.REGULAR, false);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        orderMetrics.discountApplied(CustomerMembership.REGULAR, false);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertThat(discounts(CustomerMembership.REGULAR, false)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count at once outside a transaction")
+    void discountApplied_NoTransaction_CountedImmediately() {
+        // When
+        orderMetrics.discountApplied(CustomerMembership.PLATINUM, false);
+
+        // Then
+        assertThat(discounts(CustomerMembership.PLATINUM, false)).isEqualTo(1);
+    }
+
+    private double discounts(CustomerMembership membership, boolean bonus) {
+        return meterRegistry.get("orders.discount.applied")
+                .tag("membership", String.valueOf(membership))
+                .tag("bonus", String.valueOf(bonus))
+                .counter().count();
+    }
+}
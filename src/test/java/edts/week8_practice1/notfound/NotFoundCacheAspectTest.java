@@ -0,0 +1,96 @@
+package edts.week8_practice1.notfound;
+
+import com.zaxxer.hikari.HikariDataSource;
+import edts.week8_practice1.datasource.ReplicaPool;
+import edts.week8_practice1.datasource.ReplicaRoutingDataSource;
+import edts.week8_practice1.exception.ResourceNotFoundException;
+import edts.week8_practice1.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotFoundCacheAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = mock(DataSource.class);
+    private final HikariDataSource replicaDataSource = mock(HikariDataSource.class);
+    private final ReplicaPool replica = new ReplicaPool("replica-1", replicaDataSource);
+    private final ReplicaRoutingDataSource routing =
+            new ReplicaRoutingDataSource(primary, List.of(replica), meterRegistry);
+    private NotFoundCache cache;
+    private NotFoundCacheAspect aspect;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        NotFoundCacheProperties properties = new NotFoundCacheProperties();
+        properties.setEnabled(true);
+        cache = new NotFoundCache(properties, meterRegistry);
+        aspect = new NotFoundCacheAspect(cache);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replicaDataSource.getConnection()).thenReturn(mock(Connection.class));
+    }
+
+    @Test
+    @DisplayName("Should remember a miss read from the primary and answer the next lookup without a call")
+    void lookup_MissFromPrimary_Remembered() throws Throwable {
+        // Given
+        replica.setHealthy(false);
+        ProceedingJoinPoint first = missingProduct(404L);
+        assertThatThrownBy(() -> aspect.lookup(first)).isInstanceOf(ResourceNotFoundException.class);
+
+        // When
+        ProceedingJoinPoint second = missingProduct(404L);
+        assertThatThrownBy(() -> aspect.lookup(second)).isInstanceOf(ResourceNotFoundException.class);
+
+        // Then
+        assertThat(cache.isMissing("Product", 404L)).isTrue();
+        verify(second, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("Should not remember a miss read from a replica, which may lag behind a create")
+    void lookup_MissFromReplica_NotRemembered() throws Throwable {
+        // Given
+        ProceedingJoinPoint first = missingProduct(404L);
+
+        // When
+        assertThatThrownBy(() -> aspect.lookup(first)).isInstanceOf(ResourceNotFoundException.class);
+
+        // Then
+        assertThat(cache.isMissing("Product", 404L)).isFalse();
+        ProceedingJoinPoint second = missingProduct(404L);
+        assertThatThrownBy(() -> aspect.lookup(second)).isInstanceOf(ResourceNotFoundException.class);
+        verify(second).proceed();
+    }
+
+    /**
+     * A call to ProductService.findById that reads through the routing data source and finds nothing
+     */
+    private ProceedingJoinPoint missingProduct(Long id) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(ProductService.class.getMethod("findById", Long.class));
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{id});
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            try (Connection ignored = routing.getConnection()) {
+                throw new ResourceNotFoundException("Product", "id", id);
+            }
+        });
+        return joinPoint;
+    }
+}
@@ -0,0 +1,140 @@
+package edts.week8_practice1.notfound;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotFoundCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotFoundCacheProperties properties;
+    private NotFoundCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotFoundCacheProperties();
+        properties.setEnabled(true);
+        cache = new NotFoundCache(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer a recorded miss from memory and count the hit")
+    void recordMissing_ThenIsMissing_Hit() {
+        // Given
+        cache.recordMissing("Product", 404L, cache.generation("Product"));
+
+        // When/Then
+        assertThat(cache.isMissing("Product", 404L)).isTrue();
+        assertThat(cache.isMissing("Product", 405L)).isFalse();
+        assertThat(cache.isMissing("Customer", 404L)).isFalse();
+        assertThat(meterRegistry.get("notfound.cache.hits").tag("resource", "Product").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("notfound.cache.entries").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop a miss when a create committed between reading the generation and recording")
+    void recordMissing_CreateInBetween_Dropped() {
+        // Given
+        long generation = cache.generation("Product");
+        cache.created("Product", 404L);
+
+        // When
+        cache.recordMissing("Product", 404L, generation);
+
+        // Then
+        assertThat(cache.isMissing("Product", 404L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a miss when only another resource was created in between")
+    void recordMissing_OtherResourceCreated_Kept() {
+        // Given
+        long generation = cache.generation("Product");
+        cache.created("Customer", 1L);
+
+        // When
+        cache.recordMissing("Product", 404L, generation);
+
+        // Then
+        assertThat(cache.isMissing("Product", 404L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should miss once the entry is older than ttl-ms")
+    void isMissing_Expired_Misses() throws InterruptedException {
+        // Given
+        properties.setTtlMs(10);
+        cache.recordMissing("Product", 404L, cache.generation("Product"));
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertThat(cache.isMissing("Product", 404L)).isFalse();
+        assertThat(meterRegistry.get("notfound.cache.entries").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should apply a create inside a transaction only after commit")
+    void created_InTransaction_AppliedAfterCommit() {
+        // Given
+        cache.recordMissing("Product", 404L, cache.generation("Product"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        cache.created("Product", 404L);
+
+        // Then
+        assertThat(cache.isMissing("Product", 404L)).isTrue();
+        long beforeCommit = cache.generation("Product");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.isMissing("Product", 404L)).isFalse();
+        cache.recordMissing("Product", 404L, beforeCommit);
+        assertThat(cache.isMissing("Product", 404L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the miss when the creating transaction rolls back")
+    void created_RolledBack_StillMissing() {
+        // Given
+        cache.recordMissing("Product", 404L, cache.generation("Product"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        cache.created("Product", 404L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(cache.isMissing("Product", 404L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not remember new misses while max-entries live entries are held")
+    void recordMissing_Full_NotRemembered() {
+        // Given
+        properties.setMaxEntries(1);
+        cache.recordMissing("Product", 1L, cache.generation("Product"));
+
+        // When
+        cache.recordMissing("Product", 2L, cache.generation("Product"));
+
+        // Then
+        assertThat(cache.isMissing("Product", 1L)).isTrue();
+        assertThat(cache.isMissing("Product", 2L)).isFalse();
+    }
+}
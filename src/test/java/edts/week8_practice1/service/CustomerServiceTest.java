@@ -5,20 +5,28 @@ import edts.week8_practice1.dto.customer.CustomerResponse;
 import edts.week8_practice1.entity.Customer;
 import edts.week8_practice1.enums.CustomerMembership;
 import edts.week8_practice1.exception.BusinessException;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.notfound.NotFoundCache;
+import edts.week8_practice1.repository.EntityVersion;
 import edts.week8_practice1.repository.CustomerRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +35,12 @@ class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private NotFoundCache notFoundCache;
+
+    @Spy
+    private SampledLoggerFactory sampledLoggerFactory = new SampledLoggerFactory(-1);
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -50,7 +64,6 @@ class CustomerServiceTest {
     @DisplayName("Should create customer successfully")
     void createCustomer_Success() {
         // Given
-        when(customerRepository.findActiveByEmail(anyString())).thenReturn(Optional.empty());
         when(customerRepository.save(any(Customer.class))).thenReturn(customer);
 
         // When
@@ -64,20 +77,35 @@ class CustomerServiceTest {
         assertThat(response.getTotalSpent()).isEqualByComparingTo("0");
 
         verify(customerRepository).save(any(Customer.class));
+        verify(notFoundCache).created("Customer", 1L);
     }
 
     @Test
     @DisplayName("Should throw exception when creating customer with duplicate email")
     void createCustomer_DuplicateEmail_ThrowsException() {
         // Given
-        when(customerRepository.findActiveByEmail(anyString())).thenReturn(Optional.of(customer));
+        when(customerRepository.save(any(Customer.class)))
+                .thenThrow(uniqueViolation("PUBLIC.UK_CUSTOMERS_ACTIVE_EMAIL"));
 
         // When/Then
         assertThatThrownBy(() -> customerService.createCustomer(customerRequest))
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("Email already exists");
 
-        verify(customerRepository, never()).save(any(Customer.class));
+        verify(notFoundCache, never()).created(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should rethrow integrity violations other than the email key")
+    void createCustomer_OtherConstraintViolation_Rethrown() {
+        // Given
+        DataIntegrityViolationException violation = uniqueViolation("chk_total_spent");
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        doThrow(violation).when(customerRepository).flush();
+
+        // When/Then
+        assertThatThrownBy(() -> customerService.createCustomer(customerRequest))
+                .isSameAs(violation);
     }
 
     @Test
@@ -412,24 +440,15 @@ class CustomerServiceTest {
         // Given
         CustomerRequest updateRequest = new CustomerRequest("Jane Doe", "another@example.com");
 
-        Customer anotherCustomer = new Customer();
-        anotherCustomer.setId(2L);
-        anotherCustomer.setName("Another Customer");
-        anotherCustomer.setEmail("another@example.com");
-        anotherCustomer.setMembershipLevel(CustomerMembership.REGULAR);
-        anotherCustomer.setTotalSpent(BigDecimal.ZERO);
-        anotherCustomer.setActive(true);
-
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(customerRepository.findActiveByEmail("another@example.com"))
-                .thenReturn(Optional.of(anotherCustomer));
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        // Another active customer holds the email: the flush fails on the unique key
+        doThrow(uniqueViolation("customers.uk_customers_active_email")).when(customerRepository).flush();
 
         // When/Then
         assertThatThrownBy(() -> customerService.updateCustomer(1L, updateRequest))
                 .isInstanceOf(edts.week8_practice1.exception.BusinessException.class)
                 .hasMessageContaining("Email already exists");
-
-        verify(customerRepository, never()).save(any(Customer.class));
     }
 
     @Test
@@ -439,8 +458,6 @@ class CustomerServiceTest {
         CustomerRequest updateRequest = new CustomerRequest("Jane Updated", customer.getEmail());
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(customerRepository.findActiveByEmail(customer.getEmail()))
-                .thenReturn(Optional.of(customer));  // Email belongs to same customer
         when(customerRepository.save(any(Customer.class))).thenReturn(customer);
 
         // When
@@ -452,8 +469,8 @@ class CustomerServiceTest {
         assertThat(response.getEmail()).isEqualTo(customer.getEmail());
 
         verify(customerRepository).findActiveById(1L);
-        verify(customerRepository).findActiveByEmail(customer.getEmail());
         verify(customerRepository).save(customer);
+        verify(customerRepository).flush();
     }
 
     @Test
@@ -486,4 +503,38 @@ class CustomerServiceTest {
 
         verify(customerRepository, never()).save(any(Customer.class));
     }
+
+    @Test
+    @DisplayName("Should find customer version by id without loading the customer")
+    void findVersionById_Success() {
+        // Given
+        EntityVersion version = mock(EntityVersion.class);
+        when(customerRepository.findActiveVersionById(1L)).thenReturn(Optional.of(version));
+
+        // When
+        EntityVersion result = customerService.findVersionById(1L);
+
+        // Then
+        assertThat(result).isSameAs(version);
+        verify(customerRepository, never()).findActiveById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when customer version not found")
+    void findVersionById_NotFound_ThrowsException() {
+        // Given
+        when(customerRepository.findActiveVersionById(999L)).thenReturn(Optional.empty());
+
+        // When/Then
+        assertThatThrownBy(() -> customerService.findVersionById(999L))
+                .isInstanceOf(edts.week8_practice1.exception.ResourceNotFoundException.class)
+                .hasMessageContaining("Customer")
+                .hasMessageContaining("999");
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", new SQLException("Duplicate entry", "23000"),
+                        constraint));
+    }
 }
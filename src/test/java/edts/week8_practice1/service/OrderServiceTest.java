@@ -1,30 +1,49 @@
 package edts.week8_practice1.service;
 
+import edts.week8_practice1.dto.common.BatchResponse;
+import edts.week8_practice1.dto.common.StreamingPage;
+import edts.week8_practice1.dto.order.OrderFields;
 import edts.week8_practice1.dto.order.OrderItemRequest;
 import edts.week8_practice1.dto.order.OrderRequest;
 import edts.week8_practice1.dto.order.OrderResponse;
+import edts.week8_practice1.dto.order.OrderStatusEventResponse;
 import edts.week8_practice1.entity.*;
 import edts.week8_practice1.enums.CustomerMembership;
 import edts.week8_practice1.enums.OrderStatus;
 import edts.week8_practice1.enums.ProductCategory;
 import edts.week8_practice1.exception.BusinessException;
+import edts.week8_practice1.exception.ResourceNotFoundException;
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.metrics.OrderMetrics;
+import edts.week8_practice1.repository.ArchivedOrderRepository;
 import edts.week8_practice1.repository.CustomerRepository;
 import edts.week8_practice1.repository.OrderRepository;
+import edts.week8_practice1.repository.OrderStatusEventRepository;
 import edts.week8_practice1.repository.ProductRepository;
+import edts.week8_practice1.stats.ProductCounters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +55,12 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private OrderStatusEventRepository orderStatusEventRepository;
+
     @Mock
     private CustomerRepository customerRepository;
 
@@ -45,6 +70,18 @@ class OrderServiceTest {
     @Mock
     private CustomerService customerService;
 
+    @Mock
+    private OrderMetrics orderMetrics;
+
+    @Mock
+    private ProductCounters productCounters;
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    @Spy
+    private SampledLoggerFactory sampledLoggerFactory = new SampledLoggerFactory(-1);
+
     @InjectMocks
     private OrderService orderService;
 
@@ -79,7 +116,7 @@ class OrderServiceTest {
     void createOrder_RegularCustomer_Success() {
         // Given
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -96,6 +133,9 @@ class OrderServiceTest {
 
         verify(orderRepository).save(any(Order.class));
         verify(productRepository).save(product);
+        verify(orderMetrics).discountApplied(CustomerMembership.REGULAR, false);
+        verify(productCounters).recordSale(1L, 5);
+        verify(lowStockMonitor).stockChanged(product);
     }
 
     @Test
@@ -105,7 +145,7 @@ class OrderServiceTest {
         customer.setMembershipLevel(CustomerMembership.GOLD);
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -126,7 +166,7 @@ class OrderServiceTest {
         customer.setMembershipLevel(CustomerMembership.PLATINUM);
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -147,7 +187,7 @@ class OrderServiceTest {
         product.setPrice(new BigDecimal("2000000")); // High price product
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -172,7 +212,7 @@ class OrderServiceTest {
         product.setPrice(new BigDecimal("2000000")); // Triggers bonus 5% = 25%, but cap at 30%
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -197,7 +237,7 @@ class OrderServiceTest {
         product.setStock(2); // Only 2 in stock, requesting 5
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
 
         // When/Then
         assertThatThrownBy(() -> orderService.createOrder(orderRequest))
@@ -205,6 +245,8 @@ class OrderServiceTest {
                 .hasMessageContaining("Not enough stock");
 
         verify(orderRepository, never()).save(any(Order.class));
+        verify(orderMetrics).stockRejected(product.getCategory());
+        verifyNoInteractions(productCounters);
     }
 
     @Test
@@ -230,6 +272,40 @@ class OrderServiceTest {
         assertThat(response.getStatus()).isEqualTo(OrderStatus.PAID);
         verify(orderRepository).save(order);
         verify(customerService).updateTotalSpent(1L, new BigDecimal("500000"));
+        verify(orderStatusEventRepository).save(argThat(event ->
+                event.getOrderId().equals(1L) && event.getStatus() == OrderStatus.PAID));
+    }
+
+    @Test
+    @DisplayName("Should return status history oldest first")
+    void findHistory_Success() {
+        // Given
+        LocalDateTime created = LocalDateTime.of(2026, 3, 1, 10, 0);
+        when(orderStatusEventRepository.findByOrderId(1L)).thenReturn(List.of(
+                new OrderStatusEvent(1L, OrderStatus.CREATED, created),
+                new OrderStatusEvent(1L, OrderStatus.PAID, created.plusMinutes(5))));
+
+        // When
+        List<OrderStatusEventResponse> history = orderService.findHistory(1L);
+
+        // Then
+        assertThat(history).extracting(OrderStatusEventResponse::getStatus)
+                .containsExactly(OrderStatus.CREATED, OrderStatus.PAID);
+        assertThat(history.get(1).getOccurredAt()).isEqualTo(created.plusMinutes(5));
+        verify(orderRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw exception for history of unknown order")
+    void findHistory_NotFound_ThrowsException() {
+        // Given
+        when(orderStatusEventRepository.findByOrderId(99L)).thenReturn(Collections.emptyList());
+        when(orderRepository.existsById(99L)).thenReturn(false);
+        when(archivedOrderRepository.existsById(99L)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.findHistory(99L))
+                .isInstanceOf(ResourceNotFoundException.class);
     }
 
     @Test
@@ -269,6 +345,7 @@ class OrderServiceTest {
 
         order.addOrderItem(orderItem);
 
+        when(orderRepository.findProductIdsByOrderId(1L)).thenReturn(List.of(1L));
         when(orderRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(order));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenReturn(order);
@@ -279,8 +356,10 @@ class OrderServiceTest {
         // Then
         assertThat(response.getStatus()).isEqualTo(OrderStatus.CANCELLED);
         assertThat(product.getStock()).isEqualTo(105); // 100 + 5 restored
+        verify(productRepository).lockByIdIn(Set.of(1L));
         verify(orderRepository).save(order);
         verify(productRepository).save(product);
+        verify(lowStockMonitor).stockChanged(product);
     }
 
     @Test
@@ -325,7 +404,7 @@ class OrderServiceTest {
     void createOrder_ProductNotFound_ThrowsException() {
         // Given
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.empty());
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of());
 
         // When/Then
         assertThatThrownBy(() -> orderService.createOrder(orderRequest))
@@ -352,8 +431,7 @@ class OrderServiceTest {
         OrderRequest request = new OrderRequest(1L, List.of(itemRequest1, itemRequest2));
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
-        when(productRepository.findActiveById(2L)).thenReturn(Optional.of(product2));
+        when(productRepository.lockActiveByIdIn(Set.of(1L, 2L))).thenReturn(List.of(product, product2));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -371,6 +449,58 @@ class OrderServiceTest {
         verify(productRepository, times(2)).save(any(Product.class));
     }
 
+    @Test
+    @DisplayName("Should lock products in id order and merge repeated lines")
+    void createOrder_RepeatedAndUnorderedItems_LocksInIdOrder() {
+        // Given
+        Product product2 = new Product();
+        product2.setId(2L);
+        product2.setName("Test Product 2");
+        product2.setPrice(new BigDecimal("200000"));
+        product2.setStock(50);
+        product2.setActive(true);
+
+        OrderRequest request = new OrderRequest(1L, List.of(
+                new OrderItemRequest(2L, 2), new OrderItemRequest(1L, 3), new OrderItemRequest(2L, 4)));
+
+        when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
+        when(productRepository.lockActiveByIdIn(anyCollection())).thenReturn(List.of(product, product2));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        OrderResponse response = orderService.createOrder(request);
+
+        // Then
+        assertThat(response.getOrderItems()).hasSize(2);
+        assertThat(response.getOrderItems().get(0).getProductId()).isEqualTo(2L);
+        assertThat(response.getOrderItems().get(0).getQuantity()).isEqualTo(6); // 2 + 4
+        assertThat(response.getTotalAmount()).isEqualByComparingTo("1500000"); // (200000*6) + (100000*3)
+        assertThat(product2.getStock()).isEqualTo(44); // 50 - 6
+
+        verify(productRepository).lockActiveByIdIn(argThat(ids -> List.copyOf(ids).equals(List.of(1L, 2L))));
+        verify(productRepository, never()).findActiveById(anyLong());
+        verify(productCounters).recordSale(2L, 6);
+    }
+
+    @Test
+    @DisplayName("Should check stock against the merged quantity of repeated lines")
+    void createOrder_RepeatedItemsExceedStock_ThrowsException() {
+        // Given
+        OrderRequest request = new OrderRequest(1L, List.of(
+                new OrderItemRequest(1L, 60), new OrderItemRequest(1L, 60)));
+
+        when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Not enough stock");
+
+        assertThat(product.getStock()).isEqualTo(100);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     @Test
     @DisplayName("Should find order by id successfully")
     void findById_Success() {
@@ -410,6 +540,175 @@ class OrderServiceTest {
         verify(orderRepository).findByIdWithDetails(999L);
     }
 
+    @Test
+    @DisplayName("Should find archived order by id when it is no longer in orders")
+    void findById_Archived_Success() {
+        // Given
+        ArchivedOrder archived = archivedOrder(7L, LocalDateTime.of(2024, 3, 1, 10, 0));
+        when(orderRepository.findByIdWithDetails(7L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByOrderId(7L)).thenReturn(Optional.of(archived));
+        when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
+
+        // When
+        OrderResponse response = orderService.findById(7L);
+
+        // Then
+        assertThat(response.getId()).isEqualTo(7L);
+        assertThat(response.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(response.getCustomer().getId()).isEqualTo(1L);
+        assertThat(response.getOrderItems()).hasSize(1);
+        assertThat(response.getOrderItems().get(0).getSubtotal()).isEqualByComparingTo("200000");
+        assertThat(response.getCreatedAt()).isEqualTo(archived.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should return only the requested fields and ids instead of unexpanded associations")
+    void findById_SparseFieldsWithoutExpansion() {
+        // Given
+        ArchivedOrder archived = archivedOrder(7L, LocalDateTime.of(2024, 3, 1, 10, 0));
+        when(orderRepository.findByIdWithDetails(7L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByOrderId(7L)).thenReturn(Optional.of(archived));
+        when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
+
+        // When
+        OrderResponse response = orderService.findById(7L,
+                OrderFields.of("customerId,orderItems,finalAmount,status", "items"));
+
+        // Then
+        assertThat(response.getId()).isEqualTo(7L);
+        assertThat(response.getCustomerId()).isEqualTo(1L);
+        assertThat(response.getCustomer()).isNull();
+        assertThat(response.getOrderItems()).hasSize(1);
+        assertThat(response.getOrderItems().get(0).getProductId()).isEqualTo(1L);
+        assertThat(response.getOrderItems().get(0).getProduct()).isNull();
+        assertThat(response.getFinalAmount()).isEqualByComparingTo("200000");
+        assertThat(response.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(response.getTotalAmount()).isNull();
+        assertThat(response.getCreatedAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject unknown order fields")
+    void orderFields_UnknownField_ThrowsException() {
+        assertThatThrownBy(() -> OrderFields.of("id,password", null))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("password");
+    }
+
+    @Test
+    @DisplayName("Should find orders by ids from orders and the archive in request order")
+    void findAllByIds_HotArchivedAndMissing() {
+        // Given
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.CREATED);
+        order.setTotalAmount(new BigDecimal("500000"));
+        order.setDiscountAmount(BigDecimal.ZERO);
+        order.setFinalAmount(new BigDecimal("500000"));
+        ArchivedOrder archived = archivedOrder(7L, LocalDateTime.of(2024, 3, 1, 10, 0));
+        List<Long> ids = List.of(7L, 999L, 1L);
+        when(orderRepository.findByIdIn(ids)).thenReturn(List.of(order));
+        when(archivedOrderRepository.findByOrderIdIn(List.of(7L, 999L))).thenReturn(List.of(archived));
+        when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
+
+        // When
+        BatchResponse<OrderResponse> response = orderService.findAllByIds(ids);
+
+        // Then
+        assertThat(response.getItems()).extracting(OrderResponse::getId).containsExactly(7L, 1L);
+        assertThat(response.getItems().get(0).getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(response.getMissing()).containsExactly(999L);
+    }
+
+    @Test
+    @DisplayName("Should merge hot and archived orders of a customer newest first")
+    void findByCustomerId_WithArchivedOrders_MergedByCreatedAt() {
+        // Given
+        Order recent = new Order();
+        recent.setId(20L);
+        recent.setCustomer(customer);
+        recent.setCreatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        Order oldCreated = new Order();
+        oldCreated.setId(5L);
+        oldCreated.setCustomer(customer);
+        oldCreated.setCreatedAt(LocalDateTime.of(2023, 1, 1, 10, 0));
+        ArchivedOrder archived = archivedOrder(7L, LocalDateTime.of(2024, 3, 1, 10, 0));
+
+        Pageable pageable = PageRequest.of(1, 1);
+        Pageable window = PageRequest.of(0, 2);
+        when(archivedOrderRepository.countByCustomerId(1L)).thenReturn(1L);
+        when(orderRepository.findByCustomerId(1L, window)).thenReturn(
+            new PageImpl<>(List.of(recent, oldCreated), window, 2));
+        when(archivedOrderRepository.findByCustomerId(1L, window)).thenReturn(List.of(archived));
+        when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
+
+        // When
+        Page<OrderResponse> responses = orderService.findByCustomerId(1L, pageable);
+
+        // Then
+        assertThat(responses.getContent()).extracting(OrderResponse::getId).containsExactly(7L);
+        assertThat(responses.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should merge newest first, ignoring the requested sort, when the customer has archived orders")
+    void findByCustomerId_WithArchivedOrders_OtherSortMergedNewestFirst() {
+        // Given
+        Order recent = new Order();
+        recent.setId(20L);
+        recent.setCustomer(customer);
+        recent.setCreatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        ArchivedOrder archived = archivedOrder(7L, LocalDateTime.of(2024, 3, 1, 10, 0));
+
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("final_amount").ascending());
+        Pageable window = PageRequest.of(0, 2);
+        when(archivedOrderRepository.countByCustomerId(1L)).thenReturn(1L);
+        when(orderRepository.findByCustomerId(1L, window)).thenReturn(new PageImpl<>(List.of(recent), window, 1));
+        when(archivedOrderRepository.findByCustomerId(1L, window)).thenReturn(List.of(archived));
+        when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
+
+        // When
+        Page<OrderResponse> responses = orderService.findByCustomerId(1L, pageable);
+
+        // Then
+        assertThat(responses.getContent()).extracting(OrderResponse::getId).containsExactly(20L, 7L);
+        assertThat(responses.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "created_at"));
+    }
+
+    @Test
+    @DisplayName("Should reject a page past the merge window when the customer has archived orders")
+    void findByCustomerId_WithArchivedOrders_TooDeep_ThrowsException() {
+        // Given
+        when(archivedOrderRepository.countByCustomerId(1L)).thenReturn(1L);
+        Pageable pageable = PageRequest.of(OrderService.MAX_MERGED_ORDERS_WINDOW / 10, 10);
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.findByCustomerId(1L, pageable))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Page too deep");
+        verify(orderRepository, never()).findByCustomerId(anyLong(), any(Pageable.class));
+        verify(archivedOrderRepository, never()).findByCustomerId(anyLong(), any(Pageable.class));
+    }
+
+    private ArchivedOrder archivedOrder(Long id, LocalDateTime createdAt) {
+        ArchivedOrder archived = new ArchivedOrder();
+        archived.setOrderId(id);
+        archived.setCustomerId(1L);
+        archived.setTotalAmount(new BigDecimal("200000"));
+        archived.setDiscountAmount(BigDecimal.ZERO);
+        archived.setFinalAmount(new BigDecimal("200000"));
+        archived.setStatus(OrderStatus.PAID);
+        archived.setCreatedAt(createdAt);
+        archived.setItems(List.of(new ArchivedOrderItem(3L, 1L, 2, new BigDecimal("100000"))));
+        return archived;
+    }
+
     @Test
     @DisplayName("Should find all orders")
     void findAll_Success() {
@@ -487,6 +786,60 @@ class OrderServiceTest {
         verify(orderRepository).findByStatus(OrderStatus.CREATED, pageable);
     }
 
+    @Test
+    @DisplayName("Should stream orders mapped in page order")
+    void streamAll_Success() {
+        // Given
+        Order first = new Order();
+        first.setId(1L);
+        first.setCustomer(customer);
+        Order second = new Order();
+        second.setId(2L);
+        second.setCustomer(customer);
+
+        org.springframework.data.domain.Pageable pageable =
+            org.springframework.data.domain.PageRequest.of(0, 2);
+        org.springframework.data.domain.Page<Order> orderPage =
+            new org.springframework.data.domain.PageImpl<>(List.of(first, second), pageable, 5);
+
+        when(orderRepository.findAll(pageable)).thenReturn(orderPage);
+
+        // When
+        StreamingPage<OrderResponse> responses = orderService.streamAll(pageable);
+
+        // Then
+        List<Long> ids = new java.util.ArrayList<>();
+        responses.forEach(response -> ids.add(response.getId()));
+        assertThat(ids).containsExactly(1L, 2L);
+        assertThat(responses.metadata().getTotalElements()).isEqualTo(5);
+        assertThat(responses.metadata().getContent()).hasSize(2);
+        verify(orderRepository).findAll(pageable);
+    }
+
+    @Test
+    @DisplayName("Should stream orders by customer id")
+    void streamByCustomerId_Success() {
+        // Given
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomer(customer);
+
+        org.springframework.data.domain.Pageable pageable =
+            org.springframework.data.domain.PageRequest.of(0, 10);
+        org.springframework.data.domain.Page<Order> orderPage =
+            new org.springframework.data.domain.PageImpl<>(List.of(order));
+
+        when(orderRepository.findByCustomerId(1L, pageable)).thenReturn(orderPage);
+
+        // When
+        StreamingPage<OrderResponse> responses = orderService.streamByCustomerId(1L, pageable);
+
+        // Then
+        assertThat(responses.toPage()).hasSize(1);
+        assertThat(responses.toPage().getContent().get(0).getCustomer().getId()).isEqualTo(customer.getId());
+        verify(orderRepository).findByCustomerId(1L, pageable);
+    }
+
     @Test
     @DisplayName("Should throw exception when paying order not found")
     void payOrder_NotFound_ThrowsException() {
@@ -562,7 +915,7 @@ class OrderServiceTest {
         product.setStock(5); // Exactly the requested quantity
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -586,7 +939,7 @@ class OrderServiceTest {
         OrderRequest request = new OrderRequest(1L, Collections.singletonList(itemRequest));
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -610,7 +963,7 @@ class OrderServiceTest {
         OrderRequest request = new OrderRequest(1L, Collections.singletonList(itemRequest));
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -633,7 +986,7 @@ class OrderServiceTest {
         OrderRequest request = new OrderRequest(1L, Collections.singletonList(itemRequest));
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -681,7 +1034,7 @@ class OrderServiceTest {
         OrderRequest request = new OrderRequest(1L, Collections.singletonList(itemRequest));
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -711,7 +1064,7 @@ class OrderServiceTest {
         OrderRequest request = new OrderRequest(1L, Collections.singletonList(itemRequest));
 
         when(customerRepository.findActiveById(1L)).thenReturn(Optional.of(customer));
-        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.lockActiveByIdIn(Set.of(1L))).thenReturn(List.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
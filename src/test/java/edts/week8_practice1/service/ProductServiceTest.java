@@ -1,32 +1,42 @@
 package edts.week8_practice1.service;
 
+import edts.week8_practice1.dto.common.BatchResponse;
 import edts.week8_practice1.dto.product.ProductRequest;
 import edts.week8_practice1.dto.product.ProductResponse;
 import edts.week8_practice1.dto.product.ProductUpdateRequest;
 import edts.week8_practice1.entity.Product;
 import edts.week8_practice1.enums.ProductCategory;
 import edts.week8_practice1.exception.BusinessException;
+import edts.week8_practice1.inventory.LowStockMonitor;
+import edts.week8_practice1.logging.SampledLoggerFactory;
+import edts.week8_practice1.notfound.NotFoundCache;
 import edts.week8_practice1.repository.OrderRepository;
+import edts.week8_practice1.repository.EntityVersion;
 import edts.week8_practice1.repository.ProductRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +48,15 @@ class ProductServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    @Mock
+    private NotFoundCache notFoundCache;
+
+    @Spy
+    private SampledLoggerFactory sampledLoggerFactory = new SampledLoggerFactory(-1);
+
     @InjectMocks
     private ProductService productService;
 
@@ -62,7 +81,6 @@ class ProductServiceTest {
     @DisplayName("Should create product successfully with valid data")
     void createProduct_Success() {
         // Given
-        when(productRepository.findActiveByName(anyString())).thenReturn(Optional.empty());
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         // When
@@ -76,6 +94,7 @@ class ProductServiceTest {
         assertThat(response.getStock()).isEqualTo(100);
 
         verify(productRepository).save(any(Product.class));
+        verify(notFoundCache).created("Product", 1L);
     }
 
     @Test
@@ -133,7 +152,6 @@ class ProductServiceTest {
         when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
         when(orderRepository.countByProductIdAndOrderStatus(1L,
                 edts.week8_practice1.enums.OrderStatus.PAID)).thenReturn(0L);
-        when(productRepository.findActiveByName("Updated Name")).thenReturn(Optional.empty());
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         // When
@@ -213,6 +231,24 @@ class ProductServiceTest {
         verify(productRepository).findAllActive(pageable);
     }
 
+    @Test
+    @DisplayName("Should find active products by popularity")
+    void findPopularActive_Success() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
+
+        when(productRepository.findPopularActive(pageable)).thenReturn(productPage);
+
+        // When
+        Page<ProductResponse> responses = productService.findPopularActive(pageable);
+
+        // Then
+        assertThat(responses).hasSize(1);
+        assertThat(responses.getContent().get(0).getName()).isEqualTo("Test Product");
+        verify(productRepository).findPopularActive(pageable);
+    }
+
     @Test
     @DisplayName("Should find product by id")
     void findById_Success() {
@@ -281,18 +317,56 @@ class ProductServiceTest {
         verify(productRepository).findActiveById(999L);
     }
 
+    @Test
+    @DisplayName("Should return products by ids in request order and report missing ids")
+    void findAllActiveByIds_RequestOrderAndMissing() {
+        // Given
+        Product other = new Product();
+        other.setId(2L);
+        other.setName("Other Product");
+        other.setCategory(ProductCategory.FOOD);
+        other.setPrice(new BigDecimal("10000"));
+        other.setStock(5);
+        other.setActive(true);
+        List<Long> ids = Arrays.asList(2L, 999L, 1L);
+        when(productRepository.findActiveByIdIn(ids)).thenReturn(Arrays.asList(product, other));
+
+        // When
+        BatchResponse<ProductResponse> response = productService.findAllActiveByIds(ids);
+
+        // Then
+        assertThat(response.getItems()).extracting(ProductResponse::getId).containsExactly(2L, 1L);
+        assertThat(response.getMissing()).containsExactly(999L);
+        verify(productRepository).findActiveByIdIn(ids);
+    }
+
     @Test
     @DisplayName("Should throw exception when creating product with duplicate name")
     void createProduct_DuplicateName_ThrowsException() {
         // Given
-        when(productRepository.findActiveByName(anyString())).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class)))
+                .thenThrow(uniqueViolation("PUBLIC.UK_PRODUCTS_ACTIVE_NAME"));
 
         // When/Then
         assertThatThrownBy(() -> productService.createProduct(productRequest))
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("Product name already exists");
 
-        verify(productRepository, never()).save(any(Product.class));
+        verify(lowStockMonitor, never()).stockChanged(any(Product.class));
+        verify(notFoundCache, never()).created(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should rethrow integrity violations other than the name key")
+    void createProduct_OtherConstraintViolation_Rethrown() {
+        // Given
+        DataIntegrityViolationException violation = uniqueViolation("chk_food_max_price");
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        doThrow(violation).when(productRepository).flush();
+
+        // When/Then
+        assertThatThrownBy(() -> productService.createProduct(productRequest))
+                .isSameAs(violation);
     }
 
     @Test
@@ -302,7 +376,6 @@ class ProductServiceTest {
         ProductRequest foodRequest = new ProductRequest("Food Item", ProductCategory.FOOD,
                 new BigDecimal("50000"), 50);
 
-        when(productRepository.findActiveByName(anyString())).thenReturn(Optional.empty());
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
             Product p = invocation.getArgument(0);
             p.setId(2L);
@@ -326,7 +399,6 @@ class ProductServiceTest {
                 null, null, null, null);
 
         when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
-        when(productRepository.findActiveByName("Test Product")).thenReturn(Optional.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         // When
@@ -349,14 +421,18 @@ class ProductServiceTest {
                 null, null, null, null);
 
         when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
-        when(productRepository.findActiveByName("Other Product")).thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        // existingProduct holds the name: the flush fails on the unique key
+        doThrow(uniqueViolation("products.uk_products_active_name")).when(productRepository).flush();
 
         // When/Then
         assertThatThrownBy(() -> productService.updateProduct(1L, updateRequest))
                 .isInstanceOf(BusinessException.class)
-                .hasMessageContaining("Product name already exists");
+                .hasMessageContaining("Product name already exists")
+                .satisfies(e -> assertThat(((BusinessException) e).getDetails())
+                        .containsExactly("Product with name '" + existingProduct.getName() + "' already exists"));
 
-        verify(productRepository, never()).save(any(Product.class));
+        verify(lowStockMonitor, never()).stockChanged(any(Product.class));
     }
 
     @Test
@@ -459,6 +535,7 @@ class ProductServiceTest {
         // Then
         assertThat(product.getStock()).isEqualTo(150);
         verify(productRepository).save(any(Product.class));
+        verify(lowStockMonitor).stockChanged(product);
     }
 
     @Test
@@ -500,7 +577,6 @@ class ProductServiceTest {
         when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
         when(orderRepository.countByProductIdAndOrderStatus(1L,
                 edts.week8_practice1.enums.OrderStatus.PAID)).thenReturn(0L);
-        when(productRepository.findActiveByName("New Name")).thenReturn(Optional.empty());
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         // When
@@ -524,7 +600,6 @@ class ProductServiceTest {
                 null, null, null, null);
 
         when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
-        when(productRepository.findActiveByName("Partial Update")).thenReturn(Optional.empty());
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         // When
@@ -598,6 +673,25 @@ class ProductServiceTest {
         verify(productRepository).save(any(Product.class));
     }
 
+    @Test
+    @DisplayName("Should update low stock threshold and report it to the low-stock monitor")
+    void updateProduct_LowStockThreshold_Success() {
+        // Given
+        ProductUpdateRequest updateRequest = new ProductUpdateRequest();
+        updateRequest.setLowStockThreshold(150);
+
+        when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        // When
+        ProductResponse response = productService.updateProduct(1L, updateRequest);
+
+        // Then
+        assertThat(response.getLowStockThreshold()).isEqualTo(150);
+        assertThat(product.getStock()).isEqualTo(100); // unchanged
+        verify(lowStockMonitor).stockChanged(product);
+    }
+
     @Test
     @DisplayName("Should update product active status when stock is zero")
     void updateProduct_ActiveWithZeroStock_Success() {
@@ -716,7 +810,6 @@ class ProductServiceTest {
         when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
         when(orderRepository.countByProductIdAndOrderStatus(1L,
                 edts.week8_practice1.enums.OrderStatus.PAID)).thenReturn(0L);
-        when(productRepository.findActiveByName("Test Product")).thenReturn(Optional.empty());
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         // When
@@ -727,4 +820,38 @@ class ProductServiceTest {
         assertThat(product.getName()).isEqualTo("Test Product");
         verify(productRepository).save(any(Product.class));
     }
+
+    @Test
+    @DisplayName("Should find product version by id without loading the product")
+    void findVersionById_Success() {
+        // Given
+        EntityVersion version = mock(EntityVersion.class);
+        when(productRepository.findActiveVersionById(1L)).thenReturn(Optional.of(version));
+
+        // When
+        EntityVersion result = productService.findVersionById(1L);
+
+        // Then
+        assertThat(result).isSameAs(version);
+        verify(productRepository, never()).findActiveById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when product version not found")
+    void findVersionById_NotFound_ThrowsException() {
+        // Given
+        when(productRepository.findActiveVersionById(999L)).thenReturn(Optional.empty());
+
+        // When/Then
+        assertThatThrownBy(() -> productService.findVersionById(999L))
+                .isInstanceOf(edts.week8_practice1.exception.ResourceNotFoundException.class)
+                .hasMessageContaining("Product")
+                .hasMessageContaining("999");
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", new SQLException("Duplicate entry", "23000"),
+                        constraint));
+    }
 }
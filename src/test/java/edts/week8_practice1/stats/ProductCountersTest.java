@@ -0,0 +1,101 @@
+package edts.week8_practice1.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCountersTest {
+
+    private final ProductCounters counters = new ProductCounters();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drain views and sales by product id and reset them")
+    void drain_ReturnsCountsAndResets() {
+        // Given
+        counters.recordView(2L);
+        counters.recordView(2L);
+        counters.recordSale(1L, 3);
+        counters.recordSale(1L, 4);
+
+        // When
+        Map<Long, ProductCounts> drained = counters.drain();
+
+        // Then
+        assertThat(drained).containsExactly(
+                Map.entry(1L, new ProductCounts(0, 7)),
+                Map.entry(2L, new ProductCounts(2, 0)));
+        assertThat(counters.drain()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the counts on snapshot")
+    void snapshot_DoesNotReset() {
+        // Given
+        counters.recordView(1L);
+
+        // When
+        Map<Long, ProductCounts> snapshot = counters.snapshot();
+
+        // Then
+        assertThat(snapshot).containsExactly(Map.entry(1L, new ProductCounts(1, 0)));
+        assertThat(counters.drain()).containsExactly(Map.entry(1L, new ProductCounts(1, 0)));
+    }
+
+    @Test
+    @DisplayName("Should add counts back on top of newer ones")
+    void add_MergesWithRecordedCounts() {
+        // Given
+        counters.recordView(1L);
+
+        // When
+        counters.add(Map.of(1L, new ProductCounts(2, 5), 3L, new ProductCounts(0, 1)));
+
+        // Then
+        assertThat(counters.drain()).containsExactly(
+                Map.entry(1L, new ProductCounts(3, 5)),
+                Map.entry(3L, new ProductCounts(0, 1)));
+    }
+
+    @Test
+    @DisplayName("Should count a sale only when the transaction commits")
+    void recordSale_InTransaction_CountedAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        counters.recordSale(1L, 2);
+
+        // Then
+        assertThat(counters.snapshot()).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(counters.snapshot()).containsExactly(Map.entry(1L, new ProductCounts(0, 2)));
+    }
+
+    @Test
+    @DisplayName("Should not count a sale of a rolled back transaction")
+    void recordSale_RolledBack_NotCounted() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        counters.recordSale(1L, 2);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(counters.drain()).isEmpty();
+    }
+}
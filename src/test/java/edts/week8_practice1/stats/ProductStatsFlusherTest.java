@@ -0,0 +1,173 @@
+package edts.week8_practice1.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStatsFlusherTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-01T10:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path directory;
+
+    private ProductCounters counters;
+    private ProductStatsJournal journal;
+    private ProductStatsFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        counters = new ProductCounters();
+        journal = new ProductStatsJournal(directory.resolve("product-stats.journal"));
+        ProductStatsProperties properties = new ProductStatsProperties();
+        properties.setBatchSize(100);
+        flusher = new ProductStatsFlusher(counters, journal, jdbcTemplate, transactionTemplate, properties,
+                new SimpleMeterRegistry(), CLOCK);
+    }
+
+    @Test
+    @DisplayName("Should upsert the drained counts in product id order and clear the journal")
+    @SuppressWarnings("unchecked")
+    void flush_UpsertsDrainedCounts() throws Exception {
+        // Given
+        runTransactions();
+        counters.recordView(5L);
+        counters.recordSale(2L, 3);
+        journal.write(counters.snapshot());
+        ArgumentCaptor<Collection<Map.Entry<Long, ProductCounts>>> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Map.Entry<Long, ProductCounts>>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+
+        // When
+        int flushed = flusher.flush();
+
+        // Then
+        assertThat(flushed).isEqualTo(2);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), eq(100), setter.capture());
+        List<Map.Entry<Long, ProductCounts>> upserted = new ArrayList<>(rows.getValue());
+        assertThat(upserted).extracting(Map.Entry::getKey).containsExactly(2L, 5L);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement, upserted.get(0));
+        verify(statement).setLong(1, 2L);
+        verify(statement).setLong(2, 0L);
+        verify(statement).setLong(3, 3L);
+        verify(statement).setObject(4, LocalDateTime.of(2025, 6, 1, 10, 0));
+
+        assertThat(counters.snapshot()).isEmpty();
+        assertThat(journal.read()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should put the counts back when the upsert fails")
+    void flush_Failure_CountsRestored() {
+        // Given
+        runTransactions();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        counters.recordView(1L);
+        counters.recordSale(1L, 2);
+
+        // When
+        int flushed = flusher.flush();
+
+        // Then
+        assertThat(flushed).isZero();
+        assertThat(counters.snapshot()).containsExactly(Map.entry(1L, new ProductCounts(1, 2)));
+    }
+
+    @Test
+    @DisplayName("Should not open a transaction when there is nothing to flush")
+    void flush_NothingPending_NoTransaction() {
+        assertThat(flusher.flush()).isZero();
+        verifyNoInteractions(transactionTemplate, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should add the journaled counts of the previous run to the counters")
+    void restore_AddsJournaledCounts() {
+        // Given
+        journal.write(Map.of(3L, new ProductCounts(4, 1)));
+        counters.recordView(3L);
+
+        // When
+        flusher.restore();
+
+        // Then
+        assertThat(counters.snapshot()).containsExactly(Map.entry(3L, new ProductCounts(5, 1)));
+    }
+
+    @Test
+    @DisplayName("Should ignore an unreadable journal")
+    void restore_UnreadableJournal_Ignored() throws Exception {
+        // Given
+        Files.writeString(journal.getFile(), "one 2 3\n");
+
+        // When
+        flusher.restore();
+
+        // Then
+        assertThat(counters.snapshot()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should journal the counts not yet flushed")
+    void writeJournal_WritesSnapshot() {
+        // Given
+        counters.recordSale(8L, 1);
+
+        // When
+        flusher.writeJournal();
+
+        // Then
+        assertThat(journal.read()).containsExactly(Map.entry(8L, new ProductCounts(0, 1)));
+        assertThat(counters.snapshot()).containsExactly(Map.entry(8L, new ProductCounts(0, 1)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactions() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+}
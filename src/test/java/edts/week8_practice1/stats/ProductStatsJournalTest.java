@@ -0,0 +1,63 @@
+package edts.week8_practice1.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductStatsJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back the written counts")
+    void write_ThenRead_RoundTrips() {
+        // Given
+        ProductStatsJournal journal = new ProductStatsJournal(directory.resolve("stats/product-stats.journal"));
+        Map<Long, ProductCounts> counts = Map.of(1L, new ProductCounts(10, 2), 7L, new ProductCounts(0, 3));
+
+        // When
+        journal.write(counts);
+
+        // Then
+        assertThat(journal.read()).isEqualTo(counts);
+        assertThat(directory.resolve("stats/product-stats.journal.tmp")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should replace the previous journal as a whole")
+    void write_ReplacesPreviousCounts() {
+        // Given
+        ProductStatsJournal journal = new ProductStatsJournal(directory.resolve("product-stats.journal"));
+        journal.write(Map.of(1L, new ProductCounts(10, 2)));
+
+        // When
+        journal.write(Map.of(2L, new ProductCounts(1, 0)));
+
+        // Then
+        assertThat(journal.read()).containsExactly(Map.entry(2L, new ProductCounts(1, 0)));
+    }
+
+    @Test
+    @DisplayName("Should read nothing when there is no journal")
+    void read_NoFile_Empty() {
+        assertThat(new ProductStatsJournal(directory.resolve("missing.journal")).read()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should skip lines without three fields")
+    void read_IncompleteLine_Skipped() throws Exception {
+        // Given
+        Path file = directory.resolve("product-stats.journal");
+        Files.writeString(file, "1 2 3\n4 5\n\n");
+
+        // When/Then
+        assertThat(new ProductStatsJournal(file).read()).containsExactly(Map.entry(1L, new ProductCounts(2, 3)));
+    }
+}